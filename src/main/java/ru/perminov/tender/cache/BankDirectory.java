@@ -0,0 +1,112 @@
+package ru.perminov.tender.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Неизменяемый справочник банков по БИК. БИК (9 цифр) хранится числом в хэш-таблице с открытой адресацией:
+ * поиск - вычисление хэша и несколько сравнений int без создания объектов.
+ * Обновление строит новый экземпляр, который подменяет старый целиком
+ */
+public final class BankDirectory {
+
+    public static final BankDirectory EMPTY = build(List.of());
+
+    /**
+     * Корреспондентский счет хранится пустой строкой, если у участника его нет (например, УФК или подразделения ЦБ):
+     * колонка banks.correspondent_account не допускает NULL
+     */
+    public record Entry(String bik, String name, String correspondentAccount) {
+        public Entry {
+            if (correspondentAccount == null) {
+                correspondentAccount = "";
+            }
+        }
+    }
+
+    // 0 - пустая ячейка, БИК 000000000 не выдается
+    private final int[] keys;
+    private final Entry[] entries;
+    private final int mask;
+    private final int size;
+
+    private BankDirectory(int[] keys, Entry[] entries, int size) {
+        this.keys = keys;
+        this.entries = entries;
+        this.mask = keys.length - 1;
+        this.size = size;
+    }
+
+    /**
+     * Строит справочник, записи с некорректным БИК пропускаются, при повторе БИК остается последняя запись
+     */
+    public static BankDirectory build(Collection<Entry> source) {
+        // Заполнение не больше половины: короткие цепочки проб при линейном поиске
+        int capacity = Integer.highestOneBit(Math.max(16, source.size() * 2 - 1)) << 1;
+        int[] keys = new int[capacity];
+        Entry[] entries = new Entry[capacity];
+        int mask = capacity - 1;
+        int size = 0;
+        for (Entry entry : source) {
+            int key = parse(entry.bik());
+            if (key <= 0) continue;
+            int slot = slot(key, mask);
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) size++;
+            keys[slot] = key;
+            entries[slot] = entry;
+        }
+        return new BankDirectory(keys, entries, size);
+    }
+
+    public Entry find(String bik) {
+        int key = parse(bik);
+        if (key <= 0) return null;
+        int slot = slot(key, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) return entries[slot];
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Новый справочник с добавленной или замененной записью
+     */
+    public BankDirectory with(Entry entry) {
+        List<Entry> all = new ArrayList<>(size + 1);
+        for (Entry existing : entries) {
+            if (existing != null) all.add(existing);
+        }
+        all.add(entry);
+        return build(all);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public static boolean isValidBik(String bik) {
+        return parse(bik) > 0;
+    }
+
+    // БИК в число без создания строк, -1 для некорректного значения
+    private static int parse(String bik) {
+        if (bik == null || bik.length() != 9) return -1;
+        int value = 0;
+        for (int i = 0; i < 9; i++) {
+            char c = bik.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int slot(int key, int mask) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,73 @@
+package ru.perminov.tender.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Фильтр Блума по строковым ключам. Отвечает "точно нет" или "возможно да",
+ * удаление не поддерживается, для очистки фильтр пересоздается. Потокобезопасен
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions ожидаемое число ключей
+     * @param falsePositiveRate  допустимая доля ложных срабатываний
+     */
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(expectedInsertions, 1);
+        double p = Math.min(Math.max(falsePositiveRate, 1e-9), 0.5);
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Math.max(m, 64), Integer.MAX_VALUE - 63);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.bits = new AtomicLongArray((bitCount + 63) / 64);
+    }
+
+    public void put(String key) {
+        long hash1 = hash(key, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(key, 0xC2B2AE3D27D4EB4FL);
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(hash1 + i * hash2);
+            long mask = 1L << (index & 63);
+            int word = index >>> 6;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash1 = hash(key, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(key, 0xC2B2AE3D27D4EB4FL);
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(hash1 + i * hash2);
+            if ((bits.get(index >>> 6) & (1L << (index & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(long combined) {
+        return (int) ((combined & Long.MAX_VALUE) % bitCount);
+    }
+
+    // 64-битный хэш FNV-1a с перемешиванием, семя задает независимую функцию
+    private static long hash(String key, long seed) {
+        long h = 0xCBF29CE484222325L ^ seed;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
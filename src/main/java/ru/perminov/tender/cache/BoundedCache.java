@@ -0,0 +1,174 @@
+package ru.perminov.tender.cache;
+
+import ru.perminov.tender.dto.CacheStatsDto;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Ограниченный по размеру LRU-кэш в памяти с необязательным временем жизни записей.
+ * Одновременные загрузки одного ключа объединяются, результат загрузки, начатой до
+ * инвалидации, в кэш не попадает
+ */
+public class BoundedCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<K, CachedValue<V>> entries;
+    private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long version;
+
+    private record CachedValue<V>(V value, long createdAt) {
+    }
+
+    public BoundedCache(String name, int maxSize) {
+        this(name, maxSize, null);
+    }
+
+    public BoundedCache(String name, int maxSize, Duration ttl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Размер кэша должен быть положительным");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl != null ? ttl.toNanos() : 0;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CachedValue<V>> eldest) {
+                if (size() > BoundedCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Возвращает значение из кэша или загружает его. Загрузчик для одного ключа
+     * выполняется одним потоком, остальные ждут его результат
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        misses.incrementAndGet();
+
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loading.putIfAbsent(key, own);
+        if (inFlight != null) {
+            return join(inFlight);
+        }
+        try {
+            long startVersion = currentVersion();
+            V value = loader.apply(key);
+            if (value != null) {
+                putIfVersion(key, value, startVersion);
+            }
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, own);
+        }
+    }
+
+    public synchronized V getIfPresent(K key) {
+        CachedValue<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry)) {
+            entries.remove(key);
+            evictions.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value();
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new CachedValue<>(value, System.nanoTime()));
+    }
+
+    public synchronized void invalidate(K key) {
+        version++;
+        entries.remove(key);
+    }
+
+    /**
+     * Удаляет записи, значения которых удовлетворяют условию
+     */
+    public synchronized void invalidateIf(Predicate<? super V> condition) {
+        version++;
+        entries.values().removeIf(entry -> condition.test(entry.value()));
+    }
+
+    public synchronized void invalidateAll() {
+        version++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public CacheStatsDto stats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+        return new CacheStatsDto(
+                name,
+                size(),
+                maxSize,
+                hitCount,
+                missCount,
+                evictions.get(),
+                total > 0 ? (double) hitCount / total : 0.0
+        );
+    }
+
+    private synchronized long currentVersion() {
+        return version;
+    }
+
+    private synchronized void putIfVersion(K key, V value, long expectedVersion) {
+        if (version == expectedVersion) {
+            entries.put(key, new CachedValue<>(value, System.nanoTime()));
+        }
+    }
+
+    private boolean isExpired(CachedValue<V> entry) {
+        return ttlNanos > 0 && System.nanoTime() - entry.createdAt() > ttlNanos;
+    }
+
+    private V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ru.perminov.tender.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import ru.perminov.tender.service.DictionaryCacheService;
+
+/**
+ * Слушатель справочных сущностей: любое изменение повышает версию справочника в кэше
+ */
+@Component
+public class DictionaryEntityListener {
+
+    private final ObjectProvider<DictionaryCacheService> dictionaryCacheService;
+
+    public DictionaryEntityListener(ObjectProvider<DictionaryCacheService> dictionaryCacheService) {
+        this.dictionaryCacheService = dictionaryCacheService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onChange(Object entity) {
+        dictionaryCacheService.getObject().changed(entity);
+    }
+}
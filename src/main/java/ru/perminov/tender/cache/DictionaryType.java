@@ -0,0 +1,46 @@
+package ru.perminov.tender.cache;
+
+import ru.perminov.tender.model.Brand;
+import ru.perminov.tender.model.Category;
+import ru.perminov.tender.model.Country;
+import ru.perminov.tender.model.Manufacturer;
+import ru.perminov.tender.model.MaterialType;
+import ru.perminov.tender.model.Unit;
+import ru.perminov.tender.model.Warranty;
+import ru.perminov.tender.model.WorkType;
+import ru.perminov.tender.model.company.CompanyType;
+import ru.perminov.tender.model.company.ContactType;
+
+/**
+ * Справочники, списки которых отдаются из кэша с ETag, и сущности, изменение которых сбрасывает кэш
+ */
+public enum DictionaryType {
+    UNITS(Unit.class),
+    CATEGORIES(Category.class),
+    MATERIAL_TYPES(MaterialType.class),
+    WORK_TYPES(WorkType.class),
+    COMPANY_TYPES(CompanyType.class),
+    CONTACT_TYPES(ContactType.class),
+    BRANDS(Brand.class),
+    MANUFACTURERS(Manufacturer.class),
+    COUNTRIES(Country.class),
+    WARRANTIES(Warranty.class);
+
+    private final Class<?> entityClass;
+
+    DictionaryType(Class<?> entityClass) {
+        this.entityClass = entityClass;
+    }
+
+    /**
+     * Справочник сущности или null, если сущность не справочная
+     */
+    public static DictionaryType of(Object entity) {
+        for (DictionaryType type : values()) {
+            if (type.entityClass.isInstance(entity)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,140 @@
+package ru.perminov.tender.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Журнал запросов: одна структурированная строка на запрос (метод, маршрут, статус, время, пользователь).
+ * Пишется в логгер access-log, который в logback-spring.xml выводится через асинхронный аппендер.
+ * Успешные быстрые запросы выборочно пропускаются по доле, заданной для маршрута,
+ * ошибки и медленные запросы пишутся всегда
+ */
+@Slf4j(topic = "access-log")
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    /**
+     * Атрибут запроса с именем аутентифицированного пользователя, заполняется JwtAuthenticationFilter
+     */
+    public static final String USER_ATTRIBUTE = AccessLogFilter.class.getName() + ".user";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, Double> routeSampleRates = new LinkedHashMap<>();
+
+    @Value("${access-log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${access-log.path-prefix:/api/}")
+    private String pathPrefix;
+
+    @Value("${access-log.sample-rate:1.0}")
+    private double defaultSampleRate;
+
+    // Формат: шаблон=доля через запятую, например /api/notifications/**=0.1,/api/dashboard/**=0.05
+    @Value("${access-log.route-sample-rates:}")
+    private String routeSampleRatesConfig;
+
+    @Value("${access-log.slow-threshold-ms:1000}")
+    private long slowThresholdMillis;
+
+    @PostConstruct
+    void parseSampleRates() {
+        for (String entry : routeSampleRatesConfig.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) continue;
+            try {
+                routeSampleRates.put(entry.substring(0, separator).trim(),
+                        Double.parseDouble(entry.substring(separator + 1).trim()));
+            } catch (NumberFormatException e) {
+                log.warn("Некорректная доля выборки журнала запросов: {}", entry);
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith(pathPrefix);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Потоковые ответы (выгрузки Excel) завершаются позже, пишем строку по окончании
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        write(request, response.getStatus(), start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                write(request, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(), start);
+            }
+        }
+    }
+
+    private void write(HttpServletRequest request, int status, long start) {
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : request.getRequestURI();
+        if (status < 400 && durationMillis < slowThresholdMillis && !sampled(route)) {
+            return;
+        }
+        Object user = request.getAttribute(USER_ATTRIBUTE);
+        log.info("method={} route={} status={} durationMs={} user={} ip={} uri={}",
+                request.getMethod(), route, status, durationMillis,
+                user != null ? user : "-", request.getRemoteAddr(), request.getRequestURI());
+    }
+
+    private boolean sampled(String route) {
+        double rate = defaultSampleRate;
+        for (Map.Entry<String, Double> entry : routeSampleRates.entrySet()) {
+            if (pathMatcher.match(entry.getKey(), route)) {
+                rate = entry.getValue();
+                break;
+            }
+        }
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+}
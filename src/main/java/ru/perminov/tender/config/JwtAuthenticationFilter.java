@@ -10,11 +10,10 @@ import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import ru.perminov.tender.service.JwtService;
+import ru.perminov.tender.service.AuthenticatedPrincipalCache;
 
 import java.io.IOException;
 
@@ -23,8 +22,7 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final AuthenticatedPrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(
@@ -35,7 +33,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
         
         String requestURI = request.getRequestURI();
         
@@ -46,9 +43,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
         
-        log.info("=== JWT Filter Debug ===");
-        log.info("Обработка запроса: {} {} от {}", request.getMethod(), requestURI, request.getRemoteAddr());
-        log.info("Authorization header: {}", authHeader);
+        log.debug("Обработка запроса: {} {} от {}", request.getMethod(), requestURI, request.getRemoteAddr());
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             log.warn("Отсутствует или неверный формат Authorization header для запроса: {}", requestURI);
@@ -57,36 +52,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         
         jwt = authHeader.substring(7);
-        log.info("Извлечен JWT токен: {}", jwt.substring(0, Math.min(20, jwt.length())) + "...");
         
         try {
-            username = jwtService.extractUsername(jwt);
-            log.info("Извлеченное имя пользователя: {}", username);
+            // Подпись токена и пользователь берутся из кэша, в установившемся режиме без запросов к БД
+            UserDetails userDetails = principalCache.authenticate(jwt);
             
-            if (username != null) {
-                log.info("Загрузка UserDetails для пользователя: {}", username);
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-                log.info("UserDetails загружены, роли: {}", userDetails.getAuthorities());
-                
-                if (jwtService.validateToken(jwt, userDetails)) {
-                    log.info("JWT токен валиден для пользователя: {}", username);
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    log.info("JWT аутентификация успешна для пользователя: {} с ролями: {}", 
-                            username, userDetails.getAuthorities());
-                } else {
-                    log.warn("JWT токен невалиден для пользователя: {}", username);
-                    // Очищаем контекст безопасности если токен невалиден
-                    SecurityContextHolder.clearContext();
-                }
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                request.setAttribute(AccessLogFilter.USER_ATTRIBUTE, userDetails.getUsername());
+                log.debug("JWT аутентификация успешна для пользователя: {} с ролями: {}", 
+                        userDetails.getUsername(), userDetails.getAuthorities());
             } else {
-                    log.warn("Не удалось извлечь имя пользователя из JWT токена");
-                // Очищаем контекст безопасности если не удалось извлечь username
+                log.warn("JWT токен невалиден для запроса: {}", requestURI);
+                // Очищаем контекст безопасности если токен невалиден
                 SecurityContextHolder.clearContext();
             }
         } catch (Exception e) {
@@ -95,7 +79,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             SecurityContextHolder.clearContext();
         }
         
-        log.info("=== End JWT Filter Debug ===");
         filterChain.doFilter(request, response);
     }
 } 
\ No newline at end of file
@@ -3,12 +3,19 @@ package ru.perminov.tender.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
+import ru.perminov.tender.http.OutboundHttpInterceptor;
+import ru.perminov.tender.http.OutboundHttpRegistry;
 
 @Configuration
 public class RestTemplateConfig {
 
+    /**
+     * Клиент внешних сервисов: пул соединений, таймауты и лимиты по хостам задаются в OutboundHttpRegistry
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(OutboundHttpRegistry outboundHttpRegistry) {
+        RestTemplate restTemplate = new RestTemplate(outboundHttpRegistry);
+        restTemplate.getInterceptors().add(new OutboundHttpInterceptor(outboundHttpRegistry));
+        return restTemplate;
     }
-} 
\ No newline at end of file
+}
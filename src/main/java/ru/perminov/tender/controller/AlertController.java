@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.perminov.tender.dto.AlertCountersDto;
 import ru.perminov.tender.dto.AlertDto;
 import ru.perminov.tender.model.Alert;
 import ru.perminov.tender.service.AlertService;
@@ -115,6 +116,14 @@ public class AlertController {
         return ResponseEntity.ok(alertService.getUnreadCount(username));
     }
     
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER', 'ROLE_VIEWER', 'ROLE_CUSTOMER')")
+    @GetMapping("/stats/counters")
+    public ResponseEntity<AlertCountersDto> getCounters(@RequestParam String username) {
+        // Опрашивается бейджем уведомлений постоянно - только debug
+        log.debug("Получен GET-запрос: счетчики алертов для пользователя: {}", username);
+        return ResponseEntity.ok(alertService.getCounters(username));
+    }
+    
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER', 'ROLE_VIEWER')")
     @GetMapping("/stats/urgent-count")
     public ResponseEntity<Integer> getUrgentCount(@RequestParam String username) {
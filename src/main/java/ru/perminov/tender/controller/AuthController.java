@@ -12,7 +12,6 @@ import ru.perminov.tender.dto.auth.RefreshTokenRequest;
 import ru.perminov.tender.service.AuthService;
 
 import java.util.Map;
-import java.util.UUID;
 
 @Slf4j
 @RestController
@@ -62,10 +61,12 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<Void> logout(@RequestHeader("Authorization") String authorization,
+                                       @RequestBody(required = false) RefreshTokenRequest request) {
         log.info("Получен POST-запрос: выход из системы");
         try {
-            authService.logout(UUID.fromString(token));
+            String token = authorization.startsWith("Bearer ") ? authorization.substring(7) : authorization;
+            authService.logout(token, request != null ? request.refreshToken() : null);
             log.info("Успешный выход из системы");
             return ResponseEntity.ok().build();
         } catch (Exception e) {
@@ -3,12 +3,18 @@ package ru.perminov.tender.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.multipart.MultipartFile;
+import ru.perminov.tender.dto.ImportResultDto;
 import ru.perminov.tender.dto.company.BankAccountDto;
+import ru.perminov.tender.service.BankDirectoryService;
 import ru.perminov.tender.service.BankService;
 
 @Slf4j
@@ -18,6 +24,7 @@ import ru.perminov.tender.service.BankService;
 public class BankController {
 
     private final BankService bankService;
+    private final BankDirectoryService bankDirectoryService;
 
     @GetMapping("/bik/{bik}")
     public ResponseEntity<BankAccountDto> getBankDetailsByBik(@PathVariable String bik) {
@@ -28,4 +35,14 @@ public class BankController {
         }
         return ResponseEntity.ok(bankDetails);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Загрузка справочника БИК ЦБ РФ (ED807, XML или ZIP)
+     */
+    @PostMapping("/directory/import")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<ImportResultDto> importDirectory(@RequestParam("file") MultipartFile file) {
+        log.info("Получен POST-запрос: загрузить справочник БИК. file={}", file.getOriginalFilename());
+        return ResponseEntity.ok(bankDirectoryService.importEd807(file));
+    }
+}
@@ -3,22 +3,23 @@ package ru.perminov.tender.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.perminov.tender.cache.DictionaryType;
 import ru.perminov.tender.dto.CategoryDtoNew;
 import ru.perminov.tender.dto.CategoryDtoUpdate;
 import ru.perminov.tender.dto.ImportResultDto;
 import ru.perminov.tender.model.Category;
 import ru.perminov.tender.service.CategoryService;
+import ru.perminov.tender.service.DictionaryCacheService;
 import ru.perminov.tender.service.ExcelService;
 
-import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -30,6 +31,7 @@ public class CategoryController {
 
     private final CategoryService categoryService;
     private final ExcelService excelService;
+    private final DictionaryCacheService dictionaryCacheService;
 
     @PostMapping
     public ResponseEntity<Category> create(@RequestBody @Valid CategoryDtoNew categoryDtoNew) {
@@ -64,24 +66,20 @@ public class CategoryController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Category>> getAll() {
+    public ResponseEntity<byte[]> getAll(WebRequest request) {
         log.info("Получен GET-запрос: получить все категории");
-        List<Category> categories = categoryService.getAll();
-        log.info("Возвращено категорий: {}", categories.size());
-        return ResponseEntity.ok(categories);
+        return dictionaryCacheService.respond(DictionaryType.CATEGORIES, request, categoryService::getAll);
     }
 
     @GetMapping("/export")
-    public ResponseEntity<Resource> exportCategories() {
+    public ResponseEntity<StreamingResponseBody> exportCategories() {
         log.info("Получен GET-запрос: экспортировать категории в Excel");
         String filename = "categories.xlsx";
-        List<Category> categories = categoryService.getAll();
-        InputStreamResource file = new InputStreamResource(excelService.exportCategoriesToExcel(categories));
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
                 .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(file);
+                .body(excelService.exportCategoriesToExcel());
     }
 
     @PostMapping("/import")
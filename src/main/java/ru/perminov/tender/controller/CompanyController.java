@@ -3,14 +3,14 @@ package ru.perminov.tender.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.perminov.tender.dto.ImportResultDto;
 import ru.perminov.tender.dto.company.CompanyDto;
 import ru.perminov.tender.dto.company.CompanyDtoForUpdate;
 import ru.perminov.tender.dto.company.CompanyDtoNew;
@@ -18,7 +18,6 @@ import ru.perminov.tender.dto.company.CompanyDtoUpdate;
 import ru.perminov.tender.dto.CompanyRelatedEntitiesDto;
 import ru.perminov.tender.service.ExcelService;
 import ru.perminov.tender.service.company.CompanyService;
-import ru.perminov.tender.service.company.impl.CompanyServiceImpl.ImportResult;
 
 import java.util.List;
 import java.util.UUID;
@@ -93,22 +92,20 @@ public class CompanyController {
     }
 
     @GetMapping("/export")
-    public ResponseEntity<Resource> exportCompanies() {
+    public ResponseEntity<StreamingResponseBody> exportCompanies() {
         log.info("Получен GET-запрос: экспортировать компании в Excel");
         String filename = "companies.xlsx";
-        List<CompanyDto> companies = companyService.getAll(null);
-        InputStreamResource file = new InputStreamResource(excelService.exportCompaniesToExcel(companies));
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
                 .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(file);
+                .body(excelService.exportCompaniesToExcel());
     }
 
     @PostMapping("/import")
-    public ResponseEntity<ImportResult> importFromExcel(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<ImportResultDto> importFromExcel(@RequestParam("file") MultipartFile file) {
         log.info("Получен POST-запрос: импортировать компании из Excel");
-        ImportResult result = companyService.importFromExcel(file);
+        ImportResultDto result = companyService.importFromExcel(file);
         return ResponseEntity.ok(result);
     }
 }
\ No newline at end of file
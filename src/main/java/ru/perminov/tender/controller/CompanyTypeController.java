@@ -4,12 +4,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.perminov.tender.cache.DictionaryType;
 import ru.perminov.tender.dto.companyType.CompanyTypeDtoNew;
 import ru.perminov.tender.dto.companyType.CompanyTypeDtoUpdate;
 import ru.perminov.tender.model.company.CompanyType;
+import ru.perminov.tender.service.DictionaryCacheService;
 import ru.perminov.tender.service.company.CompanyTypeService;
 
-import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -19,6 +21,7 @@ import java.util.UUID;
 public class CompanyTypeController {
 
     private final CompanyTypeService companyTypeService;
+    private final DictionaryCacheService dictionaryCacheService;
 
     @PostMapping
     public ResponseEntity<CompanyType> create(@RequestBody CompanyTypeDtoNew dto) {
@@ -53,10 +56,8 @@ public class CompanyTypeController {
     }
 
     @GetMapping
-    public ResponseEntity<List<CompanyType>> getAll() {
+    public ResponseEntity<byte[]> getAll(WebRequest request) {
         log.info("Получен GET-запрос: получить все типы компаний");
-        List<CompanyType> companyTypes = companyTypeService.getAll();
-        log.info("Возвращено типов компаний: {}", companyTypes.size());
-        return ResponseEntity.ok(companyTypes);
+        return dictionaryCacheService.respond(DictionaryType.COMPANY_TYPES, request, companyTypeService::getAll);
     }
 } 
\ No newline at end of file
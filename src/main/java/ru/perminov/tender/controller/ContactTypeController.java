@@ -3,21 +3,22 @@ package ru.perminov.tender.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.perminov.tender.cache.DictionaryType;
 import ru.perminov.tender.dto.ImportResultDto;
 import ru.perminov.tender.dto.company.contact.ContactTypeDto;
 import ru.perminov.tender.dto.company.contact.ContactTypeDtoNew;
 import ru.perminov.tender.dto.company.contact.ContactTypeDtoUpdate;
+import ru.perminov.tender.service.DictionaryCacheService;
 import ru.perminov.tender.service.ExcelService;
 import ru.perminov.tender.service.company.ContactTypeService;
 
-import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -28,13 +29,12 @@ public class ContactTypeController {
 
     private final ContactTypeService contactTypeService;
     private final ExcelService excelService;
+    private final DictionaryCacheService dictionaryCacheService;
 
     @GetMapping
-    public ResponseEntity<List<ContactTypeDto>> getAll() {
+    public ResponseEntity<byte[]> getAll(WebRequest request) {
         log.info("Получен GET-запрос: получить все типы контактов");
-        List<ContactTypeDto> contactTypes = contactTypeService.getAll();
-        log.info("Возвращено типов контактов: {}", contactTypes.size());
-        return ResponseEntity.ok(contactTypes);
+        return dictionaryCacheService.respond(DictionaryType.CONTACT_TYPES, request, contactTypeService::getAll);
     }
 
     @GetMapping("/{id}")
@@ -70,16 +70,14 @@ public class ContactTypeController {
     }
 
     @GetMapping("/export")
-    public ResponseEntity<Resource> exportContactTypes() {
+    public ResponseEntity<StreamingResponseBody> exportContactTypes() {
         log.info("Получен GET-запрос: экспортировать типы контактов в Excel");
         String filename = "contact_types.xlsx";
-        List<ContactTypeDto> contactTypes = contactTypeService.getAll();
-        InputStreamResource file = new InputStreamResource(excelService.exportContactTypesToExcel(contactTypes));
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
                 .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(file);
+                .body(excelService.exportContactTypesToExcel());
     }
 
     @PostMapping("/import")
@@ -2,8 +2,11 @@ package ru.perminov.tender.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.contract.ContractDto;
 import ru.perminov.tender.dto.contract.ContractDtoNew;
 import ru.perminov.tender.dto.contract.ContractDtoUpdate;
@@ -11,6 +14,7 @@ import ru.perminov.tender.dto.contract.ContractItemDto;
 import ru.perminov.tender.service.ContractService;
 import org.springframework.security.access.prepost.PreAuthorize;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import java.util.Map;
@@ -38,6 +42,21 @@ public class ContractController {
         return ResponseEntity.ok(contractService.getAllContracts());
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'VIEWER', 'CUSTOMER')")
+    @GetMapping("/page")
+    public ResponseEntity<PageResponseDto<ContractDto>> getContractPage(
+            ListingRequest listing,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) UUID supplierId,
+            @RequestParam(required = false) UUID tenderId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) String search) {
+        log.info("Получение страницы контрактов {}, status={}, supplierId={}, tenderId={}, dateFrom={}, dateTo={}, search={}",
+                listing, status, supplierId, tenderId, dateFrom, dateTo, search);
+        return ResponseEntity.ok(contractService.getContractPage(listing, status, supplierId, tenderId, dateFrom, dateTo, search));
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'VIEWER')")
     @GetMapping("/status/{status}")
     public ResponseEntity<List<ContractDto>> getContractsByStatus(@PathVariable String status) {
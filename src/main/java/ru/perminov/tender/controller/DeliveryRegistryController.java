@@ -2,16 +2,15 @@ package ru.perminov.tender.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.perminov.tender.dto.delivery.DeliveryDto;
 import ru.perminov.tender.service.DeliveryRegistryService;
 
-import java.io.ByteArrayInputStream;
 import java.util.List;
 
 @RestController
@@ -32,10 +31,10 @@ public class DeliveryRegistryController {
 
     @GetMapping("/export")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<InputStreamResource> exportDeliveriesToExcel() {
+    public ResponseEntity<StreamingResponseBody> exportDeliveriesToExcel() {
         log.info("Экспорт поставок в Excel");
         
-        ByteArrayInputStream bis = deliveryRegistryService.exportDeliveriesToExcel();
+        StreamingResponseBody body = deliveryRegistryService.exportDeliveriesToExcel();
         
         HttpHeaders headers = new HttpHeaders();
         headers.add("Content-Disposition", "attachment; filename=deliveries-registry.xlsx");
@@ -46,6 +45,6 @@ public class DeliveryRegistryController {
         return ResponseEntity.ok()
                 .headers(headers)
                 .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(new InputStreamResource(bis));
+                .body(body);
     }
 } 
\ No newline at end of file
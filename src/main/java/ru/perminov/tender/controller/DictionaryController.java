@@ -2,16 +2,28 @@ package ru.perminov.tender.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.perminov.tender.cache.DictionaryType;
+import ru.perminov.tender.dto.DictionaryCacheStatsDto;
 import ru.perminov.tender.dto.dictionary.*;
 import ru.perminov.tender.mapper.*;
 import ru.perminov.tender.model.*;
 import ru.perminov.tender.repository.*;
+import ru.perminov.tender.search.SearchType;
+import ru.perminov.tender.service.DictionaryCacheService;
+import ru.perminov.tender.service.SearchIndexService;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/dictionaries")
@@ -29,21 +41,34 @@ public class DictionaryController {
     private final CountryMapper countryMapper;
     private final WarrantyMapper warrantyMapper;
 
+    private final SearchIndexService searchIndexService;
+    private final DictionaryCacheService dictionaryCacheService;
+
+    /**
+     * Статистика кэша списков справочников (units, categories, ... warranties)
+     */
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<List<DictionaryCacheStatsDto>> getCacheStats() {
+        log.info("Получен GET-запрос: статистика кэша справочников");
+        return ResponseEntity.ok(dictionaryCacheService.getStats());
+    }
+
     // Бренды
     @GetMapping("/brands")
-    public ResponseEntity<List<BrandDto>> getAllBrands() {
+    public ResponseEntity<byte[]> getAllBrands(WebRequest request) {
         log.info("Получение всех брендов");
-        List<Brand> brands = brandRepository.findAll();
-        List<BrandDto> brandDtos = brands.stream()
+        return dictionaryCacheService.respond(DictionaryType.BRANDS, request, () -> brandRepository.findAll().stream()
                 .map(brandMapper::toDto)
-                .toList();
-        return ResponseEntity.ok(brandDtos);
+                .toList());
     }
 
     @GetMapping("/brands/search")
     public ResponseEntity<List<BrandDto>> searchBrands(@RequestParam String term) {
         log.info("Поиск брендов по термину: {}", term);
-        List<Brand> brands = brandRepository.findByNameContainingIgnoreCase(term);
+        List<Brand> brands = searchIndexService.isReady()
+                ? findInSearchOrder(brandRepository, searchIndexService.searchIds(term, SearchType.BRAND), Brand::getId)
+                : brandRepository.findByNameContainingIgnoreCase(term);
         List<BrandDto> brandDtos = brands.stream()
                 .map(brandMapper::toDto)
                 .toList();
@@ -94,19 +119,19 @@ public class DictionaryController {
 
     // Производители
     @GetMapping("/manufacturers")
-    public ResponseEntity<List<ManufacturerDto>> getAllManufacturers() {
+    public ResponseEntity<byte[]> getAllManufacturers(WebRequest request) {
         log.info("Получение всех производителей");
-        List<Manufacturer> manufacturers = manufacturerRepository.findAll();
-        List<ManufacturerDto> manufacturerDtos = manufacturers.stream()
+        return dictionaryCacheService.respond(DictionaryType.MANUFACTURERS, request, () -> manufacturerRepository.findAll().stream()
                 .map(manufacturerMapper::toDto)
-                .toList();
-        return ResponseEntity.ok(manufacturerDtos);
+                .toList());
     }
 
     @GetMapping("/manufacturers/search")
     public ResponseEntity<List<ManufacturerDto>> searchManufacturers(@RequestParam String term) {
         log.info("Поиск производителей по термину: {}", term);
-        List<Manufacturer> manufacturers = manufacturerRepository.findByNameContainingIgnoreCase(term);
+        List<Manufacturer> manufacturers = searchIndexService.isReady()
+                ? findInSearchOrder(manufacturerRepository, searchIndexService.searchIds(term, SearchType.MANUFACTURER), Manufacturer::getId)
+                : manufacturerRepository.findByNameContainingIgnoreCase(term);
         List<ManufacturerDto> manufacturerDtos = manufacturers.stream()
                 .map(manufacturerMapper::toDto)
                 .toList();
@@ -158,13 +183,11 @@ public class DictionaryController {
 
     // Страны
     @GetMapping("/countries")
-    public ResponseEntity<List<CountryDto>> getAllCountries() {
+    public ResponseEntity<byte[]> getAllCountries(WebRequest request) {
         log.info("Получение всех стран");
-        List<Country> countries = countryRepository.findAll();
-        List<CountryDto> countryDtos = countries.stream()
+        return dictionaryCacheService.respond(DictionaryType.COUNTRIES, request, () -> countryRepository.findAll().stream()
                 .map(countryMapper::toDto)
-                .toList();
-        return ResponseEntity.ok(countryDtos);
+                .toList());
     }
 
     @GetMapping("/countries/search")
@@ -193,13 +216,11 @@ public class DictionaryController {
 
     // Гарантии
     @GetMapping("/warranties")
-    public ResponseEntity<List<WarrantyDto>> getAllWarranties() {
+    public ResponseEntity<byte[]> getAllWarranties(WebRequest request) {
         log.info("Получение всех гарантий");
-        List<Warranty> warranties = warrantyRepository.findAll();
-        List<WarrantyDto> warrantyDtos = warranties.stream()
+        return dictionaryCacheService.respond(DictionaryType.WARRANTIES, request, () -> warrantyRepository.findAll().stream()
                 .map(warrantyMapper::toDto)
-                .toList();
-        return ResponseEntity.ok(warrantyDtos);
+                .toList());
     }
 
     @GetMapping("/warranties/search")
@@ -253,4 +274,11 @@ public class DictionaryController {
         warrantyRepository.deleteById(id);
         return ResponseEntity.ok().build();
     }
-} 
\ No newline at end of file
+
+    // Индекс возвращает id по релевантности, сущности загружаются одним запросом и выстраиваются в том же порядке
+    private static <T> List<T> findInSearchOrder(JpaRepository<T, UUID> repository, List<UUID> ids, Function<T, UUID> idExtractor) {
+        Map<UUID, T> byId = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(idExtractor, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -2,16 +2,15 @@ package ru.perminov.tender.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.perminov.tender.dto.document.DocumentDto;
 import ru.perminov.tender.service.DocumentRegistryService;
 
-import java.io.ByteArrayInputStream;
 import java.util.List;
 
 @RestController
@@ -32,10 +31,10 @@ public class DocumentRegistryController {
 
     @GetMapping("/export")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<InputStreamResource> exportDocumentsToExcel() {
+    public ResponseEntity<StreamingResponseBody> exportDocumentsToExcel() {
         log.info("Экспорт документов в Excel");
         
-        ByteArrayInputStream bis = documentRegistryService.exportDocumentsToExcel();
+        StreamingResponseBody body = documentRegistryService.exportDocumentsToExcel();
         
         HttpHeaders headers = new HttpHeaders();
         headers.add("Content-Disposition", "attachment; filename=documents-registry.xlsx");
@@ -46,6 +45,6 @@ public class DocumentRegistryController {
         return ResponseEntity.ok()
                 .headers(headers)
                 .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(new InputStreamResource(bis));
+                .body(body);
     }
 } 
\ No newline at end of file
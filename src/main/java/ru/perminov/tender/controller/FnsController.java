@@ -4,8 +4,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.perminov.tender.dto.FnsCompanyLookupDto;
 import ru.perminov.tender.service.FnsService;
 
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -27,4 +29,13 @@ public class FnsController {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Пакетный поиск контрагентов по списку ИНН (до 500), ошибка по отдельному ИНН возвращается в его строке
+     */
+    @PostMapping("/search/bulk")
+    public List<FnsCompanyLookupDto> searchCompanies(@RequestBody List<String> inns) {
+        log.info("Получен POST-запрос: пакетный поиск компаний в ФНС. count={}", inns.size());
+        return fnsService.searchCompanies(inns);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.perminov.tender.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import ru.perminov.tender.dto.ImportJobDto;
+import ru.perminov.tender.model.ImportType;
+import ru.perminov.tender.service.importer.ImportJobService;
+
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/import-jobs")
+@RequiredArgsConstructor
+public class ImportJobController {
+
+    private final ImportJobService importJobService;
+
+    @PostMapping
+    public ResponseEntity<ImportJobDto> submit(@RequestParam("type") ImportType type,
+                                               @RequestParam("file") MultipartFile file,
+                                               @RequestParam(required = false) String userId,
+                                               @RequestParam(required = false) String companyId) {
+        log.info("Получен POST-запрос: фоновый импорт {} из файла '{}'", type, file.getOriginalFilename());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(importJobService.submit(type, file, userId, companyId));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobDto> getJob(@PathVariable UUID id,
+                                               @RequestParam(defaultValue = "100") int errorsLimit) {
+        return importJobService.getJob(id, errorsLimit)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ImportJobDto>> getRecentJobs(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(importJobService.getRecentJobs(limit));
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ImportJobDto> resume(@PathVariable UUID id) {
+        log.info("Получен POST-запрос: возобновить задание импорта {}", id);
+        return importJobService.resume(id)
+                .map(job -> ResponseEntity.status(HttpStatus.ACCEPTED).body(job))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -2,6 +2,7 @@ package ru.perminov.tender.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -9,8 +10,11 @@ import ru.perminov.tender.dto.InvoiceDto;
 import ru.perminov.tender.dto.InvoiceDtoNew;
 import ru.perminov.tender.dto.InvoiceDtoUpdate;
 import ru.perminov.tender.dto.InvoiceItemDto;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.service.InvoiceService;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -46,6 +50,22 @@ public class InvoiceController {
         return ResponseEntity.ok(invoiceService.getAllInvoices());
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'VIEWER', 'CUSTOMER')")
+    @GetMapping("/page")
+    public ResponseEntity<PageResponseDto<InvoiceDto>> getInvoicePage(
+            ListingRequest listing,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) UUID contractId,
+            @RequestParam(required = false) UUID supplierId,
+            @RequestParam(required = false) UUID requestId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) String search) {
+        log.info("Получение страницы счетов {}, status={}, contractId={}, supplierId={}, requestId={}, dateFrom={}, dateTo={}, search={}",
+                listing, status, contractId, supplierId, requestId, dateFrom, dateTo, search);
+        return ResponseEntity.ok(invoiceService.getInvoicePage(listing, status, contractId, supplierId, requestId, dateFrom, dateTo, search));
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'VIEWER', 'CUSTOMER')")
     @GetMapping("/request/{requestId}")
     public ResponseEntity<List<InvoiceDto>> getInvoicesByRequest(@PathVariable UUID requestId) {
@@ -0,0 +1,40 @@
+package ru.perminov.tender.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import ru.perminov.tender.dto.LoggerLevelDto;
+import ru.perminov.tender.service.LogLevelService;
+
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/settings/log-levels")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class LogLevelController {
+
+    private final LogLevelService logLevelService;
+
+    @GetMapping
+    public ResponseEntity<List<LoggerLevelDto>> getLevels(@RequestParam(required = false) String prefix) {
+        log.info("Получен GET-запрос: уровни логирования, префикс={}", prefix);
+        return ResponseEntity.ok(logLevelService.getLevels(prefix));
+    }
+
+    @PutMapping("/{loggerName}")
+    public ResponseEntity<LoggerLevelDto> setLevel(@PathVariable String loggerName,
+                                                   @RequestBody Map<String, String> body) {
+        log.info("Получен PUT-запрос: уровень логирования {} -> {}", loggerName, body.get("level"));
+        try {
+            return ResponseEntity.ok(logLevelService.setLevel(loggerName, body.get("level")));
+        } catch (RuntimeException e) {
+            log.error("Ошибка при изменении уровня логирования {}: {}", loggerName, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -3,14 +3,13 @@ package ru.perminov.tender.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.perminov.tender.dto.material.MaterialDto;
 import ru.perminov.tender.dto.material.MaterialDtoNew;
 import ru.perminov.tender.dto.material.MaterialDtoUpdate;
@@ -71,16 +70,14 @@ public class MaterialController {
     }
 
     @GetMapping("/export")
-    public ResponseEntity<Resource> exportMaterials() {
+    public ResponseEntity<StreamingResponseBody> exportMaterials() {
         log.info("Получен GET-запрос: экспортировать материалы в Excel");
         String filename = "materials.xlsx";
-        List<MaterialDto> materials = materialService.getAll();
-        InputStreamResource file = new InputStreamResource(excelService.exportMaterialsToExcel(materials));
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
                 .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(file);
+                .body(excelService.exportMaterialsToExcel());
     }
 
     @PostMapping("/import")
@@ -0,0 +1,55 @@
+package ru.perminov.tender.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import ru.perminov.tender.dto.MaterialMatchDto;
+import ru.perminov.tender.dto.MaterialMatchRequestDto;
+import ru.perminov.tender.dto.MaterialMatchResultDto;
+import ru.perminov.tender.service.MaterialMatchingService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/material-matching")
+@RequiredArgsConstructor
+public class MaterialMatchingController {
+
+    private final MaterialMatchingService materialMatchingService;
+
+    /**
+     * Кандидаты из каталога для наименования поставщика или сметы
+     */
+    @GetMapping
+    public ResponseEntity<List<MaterialMatchDto>> match(@RequestParam String name,
+                                                        @RequestParam(required = false) UUID organizationId,
+                                                        @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(materialMatchingService.match(name, organizationId, limit));
+    }
+
+    /**
+     * Пакетное сопоставление строк импорта заявки или предложения
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<List<MaterialMatchResultDto>> matchAll(@RequestBody MaterialMatchRequestDto request) {
+        if (request.names() == null || request.names().size() > MaterialMatchingService.MAX_BATCH) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.info("Получен POST-запрос: сопоставить {} наименований. organizationId={}",
+                request.names().size(), request.organizationId());
+        int limit = request.limit() != null ? request.limit() : 5;
+        return ResponseEntity.ok(materialMatchingService.matchAll(request.names(), request.organizationId(), limit));
+    }
+
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Boolean>> rebuild() {
+        log.info("Получен POST-запрос: перестроить индекс сопоставления материалов");
+        return ResponseEntity.accepted().body(Map.of("started", materialMatchingService.startRebuild()));
+    }
+}
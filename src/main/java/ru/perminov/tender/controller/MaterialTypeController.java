@@ -3,22 +3,23 @@ package ru.perminov.tender.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.perminov.tender.cache.DictionaryType;
 import ru.perminov.tender.dto.MaterialTypeDtoNew;
 import ru.perminov.tender.dto.MaterialTypeDtoUpdate;
 import ru.perminov.tender.dto.ImportResultDto;
 import ru.perminov.tender.model.MaterialType;
+import ru.perminov.tender.service.DictionaryCacheService;
 import ru.perminov.tender.service.ExcelService;
 import ru.perminov.tender.service.MaterialTypeService;
 
-import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -30,6 +31,7 @@ public class MaterialTypeController {
 
     private final MaterialTypeService materialTypeService;
     private final ExcelService excelService;
+    private final DictionaryCacheService dictionaryCacheService;
 
     @PostMapping
     public ResponseEntity<MaterialType> create(@RequestBody @Valid MaterialTypeDtoNew materialTypeDtoNew) {
@@ -64,24 +66,20 @@ public class MaterialTypeController {
     }
 
     @GetMapping
-    public ResponseEntity<List<MaterialType>> getAll() {
+    public ResponseEntity<byte[]> getAll(WebRequest request) {
         log.info("Получен GET-запрос: получить все типы материалов");
-        List<MaterialType> materialTypes = materialTypeService.getAll();
-        log.info("Возвращено типов материалов: {}", materialTypes.size());
-        return ResponseEntity.ok(materialTypes);
+        return dictionaryCacheService.respond(DictionaryType.MATERIAL_TYPES, request, materialTypeService::getAll);
     }
 
     @GetMapping("/export")
-    public ResponseEntity<Resource> exportMaterialTypes() {
+    public ResponseEntity<StreamingResponseBody> exportMaterialTypes() {
         log.info("Получен GET-запрос: экспортировать типы материалов в Excel");
         String filename = "material_types.xlsx";
-        List<MaterialType> materialTypes = materialTypeService.getAll();
-        InputStreamResource file = new InputStreamResource(excelService.exportMaterialTypesToExcel(materialTypes));
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
                 .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(file);
+                .body(excelService.exportMaterialTypesToExcel());
     }
 
     @PostMapping("/import")
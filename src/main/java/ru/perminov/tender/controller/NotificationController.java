@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.perminov.tender.dto.NotificationDispatchStatsDto;
 import ru.perminov.tender.dto.NotificationDto;
 import ru.perminov.tender.model.Notification;
 import ru.perminov.tender.service.NotificationService;
@@ -65,6 +66,12 @@ public class NotificationController {
         return ResponseEntity.ok().build();
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @GetMapping("/dispatch-stats")
+    public ResponseEntity<NotificationDispatchStatsDto> getDispatchStats() {
+        return ResponseEntity.ok(notificationService.getDispatchStats());
+    }
+
     @PostMapping("/tender/{tenderId}/invite-supplier")
     public ResponseEntity<Void> inviteSupplierToTender(
             @PathVariable UUID tenderId,
@@ -2,10 +2,15 @@ package ru.perminov.tender.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import ru.perminov.tender.dto.CacheStatsDto;
 import ru.perminov.tender.dto.OrgSupplierMaterialMappingDto;
+import ru.perminov.tender.dto.OrgSupplierMaterialMappingSaveDto;
 import ru.perminov.tender.mapper.OrgSupplierMaterialMappingMapper;
 import ru.perminov.tender.model.OrgSupplierMaterialMapping;
+import ru.perminov.tender.service.OrgSupplierMaterialMappingCache;
 import ru.perminov.tender.service.OrgSupplierMaterialMappingService;
 
 import java.util.List;
@@ -18,6 +23,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class OrgSupplierMaterialMappingController {
     private final OrgSupplierMaterialMappingService service;
+    private final OrgSupplierMaterialMappingCache mappingCache;
 
     @GetMapping
     public Optional<OrgSupplierMaterialMappingDto> get(
@@ -52,6 +58,25 @@ public class OrgSupplierMaterialMappingController {
         return service.save(organizationId, supplierName, materialId, characteristicId);
     }
 
+    /**
+     * Пакетное сохранение соответствий организации, например всех строк импортированной заявки
+     */
+    @PostMapping("/bulk")
+    public List<OrgSupplierMaterialMappingDto> saveAll(
+            @RequestParam UUID organizationId,
+            @RequestBody List<OrgSupplierMaterialMappingSaveDto> items
+    ) {
+        log.info("Получен POST-запрос: сохранить {} маппингов поставщика. organizationId={}", items.size(), organizationId);
+        return service.saveAll(organizationId, items);
+    }
+
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<CacheStatsDto> getCacheStats() {
+        log.info("Получен GET-запрос: статистика кэша маппингов поставщиков");
+        return ResponseEntity.ok(mappingCache.getStats());
+    }
+
     @DeleteMapping("/{id}")
     public void delete(@PathVariable UUID id) {
         log.info("Получен DELETE-запрос: удалить маппинг поставщика. id={}", id);
@@ -0,0 +1,32 @@
+package ru.perminov.tender.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.perminov.tender.dto.OutboundTargetStatsDto;
+import ru.perminov.tender.http.OutboundHttpRegistry;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/outbound-http")
+@RequiredArgsConstructor
+public class OutboundHttpController {
+
+    private final OutboundHttpRegistry outboundHttpRegistry;
+
+    /**
+     * Запросы к внешним сервисам по хостам: состояние автомата отключения, занятые слоты, ошибки и время ответа
+     */
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<List<OutboundTargetStatsDto>> getStats() {
+        log.info("Получен GET-запрос: статистика исходящих HTTP-запросов");
+        return ResponseEntity.ok(outboundHttpRegistry.getStats());
+    }
+}
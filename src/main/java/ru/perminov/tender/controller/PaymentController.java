@@ -2,8 +2,11 @@ package ru.perminov.tender.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.payment.PaymentDto;
 import ru.perminov.tender.dto.payment.PaymentDtoNew;
 import ru.perminov.tender.service.PaymentService;
@@ -11,6 +14,7 @@ import ru.perminov.tender.repository.DeliveryRepository;
 import jakarta.persistence.EntityNotFoundException;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -47,6 +51,21 @@ public class PaymentController {
         return ResponseEntity.ok(paymentService.getAllPayments());
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'VIEWER', 'CUSTOMER')")
+    @GetMapping("/page")
+    public ResponseEntity<PageResponseDto<PaymentDto>> getPaymentPage(
+            ListingRequest listing,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) UUID contractId,
+            @RequestParam(required = false) UUID supplierId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) String search) {
+        log.info("Получение страницы платежей {}, status={}, contractId={}, supplierId={}, dateFrom={}, dateTo={}, search={}",
+                listing, status, contractId, supplierId, dateFrom, dateTo, search);
+        return ResponseEntity.ok(paymentService.getPaymentPage(listing, status, contractId, supplierId, dateFrom, dateTo, search));
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<PaymentDto>> getPaymentsByStatus(@PathVariable String status) {
         log.info("Получение платежей по статусу: {}", status);
@@ -5,7 +5,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import ru.perminov.tender.dto.CacheStatsDto;
 import ru.perminov.tender.dto.tender.PriceAnalysisDto;
 import ru.perminov.tender.dto.tender.SupplierPriceDto;
 import ru.perminov.tender.dto.tender.PriceSummaryDto;
@@ -72,6 +74,13 @@ public class PriceAnalysisController {
         return ResponseEntity.ok(priceAnalysisService.getSupplierRecommendations(tenderId));
     }
 
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<CacheStatsDto> getCacheStats() {
+        log.info("Получен GET-запрос: статистика кэша анализа цен");
+        return ResponseEntity.ok(priceAnalysisService.getCacheStats());
+    }
+
     @GetMapping("/tender/{tenderId}/export")
     public ResponseEntity<byte[]> exportPriceAnalysisToExcel(@PathVariable UUID tenderId) {
         try {
@@ -3,8 +3,6 @@ package ru.perminov.tender.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +14,7 @@ import ru.perminov.tender.dto.project.ProjectDtoUpdate;
 import ru.perminov.tender.service.ExcelService;
 import ru.perminov.tender.service.ProjectService;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -68,15 +67,13 @@ public class ProjectController {
     }
 
     @GetMapping("/export")
-    public ResponseEntity<Resource> exportProjects() {
+    public ResponseEntity<StreamingResponseBody> exportProjects() {
         log.info("Получен GET-запрос: экспортировать проекты в Excel");
         String filename = "projects.xlsx";
-        List<ProjectDto> projects = projectService.getAll();
-        InputStreamResource file = new InputStreamResource(excelService.exportProjectsToExcel(projects));
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
                 .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(file);
+                .body(excelService.exportProjectsToExcel());
     }
 
     @PostMapping("/import")
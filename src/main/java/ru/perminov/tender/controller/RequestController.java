@@ -2,13 +2,17 @@ package ru.perminov.tender.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.RequestDto;
 import ru.perminov.tender.dto.RequestRelatedEntitiesDto;
 import ru.perminov.tender.service.RequestService;
 import jakarta.validation.Valid;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -33,6 +37,21 @@ public class RequestController {
         return ResponseEntity.ok(requests);
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'CUSTOMER', 'VIEWER')")
+    @GetMapping("/page")
+    public ResponseEntity<PageResponseDto<RequestDto>> getPage(
+            ListingRequest listing,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) UUID organizationId,
+            @RequestParam(required = false) UUID projectId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) String search) {
+        log.info("Получен GET-запрос: страница заявок {}, status={}, organizationId={}, projectId={}, dateFrom={}, dateTo={}, search={}",
+                listing, status, organizationId, projectId, dateFrom, dateTo, search);
+        return ResponseEntity.ok(requestService.findPage(listing, status, organizationId, projectId, dateFrom, dateTo, search));
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'CUSTOMER', 'VIEWER')")
     @GetMapping("/{id}")
     public ResponseEntity<RequestDto> getById(@PathVariable UUID id) {
@@ -2,12 +2,20 @@ package ru.perminov.tender.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.RequestProcessDto;
+import ru.perminov.tender.dto.RequestProcessSummaryDto;
 import ru.perminov.tender.service.RequestProcessService;
+import ru.perminov.tender.service.process.RequestProcessSummaryService;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -18,6 +26,7 @@ import java.util.UUID;
 public class RequestProcessController {
 
     private final RequestProcessService requestProcessService;
+    private final RequestProcessSummaryService requestProcessSummaryService;
 
     @GetMapping("/{requestId}")
     public ResponseEntity<RequestProcessDto> getRequestProcess(@PathVariable UUID requestId) {
@@ -45,6 +54,49 @@ public class RequestProcessController {
         }
     }
 
+    /**
+     * Страница процессов заявок с фильтрами реестра заявок. brief=true отдает только счетчики и суммы
+     */
+    @GetMapping("/page")
+    public ResponseEntity<PageResponseDto<RequestProcessDto>> getRequestProcessPage(
+            ListingRequest listing,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) UUID organizationId,
+            @RequestParam(required = false) UUID projectId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean brief) {
+        log.info("Получение страницы процессов заявок {}, status={}, organizationId={}, projectId={}, brief={}",
+                listing, status, organizationId, projectId, brief);
+        return ResponseEntity.ok(requestProcessService.getRequestProcessPage(
+                listing, status, organizationId, projectId, dateFrom, dateTo, search, !brief));
+    }
+
+    /**
+     * Список процессов из таблицы сводки: этап, количества и суммы без обхода цепочки документов
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<PageResponseDto<RequestProcessSummaryDto>> getRequestProcessSummary(
+            ListingRequest listing,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String stage,
+            @RequestParam(required = false) UUID organizationId,
+            @RequestParam(required = false) UUID projectId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) String search) {
+        return ResponseEntity.ok(requestProcessSummaryService.getPage(
+                listing, status, stage, organizationId, projectId, dateFrom, dateTo, search));
+    }
+
+    @PostMapping("/summary/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> rebuildRequestProcessSummary() {
+        log.info("Пересборка сводки процессов заявок");
+        return ResponseEntity.ok(Map.of("requests", requestProcessSummaryService.rebuild()));
+    }
+
     @GetMapping("/brief/{requestId}")
     public ResponseEntity<RequestProcessDto> getRequestProcessBrief(@PathVariable UUID requestId) {
         try {
@@ -63,14 +115,8 @@ public class RequestProcessController {
     @GetMapping("/brief/list")
     public ResponseEntity<List<RequestProcessDto>> getRequestProcessBriefList() {
         try {
-            List<RequestProcessDto> processes = requestProcessService.getRequestProcessList();
-            // Для краткого представления очищаем детальные списки
-            processes.forEach(process -> {
-                process.setTenders(null);
-                process.setContracts(null);
-                process.setInvoices(null);
-                process.setDeliveries(null);
-            });
+            // Краткое представление собирается без детальных списков
+            List<RequestProcessDto> processes = requestProcessService.getRequestProcessList(false);
             return ResponseEntity.ok(processes);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -10,11 +10,13 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.RequestRegistryRowDto;
 import ru.perminov.tender.service.JwtService;
 import ru.perminov.tender.service.RequestRegistryService;
 
-import java.io.ByteArrayInputStream;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -36,14 +38,7 @@ public class RequestRegistryController {
             @RequestParam(required = false) String materialName,
             @RequestHeader(value = "Authorization", required = false) String authHeader
     ) {
-        String companyId = null;
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth != null && auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_CUSTOMER"))) {
-            String token = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
-            if (token != null) {
-                companyId = jwtService.extractClaim(token, claims -> claims.get("companyId", String.class));
-            }
-        }
+        String companyId = customerCompanyId(authHeader);
         log.info("Получен GET-запрос: получить реестр заявок. Фильтры: организация={}, проект={}, с даты={}, по дату={}, материал={}",
                 organization, project, fromDate, toDate, materialName);
         return ResponseEntity.ok(
@@ -51,8 +46,25 @@ public class RequestRegistryController {
         );
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'CUSTOMER', 'VIEWER')")
+    @GetMapping("/page")
+    public ResponseEntity<PageResponseDto<RequestRegistryRowDto>> getRegistryPage(
+            ListingRequest listing,
+            @RequestParam(required = false) String organization,
+            @RequestParam(required = false) String project,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) String materialName,
+            @RequestHeader(value = "Authorization", required = false) String authHeader
+    ) {
+        log.info("Получен GET-запрос: страница реестра заявок {}. Фильтры: организация={}, проект={}, с даты={}, по дату={}, материал={}",
+                listing, organization, project, fromDate, toDate, materialName);
+        return ResponseEntity.ok(registryService.getRegistryPage(
+                listing, organization, project, fromDate, toDate, materialName, customerCompanyId(authHeader)));
+    }
+
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exportRegistry(
+    public ResponseEntity<StreamingResponseBody> exportRegistry(
             @RequestParam(required = false) String organization,
             @RequestParam(required = false) String project,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
@@ -61,11 +73,24 @@ public class RequestRegistryController {
     ) {
         log.info("Получен GET-запрос: экспортировать реестр заявок в Excel. Фильтры: организация={}, проект={}, с даты={}, по дату={}, материал={}",
                 organization, project,  fromDate, toDate, materialName);
-        ByteArrayInputStream in = registryService.exportRegistryToExcel(organization, project, fromDate, toDate, materialName);
-        byte[] bytes = in.readAllBytes();
+        StreamingResponseBody body = registryService.exportRegistryToExcel(organization, project, fromDate, toDate, materialName);
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=registry.xlsx")
                 .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(bytes);
+                .body(body);
+    }
+
+    /**
+     * Заказчик видит только заявки своей компании из токена
+     */
+    private String customerCompanyId(String authHeader) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_CUSTOMER"))) {
+            String token = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+            if (token != null) {
+                return jwtService.extractClaim(token, claims -> claims.get("companyId", String.class));
+            }
+        }
+        return null;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,99 @@
+package ru.perminov.tender.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import ru.perminov.tender.dto.SearchHitDto;
+import ru.perminov.tender.dto.SearchIndexStatsDto;
+import ru.perminov.tender.search.SearchType;
+import ru.perminov.tender.service.JwtService;
+import ru.perminov.tender.service.SearchIndexService;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchIndexService searchIndexService;
+    private final JwtService jwtService;
+
+    /**
+     * Подсказки по материалам, компаниям, тендерам, заявкам, наименованиям поставщиков, брендам и производителям.
+     * types - список через запятую, например MATERIAL,COMPANY; пустой - все типы.
+     * Возвращаются только типы, доступные ролям пользователя; заказчик видит заявки только своей компании
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'CUSTOMER', 'SUPPLIER', 'VIEWER')")
+    @GetMapping
+    public ResponseEntity<List<SearchHitDto>> search(@RequestParam String q,
+                                                     @RequestParam(required = false) List<String> types,
+                                                     @RequestParam(defaultValue = "10") int limit,
+                                                     @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        Set<SearchType> searchTypes = EnumSet.noneOf(SearchType.class);
+        if (types != null) {
+            for (String type : types) {
+                try {
+                    searchTypes.add(SearchType.valueOf(type.trim().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest().build();
+                }
+            }
+        }
+        Set<String> roles = currentRoles();
+        return ResponseEntity.ok(searchIndexService.search(q, searchTypes, limit, roles,
+                roles.contains("CUSTOMER") ? customerCompanyId(authHeader) : null));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @GetMapping("/stats")
+    public ResponseEntity<SearchIndexStatsDto> getStats() {
+        return ResponseEntity.ok(searchIndexService.getStats());
+    }
+
+    @PostMapping("/reindex")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Boolean>> reindex() {
+        log.info("Получен POST-запрос: полная переиндексация поиска");
+        return ResponseEntity.accepted().body(Map.of("started", searchIndexService.startReindex()));
+    }
+
+    private static Set<String> currentRoles() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) {
+            return Set.of();
+        }
+        return auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .map(authority -> authority.substring(5))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Компания заказчика из токена, как в реестре заявок
+     */
+    private UUID customerCompanyId(String authHeader) {
+        String token = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        if (token == null) {
+            return null;
+        }
+        String companyId = jwtService.extractClaim(token, claims -> claims.get("companyId", String.class));
+        try {
+            return companyId != null ? UUID.fromString(companyId) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
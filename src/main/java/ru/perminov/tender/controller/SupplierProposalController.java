@@ -5,6 +5,9 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.tender.SupplierProposalDto;
 import ru.perminov.tender.dto.tender.ProposalItemDto;
 import ru.perminov.tender.model.SupplierProposal;
@@ -49,6 +52,18 @@ public class SupplierProposalController {
         return ResponseEntity.ok(supplierProposalService.getProposalsByTender(tenderId));
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<PageResponseDto<SupplierProposalDto>> getProposalPage(
+            ListingRequest listing,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) UUID tenderId,
+            @RequestParam(required = false) UUID supplierId,
+            @RequestParam(required = false) String search) {
+        log.info("Получен GET-запрос: страница предложений {}, status={}, tenderId={}, supplierId={}, search={}",
+                listing, status, tenderId, supplierId, search);
+        return ResponseEntity.ok(supplierProposalService.getProposalPage(listing, status, tenderId, supplierId, search));
+    }
+
     @GetMapping("/supplier/{supplierId}")
     public ResponseEntity<List<SupplierProposalDto>> getProposalsBySupplier(@PathVariable UUID supplierId) {
         log.info("Получен GET-запрос: получить предложения по поставщику supplierId={}", supplierId);
@@ -110,18 +125,12 @@ public class SupplierProposalController {
     }
 
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exportProposalsToExcel() {
+    public ResponseEntity<StreamingResponseBody> exportProposalsToExcel() {
         log.info("Получен GET-запрос: экспортировать предложения в Excel");
-        try {
-            var in = proposalRegistryService.exportProposalsToExcel();
-            byte[] bytes = in.readAllBytes();
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=proposals.xlsx")
-                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(bytes);
-        } catch (Exception e) {
-            log.error("Ошибка при экспорте предложений в Excel", e);
-            return ResponseEntity.internalServerError().body(null);
-        }
+        StreamingResponseBody body = proposalRegistryService.exportProposalsToExcel();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=proposals.xlsx")
+                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .body(body);
     }
 } 
\ No newline at end of file
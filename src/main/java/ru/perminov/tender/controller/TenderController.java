@@ -1,8 +1,11 @@
 package ru.perminov.tender.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.tender.TenderDto;
 import ru.perminov.tender.dto.tender.SupplierProposalDto;
 import ru.perminov.tender.dto.tender.TenderItemDto;
@@ -13,6 +16,7 @@ import ru.perminov.tender.service.PriceAnalysisService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.prepost.PreAuthorize;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import java.util.Map;
@@ -57,6 +61,20 @@ public class TenderController {
         return ResponseEntity.ok(tenderService.getAllTenders());
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SUPPLIER', 'VIEWER')")
+    @GetMapping("/page")
+    public ResponseEntity<PageResponseDto<TenderDto>> getTenderPage(
+            ListingRequest listing,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) UUID customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) String search) {
+        log.info("Получен GET-запрос: страница тендеров {}, status={}, customerId={}, dateFrom={}, dateTo={}, search={}",
+                listing, status, customerId, dateFrom, dateTo, search);
+        return ResponseEntity.ok(tenderService.getTenderPage(listing, status, customerId, dateFrom, dateTo, search));
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'SUPPLIER', 'VIEWER')")
     @GetMapping("/status/{status}")
     public ResponseEntity<List<TenderDto>> getTendersByStatus(@PathVariable Tender.TenderStatus status) {
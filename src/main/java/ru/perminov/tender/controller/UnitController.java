@@ -1,24 +1,25 @@
 package ru.perminov.tender.controller;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.perminov.tender.cache.DictionaryType;
 import ru.perminov.tender.dto.ImportResultDto;
 import ru.perminov.tender.dto.UnitDto;
 import ru.perminov.tender.dto.UnitDtoNew;
 import ru.perminov.tender.dto.UnitDtoUpdate;
 import ru.perminov.tender.mapper.UnitMapper;
 import ru.perminov.tender.model.Unit;
+import ru.perminov.tender.service.DictionaryCacheService;
 import ru.perminov.tender.service.ExcelService;
 import ru.perminov.tender.service.UnitService;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -30,6 +31,7 @@ public class UnitController {
     private final UnitService unitService;
     private final UnitMapper unitMapper;
     private final ExcelService excelService;
+    private final DictionaryCacheService dictionaryCacheService;
 
     @PostMapping
     public ResponseEntity<UnitDto> create(@RequestBody UnitDtoNew unitDtoNew) {
@@ -67,26 +69,22 @@ public class UnitController {
     }
 
     @GetMapping("/export")
-    public ResponseEntity<Resource> exportUnits() {
+    public ResponseEntity<StreamingResponseBody> exportUnits() {
         log.info("Получен GET-запрос: экспортировать единицы измерения в Excel");
         String filename = "units.xlsx";
-        List<Unit> units = unitService.getAll();
-        InputStreamResource file = new InputStreamResource(excelService.exportUnitsToExcel(units));
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
                 .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(file);
+                .body(excelService.exportUnitsToExcel());
     }
 
     @GetMapping
-    public ResponseEntity<List<UnitDto>> getAll() {
+    public ResponseEntity<byte[]> getAll(WebRequest request) {
         log.info("Получен GET-запрос: получить все единицы измерения");
-        List<Unit> units = unitService.getAll();
-        List<UnitDto> unitDtos = units.stream()
+        return dictionaryCacheService.respond(DictionaryType.UNITS, request, () -> unitService.getAll().stream()
                 .map(unitMapper::toUnitDto)
-                .toList();
-        return ResponseEntity.ok(unitDtos);
+                .toList());
     }
 
     @PostMapping("/import")
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import ru.perminov.tender.dto.CacheStatsDto;
 import ru.perminov.tender.model.User;
 import ru.perminov.tender.service.UserService;
 import ru.perminov.tender.dto.UserDto;
@@ -29,6 +30,12 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/auth-cache/stats")
+    public ResponseEntity<List<CacheStatsDto>> getAuthCacheStats() {
+        log.info("Получен GET-запрос: статистика кэша аутентификации");
+        return ResponseEntity.ok(userService.getAuthCacheStats());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<UserDto> getUserById(@PathVariable UUID id) {
         log.info("Получен GET-запрос: пользователь по ID={}", id);
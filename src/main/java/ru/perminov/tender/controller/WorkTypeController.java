@@ -4,22 +4,24 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.perminov.tender.cache.DictionaryType;
 import ru.perminov.tender.dto.worktype.WorkTypeDto;
+import ru.perminov.tender.service.DictionaryCacheService;
 import ru.perminov.tender.service.WorkTypeService;
 
-import java.util.List;
-
 @Slf4j
 @RestController
 @RequestMapping("/api/work-types")
 @RequiredArgsConstructor
 public class WorkTypeController {
     private final WorkTypeService workTypeService;
+    private final DictionaryCacheService dictionaryCacheService;
 
     @GetMapping
-    public List<WorkTypeDto> getAllWorkTypes() {
+    public ResponseEntity<byte[]> getAllWorkTypes(WebRequest request) {
         log.info("Получен GET-запрос: получить все виды работ");
-        return workTypeService.getAllWorkTypes();
+        return dictionaryCacheService.respond(DictionaryType.WORK_TYPES, request, workTypeService::getAllWorkTypes);
     }
 
     @PostMapping
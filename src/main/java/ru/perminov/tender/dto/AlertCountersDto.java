@@ -0,0 +1,8 @@
+package ru.perminov.tender.dto;
+
+public record AlertCountersDto(
+        long unread,
+        long urgent,
+        long total
+) {
+}
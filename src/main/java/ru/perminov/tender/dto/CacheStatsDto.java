@@ -0,0 +1,12 @@
+package ru.perminov.tender.dto;
+
+public record CacheStatsDto(
+        String name,
+        long size,
+        long maxSize,
+        long hits,
+        long misses,
+        long evictions,
+        double hitRate
+) {
+}
@@ -0,0 +1,12 @@
+package ru.perminov.tender.dto;
+
+public record DictionaryCacheStatsDto(
+        String name,
+        boolean cached,
+        long ageMillis,
+        long hits,
+        long misses,
+        long notModified,
+        double hitRate
+) {
+}
@@ -0,0 +1,12 @@
+package ru.perminov.tender.dto;
+
+import java.util.Map;
+
+/**
+ * Результат поиска контрагента по ИНН в пакетном запросе: карточка либо текст ошибки
+ */
+public record FnsCompanyLookupDto(
+        String inn,
+        Map<String, Object> company,
+        String error
+) {}
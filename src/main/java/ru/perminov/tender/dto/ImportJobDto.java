@@ -0,0 +1,27 @@
+package ru.perminov.tender.dto;
+
+import ru.perminov.tender.model.ImportJob;
+import ru.perminov.tender.model.ImportType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public record ImportJobDto(
+        UUID id,
+        ImportType importType,
+        ImportJob.Status status,
+        String fileName,
+        int processedRows,
+        int importedRows,
+        int errorCount,
+        int lastCommittedRow,
+        int attempts,
+        double rowsPerSecond,
+        String failureMessage,
+        LocalDateTime createdAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        List<ImportResultDto.ImportError> errors
+) {
+}
@@ -14,6 +14,7 @@ import java.util.List;
 public class ImportResultDto {
     private int imported;
     private List<ImportError> errors = new ArrayList<>();
+    private int processed;
 
     public void addError(int row, String message) {
         this.errors.add(new ImportError(row, message));
@@ -23,6 +24,10 @@ public class ImportResultDto {
         this.imported++;
     }
 
+    public void incrementProcessed() {
+        this.processed++;
+    }
+
     @Getter
     @AllArgsConstructor
     public static class ImportError {
@@ -0,0 +1,14 @@
+package ru.perminov.tender.dto;
+
+/**
+ * Параметры постраничного списка: номер страницы и размер, поле и направление сортировки.
+ * Если передан cursor, выборка продолжается после последней строки предыдущей страницы, а page игнорируется
+ */
+public record ListingRequest(
+        Integer page,
+        Integer size,
+        String sort,
+        String direction,
+        String cursor
+) {
+}
@@ -0,0 +1,8 @@
+package ru.perminov.tender.dto;
+
+public record LoggerLevelDto(
+        String name,
+        String configuredLevel,
+        String effectiveLevel
+) {
+}
@@ -0,0 +1,13 @@
+package ru.perminov.tender.dto;
+
+import java.util.UUID;
+
+public record MaterialMatchDto(
+        UUID materialId,
+        String materialName,
+        UUID characteristicId,
+        String characteristicName,
+        double score,
+        String source
+) {
+}
@@ -0,0 +1,11 @@
+package ru.perminov.tender.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record MaterialMatchRequestDto(
+        UUID organizationId,
+        List<String> names,
+        Integer limit
+) {
+}
@@ -0,0 +1,9 @@
+package ru.perminov.tender.dto;
+
+import java.util.List;
+
+public record MaterialMatchResultDto(
+        String name,
+        List<MaterialMatchDto> candidates
+) {
+}
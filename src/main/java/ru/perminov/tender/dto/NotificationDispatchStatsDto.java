@@ -0,0 +1,15 @@
+package ru.perminov.tender.dto;
+
+public record NotificationDispatchStatsDto(
+        long pending,
+        long sending,
+        long sent,
+        long retried,
+        long failed,
+        double sentPerMinute,
+        double avgDeliveryLatencyMs,
+        long maxDeliveryLatencyMs,
+        long batches,
+        double avgBatchSendMs
+) {
+}
@@ -21,5 +21,7 @@ public record NotificationDto(
     Notification.NotificationStatus status,
     LocalDateTime createdAt,
     LocalDateTime sentAt,
-    String errorMessage
+    String errorMessage,
+    int attempts,
+    LocalDateTime nextAttemptAt
 ) {} 
\ No newline at end of file
@@ -0,0 +1,12 @@
+package ru.perminov.tender.dto;
+
+import java.util.UUID;
+
+public record OrgSupplierMaterialMappingSaveDto(
+
+    String supplierName,
+
+    UUID materialId,
+
+    UUID characteristicId
+) {}
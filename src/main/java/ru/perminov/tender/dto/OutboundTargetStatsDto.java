@@ -0,0 +1,24 @@
+package ru.perminov.tender.dto;
+
+import java.util.Map;
+
+/**
+ * Статистика исходящих запросов к одному внешнему хосту
+ */
+public record OutboundTargetStatsDto(
+        String host,
+        String circuitState,
+        int maxConcurrent,
+        int active,
+        long calls,
+        long failures,
+        long timeouts,
+        long rejected,
+        long circuitOpened,
+        double averageMillis,
+        long p50Millis,
+        long p95Millis,
+        long p99Millis,
+        long maxMillis,
+        Map<String, Long> latencyBuckets
+) {}
@@ -0,0 +1,17 @@
+package ru.perminov.tender.dto;
+
+import java.util.List;
+
+/**
+ * Страница списка. При выборке по курсору page и totalElements не заполняются,
+ * для перехода дальше используется nextCursor
+ */
+public record PageResponseDto<T>(
+        List<T> content,
+        Integer page,
+        int size,
+        Long totalElements,
+        boolean hasNext,
+        String nextCursor
+) {
+}
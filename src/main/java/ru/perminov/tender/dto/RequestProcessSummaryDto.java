@@ -0,0 +1,31 @@
+package ru.perminov.tender.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record RequestProcessSummaryDto(
+        UUID requestId,
+        String requestNumber,
+        LocalDate requestDate,
+        String status,
+        UUID organizationId,
+        UUID projectId,
+        String applicant,
+        String stage,
+        int tendersCount,
+        int proposalsCount,
+        int contractsCount,
+        int invoicesCount,
+        int deliveriesCount,
+        int receiptsCount,
+        BigDecimal requestTotalAmount,
+        BigDecimal tenderTotalAmount,
+        BigDecimal contractTotalAmount,
+        BigDecimal invoiceTotalAmount,
+        BigDecimal paidAmount,
+        LocalDateTime stageChangedAt,
+        LocalDateTime lastActivityAt
+) {
+}
@@ -0,0 +1,12 @@
+package ru.perminov.tender.dto;
+
+import java.util.UUID;
+
+public record SearchHitDto(
+        String type,
+        UUID id,
+        String title,
+        String subtitle,
+        double score
+) {
+}
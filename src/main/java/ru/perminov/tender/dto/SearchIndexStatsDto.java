@@ -0,0 +1,14 @@
+package ru.perminov.tender.dto;
+
+import java.time.LocalDateTime;
+
+public record SearchIndexStatsDto(
+        int documents,
+        int terms,
+        boolean ready,
+        boolean reindexing,
+        LocalDateTime lastReindexAt,
+        long lastReindexMillis,
+        LocalDateTime lastSnapshotAt
+) {
+}
@@ -0,0 +1,89 @@
+package ru.perminov.tender.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма времени ответа с фиксированными границами корзин. Запись - один инкремент без блокировок,
+ * перцентили оцениваются верхней границей корзины
+ */
+final class LatencyHistogram {
+
+    private static final long[] BOUNDS_MILLIS = {5, 10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 30_000};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMillis = new LongAdder();
+    private final LongAccumulator maxMillis = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long millis) {
+        int bucket = 0;
+        while (bucket < BOUNDS_MILLIS.length && millis > BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        totalMillis.add(millis);
+        maxMillis.accumulate(millis);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    double averageMillis() {
+        long calls = count.sum();
+        return calls > 0 ? (double) totalMillis.sum() / calls : 0.0;
+    }
+
+    long maxMillis() {
+        return maxMillis.get();
+    }
+
+    /**
+     * Верхняя граница корзины, в которую попадает перцентиль, но не больше наблюдавшегося максимума
+     */
+    long percentileMillis(double percentile) {
+        long[] counts = counts();
+        long total = 0;
+        for (long value : counts) total += value;
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i < BOUNDS_MILLIS.length ? Math.min(BOUNDS_MILLIS[i], maxMillis.get()) : maxMillis.get();
+            }
+        }
+        return maxMillis.get();
+    }
+
+    /**
+     * Количество вызовов по корзинам: ключ - верхняя граница в мс ("+Inf" для последней)
+     */
+    Map<String, Long> buckets() {
+        long[] counts = counts();
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            result.put(i < BOUNDS_MILLIS.length ? String.valueOf(BOUNDS_MILLIS[i]) : "+Inf", counts[i]);
+        }
+        return result;
+    }
+
+    private long[] counts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.perminov.tender.http;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+
+/**
+ * Пропускает исходящий запрос через bulkhead и автомат отключения его хоста и записывает время и исход.
+ * Отказ без обращения к хосту - ResourceAccessException, как и обычная сетевая ошибка RestTemplate.
+ * Ошибкой хоста считаются сетевые сбои, таймауты, ответы 5xx и 429; ответы 4xx - нет
+ */
+@RequiredArgsConstructor
+public class OutboundHttpInterceptor implements ClientHttpRequestInterceptor {
+
+    private final OutboundHttpRegistry registry;
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        OutboundTarget target = registry.target(request.getURI().getHost());
+        try {
+            if (!target.tryAcquire(registry.acquireTimeoutMillis())) {
+                throw new ResourceAccessException(target.circuitState() == OutboundTarget.CircuitState.CLOSED
+                        ? "Превышен лимит одновременных запросов к " + target.host()
+                        : "Внешний сервис " + target.host() + " временно недоступен");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Запрос к " + target.host() + " прерван");
+        }
+        long start = System.nanoTime();
+        OutboundTarget.Outcome outcome = OutboundTarget.Outcome.FAILURE;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            // Буферизованный ответ: тело дочитывается здесь, пока слот занят
+            response.getBody();
+            boolean failed = response.getStatusCode().is5xxServerError()
+                    || response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+            outcome = failed ? OutboundTarget.Outcome.FAILURE : OutboundTarget.Outcome.SUCCESS;
+            return response;
+        } catch (HttpTimeoutException e) {
+            outcome = OutboundTarget.Outcome.TIMEOUT;
+            throw e;
+        } finally {
+            target.release((System.nanoTime() - start) / 1_000_000, outcome);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package ru.perminov.tender.http;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.BufferingClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import ru.perminov.tender.dto.OutboundTargetStatsDto;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Исходящие HTTP-клиенты по внешним хостам. Все хосты используют один HttpClient JDK с пулом
+ * keep-alive соединений; таймаут чтения, лимит одновременных запросов и автомат отключения - свои для хоста.
+ * Как ClientHttpRequestFactory направляет запрос в фабрику его хоста
+ */
+@Slf4j
+@Component
+public class OutboundHttpRegistry implements ClientHttpRequestFactory {
+
+    @Value("${outbound-http.connect-timeout:3000}")
+    private long connectTimeoutMillis;
+
+    @Value("${outbound-http.read-timeout:10000}")
+    private long readTimeoutMillis;
+
+    // Формат: хост=значение через запятую, например api-fns.ru=15000,htmlweb.ru=3000
+    @Value("${outbound-http.host-read-timeouts:}")
+    private String hostReadTimeoutsConfig;
+
+    @Value("${outbound-http.max-concurrent:8}")
+    private int maxConcurrent;
+
+    @Value("${outbound-http.host-max-concurrent:}")
+    private String hostMaxConcurrentConfig;
+
+    @Value("${outbound-http.acquire-timeout:200}")
+    private long acquireTimeoutMillis;
+
+    @Value("${outbound-http.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${outbound-http.open-duration:30000}")
+    private long openDurationMillis;
+
+    private final Map<String, OutboundTarget> targets = new ConcurrentHashMap<>();
+    private final Map<String, Long> hostReadTimeouts = new HashMap<>();
+    private final Map<String, Long> hostMaxConcurrent = new HashMap<>();
+    private HttpClient httpClient;
+
+    @PostConstruct
+    void init() {
+        parseHostValues(hostReadTimeoutsConfig, hostReadTimeouts);
+        parseHostValues(hostMaxConcurrentConfig, hostMaxConcurrent);
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        return target(uri.getHost()).requestFactory().createRequest(uri, httpMethod);
+    }
+
+    long acquireTimeoutMillis() {
+        return acquireTimeoutMillis;
+    }
+
+    OutboundTarget target(String host) {
+        String key = host != null ? host.toLowerCase() : "";
+        return targets.computeIfAbsent(key, this::createTarget);
+    }
+
+    public List<OutboundTargetStatsDto> getStats() {
+        return targets.values().stream()
+                .sorted(Comparator.comparing(OutboundTarget::host))
+                .map(OutboundTarget::stats)
+                .toList();
+    }
+
+    private OutboundTarget createTarget(String host) {
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        long readTimeout = hostReadTimeouts.getOrDefault(host, readTimeoutMillis);
+        factory.setReadTimeout(Duration.ofMillis(readTimeout));
+        int concurrent = hostMaxConcurrent.getOrDefault(host, (long) maxConcurrent).intValue();
+        log.info("Исходящие запросы к {}: таймаут чтения {} мс, не больше {} одновременно", host, readTimeout, concurrent);
+        // Тело ответа читается внутри интерцептора: слот и замер времени покрывают весь ответ
+        return new OutboundTarget(host, new BufferingClientHttpRequestFactory(factory), concurrent,
+                failureThreshold, openDurationMillis);
+    }
+
+    private static void parseHostValues(String config, Map<String, Long> target) {
+        for (String entry : config.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) continue;
+            try {
+                target.put(entry.substring(0, separator).trim().toLowerCase(),
+                        Long.parseLong(entry.substring(separator + 1).trim()));
+            } catch (NumberFormatException e) {
+                log.warn("Некорректная настройка исходящих запросов: {}", entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package ru.perminov.tender.http;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import ru.perminov.tender.dto.OutboundTargetStatsDto;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Внешний хост: ограничение одновременных запросов (bulkhead), автомат отключения (circuit breaker)
+ * и статистика времени ответа. Автомат размыкается после failureThreshold ошибок подряд,
+ * через openDuration пропускает один пробный запрос и замыкается, если тот успешен
+ */
+@Slf4j
+final class OutboundTarget {
+
+    enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    enum Outcome { SUCCESS, FAILURE, TIMEOUT }
+
+    private final String host;
+    private final ClientHttpRequestFactory requestFactory;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder circuitOpened = new LongAdder();
+
+    // Состояние автомата меняется под монитором объекта: переходы редкие, запросы к внешним сервисам медленнее блокировки
+    private int consecutiveFailures;
+    private long openUntilNanos;
+    private boolean open;
+    private boolean probeInFlight;
+
+    OutboundTarget(String host, ClientHttpRequestFactory requestFactory, int maxConcurrent,
+                   int failureThreshold, long openDurationMillis) {
+        this.host = host;
+        this.requestFactory = requestFactory;
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+    }
+
+    String host() {
+        return host;
+    }
+
+    ClientHttpRequestFactory requestFactory() {
+        return requestFactory;
+    }
+
+    /**
+     * Пропускает запрос: false, если автомат разомкнут или все слоты заняты дольше acquireTimeoutMillis
+     */
+    boolean tryAcquire(long acquireTimeoutMillis) throws InterruptedException {
+        if (!allowByCircuit()) {
+            rejected.increment();
+            return false;
+        }
+        if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            releaseProbe();
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    void release(long elapsedMillis, Outcome outcome) {
+        permits.release();
+        latency.record(elapsedMillis);
+        if (outcome == Outcome.SUCCESS) {
+            onSuccess();
+        } else {
+            failures.increment();
+            if (outcome == Outcome.TIMEOUT) {
+                timeouts.increment();
+            }
+            onFailure();
+        }
+    }
+
+    synchronized CircuitState circuitState() {
+        if (!open) return CircuitState.CLOSED;
+        return System.nanoTime() - openUntilNanos >= 0 ? CircuitState.HALF_OPEN : CircuitState.OPEN;
+    }
+
+    OutboundTargetStatsDto stats() {
+        return new OutboundTargetStatsDto(host, circuitState().name(), maxConcurrent,
+                maxConcurrent - permits.availablePermits(), latency.count(), failures.sum(), timeouts.sum(),
+                rejected.sum(), circuitOpened.sum(), Math.round(latency.averageMillis() * 10) / 10.0,
+                latency.percentileMillis(0.5), latency.percentileMillis(0.95), latency.percentileMillis(0.99),
+                latency.maxMillis(), latency.buckets());
+    }
+
+    private synchronized boolean allowByCircuit() {
+        if (!open) return true;
+        if (System.nanoTime() - openUntilNanos < 0 || probeInFlight) return false;
+        probeInFlight = true;
+        return true;
+    }
+
+    private synchronized void releaseProbe() {
+        probeInFlight = false;
+    }
+
+    private synchronized void onSuccess() {
+        if (open) {
+            log.info("Внешний сервис {} снова доступен, запросы возобновлены", host);
+        }
+        consecutiveFailures = 0;
+        open = false;
+        probeInFlight = false;
+    }
+
+    private synchronized void onFailure() {
+        probeInFlight = false;
+        if (open || ++consecutiveFailures >= failureThreshold) {
+            if (!open) {
+                log.warn("Внешний сервис {}: {} ошибок подряд, запросы приостановлены на {} мс",
+                        host, consecutiveFailures, TimeUnit.NANOSECONDS.toMillis(openDurationNanos));
+                circuitOpened.increment();
+            }
+            open = true;
+            openUntilNanos = System.nanoTime() + openDurationNanos;
+            consecutiveFailures = 0;
+        }
+    }
+}
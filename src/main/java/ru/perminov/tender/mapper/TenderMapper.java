@@ -26,5 +26,6 @@ public interface TenderMapper {
     @Mapping(target = "supplierProposals", source = "supplierProposals")
     TenderDto toDto(Tender entity);
     
+    @Mapping(target = "savings", ignore = true)
     Tender toEntity(TenderDto dto);
 } 
\ No newline at end of file
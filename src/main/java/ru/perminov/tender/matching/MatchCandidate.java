@@ -0,0 +1,7 @@
+package ru.perminov.tender.matching;
+
+/**
+ * Найденная позиция каталога с оценкой сходства от 0 до 1 и источником лучшего совпадения
+ */
+public record MatchCandidate(MatchTarget target, double score, MatchSource source) {
+}
@@ -0,0 +1,10 @@
+package ru.perminov.tender.matching;
+
+import java.util.UUID;
+
+/**
+ * Наименование в индексе сопоставления: название из каталога или подтвержденное наименование поставщика
+ * (organizationId - организация, подтвердившая соответствие)
+ */
+public record MatchEntry(MatchTarget target, NameFeatures name, MatchSource source, UUID organizationId) {
+}
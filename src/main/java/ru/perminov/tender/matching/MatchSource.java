@@ -0,0 +1,9 @@
+package ru.perminov.tender.matching;
+
+/**
+ * Откуда взято наименование: каталог материалов или подтвержденное соответствие наименования поставщика
+ */
+public enum MatchSource {
+    CATALOG,
+    MAPPING
+}
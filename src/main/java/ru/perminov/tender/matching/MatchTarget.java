@@ -0,0 +1,9 @@
+package ru.perminov.tender.matching;
+
+import java.util.UUID;
+
+/**
+ * Позиция каталога, к которой сопоставляется наименование: материал и, если задана, его характеристика
+ */
+public record MatchTarget(UUID materialId, String materialName, UUID characteristicId, String characteristicName) {
+}
@@ -0,0 +1,185 @@
+package ru.perminov.tender.matching;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Неизменяемый индекс наименований каталога для нечеткого сопоставления. Кандидаты отбираются по полосам
+ * MinHash (LSH) и точному совпадению нормализованной строки, затем ранжируются точным коэффициентом Жаккара.
+ * Полосы хранятся одним отсортированным массивом long: 40 бит ключа полосы и 24 бита номера записи
+ */
+public class MaterialMatchIndex {
+
+    public static final MaterialMatchIndex EMPTY = build(List.of());
+
+    // Прибавка к сходству для соответствия, подтвержденного той же организацией
+    private static final double ORGANIZATION_BOOST = 0.1;
+    // Предел кандидатов из полос: общие слова (труба, кабель) не должны перебирать весь каталог
+    private static final int MAX_CANDIDATES = 1_000;
+    private static final int ENTRY_BITS = 24;
+    private static final long ENTRY_MASK = (1L << ENTRY_BITS) - 1;
+
+    private final MatchEntry[] entries;
+    // Число признаков записи подряд в памяти: оценка сверху без обращения к самой записи
+    private final int[] featureCounts;
+    private final long[] bands;
+    private final Map<String, int[]> exact;
+
+    private MaterialMatchIndex(MatchEntry[] entries, int[] featureCounts, long[] bands, Map<String, int[]> exact) {
+        this.entries = entries;
+        this.featureCounts = featureCounts;
+        this.bands = bands;
+        this.exact = exact;
+    }
+
+    public static MaterialMatchIndex build(List<MatchEntry> source) {
+        List<MatchEntry> usable = source.stream().filter(entry -> !entry.name().isEmpty()).toList();
+        if (usable.size() > ENTRY_MASK) {
+            throw new IllegalArgumentException("Слишком много наименований для индекса: " + usable.size());
+        }
+        MatchEntry[] entries = usable.toArray(MatchEntry[]::new);
+        int[] featureCounts = new int[entries.length];
+        long[] bands = new long[entries.length * NameFeatures.BANDS];
+        Map<String, List<Integer>> exactLists = new HashMap<>();
+        int position = 0;
+        for (int i = 0; i < entries.length; i++) {
+            featureCounts[i] = entries[i].name().features().length;
+            for (long key : entries[i].name().bandKeys()) {
+                bands[position++] = (key << ENTRY_BITS) | i;
+            }
+            exactLists.computeIfAbsent(entries[i].name().key(), k -> new ArrayList<>(1)).add(i);
+        }
+        Arrays.sort(bands);
+        Map<String, int[]> exact = new HashMap<>(exactLists.size() * 2);
+        exactLists.forEach((key, list) -> exact.put(key, list.stream().mapToInt(Integer::intValue).toArray()));
+        return new MaterialMatchIndex(entries, featureCounts, bands, exact);
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * Лучшие позиции каталога для наименования. extra - записи вне индекса (подтвержденные после его построения),
+     * проверяются полным перебором
+     */
+    public List<MatchCandidate> match(NameFeatures query, UUID organizationId, int limit, double minScore,
+                                      Collection<MatchEntry> extra) {
+        if (query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Несколько записей могут вести к одной позиции каталога, поэтому отбирается запас сверх limit
+        TopEntries top = new TopEntries(limit * 4, minScore);
+        BitSet seen = new BitSet(entries.length);
+        int[] exactHits = exact.get(query.key());
+        if (exactHits != null) {
+            for (int i : exactHits) {
+                seen.set(i);
+                top.offer(entries[i], score(entries[i], query, organizationId));
+            }
+        }
+        int queryCount = query.features().length;
+        int candidates = 0;
+        for (long key : query.bandKeys()) {
+            int from = lowerBound(key << ENTRY_BITS);
+            for (int p = from; p < bands.length && (bands[p] >>> ENTRY_BITS) == key; p++) {
+                int i = (int) (bands[p] & ENTRY_MASK);
+                if (seen.get(i)) continue;
+                seen.set(i);
+                // Жаккар не больше отношения размеров (плюс прибавка организации): такие записи не сравниваются поэлементно
+                int count = featureCounts[i];
+                double upperBound = (double) Math.min(count, queryCount) / Math.max(count, queryCount) + ORGANIZATION_BOOST;
+                if (upperBound >= top.threshold()) {
+                    top.offer(entries[i], score(entries[i], query, organizationId));
+                }
+                if (++candidates >= MAX_CANDIDATES) break;
+            }
+            if (candidates >= MAX_CANDIDATES) break;
+        }
+        for (MatchEntry entry : extra) {
+            top.offer(entry, score(entry, query, organizationId));
+        }
+
+        Map<MatchTarget, MatchCandidate> best = new HashMap<>();
+        for (int i = 0; i < top.size; i++) {
+            MatchEntry entry = top.entries[i];
+            MatchCandidate candidate = new MatchCandidate(entry.target(), top.scores[i], entry.source());
+            best.merge(entry.target(), candidate, (current, offered) ->
+                    offered.score() > current.score()
+                            || (offered.score() == current.score() && offered.source() == MatchSource.MAPPING)
+                            ? offered : current);
+        }
+        return best.values().stream()
+                .sorted(Comparator.comparingDouble(MatchCandidate::score).reversed()
+                        .thenComparing(candidate -> candidate.source() != MatchSource.MAPPING))
+                .limit(limit)
+                .toList();
+    }
+
+    private static double score(MatchEntry entry, NameFeatures query, UUID organizationId) {
+        double score = entry.name().key().equals(query.key()) ? 1.0 : entry.name().similarity(query);
+        return Math.min(1.0, score + boost(entry, organizationId));
+    }
+
+    private static double boost(MatchEntry entry, UUID organizationId) {
+        return entry.source() == MatchSource.MAPPING && organizationId != null
+                && Objects.equals(organizationId, entry.organizationId()) ? ORGANIZATION_BOOST : 0;
+    }
+
+    /**
+     * Записи с наибольшей оценкой, упорядоченные по убыванию; порог - минимальная оценка для попадания в список
+     */
+    private static final class TopEntries {
+
+        private final MatchEntry[] entries;
+        private final double[] scores;
+        private final double minScore;
+        private int size;
+
+        TopEntries(int capacity, double minScore) {
+            this.entries = new MatchEntry[capacity];
+            this.scores = new double[capacity];
+            this.minScore = minScore;
+        }
+
+        double threshold() {
+            return size < scores.length ? minScore : Math.max(minScore, scores[size - 1]);
+        }
+
+        void offer(MatchEntry entry, double score) {
+            if (score < minScore || (size == scores.length && score <= scores[size - 1])) return;
+            int position = size < scores.length ? size++ : size - 1;
+            // Одинаковая оценка: подтвержденное соответствие выше записи каталога
+            while (position > 0 && (scores[position - 1] < score || (scores[position - 1] == score
+                    && entry.source() == MatchSource.MAPPING && entries[position - 1].source() != MatchSource.MAPPING))) {
+                scores[position] = scores[position - 1];
+                entries[position] = entries[position - 1];
+                position--;
+            }
+            scores[position] = score;
+            entries[position] = entry;
+        }
+    }
+
+    private int lowerBound(long value) {
+        int low = 0;
+        int high = bands.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bands[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,114 @@
+package ru.perminov.tender.matching;
+
+import ru.perminov.tender.search.TextAnalyzer;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Признаки наименования для нечеткого сопоставления: основы слов и триграммы символов внутри каждой основы,
+ * захешированные в отсортированный массив int. key - нормализованная строка для точного совпадения.
+ * Подпись MinHash разбивается на полосы LSH: совпадение хотя бы одной полосы делает запись кандидатом
+ */
+public record NameFeatures(String key, int[] features) {
+
+    static final int HASHES = 64;
+    static final int ROWS_PER_BAND = 2;
+    static final int BANDS = HASHES / ROWS_PER_BAND;
+
+    private static final long[] SEEDS = new long[HASHES];
+
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int i = 0; i < HASHES; i++) {
+            seed = splitMix(seed);
+            SEEDS[i] = seed;
+        }
+    }
+
+    public static NameFeatures of(String name) {
+        List<String> tokens = TextAnalyzer.tokenize(name);
+        String[] stems = new String[tokens.size()];
+        int[] features = new int[tokens.size() * 8];
+        int count = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            String stem = TextAnalyzer.stem(tokens.get(i));
+            stems[i] = stem;
+            // Слово целиком: отличает М400 от М500 и 10 от 100 сильнее, чем общие триграммы
+            features = ensureCapacity(features, count + stem.length() + 2);
+            features[count++] = mix(stem.hashCode() * 31 + 'w');
+            String padded = " " + stem + " ";
+            for (int j = 0; j + 3 <= padded.length(); j++) {
+                features[count++] = mix(padded.substring(j, j + 3).hashCode());
+            }
+        }
+        int[] distinct = Arrays.stream(features, 0, count).sorted().distinct().toArray();
+        return new NameFeatures(String.join(" ", stems), distinct);
+    }
+
+    public boolean isEmpty() {
+        return features.length == 0;
+    }
+
+    /**
+     * Ключи полос LSH: номер полосы и значения MinHash этой полосы, свернутые в 40 бит
+     */
+    long[] bandKeys() {
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int feature : features) {
+            for (int i = 0; i < HASHES; i++) {
+                int value = (int) splitMix(feature ^ SEEDS[i]);
+                if (value < signature[i]) signature[i] = value;
+            }
+        }
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long hash = band + 1;
+            for (int row = 0; row < ROWS_PER_BAND; row++) {
+                hash = splitMix(hash * 31 + signature[band * ROWS_PER_BAND + row]);
+            }
+            keys[band] = hash >>> 24;
+        }
+        return keys;
+    }
+
+    /**
+     * Коэффициент Жаккара по признакам двух наименований
+     */
+    double similarity(NameFeatures other) {
+        int[] a = features;
+        int[] b = other.features;
+        if (a.length == 0 || b.length == 0) return 0;
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    private static int[] ensureCapacity(int[] array, int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+    }
+
+    private static int mix(int value) {
+        return (int) splitMix(value);
+    }
+
+    private static long splitMix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
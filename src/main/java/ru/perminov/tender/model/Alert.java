@@ -56,6 +56,10 @@ public class Alert {
     private String actionText;
     private String metadata; // JSON с дополнительными данными
 
+    // Тип, сущность и условие алерта, созданного проверкой; уникален
+    @Column(length = 200, unique = true)
+    private String dedupKey;
+
     // Статистика
     private Integer viewCount = 0;
     private Boolean isRead = false;
@@ -0,0 +1,37 @@
+package ru.perminov.tender.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Водяные знаки инкрементальной проверки алертов: до какого срока строки уже проверены
+ * и с какого момента нужно перепроверить измененные строки
+ */
+@Entity
+@Table(name = "alert_scan_watermarks")
+@Getter
+@Setter
+@NoArgsConstructor
+public class AlertScanWatermark {
+
+    @Id
+    @Column(length = 50)
+    private String checkName;
+
+    private LocalDateTime dueWatermark;
+
+    private LocalDateTime updatedWatermark;
+
+    private LocalDateTime lastRunAt;
+
+    @Column(nullable = false)
+    private int lastCreated;
+
+    public AlertScanWatermark(String checkName) {
+        this.checkName = checkName;
+    }
+}
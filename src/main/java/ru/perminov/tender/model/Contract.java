@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import ru.perminov.tender.model.company.Company;
+import ru.perminov.tender.service.process.RequestProcessChangeListener;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -16,6 +17,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "contracts")
+@EntityListeners(RequestProcessChangeListener.class)
 @Getter
 @Setter
 @ToString(exclude = "contractItems")
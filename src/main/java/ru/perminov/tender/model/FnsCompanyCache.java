@@ -0,0 +1,29 @@
+package ru.perminov.tender.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "fns_company_cache")
+@Getter
+@Setter
+@NoArgsConstructor
+public class FnsCompanyCache {
+
+    @Id
+    @Column(length = 12)
+    private String inn;
+
+    /**
+     * Карточка контрагента в JSON, null - контрагент не найден в реестре
+     */
+    @Column(columnDefinition = "TEXT")
+    private String data;
+
+    @Column(nullable = false)
+    private LocalDateTime fetchedAt;
+}
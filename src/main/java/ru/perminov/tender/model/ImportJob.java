@@ -0,0 +1,72 @@
+package ru.perminov.tender.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Фоновое задание импорта справочника из Excel. Счетчики и номер последней сохраненной строки
+ * обновляются в одной транзакции с пачкой сущностей. Выполняет задание узел, захвативший его (owner),
+ * пока продлевает аренду (heartbeatAt)
+ */
+@Entity
+@Table(name = "import_jobs")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class ImportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportType importType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.QUEUED;
+
+    private String fileName;
+
+    @Column(columnDefinition = "TEXT")
+    private String columnMapping; // JSON: поле -> индекс колонки или заголовок
+
+    private String createdBy;
+
+    private int processedRows;
+
+    private int importedRows;
+
+    private int errorCount;
+
+    private int lastCommittedRow;
+
+    private int attempts;
+
+    @Column(columnDefinition = "TEXT")
+    private String failureMessage;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    private String owner; // Узел, захвативший задание
+
+    private LocalDateTime heartbeatAt; // Последнее продление аренды узлом-владельцем
+
+    public enum Status {
+        QUEUED,     // Ожидает в очереди
+        RUNNING,    // Выполняется
+        COMPLETED,  // Завершено
+        FAILED      // Прервано, может быть возобновлено
+    }
+}
@@ -0,0 +1,35 @@
+package ru.perminov.tender.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Entity
+@Table(name = "import_job_errors")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ImportJobError {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID jobId;
+
+    @Column(nullable = false)
+    private int rowNumber;
+
+    @Column(columnDefinition = "TEXT")
+    private String message;
+
+    public ImportJobError(UUID jobId, int rowNumber, String message) {
+        this.jobId = jobId;
+        this.rowNumber = rowNumber;
+        this.message = message;
+    }
+}
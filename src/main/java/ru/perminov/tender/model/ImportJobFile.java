@@ -0,0 +1,30 @@
+package ru.perminov.tender.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * Загруженный файл задания импорта. Хранится в базе, чтобы задание мог продолжить любой узел
+ */
+@Entity
+@Table(name = "import_job_files")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ImportJobFile {
+
+    @Id
+    private UUID jobId;
+
+    @Column(nullable = false, columnDefinition = "BYTEA")
+    private byte[] content;
+
+    public ImportJobFile(UUID jobId, byte[] content) {
+        this.jobId = jobId;
+        this.content = content;
+    }
+}
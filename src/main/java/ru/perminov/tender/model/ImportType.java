@@ -0,0 +1,14 @@
+package ru.perminov.tender.model;
+
+/**
+ * Справочники, поддерживающие импорт из Excel
+ */
+public enum ImportType {
+    MATERIALS,
+    CATEGORIES,
+    MATERIAL_TYPES,
+    UNITS,
+    PROJECTS,
+    COMPANIES,
+    CONTACT_TYPES
+}
@@ -28,6 +28,7 @@ import java.util.Set;
 import java.util.UUID;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.CascadeType;
+import ru.perminov.tender.search.SearchEntityListener;
 
 @Entity
 @Table(name = "materials")
@@ -35,7 +36,7 @@ import jakarta.persistence.CascadeType;
 @Setter
 @ToString
 @NoArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, SearchEntityListener.class})
 public class Material {
 
     @Id
@@ -53,6 +53,10 @@ public class Notification {
 
     private String errorMessage;
 
+    // Очередь отправки
+    private int attempts;
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
     public enum NotificationType {
         TENDER_PUBLISHED("Опубликован новый тендер"),
         TENDER_REMINDER("Напоминание о дедлайне тендера"),
@@ -75,6 +79,7 @@ public class Notification {
 
     public enum NotificationStatus {
         PENDING("Ожидает отправки"),
+        SENDING("Отправляется"),
         SENT("Отправлено"),
         FAILED("Ошибка отправки"),
         CANCELLED("Отменено");
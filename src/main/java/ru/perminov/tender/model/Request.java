@@ -6,6 +6,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import ru.perminov.tender.model.company.Company;
+import ru.perminov.tender.service.process.RequestProcessChangeListener;
+import ru.perminov.tender.search.SearchEntityListener;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -14,6 +16,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "requests")
+@EntityListeners({RequestProcessChangeListener.class, SearchEntityListener.class})
 @Getter
 @Setter
 @ToString(exclude = "requestMaterials")
@@ -5,12 +5,14 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import ru.perminov.tender.service.process.RequestProcessChangeListener;
 
 import java.util.List;
 import java.util.UUID;
 
 @Entity
 @Table(name = "request_materials")
+@EntityListeners(RequestProcessChangeListener.class)
 @Getter
 @Setter
 @ToString(exclude = "request")
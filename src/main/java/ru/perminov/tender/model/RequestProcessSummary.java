@@ -0,0 +1,85 @@
+package ru.perminov.tender.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Сводка процесса заявки: этап, количество и суммы по цепочке документов.
+ * Строка пересчитывается RequestProcessSummaryService при изменении любой сущности цепочки
+ */
+@Entity
+@Table(name = "request_process_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+public class RequestProcessSummary {
+
+    /**
+     * Этапы процесса в порядке продвижения заявки
+     */
+    public enum Stage {
+        REQUEST, TENDER, PROPOSALS, CONTRACT, INVOICE, DELIVERY, RECEIPT
+    }
+
+    @Id
+    @Column(name = "request_id")
+    private UUID id;
+
+    private String requestNumber;
+
+    private LocalDate requestDate;
+
+    @Enumerated(EnumType.STRING)
+    private Request.RequestStatus requestStatus;
+
+    private UUID organizationId;
+
+    private UUID projectId;
+
+    private String applicant;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Stage stage = Stage.REQUEST;
+
+    private int tendersCount;
+
+    private int proposalsCount;
+
+    private int contractsCount;
+
+    private int invoicesCount;
+
+    private int deliveriesCount;
+
+    private int receiptsCount;
+
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal requestTotalAmount = BigDecimal.ZERO;
+
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal tenderTotalAmount = BigDecimal.ZERO;
+
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal contractTotalAmount = BigDecimal.ZERO;
+
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal invoiceTotalAmount = BigDecimal.ZERO;
+
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal paidAmount = BigDecimal.ZERO;
+
+    private LocalDateTime stageChangedAt;
+
+    private LocalDateTime lastActivityAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
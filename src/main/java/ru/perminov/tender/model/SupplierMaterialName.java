@@ -6,10 +6,12 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import ru.perminov.tender.model.company.Company;
+import ru.perminov.tender.search.SearchEntityListener;
 import java.util.UUID;
 
 @Entity
 @Table(name = "supplier_material_names")
+@EntityListeners(SearchEntityListener.class)
 @Getter
 @Setter
 @ToString
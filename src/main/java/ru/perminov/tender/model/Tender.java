@@ -6,6 +6,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import ru.perminov.tender.model.company.Company;
+import ru.perminov.tender.service.process.RequestProcessChangeListener;
+import ru.perminov.tender.search.SearchEntityListener;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -14,6 +16,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "tenders")
+@EntityListeners({RequestProcessChangeListener.class, SearchEntityListener.class})
 @Getter
 @Setter
 @ToString(exclude = "tenderItems")
@@ -54,6 +57,9 @@ public class Tender {
     @Column(name = "awarded_supplier_id")
     private UUID awardedSupplierId;
 
+    // Рассчитанная экономия; NULL означает, что значение нужно пересчитать
+    private Double savings;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_tender_id")
     private Tender parentTender;
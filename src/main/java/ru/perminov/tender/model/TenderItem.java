@@ -5,11 +5,13 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import ru.perminov.tender.service.process.RequestProcessChangeListener;
 
 import java.util.UUID;
 
 @Entity
 @Table(name = "tender_items")
+@EntityListeners(RequestProcessChangeListener.class)
 @Getter
 @Setter
 @ToString
@@ -2,6 +2,7 @@ package ru.perminov.tender.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import ru.perminov.tender.cache.DictionaryEntityListener;
 import java.util.UUID;
 
 @Entity
@@ -11,6 +12,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @ToString
+@EntityListeners(DictionaryEntityListener.class)
 public class WorkType {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
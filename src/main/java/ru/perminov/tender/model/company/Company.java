@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.validator.constraints.UniqueElements;
+import ru.perminov.tender.search.SearchEntityListener;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,6 +14,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "companies")
+@EntityListeners(SearchEntityListener.class)
 @Getter
 @Setter
 @ToString
@@ -1,9 +1,15 @@
 package ru.perminov.tender.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.perminov.tender.model.Alert;
+import ru.perminov.tender.repository.projection.AlertCountersProjection;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,4 +25,26 @@ public interface AlertRepository extends JpaRepository<Alert, UUID> {
     List<Alert> findByStatus(Alert.AlertStatus status);
     
     List<Alert> findByEntityIdAndEntityType(UUID entityId, String entityType);
-} 
\ No newline at end of file
+
+    List<Alert> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    long countByIsReadFalse();
+
+    long countBySeverity(Alert.AlertSeverity severity);
+
+    /**
+     * Непрочитанные, срочные (непрочитанные активные HIGH/CRITICAL) и все алерты пользователя одним агрегатом
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN a.isRead = false THEN 1 ELSE 0 END), 0) AS unread, " +
+           "COALESCE(SUM(CASE WHEN a.isRead = false AND a.status = 'ACTIVE' " +
+           "AND a.severity IN ('HIGH', 'CRITICAL') THEN 1 ELSE 0 END), 0) AS urgent, " +
+           "COUNT(a) AS total FROM Alert a WHERE a.targetUser = :username")
+    AlertCountersProjection countersByTargetUser(@Param("username") String username);
+
+    @Modifying
+    @Query("UPDATE Alert a SET a.isRead = true WHERE a.targetUser = :username AND a.isRead = false")
+    int markAllAsReadByTargetUser(@Param("username") String username);
+
+    @Query("SELECT a.dedupKey FROM Alert a WHERE a.dedupKey IN :keys")
+    List<String> findExistingDedupKeys(@Param("keys") Collection<String> keys);
+}
@@ -0,0 +1,25 @@
+package ru.perminov.tender.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.perminov.tender.model.AlertScanWatermark;
+
+import java.util.Optional;
+
+@Repository
+public interface AlertScanWatermarkRepository extends JpaRepository<AlertScanWatermark, String> {
+
+    /**
+     * Водяной знак проверки с блокировкой строки; пусто, если проверку уже выполняет другой узел
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT w FROM AlertScanWatermark w WHERE w.checkName = :checkName")
+    Optional<AlertScanWatermark> lockByCheckName(@Param("checkName") String checkName);
+}
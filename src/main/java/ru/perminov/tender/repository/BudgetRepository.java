@@ -0,0 +1,33 @@
+package ru.perminov.tender.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.perminov.tender.model.Budget;
+import ru.perminov.tender.repository.projection.AlertCandidateProjection;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface BudgetRepository extends JpaRepository<Budget, UUID> {
+
+    /**
+     * Бюджеты с расходом больше общего лимита, измененные начиная с момента
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b.id AS entityId, b.id AS sourceId, b.budgetNumber AS reference, " +
+           "CAST(b.totalBudget AS String) AS detail FROM Budget b " +
+           "WHERE b.status IN :statuses AND b.spentBudget > b.totalBudget AND b.updatedAt >= :updatedFrom")
+    Stream<AlertCandidateProjection> streamExceededCandidates(@Param("statuses") Collection<Budget.BudgetStatus> statuses,
+                                                              @Param("updatedFrom") LocalDateTime updatedFrom);
+}
@@ -1,11 +1,16 @@
 package ru.perminov.tender.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.perminov.tender.model.Category;
 
 import java.util.UUID;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
@@ -13,4 +18,11 @@ public interface CategoryRepository extends JpaRepository<Category, UUID> {
     boolean existsByName(String name);
     
     Optional<Category> findByName(String name);
-} 
\ No newline at end of file
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Category c ORDER BY c.name")
+    Stream<Category> streamAllForExport();
+}
@@ -1,8 +1,14 @@
 package ru.perminov.tender.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.perminov.tender.model.Characteristic;
+import ru.perminov.tender.repository.projection.CountAndLastUpdateProjection;
+
 import java.util.UUID;
  
 public interface CharacteristicRepository extends JpaRepository<Characteristic, UUID> {
-} 
\ No newline at end of file
+
+    @Query("SELECT COUNT(c) AS total, MAX(c.updatedAt) AS lastUpdated FROM Characteristic c")
+    CountAndLastUpdateProjection getCountAndLastUpdate();
+}
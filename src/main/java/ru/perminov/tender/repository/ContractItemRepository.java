@@ -6,6 +6,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.perminov.tender.model.ContractItem;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,6 +24,12 @@ public interface ContractItemRepository extends JpaRepository<ContractItem, UUID
     @Query("SELECT ci FROM ContractItem ci LEFT JOIN FETCH ci.unit LEFT JOIN FETCH ci.material WHERE ci.contract.id = :contractId")
     List<ContractItem> findByContractIdWithUnitsAndMaterials(@Param("contractId") UUID contractId);
     
+    /**
+     * Позиции нескольких контрактов с единицами измерения и материалами - для списков
+     */
+    @Query("SELECT ci FROM ContractItem ci LEFT JOIN FETCH ci.unit LEFT JOIN FETCH ci.material WHERE ci.contract.id IN :contractIds")
+    List<ContractItem> findByContractIdInWithUnitsAndMaterials(@Param("contractIds") Collection<UUID> contractIds);
+    
     /**
      * Найти позиции по материалу
      */
@@ -1,17 +1,28 @@
 package ru.perminov.tender.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.perminov.tender.model.Contract;
+import ru.perminov.tender.repository.projection.AlertCandidateProjection;
+import ru.perminov.tender.repository.projection.ContractStatsProjection;
+import ru.perminov.tender.repository.projection.SupplierContractStatsProjection;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ContractRepository extends JpaRepository<Contract, UUID> {
+public interface ContractRepository extends JpaRepository<Contract, UUID>, JpaSpecificationExecutor<Contract> {
     
     /**
      * Найти контракты по статусу
@@ -47,4 +58,55 @@ public interface ContractRepository extends JpaRepository<Contract, UUID> {
     List<Contract> findContractsExpiringBy(@Param("endDate") LocalDate endDate);
 
     long countByStatus(Contract.ContractStatus status);
-} 
\ No newline at end of file
+
+    /**
+     * Агрегированные счетчики и суммы контрактов для дашборда
+     */
+    @Query("SELECT COUNT(c) AS total, " +
+           "COALESCE(SUM(CASE WHEN c.status = 'ACTIVE' THEN 1 ELSE 0 END), 0) AS active, " +
+           "COALESCE(SUM(c.totalAmount), 0) AS totalAmount " +
+           "FROM Contract c")
+    ContractStatsProjection getDashboardStats();
+
+    /**
+     * Статистика контрактов в разрезе победивших поставщиков
+     */
+    @Query("SELECT t.awardedSupplierId AS supplierId, COUNT(c) AS total, " +
+           "COALESCE(SUM(c.totalAmount), 0) AS totalAmount " +
+           "FROM Contract c JOIN c.tender t " +
+           "WHERE t.awardedSupplierId IN :supplierIds GROUP BY t.awardedSupplierId")
+    List<SupplierContractStatsProjection> getSupplierStats(@Param("supplierIds") Collection<UUID> supplierIds);
+
+    /**
+     * Найти последние контракты по дате начала
+     */
+    @Query("SELECT c FROM Contract c ORDER BY c.startDate DESC NULLS LAST")
+    List<Contract> findRecentContracts(Pageable pageable);
+
+    /**
+     * Потоковое чтение контрактов со складом тендера для выгрузки реестра
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Contract c LEFT JOIN FETCH c.tender t LEFT JOIN FETCH t.warehouse ORDER BY c.createdAt")
+    Stream<Contract> streamAllForExport();
+
+    @Query("SELECT DISTINCT c FROM Contract c LEFT JOIN FETCH c.supplierProposal sp LEFT JOIN FETCH sp.supplier " +
+           "LEFT JOIN FETCH c.contractItems ci LEFT JOIN FETCH ci.material LEFT JOIN FETCH ci.unit " +
+           "WHERE c.tender.request.id IN :requestIds")
+    List<Contract> findWithItemsByTenderRequestIdIn(@Param("requestIds") Collection<UUID> requestIds);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c.id AS entityId, c.id AS sourceId, COALESCE(c.contractNumber, c.title) AS reference, " +
+           "CAST(c.endDate AS String) AS detail FROM Contract c " +
+           "WHERE c.status = 'ACTIVE' AND c.endDate < :dueTo " +
+           "AND (c.endDate >= :dueFrom OR c.updatedAt >= :updatedFrom)")
+    Stream<AlertCandidateProjection> streamExpiringCandidates(@Param("dueFrom") LocalDate dueFrom,
+                                                              @Param("dueTo") LocalDate dueTo,
+                                                              @Param("updatedFrom") LocalDateTime updatedFrom);
+}
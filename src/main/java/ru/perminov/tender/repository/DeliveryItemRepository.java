@@ -1,9 +1,13 @@
 package ru.perminov.tender.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.perminov.tender.model.DeliveryItem;
+import ru.perminov.tender.repository.projection.IdAmountProjection;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -34,4 +38,12 @@ public interface DeliveryItemRepository extends JpaRepository<DeliveryItem, UUID
      * Найти позиции по поставке и материалу
      */
     List<DeliveryItem> findByDeliveryIdAndMaterialId(UUID deliveryId, UUID materialId);
-} 
\ No newline at end of file
+
+    /**
+     * Суммы позиций по набору поставок
+     */
+    @Query("SELECT di.delivery.id AS id, COALESCE(SUM(di.totalPrice), 0) AS amount " +
+           "FROM DeliveryItem di WHERE di.delivery.id IN :deliveryIds GROUP BY di.delivery.id")
+    List<IdAmountProjection> sumTotalPriceByDeliveryIds(@Param("deliveryIds") Collection<UUID> deliveryIds);
+}
+
@@ -1,15 +1,25 @@
 package ru.perminov.tender.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.perminov.tender.model.Delivery;
+import ru.perminov.tender.repository.projection.AlertCandidateProjection;
+import ru.perminov.tender.repository.projection.DeliveryStatsProjection;
+import ru.perminov.tender.repository.projection.SupplierDeliveryStatsProjection;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface DeliveryRepository extends JpaRepository<Delivery, UUID>, JpaSpecificationExecutor<Delivery> {
@@ -107,4 +117,66 @@ public interface DeliveryRepository extends JpaRepository<Delivery, UUID>, JpaSp
            "LEFT JOIN FETCH di.unit " +
            "WHERE r.id = :requestId")
     List<Delivery> findByContractTenderRequestId(@Param("requestId") UUID requestId);
-} 
\ No newline at end of file
+
+    /**
+     * Агрегированные счетчики поставок для дашборда
+     */
+    @Query("SELECT COUNT(d) AS total, " +
+           "COALESCE(SUM(CASE WHEN d.status IN ('PLANNED', 'IN_TRANSIT') THEN 1 ELSE 0 END), 0) AS pending, " +
+           "COALESCE(SUM(CASE WHEN d.plannedDeliveryDate < :currentDate " +
+           "AND (d.status IS NULL OR d.status <> 'ACCEPTED') THEN 1 ELSE 0 END), 0) AS overdue, " +
+           "COALESCE(SUM(CASE WHEN d.status = 'ACCEPTED' AND d.actualDate IS NOT NULL " +
+           "AND d.plannedDeliveryDate >= d.actualDate THEN 1 ELSE 0 END), 0) AS onTime " +
+           "FROM Delivery d")
+    DeliveryStatsProjection getDashboardStats(@Param("currentDate") LocalDate currentDate);
+
+    /**
+     * Найти непринятые поставки с истекшей плановой датой (самые просроченные первыми)
+     */
+    @Query("SELECT d FROM Delivery d " +
+           "LEFT JOIN FETCH d.supplier " +
+           "LEFT JOIN FETCH d.contract " +
+           "WHERE d.plannedDeliveryDate < :currentDate AND (d.status IS NULL OR d.status <> 'ACCEPTED') " +
+           "ORDER BY d.plannedDeliveryDate ASC")
+    List<Delivery> findNotAcceptedOverdue(@Param("currentDate") LocalDate currentDate, Pageable pageable);
+
+    /**
+     * Статистика поставок в разрезе поставщиков
+     */
+    @Query("SELECT d.supplier.id AS supplierId, COUNT(d) AS total, " +
+           "COALESCE(SUM(CASE WHEN d.status = 'ACCEPTED' AND d.actualDate IS NOT NULL " +
+           "AND d.plannedDeliveryDate >= d.actualDate THEN 1 ELSE 0 END), 0) AS onTime, " +
+           "COALESCE(SUM(CASE WHEN d.status = 'REJECTED' THEN 1 ELSE 0 END), 0) AS rejected, " +
+           "COALESCE(SUM(CASE WHEN d.plannedDeliveryDate < d.actualDate THEN 1 ELSE 0 END), 0) AS delayed " +
+           "FROM Delivery d WHERE d.supplier IS NOT NULL GROUP BY d.supplier.id")
+    List<SupplierDeliveryStatsProjection> getSupplierStats();
+
+    /**
+     * Потоковое чтение поставок для выгрузки реестра
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d FROM Delivery d LEFT JOIN FETCH d.contract LEFT JOIN FETCH d.supplier LEFT JOIN FETCH d.warehouse " +
+           "ORDER BY d.createdAt")
+    Stream<Delivery> streamAllForExport();
+
+    @Query("SELECT DISTINCT d FROM Delivery d LEFT JOIN FETCH d.supplier LEFT JOIN FETCH d.warehouse " +
+           "LEFT JOIN FETCH d.deliveryItems di LEFT JOIN FETCH di.material LEFT JOIN FETCH di.unit " +
+           "WHERE d.contract.id IN :contractIds")
+    List<Delivery> findWithItemsByContractIdIn(@Param("contractIds") Collection<UUID> contractIds);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d.id AS entityId, d.id AS sourceId, d.deliveryNumber AS reference, " +
+           "CAST(d.plannedDeliveryDate AS String) AS detail FROM Delivery d " +
+           "WHERE d.status IN :statuses AND d.plannedDeliveryDate < :dueTo " +
+           "AND (d.plannedDeliveryDate >= :dueFrom OR d.updatedAt >= :updatedFrom)")
+    Stream<AlertCandidateProjection> streamOverdueCandidates(@Param("statuses") Collection<Delivery.DeliveryStatus> statuses,
+                                                             @Param("dueFrom") LocalDate dueFrom,
+                                                             @Param("dueTo") LocalDate dueTo,
+                                                             @Param("updatedFrom") LocalDateTime updatedFrom);
+}
@@ -1,13 +1,17 @@
 package ru.perminov.tender.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.perminov.tender.model.Document;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, UUID> {
@@ -56,4 +60,14 @@ public interface DocumentRepository extends JpaRepository<Document, UUID> {
     List<Document> findLatestVersionsByEntity(@Param("entityId") UUID entityId, @Param("entityType") String entityType);
 
     long countByStatus(Document.DocumentStatus status);
-} 
\ No newline at end of file
+
+    /**
+     * Потоковое чтение документов для выгрузки реестра
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d FROM Document d ORDER BY d.createdAt")
+    Stream<Document> streamAllForExport();
+}
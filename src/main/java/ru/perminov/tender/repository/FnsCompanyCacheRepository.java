@@ -0,0 +1,9 @@
+package ru.perminov.tender.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.perminov.tender.model.FnsCompanyCache;
+
+@Repository
+public interface FnsCompanyCacheRepository extends JpaRepository<FnsCompanyCache, String> {
+}
@@ -0,0 +1,17 @@
+package ru.perminov.tender.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.perminov.tender.model.ImportJobError;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ImportJobErrorRepository extends JpaRepository<ImportJobError, UUID> {
+
+    List<ImportJobError> findByJobIdOrderByRowNumber(UUID jobId, Pageable pageable);
+
+    long countByJobId(UUID jobId);
+}
@@ -0,0 +1,11 @@
+package ru.perminov.tender.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.perminov.tender.model.ImportJobFile;
+
+import java.util.UUID;
+
+@Repository
+public interface ImportJobFileRepository extends JpaRepository<ImportJobFile, UUID> {
+}
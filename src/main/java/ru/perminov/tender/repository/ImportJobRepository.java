@@ -0,0 +1,64 @@
+package ru.perminov.tender.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.perminov.tender.model.ImportJob;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, UUID> {
+
+    List<ImportJob> findAllByOrderByCreatedAtDesc(Pageable pageable);
+
+    /**
+     * Задания, которые можно захватить: ожидающие в очереди и выполняемые узлом, переставшим продлевать аренду
+     */
+    @Query("SELECT j.id FROM ImportJob j WHERE j.status = 'QUEUED' " +
+            "OR (j.status = 'RUNNING' AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore)) ORDER BY j.createdAt")
+    List<UUID> findClaimableIds(@Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Захват задания узлом. Условие проверяется в самом UPDATE, поэтому из нескольких узлов
+     * задание получает только тот, у которого обновлена строка
+     */
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.status = 'RUNNING', j.owner = :owner, j.heartbeatAt = :now, " +
+            "j.attempts = j.attempts + 1, j.startedAt = COALESCE(j.startedAt, :now), j.updatedAt = :now " +
+            "WHERE j.id = :id AND (j.status = 'QUEUED' " +
+            "OR (j.status = 'RUNNING' AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore)))")
+    int claim(@Param("id") UUID id,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Продление аренды заданий, которые узел выполняет
+     */
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.heartbeatAt = :now " +
+            "WHERE j.id IN :ids AND j.owner = :owner AND j.status = 'RUNNING'")
+    int heartbeat(@Param("ids") Collection<UUID> ids, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    /**
+     * Фиксирует прогресс задания в транзакции сохраненной пачки. 0 строк - задание уже захвачено другим узлом
+     */
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.processedRows = :processed, j.importedRows = :imported, " +
+            "j.errorCount = :errorCount, j.lastCommittedRow = :lastRow, j.updatedAt = :now, j.heartbeatAt = :now " +
+            "WHERE j.id = :id AND j.owner = :owner AND j.status = 'RUNNING'")
+    int updateProgress(@Param("id") UUID id,
+                       @Param("owner") String owner,
+                       @Param("lastRow") int lastRow,
+                       @Param("processed") int processed,
+                       @Param("imported") int imported,
+                       @Param("errorCount") int errorCount,
+                       @Param("now") LocalDateTime now);
+}
@@ -1,18 +1,20 @@
 package ru.perminov.tender.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.perminov.tender.model.Invoice;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
+public interface InvoiceRepository extends JpaRepository<Invoice, UUID>, JpaSpecificationExecutor<Invoice> {
     
     List<Invoice> findByRequestId(UUID requestId);
     
@@ -49,4 +51,12 @@ public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
     default List<Invoice> findOverdueInvoices() {
         return findOverdueInvoices(LocalDate.now());
     }
-} 
\ No newline at end of file
+
+    @Query("SELECT DISTINCT i FROM Invoice i LEFT JOIN FETCH i.supplier LEFT JOIN FETCH i.invoiceItems ii " +
+           "LEFT JOIN FETCH ii.unit LEFT JOIN FETCH ii.material WHERE i.contract.id IN :contractIds")
+    List<Invoice> findWithItemsByContractIdIn(@Param("contractIds") Collection<UUID> contractIds);
+
+    @Query("SELECT DISTINCT i FROM Invoice i LEFT JOIN FETCH i.supplier LEFT JOIN FETCH i.invoiceItems ii " +
+           "LEFT JOIN FETCH ii.unit LEFT JOIN FETCH ii.material WHERE i.request.id IN :requestIds")
+    List<Invoice> findWithItemsByRequestIdIn(@Param("requestIds") Collection<UUID> requestIds);
+}
@@ -1,14 +1,55 @@
 package ru.perminov.tender.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.perminov.tender.model.Material;
+import ru.perminov.tender.repository.projection.CountAndLastUpdateProjection;
+import ru.perminov.tender.repository.projection.MatchingCatalogRowProjection;
+import ru.perminov.tender.repository.projection.MaterialExportProjection;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface MaterialRepository extends JpaRepository<Material, UUID> {
 
     boolean existsByName(String name);
-    
-} 
\ No newline at end of file
+
+    /**
+     * Названия всех материалов, для проверки дублей при импорте
+     */
+    @Query("SELECT m.name FROM Material m WHERE m.name IS NOT NULL")
+    List<String> findAllNames();
+
+    /**
+     * Материалы с характеристиками (материал без характеристик - одна строка с null) для индекса сопоставления
+     */
+    @Query("SELECT m.id AS materialId, m.name AS materialName, m.code AS materialCode, "
+            + "c.id AS characteristicId, c.name AS characteristicName "
+            + "FROM Material m LEFT JOIN m.characteristics c WHERE m.name IS NOT NULL")
+    List<MatchingCatalogRowProjection> findMatchingCatalogRows();
+
+    @Query("SELECT COUNT(m) AS total, MAX(m.updatedAt) AS lastUpdated FROM Material m")
+    CountAndLastUpdateProjection getCountAndLastUpdate();
+
+    /**
+     * Материалы для выгрузки в Excel, единицы измерения собираются в строку через запятую
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m.id AS id, m.name AS name, m.description AS description, mt.name AS materialTypeName, "
+            + "m.link AS link, m.code AS code, c.name AS categoryName, "
+            + "LISTAGG(u.name, ', ') WITHIN GROUP (ORDER BY u.name) AS unitNames, "
+            + "m.createdAt AS createdAt, m.updatedAt AS updatedAt "
+            + "FROM Material m LEFT JOIN m.materialType mt LEFT JOIN m.category c LEFT JOIN m.units u "
+            + "GROUP BY m.id, m.name, m.description, mt.name, m.link, m.code, c.name, m.createdAt, m.updatedAt "
+            + "ORDER BY m.name")
+    Stream<MaterialExportProjection> streamAllForExport();
+}
@@ -1,11 +1,16 @@
 package ru.perminov.tender.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.perminov.tender.model.MaterialType;
 
 import java.util.UUID;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MaterialTypeRepository extends JpaRepository<MaterialType, UUID> {
@@ -13,4 +18,11 @@ public interface MaterialTypeRepository extends JpaRepository<MaterialType, UUID
     boolean existsByName(String name);
     
     Optional<MaterialType> findByName(String name);
-} 
\ No newline at end of file
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM MaterialType m ORDER BY m.name")
+    Stream<MaterialType> streamAllForExport();
+}
@@ -1,12 +1,19 @@
 package ru.perminov.tender.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.perminov.tender.model.Notification;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -40,4 +47,35 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     List<String> findCustomerEmailsByRole();
 
     List<Notification> findAllByOrderByCreatedAtDesc();
+
+    long countByStatus(Notification.NotificationStatus status);
+
+    /**
+     * Уведомления, готовые к отправке. Строки блокируются с пропуском уже захваченных другим обработчиком
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM Notification n WHERE n.status = 'PENDING' AND n.nextAttemptAt <= :now ORDER BY n.nextAttemptAt")
+    List<Notification> findDueForDispatch(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Возвращает в очередь уведомления, захваченные обработчиком, который не завершил отправку
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = 'PENDING' WHERE n.status = 'SENDING' AND n.nextAttemptAt < :now")
+    int releaseExpiredClaims(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = 'SENT', n.sentAt = :sentAt, n.errorMessage = NULL, " +
+            "n.attempts = n.attempts + 1 WHERE n.id IN :ids")
+    int markSent(@Param("ids") Collection<UUID> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = :status, n.attempts = :attempts, n.nextAttemptAt = :nextAttemptAt, " +
+            "n.errorMessage = :errorMessage WHERE n.id = :id")
+    int markAttemptFailed(@Param("id") UUID id,
+                          @Param("status") Notification.NotificationStatus status,
+                          @Param("attempts") int attempts,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                          @Param("errorMessage") String errorMessage);
 } 
\ No newline at end of file
@@ -1,7 +1,10 @@
 package ru.perminov.tender.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.perminov.tender.model.OrgSupplierMaterialMapping;
+import ru.perminov.tender.repository.projection.SupplierNameMappingProjection;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,4 +16,19 @@ public interface OrgSupplierMaterialMappingRepository extends JpaRepository<OrgS
     Optional<OrgSupplierMaterialMapping> findByOrganizationIdAndSupplierNameAndMaterialId(UUID organizationId, String supplierName, UUID materialId);
     
     List<OrgSupplierMaterialMapping> findByOrganizationId(UUID organizationId);
-} 
\ No newline at end of file
+
+    /**
+     * Все соответствия организации вместе с материалом и характеристикой, для кэша соответствий
+     */
+    @EntityGraph(attributePaths = {"organization", "material", "characteristic"})
+    List<OrgSupplierMaterialMapping> findWithDetailsByOrganizationId(UUID organizationId);
+
+    /**
+     * Все подтвержденные соответствия с названиями материалов для индекса сопоставления
+     */
+    @Query("SELECT o.id AS organizationId, m.supplierName AS supplierName, mat.id AS materialId, "
+            + "mat.name AS materialName, c.id AS characteristicId, c.name AS characteristicName "
+            + "FROM OrgSupplierMaterialMapping m JOIN m.material mat LEFT JOIN m.organization o "
+            + "LEFT JOIN m.characteristic c WHERE m.supplierName IS NOT NULL")
+    List<SupplierNameMappingProjection> findAllForMatching();
+}
@@ -1,18 +1,28 @@
 package ru.perminov.tender.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.perminov.tender.model.Payment;
+import ru.perminov.tender.repository.projection.AlertCandidateProjection;
+import ru.perminov.tender.repository.projection.PaymentStatsProjection;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, UUID> {
+public interface PaymentRepository extends JpaRepository<Payment, UUID>, JpaSpecificationExecutor<Payment> {
     
     /**
      * Найти платежи по статусу
@@ -67,4 +77,47 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
     boolean existsByDeliveryId(UUID deliveryId);
 
     List<Payment> findAllByDeliveryId(UUID deliveryId);
-} 
\ No newline at end of file
+
+    /**
+     * Агрегированные счетчики и суммы платежей для дашборда
+     */
+    @Query("SELECT COUNT(p) AS total, " +
+           "COALESCE(SUM(CASE WHEN p.dueDate < :currentDate " +
+           "AND (p.status IS NULL OR p.status <> 'PAID') THEN 1 ELSE 0 END), 0) AS overdue, " +
+           "COALESCE(SUM(CASE WHEN p.status = 'PAID' THEN p.amount ELSE 0 END), 0) AS paidAmount " +
+           "FROM Payment p")
+    PaymentStatsProjection getDashboardStats(@Param("currentDate") LocalDate currentDate);
+
+    /**
+     * Найти неоплаченные платежи с истекшим сроком (самые просроченные первыми)
+     */
+    @Query("SELECT p FROM Payment p " +
+           "LEFT JOIN FETCH p.supplier " +
+           "LEFT JOIN FETCH p.contract " +
+           "WHERE p.dueDate < :currentDate AND (p.status IS NULL OR p.status <> 'PAID') " +
+           "ORDER BY p.dueDate ASC")
+    List<Payment> findNotPaidOverdue(@Param("currentDate") LocalDate currentDate, Pageable pageable);
+
+    /**
+     * Потоковое чтение платежей для выгрузки реестра
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Payment p LEFT JOIN FETCH p.contract LEFT JOIN FETCH p.supplier ORDER BY p.createdAt")
+    Stream<Payment> streamAllForExport();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.id AS entityId, p.id AS sourceId, p.paymentNumber AS reference, " +
+           "CAST(p.dueDate AS String) AS detail FROM Payment p " +
+           "WHERE p.status IN :statuses AND p.dueDate < :dueTo " +
+           "AND (p.dueDate >= :dueFrom OR p.updatedAt >= :updatedFrom)")
+    Stream<AlertCandidateProjection> streamOverdueCandidates(@Param("statuses") Collection<Payment.PaymentStatus> statuses,
+                                                             @Param("dueFrom") LocalDate dueFrom,
+                                                             @Param("dueTo") LocalDate dueTo,
+                                                             @Param("updatedFrom") LocalDateTime updatedFrom);
+}
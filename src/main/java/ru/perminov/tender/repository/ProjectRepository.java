@@ -1,14 +1,26 @@
 package ru.perminov.tender.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.perminov.tender.model.Project;
 
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, UUID> {
 
     boolean existsByName(String name);
     
-} 
\ No newline at end of file
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Project p ORDER BY p.name")
+    Stream<Project> streamAllForExport();
+}
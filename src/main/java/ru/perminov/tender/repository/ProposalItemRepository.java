@@ -2,8 +2,11 @@ package ru.perminov.tender.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.perminov.tender.model.ProposalItem;
+import ru.perminov.tender.repository.projection.ProposalItemPriceProjection;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.Optional;
@@ -15,6 +18,10 @@ public interface ProposalItemRepository extends JpaRepository<ProposalItem, UUID
     @Query("SELECT pi FROM ProposalItem pi LEFT JOIN FETCH pi.unit WHERE pi.supplierProposal.id = :supplierProposalId")
     List<ProposalItem> findBySupplierProposalIdWithUnit(UUID supplierProposalId);
 
+    @Query("SELECT pi FROM ProposalItem pi LEFT JOIN FETCH pi.tenderItem LEFT JOIN FETCH pi.warranty " +
+           "WHERE pi.supplierProposal.tender.id = :tenderId")
+    List<ProposalItem> findByTenderIdWithTenderItem(@Param("tenderId") UUID tenderId);
+
     List<ProposalItem> findByTenderItemId(UUID tenderItemId);
 
     boolean existsBySupplierProposalIdAndTenderItemId(UUID supplierProposalId, UUID tenderItemId);
@@ -22,4 +29,9 @@ public interface ProposalItemRepository extends JpaRepository<ProposalItem, UUID
     Optional<ProposalItem> findFirstByTenderItem_IdAndTotalPrice(UUID tenderItemId, Double totalPrice);
     
     List<ProposalItem> findAllByTenderItem_IdAndTotalPriceOrderBySupplierProposal_SubmissionDateAsc(UUID tenderItemId, Double totalPrice);
-} 
\ No newline at end of file
+
+    @Query("SELECT sp.tender.id AS tenderId, ti.id AS tenderItemId, pi.unitPrice AS unitPrice, pi.totalPrice AS totalPrice " +
+           "FROM ProposalItem pi JOIN pi.supplierProposal sp JOIN pi.tenderItem ti " +
+           "WHERE sp.tender.id IN :tenderIds AND ti.tender.id = sp.tender.id AND pi.unitPrice IS NOT NULL")
+    List<ProposalItemPriceProjection> findPricesByTenderIds(@Param("tenderIds") Collection<UUID> tenderIds);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.perminov.tender.model.Receipt;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,4 +24,8 @@ public interface ReceiptRepository extends JpaRepository<Receipt, UUID> {
     
     @Query("SELECT r FROM Receipt r WHERE r.status = 'RECEIVED' AND r.delivery.contract.tender.request.id = :requestId")
     List<Receipt> findReceivedReceiptsByRequest(@Param("requestId") UUID requestId);
-} 
\ No newline at end of file
+
+    List<Receipt> findByInvoiceIdIn(Collection<UUID> invoiceIds);
+
+    List<Receipt> findByDeliveryIdIn(Collection<UUID> deliveryIds);
+}
@@ -0,0 +1,48 @@
+package ru.perminov.tender.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.perminov.tender.model.RequestProcessSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RequestProcessSummaryRepository extends JpaRepository<RequestProcessSummary, UUID>,
+        JpaSpecificationExecutor<RequestProcessSummary> {
+
+    /**
+     * Блокирует строки сводки до конца транзакции. Порядок по id одинаков во всех транзакциях - без взаимных блокировок
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM RequestProcessSummary s WHERE s.id IN :ids ORDER BY s.id")
+    List<RequestProcessSummary> lockAllByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("DELETE FROM RequestProcessSummary s WHERE s.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Заявки, к которым относятся измененные документы цепочки
+
+    @Query("SELECT t.request.id FROM Tender t WHERE t.id IN :ids AND t.request IS NOT NULL")
+    List<UUID> findRequestIdsByTenderIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT t.request.id FROM Contract c JOIN c.tender t WHERE c.id IN :ids AND t.request IS NOT NULL")
+    List<UUID> findRequestIdsByContractIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT i.request.id FROM Invoice i WHERE i.id IN :ids AND i.request IS NOT NULL")
+    List<UUID> findRequestIdsByInvoiceIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT i.contract.id FROM Invoice i WHERE i.id IN :ids AND i.contract IS NOT NULL")
+    List<UUID> findContractIdsByInvoiceIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT d.contract.id FROM Delivery d WHERE d.id IN :ids AND d.contract IS NOT NULL")
+    List<UUID> findContractIdsByDeliveryIds(@Param("ids") Collection<UUID> ids);
+}
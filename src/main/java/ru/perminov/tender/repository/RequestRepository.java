@@ -1,14 +1,24 @@
 package ru.perminov.tender.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.perminov.tender.model.Request;
+import ru.perminov.tender.repository.projection.RequestMaterialsSummaryProjection;
+import ru.perminov.tender.repository.projection.RequestRegistryRowProjection;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface RequestRepository extends JpaRepository<Request, UUID> {
+public interface RequestRepository extends JpaRepository<Request, UUID>, JpaSpecificationExecutor<Request> {
     
     @Query("SELECT r FROM Request r " +
            "LEFT JOIN FETCH r.requestMaterials rm " +
@@ -52,4 +62,53 @@ public interface RequestRepository extends JpaRepository<Request, UUID> {
            "LEFT JOIN FETCH rm.unit " +
            "WHERE r.requestNumber = :requestNumber")
     Optional<Request> findByRequestNumber(@Param("requestNumber") String requestNumber);
-} 
\ No newline at end of file
+
+    /**
+     * Потоковое чтение строк реестра заявок с фильтрами по организации, проекту, датам и материалу
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r.id AS requestId, r.requestNumber AS requestNumber, r.date AS date, " +
+           "o.name AS organizationName, o.shortName AS organizationShortName, o.legalName AS organizationLegalName, " +
+           "p.name AS projectName, r.status AS status, " +
+           "(SELECT COUNT(rm) FROM RequestMaterial rm WHERE rm.request = r) AS materialsCount, " +
+           "(SELECT MIN(rn.note) FROM RequestMaterial rn WHERE rn.request = r AND TRIM(rn.note) <> '') AS note " +
+           "FROM Request r JOIN r.organization o JOIN r.project p " +
+           "WHERE (:organization IS NULL OR LOWER(o.name) LIKE :organization ESCAPE '\\') " +
+           "AND (:project IS NULL OR LOWER(p.name) LIKE :project ESCAPE '\\') " +
+           "AND (:fromDate IS NULL OR r.date >= :fromDate) " +
+           "AND (:toDate IS NULL OR r.date <= :toDate) " +
+           "AND (:materialName IS NULL OR EXISTS (SELECT 1 FROM RequestMaterial rf " +
+           "WHERE rf.request = r AND LOWER(rf.material.name) LIKE :materialName ESCAPE '\\')) " +
+           "ORDER BY r.date, r.id")
+    Stream<RequestRegistryRowProjection> streamRegistryRows(@Param("organization") String organization,
+                                                            @Param("project") String project,
+                                                            @Param("fromDate") LocalDate fromDate,
+                                                            @Param("toDate") LocalDate toDate,
+                                                            @Param("materialName") String materialName);
+
+    /**
+     * Заявки страницы с организацией, проектом, складом и материалами для сборки процесса заявки
+     */
+    @Query("SELECT DISTINCT r FROM Request r " +
+           "LEFT JOIN FETCH r.organization " +
+           "LEFT JOIN FETCH r.project " +
+           "LEFT JOIN FETCH r.warehouse " +
+           "LEFT JOIN FETCH r.requestMaterials rm " +
+           "LEFT JOIN FETCH rm.material " +
+           "WHERE r.id IN :ids")
+    List<Request> findForProcessByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT r.id FROM Request r ORDER BY r.date DESC, r.id")
+    List<UUID> findAllIds();
+
+    /**
+     * Количество материалов и примечание для строк реестра заявок одной страницы
+     */
+    @Query("SELECT rm.request.id AS requestId, COUNT(rm) AS materialsCount, " +
+           "MIN(CASE WHEN TRIM(rm.note) <> '' THEN rm.note END) AS note " +
+           "FROM RequestMaterial rm WHERE rm.request.id IN :ids GROUP BY rm.request.id")
+    List<RequestMaterialsSummaryProjection> summarizeMaterialsByRequestIdIn(@Param("ids") Collection<UUID> ids);
+}
@@ -0,0 +1,44 @@
+package ru.perminov.tender.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.perminov.tender.model.RevokedToken;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, UUID> {
+
+    boolean existsByTokenHash(String tokenHash);
+
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+
+    /**
+     * Отзывы, появившиеся начиная с момента, используется для инкрементального обновления узлов
+     */
+    List<RevokedToken> findByRevokedAtGreaterThanEqualAndExpiresAtAfter(LocalDateTime since, LocalDateTime now);
+
+    /**
+     * Добавляет отзыв, если токен еще не отозван. Повтор не нарушает транзакцию вызывающего,
+     * в отличие от исключения уникальности при flush; возвращает число вставленных строк
+     */
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (id, token_hash, user_id, reason, expires_at, revoked_at) " +
+            "VALUES (:id, :tokenHash, :userId, :reason, :expiresAt, :revokedAt) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id,
+                       @Param("tokenHash") String tokenHash,
+                       @Param("userId") UUID userId,
+                       @Param("reason") String reason,
+                       @Param("expiresAt") LocalDateTime expiresAt,
+                       @Param("revokedAt") LocalDateTime revokedAt);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
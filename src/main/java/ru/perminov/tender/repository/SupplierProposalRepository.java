@@ -1,14 +1,50 @@
 package ru.perminov.tender.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.perminov.tender.model.SupplierProposal;
+import ru.perminov.tender.repository.projection.IdCountProjection;
+import ru.perminov.tender.repository.projection.IdValueProjection;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface SupplierProposalRepository extends JpaRepository<SupplierProposal, UUID> {
+public interface SupplierProposalRepository extends JpaRepository<SupplierProposal, UUID>, JpaSpecificationExecutor<SupplierProposal> {
     List<SupplierProposal> findByTenderId(UUID tenderId);
     List<SupplierProposal> findBySupplierId(UUID supplierId);
     List<SupplierProposal> findByStatus(SupplierProposal.ProposalStatus status);
     List<SupplierProposal> findByTenderIdAndSupplierId(UUID tenderId, UUID supplierId);
-} 
\ No newline at end of file
+
+    @Query("SELECT sp.tender.id AS id, COUNT(sp) AS total FROM SupplierProposal sp " +
+           "WHERE sp.tender.id IN :tenderIds GROUP BY sp.tender.id")
+    List<IdCountProjection> countByTenderIds(@Param("tenderIds") Collection<UUID> tenderIds);
+
+    /**
+     * Потоковое чтение предложений для выгрузки реестра
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT sp FROM SupplierProposal sp LEFT JOIN FETCH sp.tender LEFT JOIN FETCH sp.supplier " +
+           "ORDER BY sp.submissionDate")
+    Stream<SupplierProposal> streamAllForExport();
+
+    /**
+     * Минимальная цена предложения по каждому тендеру
+     */
+    @Query("SELECT sp.tender.id AS id, MIN(sp.totalPrice) AS value FROM SupplierProposal sp " +
+           "WHERE sp.totalPrice IS NOT NULL GROUP BY sp.tender.id")
+    List<IdValueProjection> findBestPricesByTender();
+
+    @Query("SELECT DISTINCT sp FROM SupplierProposal sp LEFT JOIN FETCH sp.supplier " +
+           "LEFT JOIN FETCH sp.proposalItems pi LEFT JOIN FETCH pi.unit WHERE sp.tender.id IN :tenderIds")
+    List<SupplierProposal> findWithItemsByTenderIdIn(@Param("tenderIds") Collection<UUID> tenderIds);
+}
@@ -0,0 +1,33 @@
+package ru.perminov.tender.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.perminov.tender.model.SupplierRating;
+import ru.perminov.tender.repository.projection.AlertCandidateProjection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface SupplierRatingRepository extends JpaRepository<SupplierRating, UUID> {
+
+    /**
+     * Утвержденные оценки поставщиков ниже порога, измененные начиная с момента
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s.id AS entityId, r.id AS sourceId, s.name AS reference, CAST(r.overallRating AS String) AS detail " +
+           "FROM SupplierRating r JOIN r.supplier s " +
+           "WHERE r.status = 'APPROVED' AND r.overallRating < :minRating AND r.updatedAt >= :updatedFrom")
+    Stream<AlertCandidateProjection> streamLowRatingCandidates(@Param("minRating") BigDecimal minRating,
+                                                               @Param("updatedFrom") LocalDateTime updatedFrom);
+}
@@ -1,11 +1,19 @@
 package ru.perminov.tender.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.perminov.tender.model.TenderItem;
+import ru.perminov.tender.repository.projection.IdValueProjection;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface TenderItemRepository extends JpaRepository<TenderItem, UUID> {
     List<TenderItem> findByTenderId(UUID tenderId);
-} 
\ No newline at end of file
+
+    @Query("SELECT ti.tender.id AS id, SUM(ti.estimatedPrice * ti.quantity) AS value " +
+           "FROM TenderItem ti WHERE ti.tender.id IN :tenderIds GROUP BY ti.tender.id")
+    List<IdValueProjection> sumEstimatedTotalByTenderIds(@Param("tenderIds") Collection<UUID> tenderIds);
+}
@@ -1,19 +1,64 @@
 package ru.perminov.tender.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.perminov.tender.model.Tender;
+import ru.perminov.tender.repository.projection.AlertCandidateProjection;
+import ru.perminov.tender.repository.projection.IdValueProjection;
+import ru.perminov.tender.repository.projection.MonthlySavingsProjection;
+import ru.perminov.tender.repository.projection.TenderListProjection;
+import ru.perminov.tender.repository.projection.TenderStatsProjection;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface TenderRepository extends JpaRepository<Tender, UUID> {
+public interface TenderRepository extends JpaRepository<Tender, UUID>, JpaSpecificationExecutor<Tender> {
+
+    String TENDER_LIST_SELECT = "SELECT t.id AS id, r.id AS requestId, t.tenderNumber AS tenderNumber, t.title AS title, " +
+           "t.description AS description, t.startDate AS startDate, t.endDate AS endDate, " +
+           "t.submissionDeadline AS submissionDeadline, t.status AS status, t.requirements AS requirements, " +
+           "t.termsAndConditions AS termsAndConditions, " +
+           "c.id AS customerId, c.inn AS customerInn, c.name AS customerName, c.shortName AS customerShortName, " +
+           "t.awardedSupplierId AS awardedSupplierId, aw.inn AS awardedSupplierInn, aw.name AS awardedSupplierName, " +
+           "aw.shortName AS awardedSupplierShortName, aw.email AS awardedSupplierEmail, " +
+           "p.id AS parentTenderId, w.id AS warehouseId, w.name AS warehouseName, " +
+           "(SELECT COUNT(sp) FROM SupplierProposal sp WHERE sp.tender = t) AS proposalsCount, " +
+           "CASE WHEN EXISTS (SELECT 1 FROM Tender ch WHERE ch.parentTender = t) THEN true ELSE false END AS split " +
+           "FROM Tender t " +
+           "LEFT JOIN t.request r " +
+           "LEFT JOIN t.customer c " +
+           "LEFT JOIN t.parentTender p " +
+           "LEFT JOIN t.warehouse w " +
+           "LEFT JOIN Company aw ON aw.id = t.awardedSupplierId ";
 
     List<Tender> findByStatus(Tender.TenderStatus status);
 
     List<Tender> findByCustomerId(UUID customerId);
+
+    @Query(TENDER_LIST_SELECT)
+    List<TenderListProjection> findTenderList();
+
+    @Query(TENDER_LIST_SELECT + "WHERE t.id IN :ids")
+    List<TenderListProjection> findTenderListByIds(@Param("ids") Collection<UUID> ids);
+
+    @Query(TENDER_LIST_SELECT + "WHERE t.status IN :statuses")
+    List<TenderListProjection> findTenderListByStatusIn(@Param("statuses") Collection<Tender.TenderStatus> statuses);
+
+    @Query(TENDER_LIST_SELECT + "WHERE c.id = :customerId")
+    List<TenderListProjection> findTenderListByCustomerId(@Param("customerId") UUID customerId);
     
     long countByStatus(Tender.TenderStatus status);
 
@@ -46,4 +91,69 @@ public interface TenderRepository extends JpaRepository<Tender, UUID> {
            "LEFT JOIN FETCH t.tenderItems ti " +
            "LEFT JOIN FETCH ti.unit")
     java.util.List<Tender> findAllWithCustomer();
-} 
\ No newline at end of file
+
+    @Query("SELECT COUNT(t) AS total, " +
+           "COALESCE(SUM(CASE WHEN t.status IN ('BIDDING', 'DRAFT') THEN 1 ELSE 0 END), 0) AS active, " +
+           "COALESCE(SUM(CASE WHEN t.status = 'AWARDED' THEN 1 ELSE 0 END), 0) AS completed " +
+           "FROM Tender t")
+    TenderStatsProjection getDashboardStats();
+
+    @Query("SELECT t FROM Tender t WHERE t.status IN ('BIDDING', 'DRAFT') " +
+           "ORDER BY t.submissionDeadline ASC NULLS LAST")
+    List<Tender> findActiveTenders(Pageable pageable);
+
+    @Query("SELECT t FROM Tender t ORDER BY t.startDate DESC NULLS LAST")
+    List<Tender> findRecentTenders(Pageable pageable);
+
+    @Query("SELECT t.id AS id, t.savings AS value FROM Tender t WHERE t.id IN :ids")
+    List<IdValueProjection> findSavingsByIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT t.id FROM Tender t WHERE t.savings IS NULL")
+    List<UUID> findIdsWithoutSavings();
+
+    @Query("SELECT COALESCE(SUM(t.savings), 0) FROM Tender t")
+    double sumSavings();
+
+    @Query("SELECT EXTRACT(MONTH FROM t.startDate) AS month, COALESCE(SUM(t.savings), 0) AS savings " +
+           "FROM Tender t WHERE t.startDate IS NOT NULL " +
+           "GROUP BY EXTRACT(MONTH FROM t.startDate) ORDER BY EXTRACT(MONTH FROM t.startDate)")
+    List<MonthlySavingsProjection> sumSavingsByStartMonth();
+
+    /**
+     * Тендеры пачки без сохраненной экономии с блокировкой строк; строки, захваченные другой транзакцией
+     * (например, сбросом экономии при изменении предложений), пропускаются до следующего запуска
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT t FROM Tender t WHERE t.id IN :ids AND t.savings IS NULL ORDER BY t.id")
+    List<Tender> lockWithoutSavings(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("UPDATE Tender t SET t.savings = :savings WHERE t.id = :id AND t.savings IS NULL")
+    int updateSavings(@Param("id") UUID id, @Param("savings") Double savings);
+
+    /**
+     * Сбрасывает экономию всегда через UPDATE строки: блокировка строки упорядочивает сброс
+     * с фоновым пересчетом, даже если экономия уже была сброшена
+     */
+    @Modifying
+    @Query("UPDATE Tender t SET t.savings = NULL WHERE t.id = :id")
+    void resetSavings(@Param("id") UUID id);
+
+    @Query("SELECT DISTINCT t FROM Tender t LEFT JOIN FETCH t.tenderItems WHERE t.request.id IN :requestIds")
+    List<Tender> findWithItemsByRequestIdIn(@Param("requestIds") Collection<UUID> requestIds);
+
+    /**
+     * Тендеры со сроком подачи предложений в диапазоне; у тендеров нет времени изменения, проверяется только срок
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.id AS entityId, t.id AS sourceId, COALESCE(t.tenderNumber, t.title) AS reference, " +
+           "CAST(t.submissionDeadline AS String) AS detail FROM Tender t " +
+           "WHERE t.status IN :statuses AND t.submissionDeadline >= :dueFrom AND t.submissionDeadline < :dueTo")
+    Stream<AlertCandidateProjection> streamDeadlineCandidates(@Param("statuses") Collection<Tender.TenderStatus> statuses,
+                                                              @Param("dueFrom") LocalDateTime dueFrom,
+                                                              @Param("dueTo") LocalDateTime dueTo);
+}
@@ -1,24 +1,56 @@
 package ru.perminov.tender.repository.company;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.perminov.tender.model.company.Company;
 import ru.perminov.tender.model.company.CompanyRole;
 
+import java.util.Collection;
 import java.util.UUID;
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CompanyRepository extends JpaRepository<Company, UUID> {
 
     Optional<Company> findByInn(String inn);
 
+    /**
+     * ИНН всех компаний, для проверки дублей при импорте
+     */
+    @Query("SELECT c.inn FROM Company c WHERE c.inn IS NOT NULL")
+    List<String> findAllInns();
+
     Optional<Company> findByShortName(String shortName);
 
     List<Company> findByRole(CompanyRole role);
 
+    List<Company> findByRole(CompanyRole role, Pageable pageable);
+
     Optional<Company> findByEmail(String email);
+
+    /**
+     * Адреса из списка, принадлежащие компаниям с отключенными уведомлениями
+     */
+    @Query("SELECT c.email FROM Company c WHERE c.email IN :emails AND c.sendNotifications = false")
+    List<String> findEmailsWithNotificationsDisabled(@Param("emails") Collection<String> emails);
     
     long countByRole(CompanyRole role);
-} 
\ No newline at end of file
+
+    /**
+     * Компании с типом для выгрузки в Excel
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Company c LEFT JOIN FETCH c.companyType ORDER BY c.name")
+    Stream<Company> streamAllForExport();
+}
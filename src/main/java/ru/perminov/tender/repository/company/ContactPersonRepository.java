@@ -4,6 +4,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.perminov.tender.model.company.ContactPerson;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,4 +12,6 @@ import java.util.UUID;
 public interface ContactPersonRepository extends JpaRepository<ContactPerson, UUID> {
     
     List<ContactPerson> findByCompanyId(UUID companyId);
-}
\ No newline at end of file
+
+    List<ContactPerson> findByCompanyIdIn(Collection<UUID> companyIds);
+}
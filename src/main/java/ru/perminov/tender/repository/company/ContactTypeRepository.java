@@ -1,16 +1,28 @@
 package ru.perminov.tender.repository.company;
 
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.perminov.tender.model.company.ContactType;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ContactTypeRepository extends JpaRepository<ContactType, UUID> {
     Optional<ContactType> findByName(String name);
 
     boolean existsByName(@NotBlank(message = "Название типа контакта не может быть пустым") String name);
-}
\ No newline at end of file
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM ContactType c ORDER BY c.name")
+    Stream<ContactType> streamAllForExport();
+}
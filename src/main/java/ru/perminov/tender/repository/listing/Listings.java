@@ -0,0 +1,161 @@
+package ru.perminov.tender.repository.listing;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Постраничная выборка по Specification с сортировкой по одному полю и id.
+ * Строки с пустым значением поля сортировки всегда идут в конце.
+ * Глубокие страницы читаются по курсору (seek): условие "после последней строки" вместо OFFSET
+ */
+public final class Listings {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final String ID_ATTRIBUTE = "id";
+    private static final String NULL_MARKER = "n";
+    private static final String VALUE_MARKER = "v";
+
+    private Listings() {
+    }
+
+    public static <E, D> PageResponseDto<D> fetch(JpaSpecificationExecutor<E> repository,
+                                                  Specification<E> filter,
+                                                  ListingRequest request,
+                                                  Map<String, SortField<E>> sortFields,
+                                                  String defaultSort,
+                                                  Function<E, UUID> idExtractor,
+                                                  Function<List<E>, List<D>> mapper) {
+        String sortKey = request.sort() != null && !request.sort().isBlank() ? request.sort() : defaultSort;
+        SortField<E> sortField = sortFields.get(sortKey);
+        if (sortField == null) {
+            throw new IllegalArgumentException("Неизвестное поле сортировки: " + sortKey
+                    + ". Допустимые значения: " + sortFields.keySet());
+        }
+        // По умолчанию новые записи первыми
+        boolean ascending = "asc".equalsIgnoreCase(request.direction());
+        int size = request.size() != null ? Math.min(Math.max(request.size(), 1), MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+
+        Specification<E> spec = filter != null ? filter : (root, query, cb) -> null;
+        spec = spec.and(orderBy(sortField, ascending));
+
+        if (request.cursor() != null && !request.cursor().isBlank()) {
+            Cursor cursor = decode(request.cursor(), sortField);
+            List<E> rows = repository.findBy(spec.and(after(sortField, ascending, cursor)),
+                    query -> query.limit(size + 1).all());
+            boolean hasNext = rows.size() > size;
+            List<E> content = hasNext ? rows.subList(0, size) : rows;
+            return new PageResponseDto<>(mapper.apply(content), null, size, null, hasNext,
+                    hasNext ? encode(content.get(content.size() - 1), sortField, idExtractor) : null);
+        }
+
+        int page = request.page() != null ? Math.max(request.page(), 0) : 0;
+        Page<E> result = repository.findAll(spec, PageRequest.of(page, size));
+        List<E> content = result.getContent();
+        return new PageResponseDto<>(mapper.apply(content), page, size, result.getTotalElements(), result.hasNext(),
+                result.hasNext() ? encode(content.get(content.size() - 1), sortField, idExtractor) : null);
+    }
+
+    /**
+     * Разбирает значение перечисления из параметра запроса, неверное значение игнорируется
+     */
+    public static <T extends Enum<T>> T parseEnum(Class<T> type, String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Шаблон для поиска подстроки без учета регистра
+     */
+    public static String likePattern(String search) {
+        return "%" + search.trim().toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+
+    private record Cursor(Comparable<?> value, UUID id) {
+    }
+
+    private static <E> Specification<E> orderBy(SortField<E> sortField, boolean ascending) {
+        return (root, query, cb) -> {
+            // Для запроса количества сортировка не нужна
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                Path<Object> path = root.get(sortField.attribute());
+                Expression<Integer> nullsLast = cb.<Integer>selectCase().when(cb.isNull(path), 1).otherwise(0);
+                query.orderBy(
+                        cb.asc(nullsLast),
+                        ascending ? cb.asc(path) : cb.desc(path),
+                        ascending ? cb.asc(root.get(ID_ATTRIBUTE)) : cb.desc(root.get(ID_ATTRIBUTE))
+                );
+            }
+            return null;
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <E> Specification<E> after(SortField<E> sortField, boolean ascending, Cursor cursor) {
+        return (root, query, cb) -> {
+            Expression<Comparable> path = root.get(sortField.attribute());
+            Predicate idAfter = compare(cb, root.get(ID_ATTRIBUTE), cursor.id(), ascending);
+            if (cursor.value() == null) {
+                return cb.and(cb.isNull(path), idAfter);
+            }
+            Comparable value = (Comparable) cursor.value();
+            return cb.or(
+                    cb.and(cb.isNotNull(path), compare(cb, path, value, ascending)),
+                    cb.and(cb.equal(path, value), idAfter),
+                    cb.isNull(path)
+            );
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate compare(CriteriaBuilder cb, Expression path, Comparable value, boolean ascending) {
+        return ascending ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+    }
+
+    private static <E> String encode(E row, SortField<E> sortField, Function<E, UUID> idExtractor) {
+        Object value = sortField.extractor().apply(row);
+        String raw = (value == null ? NULL_MARKER : VALUE_MARKER + sortField.format(value)) + "|" + idExtractor.apply(row);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static <E> Cursor decode(String cursor, SortField<E> sortField) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            String value = raw.substring(0, separator);
+            UUID id = UUID.fromString(raw.substring(separator + 1));
+            if (value.equals(NULL_MARKER)) {
+                return new Cursor(null, id);
+            }
+            if (!value.startsWith(VALUE_MARKER)) {
+                throw new IllegalArgumentException("Некорректный курсор");
+            }
+            return new Cursor(sortField.parse(value.substring(VALUE_MARKER.length())), id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Некорректный курсор страницы", e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ru.perminov.tender.repository.listing;
+
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import ru.perminov.tender.model.Request;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Сортировка и фильтры постраничного списка заявок, общие для списка заявок и списка процессов заявок
+ */
+public final class RequestListing {
+
+    public static final String DEFAULT_SORT = "date";
+
+    public static final Map<String, SortField<Request>> SORT_FIELDS = Map.of(
+            "date", SortField.of("date", LocalDate.class, Request::getDate),
+            "deliveryDeadline", SortField.of("deliveryDeadline", LocalDate.class, Request::getDeliveryDeadline),
+            "requestNumber", SortField.of("requestNumber", String.class, Request::getRequestNumber)
+    );
+
+    private RequestListing() {
+    }
+
+    public static Specification<Request> filter(String status, UUID organizationId, UUID projectId,
+                                                LocalDate dateFrom, LocalDate dateTo, String search) {
+        Request.RequestStatus requestStatus = Listings.parseEnum(Request.RequestStatus.class, status);
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (requestStatus != null) {
+                predicates.add(cb.equal(root.get("status"), requestStatus));
+            }
+            if (organizationId != null) {
+                predicates.add(cb.equal(root.get("organization").get("id"), organizationId));
+            }
+            if (projectId != null) {
+                predicates.add(cb.equal(root.get("project").get("id"), projectId));
+            }
+            if (dateFrom != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("date"), dateFrom));
+            }
+            if (dateTo != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("date"), dateTo));
+            }
+            if (search != null && !search.isBlank()) {
+                String pattern = Listings.likePattern(search);
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("requestNumber")), pattern, '\\'),
+                        cb.like(cb.lower(root.get("applicant")), pattern, '\\')
+                ));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package ru.perminov.tender.repository.listing;
+
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import ru.perminov.tender.model.Request;
+import ru.perminov.tender.model.RequestProcessSummary;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Сортировка и фильтры списка сводок процессов заявок. Все условия по колонкам одной таблицы
+ */
+public final class RequestProcessSummaryListing {
+
+    public static final String DEFAULT_SORT = "date";
+
+    public static final Map<String, SortField<RequestProcessSummary>> SORT_FIELDS = Map.of(
+            "date", SortField.of("requestDate", LocalDate.class, RequestProcessSummary::getRequestDate),
+            "requestNumber", SortField.of("requestNumber", String.class, RequestProcessSummary::getRequestNumber),
+            "lastActivity", SortField.of("lastActivityAt", LocalDateTime.class, RequestProcessSummary::getLastActivityAt),
+            "stageChanged", SortField.of("stageChangedAt", LocalDateTime.class, RequestProcessSummary::getStageChangedAt),
+            "requestTotal", SortField.of("requestTotalAmount", BigDecimal.class, RequestProcessSummary::getRequestTotalAmount),
+            "tenderTotal", SortField.of("tenderTotalAmount", BigDecimal.class, RequestProcessSummary::getTenderTotalAmount),
+            "invoiceTotal", SortField.of("invoiceTotalAmount", BigDecimal.class, RequestProcessSummary::getInvoiceTotalAmount)
+    );
+
+    private RequestProcessSummaryListing() {
+    }
+
+    public static Specification<RequestProcessSummary> filter(String status, String stage, UUID organizationId,
+                                                              UUID projectId, LocalDate dateFrom, LocalDate dateTo,
+                                                              String search) {
+        Request.RequestStatus requestStatus = Listings.parseEnum(Request.RequestStatus.class, status);
+        RequestProcessSummary.Stage processStage = Listings.parseEnum(RequestProcessSummary.Stage.class, stage);
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (requestStatus != null) {
+                predicates.add(cb.equal(root.get("requestStatus"), requestStatus));
+            }
+            if (processStage != null) {
+                predicates.add(cb.equal(root.get("stage"), processStage));
+            }
+            if (organizationId != null) {
+                predicates.add(cb.equal(root.get("organizationId"), organizationId));
+            }
+            if (projectId != null) {
+                predicates.add(cb.equal(root.get("projectId"), projectId));
+            }
+            if (dateFrom != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("requestDate"), dateFrom));
+            }
+            if (dateTo != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("requestDate"), dateTo));
+            }
+            if (search != null && !search.isBlank()) {
+                String pattern = Listings.likePattern(search);
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("requestNumber")), pattern, '\\'),
+                        cb.like(cb.lower(root.get("applicant")), pattern, '\\')
+                ));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
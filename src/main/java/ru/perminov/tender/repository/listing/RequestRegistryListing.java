@@ -0,0 +1,82 @@
+package ru.perminov.tender.repository.listing;
+
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+import ru.perminov.tender.model.Request;
+import ru.perminov.tender.model.RequestMaterial;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Фильтры реестра заявок. Поиск подстроки по названиям организации, проекта и материала выполняется в БД
+ * условием LOWER(name) LIKE, в PostgreSQL его обслуживают триграммные индексы (V071)
+ */
+public final class RequestRegistryListing {
+
+    private RequestRegistryListing() {
+    }
+
+    public static Specification<Request> filter(String organization, String project, LocalDate fromDate,
+                                                LocalDate toDate, String materialName, String companyId) {
+        return (root, query, cb) -> {
+            Join<Object, Object> organizationJoin;
+            Join<Object, Object> projectJoin;
+            // В запросе строк организация и проект подгружаются сразу, в запросе количества только соединяются
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                organizationJoin = fetchJoin(root, "organization");
+                projectJoin = fetchJoin(root, "project");
+            } else {
+                organizationJoin = root.join("organization");
+                projectJoin = root.join("project");
+            }
+
+            List<Predicate> predicates = new ArrayList<>();
+            if (companyId != null) {
+                predicates.add(cb.equal(organizationJoin.get("id"), parseUuid(companyId)));
+            }
+            if (organization != null && !organization.isBlank()) {
+                predicates.add(cb.like(cb.lower(organizationJoin.get("name")), Listings.likePattern(organization), '\\'));
+            }
+            if (project != null && !project.isBlank()) {
+                predicates.add(cb.like(cb.lower(projectJoin.get("name")), Listings.likePattern(project), '\\'));
+            }
+            if (fromDate != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("date"), fromDate));
+            }
+            if (toDate != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("date"), toDate));
+            }
+            if (materialName != null && !materialName.isBlank()) {
+                Subquery<Integer> materials = query.subquery(Integer.class);
+                Root<RequestMaterial> requestMaterial = materials.from(RequestMaterial.class);
+                materials.select(cb.literal(1)).where(
+                        cb.equal(requestMaterial.get("request"), root),
+                        cb.like(cb.lower(requestMaterial.join("material").get("name")),
+                                Listings.likePattern(materialName), '\\'));
+                predicates.add(cb.exists(materials));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Join<Object, Object> fetchJoin(Root<Request> root, String attribute) {
+        return (Join<Object, Object>) root.fetch(attribute, JoinType.INNER);
+    }
+
+    private static UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            // Некорректный идентификатор компании из токена не должен открывать чужие заявки
+            return new UUID(0, 0);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ru.perminov.tender.repository.listing;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Поле сортировки списка: атрибут сущности, его тип (для чтения курсора) и способ получить значение из строки
+ */
+public record SortField<E>(
+        String attribute,
+        Class<? extends Comparable<?>> type,
+        Function<E, ?> extractor
+) {
+
+    public static <E> SortField<E> of(String attribute, Class<? extends Comparable<?>> type, Function<E, ?> extractor) {
+        return new SortField<>(attribute, type, extractor);
+    }
+
+    Comparable<?> parse(String value) {
+        if (type == String.class) return value;
+        if (type == LocalDate.class) return LocalDate.parse(value);
+        if (type == LocalDateTime.class) return LocalDateTime.parse(value);
+        if (type == BigDecimal.class) return new BigDecimal(value);
+        if (type == Double.class) return Double.valueOf(value);
+        if (type == Integer.class) return Integer.valueOf(value);
+        throw new IllegalStateException("Неподдерживаемый тип поля сортировки: " + type.getSimpleName());
+    }
+
+    String format(Object value) {
+        return value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+    }
+}
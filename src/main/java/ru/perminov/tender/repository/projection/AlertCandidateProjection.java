@@ -0,0 +1,18 @@
+package ru.perminov.tender.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Строка, подпадающая под условие алерта. entityId - сущность, к которой относится алерт,
+ * sourceId - строка, вызвавшая его (обычно та же), detail - значение условия: срок, лимит или оценка
+ */
+public interface AlertCandidateProjection {
+
+    UUID getEntityId();
+
+    UUID getSourceId();
+
+    String getReference();
+
+    String getDetail();
+}
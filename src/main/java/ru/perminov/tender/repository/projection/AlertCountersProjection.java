@@ -0,0 +1,13 @@
+package ru.perminov.tender.repository.projection;
+
+/**
+ * Счетчики алертов пользователя для бейджа уведомлений
+ */
+public interface AlertCountersProjection {
+
+    long getUnread();
+
+    long getUrgent();
+
+    long getTotal();
+}
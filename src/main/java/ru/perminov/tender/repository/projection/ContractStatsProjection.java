@@ -0,0 +1,15 @@
+package ru.perminov.tender.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Агрегированные счетчики и суммы контрактов для дашборда
+ */
+public interface ContractStatsProjection {
+
+    long getTotal();
+
+    long getActive();
+
+    BigDecimal getTotalAmount();
+}
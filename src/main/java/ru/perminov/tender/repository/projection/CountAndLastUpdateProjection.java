@@ -0,0 +1,13 @@
+package ru.perminov.tender.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Количество строк таблицы и время последнего изменения, для дешевой проверки, изменились ли данные
+ */
+public interface CountAndLastUpdateProjection {
+
+    Long getTotal();
+
+    LocalDateTime getLastUpdated();
+}
@@ -0,0 +1,15 @@
+package ru.perminov.tender.repository.projection;
+
+/**
+ * Агрегированные счетчики поставок для дашборда
+ */
+public interface DeliveryStatsProjection {
+
+    long getTotal();
+
+    long getPending();
+
+    long getOverdue();
+
+    long getOnTime();
+}
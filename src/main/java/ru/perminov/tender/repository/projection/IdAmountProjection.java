@@ -0,0 +1,14 @@
+package ru.perminov.tender.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Сумма, сгруппированная по идентификатору сущности
+ */
+public interface IdAmountProjection {
+
+    UUID getId();
+
+    BigDecimal getAmount();
+}
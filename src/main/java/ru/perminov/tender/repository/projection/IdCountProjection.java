@@ -0,0 +1,13 @@
+package ru.perminov.tender.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Количество, сгруппированное по идентификатору сущности
+ */
+public interface IdCountProjection {
+
+    UUID getId();
+
+    long getTotal();
+}
@@ -0,0 +1,13 @@
+package ru.perminov.tender.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Числовое значение, сгруппированное по идентификатору сущности
+ */
+public interface IdValueProjection {
+
+    UUID getId();
+
+    Double getValue();
+}
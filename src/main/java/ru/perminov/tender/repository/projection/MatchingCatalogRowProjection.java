@@ -0,0 +1,19 @@
+package ru.perminov.tender.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Материал и одна из его характеристик (или null) для построения индекса сопоставления наименований
+ */
+public interface MatchingCatalogRowProjection {
+
+    UUID getMaterialId();
+
+    String getMaterialName();
+
+    String getMaterialCode();
+
+    UUID getCharacteristicId();
+
+    String getCharacteristicName();
+}
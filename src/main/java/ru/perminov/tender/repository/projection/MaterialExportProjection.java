@@ -0,0 +1,30 @@
+package ru.perminov.tender.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Строка выгрузки материалов в Excel: названия типа, категории и единиц измерения собраны запросом
+ */
+public interface MaterialExportProjection {
+
+    UUID getId();
+
+    String getName();
+
+    String getDescription();
+
+    String getMaterialTypeName();
+
+    String getLink();
+
+    String getCode();
+
+    String getCategoryName();
+
+    String getUnitNames();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,11 @@
+package ru.perminov.tender.repository.projection;
+
+/**
+ * Экономия по тендерам, сгруппированная по месяцу начала тендера
+ */
+public interface MonthlySavingsProjection {
+
+    Integer getMonth();
+
+    Double getSavings();
+}
@@ -0,0 +1,15 @@
+package ru.perminov.tender.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Агрегированные счетчики и суммы платежей для дашборда
+ */
+public interface PaymentStatsProjection {
+
+    long getTotal();
+
+    long getOverdue();
+
+    BigDecimal getPaidAmount();
+}
@@ -0,0 +1,17 @@
+package ru.perminov.tender.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Цена позиции предложения, привязанная к тендеру и позиции тендера
+ */
+public interface ProposalItemPriceProjection {
+
+    UUID getTenderId();
+
+    UUID getTenderItemId();
+
+    Double getUnitPrice();
+
+    Double getTotalPrice();
+}
@@ -0,0 +1,15 @@
+package ru.perminov.tender.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Количество материалов заявки и первое по алфавиту непустое примечание
+ */
+public interface RequestMaterialsSummaryProjection {
+
+    UUID getRequestId();
+
+    long getMaterialsCount();
+
+    String getNote();
+}
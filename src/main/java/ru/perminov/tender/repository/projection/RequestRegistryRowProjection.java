@@ -0,0 +1,32 @@
+package ru.perminov.tender.repository.projection;
+
+import ru.perminov.tender.model.Request;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Строка реестра заявок: заявка с организацией, проектом и сводкой по материалам
+ */
+public interface RequestRegistryRowProjection {
+
+    UUID getRequestId();
+
+    String getRequestNumber();
+
+    LocalDate getDate();
+
+    String getOrganizationName();
+
+    String getOrganizationShortName();
+
+    String getOrganizationLegalName();
+
+    String getProjectName();
+
+    Request.RequestStatus getStatus();
+
+    long getMaterialsCount();
+
+    String getNote();
+}
@@ -0,0 +1,16 @@
+package ru.perminov.tender.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Статистика контрактов в разрезе победившего поставщика
+ */
+public interface SupplierContractStatsProjection {
+
+    UUID getSupplierId();
+
+    long getTotal();
+
+    BigDecimal getTotalAmount();
+}
@@ -0,0 +1,19 @@
+package ru.perminov.tender.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Статистика поставок в разрезе поставщика
+ */
+public interface SupplierDeliveryStatsProjection {
+
+    UUID getSupplierId();
+
+    long getTotal();
+
+    long getOnTime();
+
+    long getRejected();
+
+    long getDelayed();
+}
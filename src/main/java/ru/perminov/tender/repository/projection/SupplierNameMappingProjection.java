@@ -0,0 +1,21 @@
+package ru.perminov.tender.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Подтвержденное соответствие наименования поставщика материалу каталога
+ */
+public interface SupplierNameMappingProjection {
+
+    UUID getOrganizationId();
+
+    String getSupplierName();
+
+    UUID getMaterialId();
+
+    String getMaterialName();
+
+    UUID getCharacteristicId();
+
+    String getCharacteristicName();
+}
@@ -0,0 +1,62 @@
+package ru.perminov.tender.repository.projection;
+
+import ru.perminov.tender.model.Tender;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Строка списка тендеров: поля тендера, заказчик, победитель, количество предложений и признак разделения
+ */
+public interface TenderListProjection {
+
+    UUID getId();
+
+    UUID getRequestId();
+
+    String getTenderNumber();
+
+    String getTitle();
+
+    String getDescription();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    LocalDateTime getSubmissionDeadline();
+
+    Tender.TenderStatus getStatus();
+
+    String getRequirements();
+
+    String getTermsAndConditions();
+
+    UUID getCustomerId();
+
+    String getCustomerInn();
+
+    String getCustomerName();
+
+    String getCustomerShortName();
+
+    UUID getAwardedSupplierId();
+
+    String getAwardedSupplierInn();
+
+    String getAwardedSupplierName();
+
+    String getAwardedSupplierShortName();
+
+    String getAwardedSupplierEmail();
+
+    UUID getParentTenderId();
+
+    UUID getWarehouseId();
+
+    String getWarehouseName();
+
+    long getProposalsCount();
+
+    boolean isSplit();
+}
@@ -0,0 +1,13 @@
+package ru.perminov.tender.repository.projection;
+
+/**
+ * Агрегированные счетчики тендеров для дашборда
+ */
+public interface TenderStatsProjection {
+
+    long getTotal();
+
+    long getActive();
+
+    long getCompleted();
+}
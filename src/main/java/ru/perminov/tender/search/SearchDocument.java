@@ -0,0 +1,25 @@
+package ru.perminov.tender.search;
+
+import java.util.UUID;
+
+/**
+ * Документ поискового индекса: сущность, отображаемые заголовок и подзаголовок и индексируемый текст.
+ * ownerCompanyId - компания-владелец для типов, видимых заказчику только в пределах своей компании
+ */
+public record SearchDocument(
+        SearchType type,
+        UUID id,
+        String title,
+        String subtitle,
+        String text,
+        UUID ownerCompanyId
+) {
+
+    public String key() {
+        return key(type, id);
+    }
+
+    public static String key(SearchType type, UUID id) {
+        return type.name() + ":" + id;
+    }
+}
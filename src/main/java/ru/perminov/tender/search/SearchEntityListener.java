@@ -0,0 +1,33 @@
+package ru.perminov.tender.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import ru.perminov.tender.service.SearchIndexService;
+
+/**
+ * Слушатель индексируемых сущностей: передает сохраненные и удаленные сущности в поисковый индекс.
+ * Сервис берется лениво: слушатель создается вместе с фабрикой EntityManager
+ */
+@Component
+public class SearchEntityListener {
+
+    private final ObjectProvider<SearchIndexService> searchIndexService;
+
+    public SearchEntityListener(ObjectProvider<SearchIndexService> searchIndexService) {
+        this.searchIndexService = searchIndexService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void onSave(Object entity) {
+        searchIndexService.getObject().onSaved(entity);
+    }
+
+    @PostRemove
+    void onDelete(Object entity) {
+        searchIndexService.getObject().onDeleted(entity);
+    }
+}
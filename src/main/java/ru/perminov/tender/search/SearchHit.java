@@ -0,0 +1,4 @@
+package ru.perminov.tender.search;
+
+public record SearchHit(SearchDocument document, double score) {
+}
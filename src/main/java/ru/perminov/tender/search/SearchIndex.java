@@ -0,0 +1,274 @@
+package ru.perminov.tender.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Инвертированный индекс в памяти: терм -> документы в отсортированном словаре (поиск по префиксу терма)
+ * и триграмма -> термы (поиск по подстроке, если префикс ничего не нашел). Чтение и запись разделены блокировкой
+ */
+public class SearchIndex {
+
+    // Пределы, чтобы короткий префикс не перебирал весь индекс: термы на слово запроса и просматриваемые документы
+    private static final int MAX_TERMS = 20_000;
+    private static final int MAX_SCANNED = 5_000;
+
+    private final Map<String, Entry> documents = new HashMap<>();
+    private final TreeMap<String, Set<String>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Документ в индексе с разобранным заголовком для ранжирования
+     */
+    private record Entry(SearchDocument document, Set<String> terms, List<String> titleTokens, String normalizedTitle) {
+    }
+
+    public void put(SearchDocument document) {
+        Set<String> terms = TextAnalyzer.terms(document.text());
+        List<String> titleTokens = TextAnalyzer.tokenize(document.title());
+        Entry entry = new Entry(document, terms, titleTokens, String.join(" ", titleTokens));
+        lock.writeLock().lock();
+        try {
+            Entry previous = documents.put(document.key(), entry);
+            if (previous != null) {
+                unindex(document.key(), previous.terms());
+            }
+            for (String term : terms) {
+                Set<String> keys = postings.get(term);
+                if (keys == null) {
+                    keys = new HashSet<>();
+                    postings.put(term, keys);
+                    for (String gram : TextAnalyzer.trigrams(term)) {
+                        trigrams.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+                    }
+                }
+                keys.add(document.key());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = documents.remove(key);
+            if (previous != null) {
+                unindex(key, previous.terms());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(String key) {
+        lock.readLock().lock();
+        try {
+            return documents.containsKey(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<SearchDocument> documents() {
+        lock.readLock().lock();
+        try {
+            return documents.values().stream().map(Entry::document).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Поиск для подсказок: каждое слово запроса ищется по префиксу основы (последнее слово - по префиксу
+     * как набрано), при отсутствии совпадений - по подстроке через триграммы. Документ должен содержать все слова.
+     * Кандидаты берутся по самому избирательному слову, остальные слова проверяются по термам документа
+     */
+    public List<SearchHit> search(String query, Collection<SearchType> types, int limit) {
+        return search(query, types, null, limit);
+    }
+
+    /**
+     * Поиск только среди документов, принятых фильтром (например, видимых пользователю)
+     */
+    public List<SearchHit> search(String query, Collection<SearchType> types, Predicate<SearchDocument> filter, int limit) {
+        List<String> tokens = TextAnalyzer.queryTokens(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Set<String>> matchedTerms = new ArrayList<>(tokens.size());
+            int seed = 0;
+            long seedCost = Long.MAX_VALUE;
+            for (int i = 0; i < tokens.size(); i++) {
+                Set<String> terms = matchTerms(tokens.get(i), i == tokens.size() - 1);
+                if (terms.isEmpty()) {
+                    return List.of();
+                }
+                long cost = 0;
+                for (String term : terms) {
+                    cost += postings.get(term).size();
+                }
+                if (cost < seedCost) {
+                    seed = i;
+                    seedCost = cost;
+                }
+                matchedTerms.add(terms);
+            }
+
+            String normalizedQuery = String.join(" ", tokens);
+            List<String> stems = tokens.stream().map(TextAnalyzer::stem).toList();
+            Comparator<SearchHit> order = Comparator.comparingDouble(SearchHit::score).reversed()
+                    .thenComparingInt(hit -> hit.document().title() != null ? hit.document().title().length() : 0)
+                    .thenComparing(hit -> hit.document().id());
+            // Куча из limit лучших: худший найденный документ на вершине
+            PriorityQueue<SearchHit> top = new PriorityQueue<>(Math.min(limit, MAX_SCANNED) + 1, order.reversed());
+            // Один документ может попасть в несколько термов слова (цемент, цементный)
+            Set<String> seen = matchedTerms.get(seed).size() > 1 ? new HashSet<>() : null;
+            int scanned = 0;
+            for (String term : matchedTerms.get(seed)) {
+                for (String key : postings.get(term)) {
+                    if (seen != null && !seen.add(key)) continue;
+                    Entry entry = documents.get(key);
+                    if (entry == null || !accepts(entry, types, matchedTerms, seed)) continue;
+                    if (filter != null && !filter.test(entry.document())) continue;
+                    double score = score(entry, tokens, stems, normalizedQuery);
+                    if (top.size() < limit || score >= top.peek().score()) {
+                        top.add(new SearchHit(entry.document(), score));
+                        if (top.size() > limit) top.poll();
+                    }
+                    if (++scanned >= MAX_SCANNED) break;
+                }
+                if (scanned >= MAX_SCANNED) break;
+            }
+            List<SearchHit> hits = new ArrayList<>(top);
+            hits.sort(order);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean accepts(Entry entry, Collection<SearchType> types, List<Set<String>> matchedTerms, int seed) {
+        if (types != null && !types.isEmpty() && !types.contains(entry.document().type())) {
+            return false;
+        }
+        for (int i = 0; i < matchedTerms.size(); i++) {
+            if (i != seed && Collections.disjoint(entry.terms(), matchedTerms.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Set<String> matchTerms(String token, boolean last) {
+        Set<String> result = new HashSet<>();
+        collectPrefix(TextAnalyzer.stem(token), result);
+        if (last) {
+            collectPrefix(token, result);
+        }
+        if (result.isEmpty() && token.length() >= 3) {
+            result.addAll(termsContaining(token));
+        }
+        return result;
+    }
+
+    private void collectPrefix(String prefix, Set<String> result) {
+        for (String term : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).keySet()) {
+            result.add(term);
+            if (result.size() >= MAX_TERMS) return;
+        }
+    }
+
+    private List<String> termsContaining(String token) {
+        // Триграммы без начальной границы: подстрока может стоять в середине терма
+        List<String> grams = TextAnalyzer.trigrams(token).subList(1, Math.max(1, token.length() - 1));
+        Set<String> terms = null;
+        for (String gram : grams) {
+            Set<String> withGram = trigrams.getOrDefault(gram, Set.of());
+            if (terms == null) {
+                terms = new HashSet<>(withGram);
+            } else {
+                terms.retainAll(withGram);
+            }
+            if (terms.isEmpty()) return List.of();
+        }
+        return terms == null ? List.of() : terms.stream().filter(term -> term.contains(token)).toList();
+    }
+
+    private static double score(Entry entry, List<String> tokens, List<String> stems, String normalizedQuery) {
+        double score = 0;
+        if (entry.normalizedTitle().equals(normalizedQuery)) {
+            score += 10;
+        } else if (entry.normalizedTitle().startsWith(normalizedQuery)) {
+            score += 5;
+        }
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            double best = 0;
+            for (String titleToken : entry.titleTokens()) {
+                if (titleToken.equals(token)) {
+                    best = 3;
+                    break;
+                }
+                if (titleToken.startsWith(token) || titleToken.startsWith(stems.get(i))) {
+                    best = Math.max(best, 2);
+                } else if (titleToken.contains(token)) {
+                    best = Math.max(best, 1);
+                }
+            }
+            // Совпадение только во вспомогательных полях (ИНН, код, описание) весит меньше заголовка
+            score += best > 0 ? best : 0.5;
+        }
+        return score;
+    }
+
+    private void unindex(String key, Set<String> terms) {
+        for (String term : terms) {
+            Set<String> keys = postings.get(term);
+            if (keys == null) continue;
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                postings.remove(term);
+                for (String gram : TextAnalyzer.trigrams(term)) {
+                    Set<String> gramTerms = trigrams.get(gram);
+                    if (gramTerms != null) {
+                        gramTerms.remove(term);
+                        if (gramTerms.isEmpty()) trigrams.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+}
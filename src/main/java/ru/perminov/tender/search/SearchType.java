@@ -0,0 +1,112 @@
+package ru.perminov.tender.search;
+
+import ru.perminov.tender.model.Brand;
+import ru.perminov.tender.model.Manufacturer;
+import ru.perminov.tender.model.Material;
+import ru.perminov.tender.model.Request;
+import ru.perminov.tender.model.SupplierMaterialName;
+import ru.perminov.tender.model.Tender;
+import ru.perminov.tender.model.company.Company;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Индексируемые сущности, роли, которым они видны в поиске (пустой набор - любому пользователю),
+ * и построение документа из сущности. Используются только простые поля,
+ * документ строится в колбэке JPA, где ленивые связи загружать нельзя
+ */
+public enum SearchType {
+
+    MATERIAL(Material.class, Set.of(), false, entity -> {
+        Material material = (Material) entity;
+        return new SearchDocument(null, material.getId(), material.getName(), material.getCode(),
+                join(material.getName(), material.getCode()), null);
+    }),
+    COMPANY(Company.class, Set.of(), false, entity -> {
+        Company company = (Company) entity;
+        String title = company.getShortName() != null && !company.getShortName().isBlank()
+                ? company.getShortName() : company.getName();
+        return new SearchDocument(null, company.getId(), title, company.getInn(),
+                join(company.getName(), company.getShortName(), company.getLegalName(), company.getInn()), null);
+    }),
+    TENDER(Tender.class, Set.of("ADMIN", "MANAGER", "SUPPLIER", "VIEWER"), false, entity -> {
+        Tender tender = (Tender) entity;
+        return new SearchDocument(null, tender.getId(), tender.getTitle(), tender.getTenderNumber(),
+                join(tender.getTitle(), tender.getTenderNumber()), null);
+    }),
+    REQUEST(Request.class, Set.of("ADMIN", "MANAGER", "CUSTOMER", "VIEWER"), true, entity -> {
+        Request request = (Request) entity;
+        String title = request.getRequestNumber() != null ? request.getRequestNumber() : "Заявка от " + request.getDate();
+        return new SearchDocument(null, request.getId(), title, request.getApplicant(),
+                join(request.getRequestNumber(), request.getApplicant(), request.getLocation(), request.getNotes()),
+                // id ленивой связи берется из прокси без загрузки компании
+                request.getOrganization() != null ? request.getOrganization().getId() : null);
+    }),
+    SUPPLIER_MATERIAL_NAME(SupplierMaterialName.class, Set.of("ADMIN", "MANAGER", "VIEWER"), false, entity -> {
+        SupplierMaterialName name = (SupplierMaterialName) entity;
+        return new SearchDocument(null, name.getId(), name.getName(), null, name.getName(), null);
+    }),
+    BRAND(Brand.class, Set.of(), false, entity -> {
+        Brand brand = (Brand) entity;
+        return new SearchDocument(null, brand.getId(), brand.getName(), null, brand.getName(), null);
+    }),
+    MANUFACTURER(Manufacturer.class, Set.of(), false, entity -> {
+        Manufacturer manufacturer = (Manufacturer) entity;
+        return new SearchDocument(null, manufacturer.getId(), manufacturer.getName(), manufacturer.getCountry(),
+                manufacturer.getName(), null);
+    });
+
+    private final Class<?> entityClass;
+    private final Set<String> roles;
+    private final boolean customerScoped;
+    private final Function<Object, SearchDocument> mapper;
+
+    SearchType(Class<?> entityClass, Set<String> roles, boolean customerScoped, Function<Object, SearchDocument> mapper) {
+        this.entityClass = entityClass;
+        this.roles = roles;
+        this.customerScoped = customerScoped;
+        this.mapper = mapper;
+    }
+
+    public Class<?> entityClass() {
+        return entityClass;
+    }
+
+    /**
+     * Тип виден пользователю с одной из ролей (без префикса ROLE_), как и эндпоинты этой сущности
+     */
+    public boolean visibleTo(Collection<String> userRoles) {
+        return roles.isEmpty() || userRoles.stream().anyMatch(roles::contains);
+    }
+
+    /**
+     * Заказчику документы типа видны только в пределах своей компании (ownerCompanyId)
+     */
+    public boolean customerScoped() {
+        return customerScoped;
+    }
+
+    public SearchDocument toDocument(Object entity) {
+        SearchDocument document = mapper.apply(entity);
+        return new SearchDocument(this, document.id(), document.title(), document.subtitle(), document.text(),
+                document.ownerCompanyId());
+    }
+
+    public static SearchType of(Object entity) {
+        for (SearchType type : values()) {
+            if (type.entityClass.isInstance(entity)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private static String join(String... values) {
+        return Stream.of(values).filter(Objects::nonNull).collect(Collectors.joining(" "));
+    }
+}
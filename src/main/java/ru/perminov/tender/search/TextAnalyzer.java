@@ -0,0 +1,206 @@
+package ru.perminov.tender.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Разбор текста для поискового индекса: нижний регистр, ё -> е, разбиение на слова по буквам и цифрам,
+ * смешанные слова (м500, 3x4) дополнительно делятся на буквенные и цифровые части.
+ * Русские слова приводятся к основе упрощенным стеммером Портера (Snowball), остальные не изменяются
+ */
+public final class TextAnalyzer {
+
+    private static final String VOWELS = "аеиоуыэюя";
+
+    private static final String[] PERFECTIVE_GERUND_1 = {"вшись", "вши", "в"};
+    private static final String[] PERFECTIVE_GERUND_2 = {"ившись", "ывшись", "ивши", "ывши", "ив", "ыв"};
+    private static final String[] REFLEXIVE = {"ся", "сь"};
+    private static final String[] ADJECTIVE = {"ими", "ыми", "его", "ого", "ему", "ому", "ее", "ие", "ые", "ое", "ей", "ий",
+            "ый", "ой", "ем", "им", "ым", "ом", "их", "ых", "ую", "юю", "ая", "яя", "ою", "ею"};
+    private static final String[] PARTICIPLE_1 = {"ем", "нн", "вш", "ющ", "щ"};
+    private static final String[] PARTICIPLE_2 = {"ивш", "ывш", "ующ"};
+    private static final String[] VERB_1 = {"ете", "йте", "ешь", "нно", "ла", "на", "ли", "ем", "ло", "но", "ет", "ют",
+            "ны", "ть", "й", "л", "н"};
+    private static final String[] VERB_2 = {"ейте", "уйте", "ила", "ыла", "ена", "ите", "или", "ыли", "ило", "ыло", "ено",
+            "ует", "уют", "ены", "ить", "ыть", "ишь", "ей", "уй", "ил", "ыл", "им", "ым", "ен", "ят", "ит", "ыт", "ую", "ю"};
+    private static final String[] NOUN = {"иями", "ями", "ами", "ией", "иям", "ием", "иях", "ев", "ов", "ие", "ье", "еи",
+            "ии", "ей", "ой", "ий", "ям", "ем", "ам", "ом", "ах", "ях", "ию", "ью", "ия", "ья", "а", "е", "и", "й", "о", "у",
+            "ы", "ь", "ю", "я"};
+    private static final String[] SUPERLATIVE = {"ейше", "ейш"};
+    private static final String[] DERIVATIONAL = {"ость", "ост"};
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Слова текста в нормализованном виде без стемминга, включая части смешанных слов
+     */
+    public static List<String> tokenize(String text) {
+        return tokenize(text, true);
+    }
+
+    /**
+     * Слова запроса: части смешанных слов не добавляются, их проверяет префикс целого слова
+     */
+    public static List<String> queryTokens(String text) {
+        return tokenize(text, false);
+    }
+
+    private static List<String> tokenize(String text, boolean withParts) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = normalized.substring(start, i);
+                if (withParts) {
+                    addToken(tokens, token);
+                } else {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Термы документа: слова и их основы
+     */
+    public static Set<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String token : tokenize(text)) {
+            terms.add(token);
+            terms.add(stem(token));
+        }
+        return terms;
+    }
+
+    public static String stem(String word) {
+        if (word.length() < 3 || !isCyrillic(word)) {
+            return word;
+        }
+        int rv = regionAfterVowel(word, 0);
+        if (rv >= word.length()) {
+            return word;
+        }
+        int r2 = regionAfterNonVowel(word, regionAfterNonVowel(word, 0));
+
+        StringBuilder sb = new StringBuilder(word);
+        if (!removeGroup1(sb, rv, PERFECTIVE_GERUND_1) && !removeEnding(sb, rv, PERFECTIVE_GERUND_2)) {
+            removeEnding(sb, rv, REFLEXIVE);
+            if (removeEnding(sb, rv, ADJECTIVE)) {
+                if (!removeGroup1(sb, rv, PARTICIPLE_1)) {
+                    removeEnding(sb, rv, PARTICIPLE_2);
+                }
+            } else if (!removeGroup1(sb, rv, VERB_1) && !removeEnding(sb, rv, VERB_2)) {
+                removeEnding(sb, rv, NOUN);
+            }
+        }
+        removeEnding(sb, rv, new String[]{"и"});
+        if (r2 < sb.length()) {
+            removeEnding(sb, r2, DERIVATIONAL);
+        }
+        if (endsWith(sb, "нн", rv)) {
+            sb.setLength(sb.length() - 1);
+        } else if (removeEnding(sb, rv, SUPERLATIVE)) {
+            if (endsWith(sb, "нн", rv)) sb.setLength(sb.length() - 1);
+        } else {
+            removeEnding(sb, rv, new String[]{"ь"});
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Триграммы слова с границей в начале, для поиска по подстроке
+     */
+    public static List<String> trigrams(String term) {
+        List<String> grams = new ArrayList<>();
+        String padded = " " + term;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static void addToken(List<String> tokens, String token) {
+        tokens.add(token);
+        // Смешанное слово: добавляем буквенные и цифровые части по отдельности
+        int partStart = 0;
+        for (int i = 1; i < token.length(); i++) {
+            if (Character.isDigit(token.charAt(i)) != Character.isDigit(token.charAt(i - 1))) {
+                tokens.add(token.substring(partStart, i));
+                partStart = i;
+            }
+        }
+        if (partStart > 0) {
+            tokens.add(token.substring(partStart));
+        }
+    }
+
+    private static boolean isCyrillic(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.UnicodeBlock.of(word.charAt(i)) != Character.UnicodeBlock.CYRILLIC) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVowel(char c) {
+        return VOWELS.indexOf(c) >= 0;
+    }
+
+    private static int regionAfterVowel(String word, int from) {
+        for (int i = from; i < word.length(); i++) {
+            if (isVowel(word.charAt(i))) return i + 1;
+        }
+        return word.length();
+    }
+
+    // Область после первой согласной, следующей за гласной, начиная с позиции from (R1, R2 в терминах Snowball)
+    private static int regionAfterNonVowel(String word, int from) {
+        for (int i = from + 1; i < word.length(); i++) {
+            if (!isVowel(word.charAt(i)) && isVowel(word.charAt(i - 1))) return i + 1;
+        }
+        return word.length();
+    }
+
+    private static boolean endsWith(StringBuilder sb, String suffix, int region) {
+        int start = sb.length() - suffix.length();
+        return start >= region && sb.indexOf(suffix, start) == start;
+    }
+
+    // Окончания отсортированы по убыванию длины, удаляется самое длинное
+    private static boolean removeEnding(StringBuilder sb, int region, String[] endings) {
+        for (String ending : endings) {
+            if (endsWith(sb, ending, region)) {
+                sb.setLength(sb.length() - ending.length());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Окончания первой группы удаляются только после "а" или "я", которые остаются
+    private static boolean removeGroup1(StringBuilder sb, int region, String[] endings) {
+        for (String ending : endings) {
+            int start = sb.length() - ending.length();
+            if (endsWith(sb, ending, region) && start - 1 >= region
+                    && (sb.charAt(start - 1) == 'а' || sb.charAt(start - 1) == 'я')) {
+                sb.setLength(start);
+                return true;
+            }
+        }
+        return false;
+    }
+}
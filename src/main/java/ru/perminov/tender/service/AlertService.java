@@ -1,6 +1,7 @@
 package ru.perminov.tender.service;
 
 import ru.perminov.tender.model.Alert;
+import ru.perminov.tender.dto.AlertCountersDto;
 import ru.perminov.tender.dto.AlertDto;
 
 import java.time.LocalDateTime;
@@ -53,6 +54,7 @@ public interface AlertService {
     Integer getUnreadCount(String username);
     Integer getUrgentCount(String username);
     Integer getTotalCount(String username);
+    AlertCountersDto getCounters(String username);
     
     // Очистка
     void archiveOldAlerts(LocalDateTime before);
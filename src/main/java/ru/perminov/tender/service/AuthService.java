@@ -16,8 +16,6 @@ import ru.perminov.tender.model.company.Company;
 import ru.perminov.tender.repository.UserRepository;
 import ru.perminov.tender.repository.company.CompanyRepository;
 import ru.perminov.tender.service.AuditLogService;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.Authentication;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -39,13 +37,8 @@ public class AuthService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final AuditLogService auditLogService;
-
-    private User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated()) return null;
-        String username = auth.getName();
-        return userRepository.findByUsername(username).orElse(null);
-    }
+    private final AuthenticatedPrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
 
     @Transactional
     public LoginResponse login(LoginRequest request) {
@@ -138,7 +131,17 @@ public class AuthService {
             User user = userRepository.findByUsername(username)
                     .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
 
+            if (tokenRevocationService.isRevoked(request.refreshToken())) {
+                throw new RuntimeException("Refresh токен отозван");
+            }
+
             if (jwtService.validateToken(request.refreshToken())) {
+                // Ротация: использованный refresh токен повторно не принимается. Новую пару получает
+                // только запрос, который сам отозвал токен, параллельный повтор или повтор на другом узле отклоняется
+                if (!tokenRevocationService.revoke(request.refreshToken(), user.getId(), "REFRESH_ROTATION")) {
+                    throw new RuntimeException("Refresh токен уже использован");
+                }
+
                 String jwtToken = jwtService.generateToken(user);
                 String refreshToken = jwtService.generateRefreshToken(user);
                 long expiresIn = 86400000L; // 24 hours
@@ -155,11 +158,27 @@ public class AuthService {
         }
     }
 
-    public void logout(UUID userId) {
+    public void logout(String accessToken, String refreshToken) {
         log.info("Выход пользователя");
-        // В stateless архитектуре logout обычно обрабатывается на клиенте
-        // Здесь можно добавить логику для blacklist токенов если необходимо
-        auditLogService.logSimple(getCurrentUser(), "LOGOUT", "User", userId.toString(), "Пользователь вышел из системы");
+        UUID userId = extractUserIdSafely(accessToken);
+        // Токены отзываются до истечения срока, проверка выполняется фильтром аутентификации
+        tokenRevocationService.revoke(accessToken, userId, "LOGOUT");
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            tokenRevocationService.revoke(refreshToken, userId, "LOGOUT");
+        }
+        if (userId != null) {
+            userRepository.findById(userId).ifPresent(user ->
+                    auditLogService.logSimple(user, "LOGOUT", "User", user.getId().toString(), "Пользователь вышел из системы"));
+        }
+    }
+
+    private UUID extractUserIdSafely(String token) {
+        try {
+            String userId = jwtService.extractUserId(token);
+            return userId != null ? UUID.fromString(userId) : null;
+        } catch (Exception e) {
+            return null;
+        }
     }
 
     @Transactional
@@ -175,6 +194,7 @@ public class AuthService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         User updatedUser = userRepository.save(user);
+        principalCache.invalidateUser(updatedUser.getUsername());
 
         log.info("Пароль успешно изменен для пользователя: {}", updatedUser.getUsername());
         auditLogService.logSimple(user, "CHANGE_PASSWORD", "User", updatedUser.getId().toString(), "Смена пароля");
@@ -0,0 +1,108 @@
+package ru.perminov.tender.service;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.perminov.tender.cache.BoundedCache;
+import ru.perminov.tender.dto.CacheStatsDto;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Кэш проверенных JWT токенов и данных пользователей для фильтра аутентификации.
+ * Токены хранятся по SHA-256 хэшу, пользователи по username. Записи живут ограниченное
+ * время и сбрасываются при изменении пользователя, отозванные токены отсекаются до обращения к кэшу
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuthenticatedPrincipalCache {
+
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Value("${security.principal-cache.max-tokens:10000}")
+    private int maxTokens;
+
+    @Value("${security.principal-cache.max-users:2000}")
+    private int maxUsers;
+
+    @Value("${security.principal-cache.ttl:300000}")
+    private long ttlMillis;
+
+    private BoundedCache<String, VerifiedToken> tokens;
+    private BoundedCache<String, UserDetails> users;
+
+    /**
+     * Токен с проверенной подписью
+     */
+    private record VerifiedToken(String username, long expiresAtMillis) {
+    }
+
+    @PostConstruct
+    void initCaches() {
+        tokens = new BoundedCache<>("jwt-tokens", maxTokens, Duration.ofMillis(ttlMillis));
+        users = new BoundedCache<>("jwt-principals", maxUsers, Duration.ofMillis(ttlMillis));
+    }
+
+    /**
+     * Возвращает пользователя для валидного токена. Исключения парсинга и загрузки
+     * пользователя пробрасываются, неудачные результаты не кэшируются
+     */
+    public UserDetails authenticate(String token) {
+        String key = jwtService.tokenDigest(token);
+        if (tokenRevocationService.isRevokedDigest(key)) {
+            return null;
+        }
+        VerifiedToken verified = tokens.get(key, k -> verify(token));
+        if (verified.expiresAtMillis() <= System.currentTimeMillis()) {
+            tokens.invalidate(key);
+            return null;
+        }
+        return users.get(verified.username(), userDetailsService::loadUserByUsername);
+    }
+
+    /**
+     * Сбрасывает пользователя и все его токены, повторно после коммита текущей транзакции
+     */
+    public void invalidateUser(String username) {
+        if (username == null) return;
+        evict(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(username);
+                }
+            });
+        }
+    }
+
+    public List<CacheStatsDto> getStats() {
+        return List.of(tokens.stats(), users.stats());
+    }
+
+    private void evict(String username) {
+        users.invalidate(username);
+        tokens.invalidateIf(token -> username.equals(token.username()));
+        log.debug("Сброшен кэш аутентификации пользователя: {}", username);
+    }
+
+    private VerifiedToken verify(String token) {
+        Claims claims = jwtService.extractAllClaims(token);
+        if (claims.getSubject() == null) {
+            throw new IllegalArgumentException("В JWT токене отсутствует имя пользователя");
+        }
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        return new VerifiedToken(claims.getSubject(), expiresAt);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.perminov.tender.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import ru.perminov.tender.cache.BankDirectory;
+import ru.perminov.tender.dto.ImportResultDto;
+import ru.perminov.tender.model.company.Bank;
+import ru.perminov.tender.repository.company.BankRepository;
+import ru.perminov.tender.service.importer.Ed807Parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Справочник банков по БИК в памяти. Источник - таблица banks, которая заполняется загрузкой справочника
+ * ЦБ (ED807) администратором. Справочник перестраивается целиком и подменяется одной записью ссылки,
+ * поиск во время обновления продолжает работать по предыдущей версии
+ */
+@Service
+@Slf4j
+public class BankDirectoryService {
+
+    private final BankRepository bankRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile BankDirectory directory = BankDirectory.EMPTY;
+
+    public BankDirectoryService(BankRepository bankRepository, EntityManager entityManager,
+                                PlatformTransactionManager transactionManager) {
+        this.bankRepository = bankRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /**
+     * Перечитывает справочник из базы: подхватывает загрузки, выполненные на других узлах
+     */
+    @Scheduled(fixedDelayString = "${bank.directory.refresh-interval:3600000}",
+            initialDelayString = "${bank.directory.refresh-interval:3600000}")
+    public void refresh() {
+        reload();
+    }
+
+    public BankDirectory.Entry find(String bik) {
+        return directory.find(bik);
+    }
+
+    public int size() {
+        return directory.size();
+    }
+
+    /**
+     * Загрузка справочника ED807 (XML или ZIP): новые БИК добавляются, наименования и корреспондентские
+     * счета существующих обновляются. Банки, которых нет в файле, не удаляются - на них ссылаются счета компаний
+     */
+    public ImportResultDto importEd807(MultipartFile file) {
+        ImportResultDto result = new ImportResultDto();
+        List<BankDirectory.Entry> entries;
+        try (InputStream input = file.getInputStream()) {
+            entries = Ed807Parser.parse(input, (message, number) -> result.addError(number, message));
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка чтения справочника БИК: " + e.getMessage(), e);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, Bank> existing = bankRepository.findAll().stream()
+                    .collect(Collectors.toMap(Bank::getBik, Function.identity()));
+            for (BankDirectory.Entry entry : entries) {
+                result.incrementProcessed();
+                Bank bank = existing.get(entry.bik());
+                if (bank == null) {
+                    bank = new Bank(entry.bik(), entry.name(), entry.correspondentAccount());
+                    entityManager.persist(bank);
+                    existing.put(entry.bik(), bank);
+                    result.incrementImported();
+                } else if (!Objects.equals(bank.getName(), entry.name())
+                        || !Objects.equals(bank.getCorrespondentAccount(), entry.correspondentAccount())) {
+                    bank.setName(entry.name());
+                    bank.setCorrespondentAccount(entry.correspondentAccount());
+                    result.incrementImported();
+                }
+            }
+        });
+        reload();
+        log.info("Загружен справочник БИК {}: записей {}, добавлено или изменено {}, пропущено {}",
+                file.getOriginalFilename(), result.getProcessed(), result.getImported(), result.getErrors().size());
+        return result;
+    }
+
+    /**
+     * Сохраняет банк, полученный из внешнего источника, и добавляет его в справочник
+     */
+    public synchronized void remember(BankDirectory.Entry entry) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!bankRepository.existsById(entry.bik())) {
+                bankRepository.save(new Bank(entry.bik(), entry.name(), entry.correspondentAccount()));
+            }
+        });
+        directory = directory.with(entry);
+    }
+
+    private synchronized void reload() {
+        long start = System.currentTimeMillis();
+        List<BankDirectory.Entry> entries = readOnlyTransaction.execute(status -> bankRepository.findAll().stream()
+                .map(bank -> new BankDirectory.Entry(bank.getBik(), bank.getName(), bank.getCorrespondentAccount()))
+                .toList());
+        directory = BankDirectory.build(entries);
+        log.info("Справочник БИК загружен: {} банков за {} мс", directory.size(), System.currentTimeMillis() - start);
+    }
+}
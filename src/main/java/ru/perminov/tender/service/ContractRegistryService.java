@@ -1,6 +1,7 @@
 package ru.perminov.tender.service;
 
-import java.io.ByteArrayInputStream;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 import java.util.List;
 
 public interface ContractRegistryService {
@@ -11,7 +12,7 @@ public interface ContractRegistryService {
     List<ru.perminov.tender.dto.contract.ContractDto> getAllContracts();
     
     /**
-     * Экспортировать все контракты в Excel
+     * Экспортировать все контракты в Excel потоком в ответ
      */
-    ByteArrayInputStream exportContractsToExcel();
+    StreamingResponseBody exportContractsToExcel();
 } 
\ No newline at end of file
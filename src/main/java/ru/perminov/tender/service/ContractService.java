@@ -1,10 +1,13 @@
 package ru.perminov.tender.service;
 
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.contract.ContractDto;
 import ru.perminov.tender.dto.contract.ContractDtoNew;
 import ru.perminov.tender.dto.contract.ContractDtoUpdate;
 import ru.perminov.tender.dto.contract.ContractItemDto;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import java.util.Map;
@@ -30,6 +33,12 @@ public interface ContractService {
      * Получить контракты по поставщику
      */
     List<ContractDto> getContractsBySupplier(UUID supplierId);
+
+    /**
+     * Постраничный список контрактов с фильтрами. Сортировка: contractDate, endDate, contractNumber, totalAmount
+     */
+    PageResponseDto<ContractDto> getContractPage(ListingRequest listing, String status, UUID supplierId,
+                                                 UUID tenderId, LocalDate dateFrom, LocalDate dateTo, String search);
     
     /**
      * Обновить контракт
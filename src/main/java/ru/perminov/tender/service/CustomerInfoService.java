@@ -239,7 +239,7 @@ public class CustomerInfoService {
         if (tenders.isEmpty()) {
             log.info("Тендеры для заявки {} не найдены", request.getRequestNumber());
         } else {
-            tenders.forEach(tender -> log.info("Найден тендер: {} для заявки {}", tender.getTenderNumber(), request.getRequestNumber()));
+            tenders.forEach(tender -> log.debug("Найден тендер: {} для заявки {}", tender.getTenderNumber(), request.getRequestNumber()));
         }
 
         List<TenderHierarchyDto> tenderHierarchies = tenders.stream()
@@ -0,0 +1,34 @@
+package ru.perminov.tender.service;
+
+import ru.perminov.tender.dto.dashboard.DashboardDto.DashboardMetricsDto;
+import ru.perminov.tender.model.Contract;
+import ru.perminov.tender.model.Delivery;
+import ru.perminov.tender.model.Payment;
+import ru.perminov.tender.model.Tender;
+
+import java.time.LocalDate;
+
+public interface DashboardMetricsService {
+
+    /**
+     * Рассчитывает ключевые метрики дашборда агрегирующими запросами,
+     * не загружая сами сущности в память
+     */
+    DashboardMetricsDto calculateMetrics(LocalDate date);
+
+    /**
+     * Возвращает текущий снимок метрик без обращения к базе данных
+     */
+    DashboardMetricsDto getSnapshot();
+
+    /**
+     * Полностью пересчитывает снимок метрик (сверка накопленных расхождений)
+     */
+    DashboardMetricsDto refreshSnapshot();
+
+    // Инкрементальное обновление снимка при смене статусов
+    void onTenderStatusChanged(Tender.TenderStatus oldStatus, Tender.TenderStatus newStatus);
+    void onDeliveryStatusChanged(Delivery delivery, Delivery.DeliveryStatus oldStatus, LocalDate oldActualDate);
+    void onPaymentStatusChanged(Payment payment, Payment.PaymentStatus oldStatus);
+    void onContractStatusChanged(Contract.ContractStatus oldStatus, Contract.ContractStatus newStatus);
+}
@@ -1,6 +1,7 @@
 package ru.perminov.tender.service;
 
-import java.io.ByteArrayInputStream;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 import java.util.List;
 
 public interface DeliveryRegistryService {
@@ -11,7 +12,7 @@ public interface DeliveryRegistryService {
     List<ru.perminov.tender.dto.delivery.DeliveryDto> getAllDeliveries();
     
     /**
-     * Экспортировать все поставки в Excel
+     * Экспортировать все поставки в Excel потоком в ответ
      */
-    ByteArrayInputStream exportDeliveriesToExcel();
+    StreamingResponseBody exportDeliveriesToExcel();
 } 
\ No newline at end of file
@@ -0,0 +1,170 @@
+package ru.perminov.tender.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.WebRequest;
+import ru.perminov.tender.cache.DictionaryType;
+import ru.perminov.tender.dto.DictionaryCacheStatsDto;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш списков справочников: список хранится сериализованным в JSON вместе с сильным ETag (хэш содержимого).
+ * Изменение справочной сущности на этом узле повышает версию справочника после коммита, следующий запрос
+ * перечитывает список. Изменения с других узлов и массовые UPDATE мимо JPA не видны слушателю, поэтому
+ * снимок живет не дольше dictionary-cache.ttl и затем перечитывается. Запрос с совпадающим If-None-Match
+ * получает 304 без тела и без обращения к базе
+ */
+@Service
+@Slf4j
+public class DictionaryCacheService {
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<DictionaryType, Entry> entries = new EnumMap<>(DictionaryType.class);
+
+    @Value("${dictionary-cache.ttl:30000}")
+    private long ttlMillis;
+
+    /**
+     * Версия справочника, последний построенный снимок и счетчики обращений
+     */
+    private static final class Entry {
+        private final AtomicLong version = new AtomicLong();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong notModified = new AtomicLong();
+        private volatile Snapshot snapshot;
+    }
+
+    private record Snapshot(long version, byte[] body, String etag, long loadedAt) {
+    }
+
+    public DictionaryCacheService(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        for (DictionaryType type : DictionaryType.values()) {
+            entries.put(type, new Entry());
+        }
+    }
+
+    /**
+     * Ответ со списком справочника из кэша: 304, если ETag клиента совпадает, иначе JSON из памяти.
+     * loader вызывается только при изменении справочника, внутри читающей транзакции
+     */
+    public ResponseEntity<byte[]> respond(DictionaryType type, WebRequest request, Supplier<? extends List<?>> loader) {
+        Entry entry = entries.get(type);
+        Snapshot snapshot = current(type, entry, loader);
+        if (request.checkNotModified(snapshot.etag())) {
+            entry.notModified.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.body());
+    }
+
+    /**
+     * Сбрасывает справочник сущности после коммита текущей транзакции
+     */
+    public void changed(Object entity) {
+        DictionaryType type = DictionaryType.of(entity);
+        if (type == null) return;
+        Runnable bump = () -> entries.get(type).version.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump.run();
+                }
+            });
+        } else {
+            bump.run();
+        }
+    }
+
+    public List<DictionaryCacheStatsDto> getStats() {
+        long now = System.currentTimeMillis();
+        return Arrays.stream(DictionaryType.values())
+                .map(type -> {
+                    Entry entry = entries.get(type);
+                    Snapshot snapshot = entry.snapshot;
+                    long hits = entry.hits.get();
+                    long misses = entry.misses.get();
+                    return new DictionaryCacheStatsDto("dictionary-" + type.name().toLowerCase(), snapshot != null,
+                            snapshot != null ? now - snapshot.loadedAt() : 0, hits, misses, entry.notModified.get(),
+                            hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+                })
+                .toList();
+    }
+
+    private Snapshot current(DictionaryType type, Entry entry, Supplier<? extends List<?>> loader) {
+        Snapshot snapshot = entry.snapshot;
+        if (isFresh(snapshot, entry.version.get())) {
+            entry.hits.incrementAndGet();
+            return snapshot;
+        }
+        synchronized (entry) {
+            // Версия читается до загрузки: изменение, закоммиченное во время загрузки, сделает снимок устаревшим
+            long version = entry.version.get();
+            snapshot = entry.snapshot;
+            if (isFresh(snapshot, version)) {
+                entry.hits.incrementAndGet();
+                return snapshot;
+            }
+            entry.misses.incrementAndGet();
+            byte[] body = readOnlyTransaction.execute(status -> serialize(loader.get()));
+            snapshot = new Snapshot(version, body, etag(body), System.currentTimeMillis());
+            entry.snapshot = snapshot;
+            log.debug("Справочник {} загружен в кэш: {} байт, версия {}", type, body.length, version);
+            return snapshot;
+        }
+    }
+
+    private boolean isFresh(Snapshot snapshot, long version) {
+        return snapshot != null && snapshot.version() == version
+                && System.currentTimeMillis() - snapshot.loadedAt() < ttlMillis;
+    }
+
+    private byte[] serialize(List<?> list) {
+        try {
+            return objectMapper.writeValueAsBytes(list);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Ошибка сериализации справочника: " + e.getMessage(), e);
+        }
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
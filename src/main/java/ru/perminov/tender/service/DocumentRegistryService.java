@@ -1,6 +1,7 @@
 package ru.perminov.tender.service;
 
-import java.io.ByteArrayInputStream;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 import java.util.List;
 
 public interface DocumentRegistryService {
@@ -11,7 +12,7 @@ public interface DocumentRegistryService {
     List<ru.perminov.tender.dto.document.DocumentDto> getAllDocuments();
     
     /**
-     * Экспортировать все документы в Excel
+     * Экспортировать все документы в Excel потоком в ответ
      */
-    ByteArrayInputStream exportDocumentsToExcel();
+    StreamingResponseBody exportDocumentsToExcel();
 } 
\ No newline at end of file
@@ -2,6 +2,10 @@ package ru.perminov.tender.service;
 
 import ru.perminov.tender.model.Notification;
 
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 public interface EmailService {
     
     /**
@@ -10,6 +14,13 @@ public interface EmailService {
      * @return true если отправка прошла успешно
      */
     boolean sendNotification(Notification notification);
+
+    /**
+     * Отправляет пачку уведомлений через одно SMTP-соединение
+     * @param notifications уведомления для отправки
+     * @return тексты ошибок по id уведомлений, которые не удалось отправить
+     */
+    Map<UUID, String> sendNotifications(List<Notification> notifications);
     
     /**
      * Отправляет email с указанными параметрами
@@ -1,249 +1,117 @@
 package ru.perminov.tender.service;
 
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import ru.perminov.tender.dto.company.CompanyDto;
-import ru.perminov.tender.dto.company.contact.ContactTypeDto;
-import ru.perminov.tender.dto.material.MaterialDto;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.perminov.tender.model.Category;
 import ru.perminov.tender.model.MaterialType;
+import ru.perminov.tender.model.Project;
 import ru.perminov.tender.model.Unit;
-import org.springframework.web.multipart.MultipartFile;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.util.Iterator;
-import java.io.ByteArrayInputStream;
+import ru.perminov.tender.model.company.Company;
+import ru.perminov.tender.model.company.ContactType;
+import ru.perminov.tender.repository.CategoryRepository;
+import ru.perminov.tender.repository.MaterialRepository;
+import ru.perminov.tender.repository.MaterialTypeRepository;
+import ru.perminov.tender.repository.ProjectRepository;
+import ru.perminov.tender.repository.UnitRepository;
+import ru.perminov.tender.repository.company.CompanyRepository;
+import ru.perminov.tender.repository.company.ContactTypeRepository;
+import ru.perminov.tender.repository.projection.MaterialExportProjection;
+import ru.perminov.tender.service.export.ExcelColumn;
+import ru.perminov.tender.service.export.StreamingExcelExporter;
+
 import java.util.List;
 
+/**
+ * Выгрузка справочников в Excel: строки читаются потоковым запросом и пишутся прямо в ответ,
+ * справочник целиком в память не загружается
+ */
 @Service
+@RequiredArgsConstructor
 public class ExcelService {
 
-    public ByteArrayInputStream exportCategoriesToExcel(List<Category> categories) {
-        String[] columns = {"ID", "Name"};
-        try (
-                Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()
-        ) {
-            Sheet sheet = workbook.createSheet("Categories");
-
-            Row headerRow = sheet.createRow(0);
-            for (int col = 0; col < columns.length; col++) {
-                Cell cell = headerRow.createCell(col);
-                cell.setCellValue(columns[col]);
-            }
-
-            int rowIdx = 1;
-            for (Category category : categories) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(category.getId().toString());
-                row.createCell(1).setCellValue(category.getName());
-            }
-
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException("fail to import data to Excel file: " + e.getMessage());
-        }
+    private final StreamingExcelExporter excelExporter;
+    private final CategoryRepository categoryRepository;
+    private final MaterialTypeRepository materialTypeRepository;
+    private final UnitRepository unitRepository;
+    private final ContactTypeRepository contactTypeRepository;
+    private final CompanyRepository companyRepository;
+    private final MaterialRepository materialRepository;
+    private final ProjectRepository projectRepository;
+
+    public StreamingResponseBody exportCategoriesToExcel() {
+        List<ExcelColumn<Category>> columns = List.of(
+                ExcelColumn.of("ID", Category::getId),
+                ExcelColumn.of("Name", Category::getName)
+        );
+        return excelExporter.stream("Categories", columns, categoryRepository::streamAllForExport);
     }
 
-    public ByteArrayInputStream exportMaterialTypesToExcel(List<MaterialType> materialTypes) {
-        String[] columns = {"ID", "Name"};
-        try (
-                Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()
-        ) {
-            Sheet sheet = workbook.createSheet("MaterialTypes");
-
-            Row headerRow = sheet.createRow(0);
-            for (int col = 0; col < columns.length; col++) {
-                Cell cell = headerRow.createCell(col);
-                cell.setCellValue(columns[col]);
-            }
-
-            int rowIdx = 1;
-            for (MaterialType materialType : materialTypes) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(materialType.getId().toString());
-                row.createCell(1).setCellValue(materialType.getName());
-            }
-
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException("fail to import data to Excel file: " + e.getMessage());
-        }
+    public StreamingResponseBody exportMaterialTypesToExcel() {
+        List<ExcelColumn<MaterialType>> columns = List.of(
+                ExcelColumn.of("ID", MaterialType::getId),
+                ExcelColumn.of("Name", MaterialType::getName)
+        );
+        return excelExporter.stream("MaterialTypes", columns, materialTypeRepository::streamAllForExport);
     }
 
-    public ByteArrayInputStream exportUnitsToExcel(List<Unit> units) {
-        String[] columns = {"ID", "Name", "ShortName"};
-        try (
-                Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()
-        ) {
-            Sheet sheet = workbook.createSheet("Units");
-
-            Row headerRow = sheet.createRow(0);
-            for (int col = 0; col < columns.length; col++) {
-                Cell cell = headerRow.createCell(col);
-                cell.setCellValue(columns[col]);
-            }
-
-            int rowIdx = 1;
-            for (Unit unit : units) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(unit.getId().toString());
-                row.createCell(1).setCellValue(unit.getName());
-                row.createCell(2).setCellValue(unit.getShortName());
-            }
-
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException("fail to import data to Excel file: " + e.getMessage());
-        }
+    public StreamingResponseBody exportUnitsToExcel() {
+        List<ExcelColumn<Unit>> columns = List.of(
+                ExcelColumn.of("ID", Unit::getId),
+                ExcelColumn.of("Name", Unit::getName),
+                ExcelColumn.of("ShortName", Unit::getShortName)
+        );
+        return excelExporter.stream("Units", columns, unitRepository::streamAllForExport);
     }
 
-    public ByteArrayInputStream exportContactTypesToExcel(List<ContactTypeDto> contactTypes) {
-        String[] columns = {"ID", "Name"};
-        try (
-                Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()
-        ) {
-            Sheet sheet = workbook.createSheet("ContactTypes");
-
-            Row headerRow = sheet.createRow(0);
-            for (int col = 0; col < columns.length; col++) {
-                Cell cell = headerRow.createCell(col);
-                cell.setCellValue(columns[col]);
-            }
-
-            int rowIdx = 1;
-            for (ContactTypeDto contactType : contactTypes) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(contactType.id().toString());
-                row.createCell(1).setCellValue(contactType.name());
-            }
-
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException("fail to import data to Excel file: " + e.getMessage());
-        }
+    public StreamingResponseBody exportContactTypesToExcel() {
+        List<ExcelColumn<ContactType>> columns = List.of(
+                ExcelColumn.of("ID", ContactType::getId),
+                ExcelColumn.of("Name", ContactType::getName)
+        );
+        return excelExporter.stream("ContactTypes", columns, contactTypeRepository::streamAllForExport);
     }
 
-    public ByteArrayInputStream exportCompaniesToExcel(List<CompanyDto> companies) {
-        String[] columns = {"ID", "ИНН", "КПП", "ОГРН", "Название", "Юридическое название", "Адрес", "Тип компании", "Директор", "Телефон", "Email"};
-        try (
-                Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()
-        ) {
-            Sheet sheet = workbook.createSheet("Companies");
-
-            Row headerRow = sheet.createRow(0);
-            for (int col = 0; col < columns.length; col++) {
-                Cell cell = headerRow.createCell(col);
-                cell.setCellValue(columns[col]);
-            }
-
-            int rowIdx = 1;
-            for (CompanyDto company : companies) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(company.id().toString());
-                row.createCell(1).setCellValue(company.inn() != null ? company.inn() : "");
-                row.createCell(2).setCellValue(company.kpp() != null ? company.kpp() : "");
-                row.createCell(3).setCellValue(company.ogrn() != null ? company.ogrn() : "");
-                row.createCell(4).setCellValue(company.name() != null ? company.name() : "");
-                row.createCell(5).setCellValue(company.legalName() != null ? company.legalName() : "");
-                row.createCell(6).setCellValue(company.address() != null ? company.address() : "");
-                row.createCell(7).setCellValue(company.typeName() != null ? company.typeName() : "");
-                row.createCell(8).setCellValue(company.director() != null ? company.director() : "");
-                row.createCell(9).setCellValue(company.phone() != null ? company.phone() : "");
-                row.createCell(10).setCellValue(company.email() != null ? company.email() : "");
-            }
-
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException("fail to import data to Excel file: " + e.getMessage());
-        }
+    public StreamingResponseBody exportCompaniesToExcel() {
+        List<ExcelColumn<Company>> columns = List.of(
+                ExcelColumn.of("ID", Company::getId),
+                ExcelColumn.of("ИНН", Company::getInn),
+                ExcelColumn.of("КПП", Company::getKpp),
+                ExcelColumn.of("ОГРН", Company::getOgrn),
+                ExcelColumn.of("Название", Company::getName),
+                ExcelColumn.of("Юридическое название", Company::getLegalName),
+                ExcelColumn.of("Адрес", Company::getAddress),
+                ExcelColumn.of("Тип компании", company -> company.getCompanyType() != null ? company.getCompanyType().getName() : null),
+                ExcelColumn.of("Директор", Company::getDirector),
+                ExcelColumn.of("Телефон", Company::getPhone),
+                ExcelColumn.of("Email", Company::getEmail)
+        );
+        return excelExporter.stream("Companies", columns, companyRepository::streamAllForExport);
     }
 
-    public ByteArrayInputStream exportMaterialsToExcel(List<MaterialDto> materials) {
-        String[] columns = {"ID", "Название", "Описание", "Тип материала", "Ссылка", "Код/Артикул", "Категория", "Единицы измерения", "Дата создания", "Дата обновления"};
-        try (
-                Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()
-        ) {
-            Sheet sheet = workbook.createSheet("Materials");
-
-            Row headerRow = sheet.createRow(0);
-            for (int col = 0; col < columns.length; col++) {
-                Cell cell = headerRow.createCell(col);
-                cell.setCellValue(columns[col]);
-            }
-
-            int rowIdx = 1;
-            for (MaterialDto material : materials) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(material.id().toString());
-                row.createCell(1).setCellValue(material.name() != null ? material.name() : "");
-                row.createCell(2).setCellValue(material.description() != null ? material.description() : "");
-                row.createCell(3).setCellValue(material.materialType() != null ? material.materialType().name() : "");
-                row.createCell(4).setCellValue(material.link() != null ? material.link() : "");
-                row.createCell(5).setCellValue(material.code() != null ? material.code() : "");
-                row.createCell(6).setCellValue(material.category() != null ? material.category().name() : "");
-
+    public StreamingResponseBody exportMaterialsToExcel() {
+        List<ExcelColumn<MaterialExportProjection>> columns = List.of(
+                ExcelColumn.of("ID", MaterialExportProjection::getId),
+                ExcelColumn.of("Название", MaterialExportProjection::getName),
+                ExcelColumn.of("Описание", MaterialExportProjection::getDescription),
+                ExcelColumn.of("Тип материала", MaterialExportProjection::getMaterialTypeName),
+                ExcelColumn.of("Ссылка", MaterialExportProjection::getLink),
+                ExcelColumn.of("Код/Артикул", MaterialExportProjection::getCode),
+                ExcelColumn.of("Категория", MaterialExportProjection::getCategoryName),
                 // Единицы измерения (только имена через запятую)
-                String unitsStr = "";
-                if (material.units() != null && !material.units().isEmpty()) {
-                    unitsStr = material.units().stream()
-                            .map(unit -> unit.name())
-                            .reduce((a, b) -> a + ", " + b)
-                            .orElse("");
-                }
-                row.createCell(7).setCellValue(unitsStr);
-
-                row.createCell(8).setCellValue(material.createdAt() != null ? material.createdAt().toString() : "");
-                row.createCell(9).setCellValue(material.updatedAt() != null ? material.updatedAt().toString() : "");
-            }
-
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException("fail to import data to Excel file: " + e.getMessage());
-        }
+                ExcelColumn.of("Единицы измерения", MaterialExportProjection::getUnitNames),
+                ExcelColumn.of("Дата создания", MaterialExportProjection::getCreatedAt),
+                ExcelColumn.of("Дата обновления", MaterialExportProjection::getUpdatedAt)
+        );
+        return excelExporter.stream("Materials", columns, materialRepository::streamAllForExport);
     }
 
-    public ByteArrayInputStream exportProjectsToExcel(List<ru.perminov.tender.dto.project.ProjectDto> projects) {
-        String[] columns = {"ID", "Название", "Описание"};
-        try (
-                Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()
-        ) {
-            Sheet sheet = workbook.createSheet("Projects");
-
-            Row headerRow = sheet.createRow(0);
-            for (int col = 0; col < columns.length; col++) {
-                Cell cell = headerRow.createCell(col);
-                cell.setCellValue(columns[col]);
-            }
-
-            int rowIdx = 1;
-            for (ru.perminov.tender.dto.project.ProjectDto project : projects) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(project.id().toString());
-                row.createCell(1).setCellValue(project.name() != null ? project.name() : "");
-                row.createCell(2).setCellValue(project.description() != null ? project.description() : "");
-            }
-
-            workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
-        } catch (IOException e) {
-            throw new RuntimeException("fail to import data to Excel file: " + e.getMessage());
-        }
+    public StreamingResponseBody exportProjectsToExcel() {
+        List<ExcelColumn<Project>> columns = List.of(
+                ExcelColumn.of("ID", Project::getId),
+                ExcelColumn.of("Название", Project::getName),
+                ExcelColumn.of("Описание", Project::getDescription)
+        );
+        return excelExporter.stream("Projects", columns, projectRepository::streamAllForExport);
     }
-} 
\ No newline at end of file
+}
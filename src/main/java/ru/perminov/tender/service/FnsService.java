@@ -1,7 +1,12 @@
 package ru.perminov.tender.service;
 
+import ru.perminov.tender.dto.FnsCompanyLookupDto;
+
+import java.util.List;
 import java.util.Map;
  
 public interface FnsService {
     Map<String, Object> searchCompany(String inn);
-} 
\ No newline at end of file
+
+    List<FnsCompanyLookupDto> searchCompanies(List<String> inns);
+}
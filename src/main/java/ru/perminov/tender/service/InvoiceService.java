@@ -4,7 +4,10 @@ import ru.perminov.tender.dto.InvoiceDto;
 import ru.perminov.tender.dto.InvoiceDtoNew;
 import ru.perminov.tender.dto.InvoiceDtoUpdate;
 import ru.perminov.tender.dto.InvoiceItemDto;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,6 +19,9 @@ public interface InvoiceService {
     
     List<InvoiceDto> getAllInvoices();
     
+    PageResponseDto<InvoiceDto> getInvoicePage(ListingRequest listing, String status, UUID contractId, UUID supplierId,
+                                               UUID requestId, LocalDate dateFrom, LocalDate dateTo, String search);
+    
     List<InvoiceDto> getInvoicesByRequest(UUID requestId);
     
     List<InvoiceDto> getInvoicesByContract(UUID contractId);
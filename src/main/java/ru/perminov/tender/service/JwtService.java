@@ -2,6 +2,7 @@ package ru.perminov.tender.service;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,6 +10,10 @@ import org.springframework.stereotype.Service;
 import ru.perminov.tender.model.User;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -27,8 +32,20 @@ public class JwtService {
     @Value("${jwt.refresh-expiration:604800000}") // 7 days by default
     private long refreshExpiration;
 
+    // Ключ и парсер неизменяемы и потокобезопасны, создаются один раз
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
     }
 
     public String extractUsername(String token) {
@@ -44,11 +61,12 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
+    /**
+     * Проверяет подпись и срок действия токена и возвращает его claims
+     */
+    public Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            return parser
                     .parseSignedClaims(token)
                     .getPayload();
         } catch (JwtException e) {
@@ -103,6 +121,18 @@ public class JwtService {
         }
     }
 
+    /**
+     * SHA-256 токена в Base64, используется как ключ вместо самого токена
+     */
+    public String tokenDigest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
     public String extractUserId(String token) {
         return extractClaim(token, claims -> claims.get("userId", String.class));
     }
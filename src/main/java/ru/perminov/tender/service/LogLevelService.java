@@ -0,0 +1,55 @@
+package ru.perminov.tender.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.stereotype.Service;
+import ru.perminov.tender.dto.LoggerLevelDto;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Просмотр и изменение уровней логирования во время работы приложения, без перезапуска
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LogLevelService {
+
+    private final LoggingSystem loggingSystem;
+
+    public List<LoggerLevelDto> getLevels(String prefix) {
+        return loggingSystem.getLoggerConfigurations().stream()
+                .filter(config -> prefix == null || prefix.isBlank() || config.getName().startsWith(prefix))
+                .map(this::toDto)
+                .toList();
+    }
+
+    /**
+     * Устанавливает уровень логгера, пустой уровень возвращает унаследованный
+     */
+    public LoggerLevelDto setLevel(String loggerName, String level) {
+        LogLevel logLevel = null;
+        if (level != null && !level.isBlank()) {
+            try {
+                logLevel = LogLevel.valueOf(level.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Неизвестный уровень логирования: " + level);
+            }
+        }
+        loggingSystem.setLogLevel(loggerName, logLevel);
+        log.warn("Уровень логирования {} изменен на {}", loggerName, logLevel != null ? logLevel : "унаследованный");
+        return toDto(loggingSystem.getLoggerConfiguration(loggerName));
+    }
+
+    private LoggerLevelDto toDto(LoggerConfiguration config) {
+        return new LoggerLevelDto(
+                config.getName(),
+                config.getConfiguredLevel() != null ? config.getConfiguredLevel().name() : null,
+                config.getEffectiveLevel() != null ? config.getEffectiveLevel().name() : null
+        );
+    }
+}
@@ -0,0 +1,284 @@
+package ru.perminov.tender.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.perminov.tender.dto.CharacteristicDto;
+import ru.perminov.tender.dto.MaterialMatchDto;
+import ru.perminov.tender.dto.MaterialMatchResultDto;
+import ru.perminov.tender.dto.OrgSupplierMaterialMappingDto;
+import ru.perminov.tender.matching.MatchCandidate;
+import ru.perminov.tender.matching.MatchEntry;
+import ru.perminov.tender.matching.MatchSource;
+import ru.perminov.tender.matching.MatchTarget;
+import ru.perminov.tender.matching.MaterialMatchIndex;
+import ru.perminov.tender.matching.NameFeatures;
+import ru.perminov.tender.repository.CharacteristicRepository;
+import ru.perminov.tender.repository.MaterialRepository;
+import ru.perminov.tender.repository.OrgSupplierMaterialMappingRepository;
+import ru.perminov.tender.repository.projection.CountAndLastUpdateProjection;
+import ru.perminov.tender.repository.projection.MatchingCatalogRowProjection;
+import ru.perminov.tender.repository.projection.SupplierNameMappingProjection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Нечеткое сопоставление наименований поставщиков и смет с материалами каталога.
+ * Индекс признаков строится в фоне при старте и при изменении каталога; подтвержденные соответствия
+ * (OrgSupplierMaterialMapping) попадают в него сразу после коммита и учитываются с приоритетом для своей организации
+ */
+@Service
+@Slf4j
+public class MaterialMatchingService {
+
+    public static final int MAX_LIMIT = 20;
+    public static final int MAX_BATCH = 10_000;
+
+    private final MaterialRepository materialRepository;
+    private final CharacteristicRepository characteristicRepository;
+    private final OrgSupplierMaterialMappingRepository mappingRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Object learnedMonitor = new Object();
+
+    @Value("${material-matching.min-score:0.3}")
+    private double minScore;
+
+    @Value("${material-matching.max-learned:1000}")
+    private int maxLearned;
+
+    private volatile MaterialMatchIndex index = MaterialMatchIndex.EMPTY;
+    // Соответствия, подтвержденные после построения индекса; при перестроении они уже читаются из базы
+    private volatile List<MatchEntry> learned = List.of();
+    private volatile String catalogVersion;
+    private ExecutorService rebuildExecutor;
+
+    public MaterialMatchingService(MaterialRepository materialRepository,
+                                   CharacteristicRepository characteristicRepository,
+                                   OrgSupplierMaterialMappingRepository mappingRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.materialRepository = materialRepository;
+        this.characteristicRepository = characteristicRepository;
+        this.mappingRepository = mappingRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void startExecutor() {
+        rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "material-matching");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        startRebuild();
+    }
+
+    /**
+     * Лучшие позиции каталога для одного наименования
+     */
+    public List<MaterialMatchDto> match(String name, UUID organizationId, int limit) {
+        return toDtos(index.match(NameFeatures.of(name), organizationId, clampLimit(limit), minScore, learned));
+    }
+
+    /**
+     * Сопоставление пачки наименований при импорте заявки или предложения; повторяющиеся наименования
+     * сопоставляются один раз. Порядок результатов совпадает с порядком names
+     */
+    public List<MaterialMatchResultDto> matchAll(List<String> names, UUID organizationId, int limit) {
+        if (names.size() > MAX_BATCH) {
+            throw new RuntimeException("Слишком много наименований для сопоставления: " + names.size()
+                    + ", максимум " + MAX_BATCH);
+        }
+        MaterialMatchIndex current = index;
+        List<MatchEntry> currentLearned = learned;
+        int safeLimit = clampLimit(limit);
+        Map<String, List<MaterialMatchDto>> byKey = new HashMap<>();
+        List<MaterialMatchResultDto> results = new ArrayList<>(names.size());
+        for (String name : names) {
+            NameFeatures features = NameFeatures.of(name);
+            List<MaterialMatchDto> candidates = byKey.computeIfAbsent(features.key(), key ->
+                    toDtos(current.match(features, organizationId, safeLimit, minScore, currentLearned)));
+            results.add(new MaterialMatchResultDto(name, candidates));
+        }
+        return results;
+    }
+
+    /**
+     * Учитывает подтвержденные соответствия организации после коммита транзакции, в которой они сохранены
+     */
+    public void learn(UUID organizationId, List<OrgSupplierMaterialMappingDto> mappings) {
+        List<MatchEntry> entries = new ArrayList<>(mappings.size());
+        for (OrgSupplierMaterialMappingDto mapping : mappings) {
+            NameFeatures features = NameFeatures.of(mapping.supplierName());
+            if (features.isEmpty()) continue;
+            CharacteristicDto characteristic = mapping.characteristic();
+            MatchTarget target = new MatchTarget(mapping.materialId(), mapping.materialName(),
+                    characteristic != null ? characteristic.id() : null, characteristic != null ? characteristic.name() : null);
+            entries.add(new MatchEntry(target, features, MatchSource.MAPPING, organizationId));
+        }
+        if (entries.isEmpty()) return;
+        afterCommit(() -> {
+            boolean overflow;
+            synchronized (learnedMonitor) {
+                List<MatchEntry> updated = new ArrayList<>(learned);
+                updated.addAll(entries);
+                learned = List.copyOf(updated);
+                overflow = updated.size() > maxLearned;
+            }
+            // Записи вне индекса перебираются полностью, поэтому при накоплении индекс перестраивается
+            if (overflow) {
+                startRebuild();
+            }
+        });
+    }
+
+    public int getIndexedCount() {
+        return index.size() + learned.size();
+    }
+
+    /**
+     * Запускает перестроение индекса в фоне. false, если оно уже выполняется
+     */
+    public boolean startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        rebuildExecutor.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Ошибка построения индекса сопоставления материалов: {}", e.getMessage(), e);
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Перестраивает индекс, если изменились материалы или характеристики (количество или время изменения),
+     * а также если индекс ещё ни разу не был построен (например, сборка при старте завершилась ошибкой)
+     */
+    @Scheduled(fixedDelayString = "${material-matching.refresh-interval:300000}",
+            initialDelayString = "${material-matching.refresh-interval:300000}")
+    public void refreshIfCatalogChanged() {
+        String version = readOnlyTransaction.execute(status -> readCatalogVersion());
+        if (catalogVersion == null) {
+            log.info("Индекс сопоставления ещё не построен, запускаем сборку");
+            startRebuild();
+        } else if (!catalogVersion.equals(version)) {
+            log.info("Каталог материалов изменился, перестраиваем индекс сопоставления");
+            startRebuild();
+        }
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        List<MatchEntry> learnedBefore = learned;
+        List<MatchEntry> entries = new ArrayList<>();
+        String version = readOnlyTransaction.execute(status -> {
+            String catalog = readCatalogVersion();
+            addCatalogEntries(materialRepository.findMatchingCatalogRows(), entries);
+            addMappingEntries(mappingRepository.findAllForMatching(), entries);
+            return catalog;
+        });
+        MaterialMatchIndex fresh = MaterialMatchIndex.build(entries);
+        synchronized (learnedMonitor) {
+            index = fresh;
+            List<MatchEntry> remaining = new ArrayList<>(learned);
+            remaining.removeAll(learnedBefore);
+            learned = List.copyOf(remaining);
+        }
+        catalogVersion = version;
+        log.info("Индекс сопоставления материалов построен: {} наименований за {} мс",
+                fresh.size(), System.currentTimeMillis() - start);
+    }
+
+    private String readCatalogVersion() {
+        CountAndLastUpdateProjection materials = materialRepository.getCountAndLastUpdate();
+        CountAndLastUpdateProjection characteristics = characteristicRepository.getCountAndLastUpdate();
+        return materials.getTotal() + "/" + materials.getLastUpdated() + "/"
+                + characteristics.getTotal() + "/" + characteristics.getLastUpdated();
+    }
+
+    // Материал индексируется по названию с артикулом, каждая характеристика - по названию материала и характеристики
+    private static void addCatalogEntries(List<MatchingCatalogRowProjection> rows, List<MatchEntry> entries) {
+        Set<UUID> materials = new HashSet<>();
+        for (MatchingCatalogRowProjection row : rows) {
+            if (materials.add(row.getMaterialId())) {
+                String name = row.getMaterialCode() != null
+                        ? row.getMaterialName() + " " + row.getMaterialCode() : row.getMaterialName();
+                entries.add(new MatchEntry(new MatchTarget(row.getMaterialId(), row.getMaterialName(), null, null),
+                        NameFeatures.of(name), MatchSource.CATALOG, null));
+            }
+            if (row.getCharacteristicId() != null && row.getCharacteristicName() != null) {
+                MatchTarget target = new MatchTarget(row.getMaterialId(), row.getMaterialName(),
+                        row.getCharacteristicId(), row.getCharacteristicName());
+                entries.add(new MatchEntry(target, NameFeatures.of(row.getMaterialName() + " " + row.getCharacteristicName()),
+                        MatchSource.CATALOG, null));
+            }
+        }
+    }
+
+    private static void addMappingEntries(List<SupplierNameMappingProjection> rows, List<MatchEntry> entries) {
+        for (SupplierNameMappingProjection row : rows) {
+            MatchTarget target = new MatchTarget(row.getMaterialId(), row.getMaterialName(),
+                    row.getCharacteristicId(), row.getCharacteristicName());
+            entries.add(new MatchEntry(target, NameFeatures.of(row.getSupplierName()), MatchSource.MAPPING,
+                    row.getOrganizationId()));
+        }
+    }
+
+    private static List<MaterialMatchDto> toDtos(List<MatchCandidate> candidates) {
+        return candidates.stream()
+                .map(candidate -> new MaterialMatchDto(candidate.target().materialId(), candidate.target().materialName(),
+                        candidate.target().characteristicId(), candidate.target().characteristicName(),
+                        Math.round(candidate.score() * 1000) / 1000.0, candidate.source().name()))
+                .toList();
+    }
+
+    private static int clampLimit(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_LIMIT);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.perminov.tender.service;
 
+import ru.perminov.tender.dto.NotificationDispatchStatsDto;
 import ru.perminov.tender.dto.NotificationDto;
 import ru.perminov.tender.model.Notification;
 import ru.perminov.tender.model.Tender;
@@ -44,6 +45,11 @@ public interface NotificationService {
      * Отправляет все ожидающие уведомления
      */
     void sendPendingNotifications();
+
+    /**
+     * Метрики очереди отправки уведомлений
+     */
+    NotificationDispatchStatsDto getDispatchStats();
     
     /**
      * Получает уведомления по тендеру
@@ -61,7 +67,7 @@ public interface NotificationService {
     List<NotificationDto> getNotificationsByStatus(Notification.NotificationStatus status);
     
     /**
-     * Повторно отправляет неудачное уведомление
+     * Возвращает неудачное уведомление в очередь отправки
      */
     boolean retryFailedNotification(UUID notificationId);
     
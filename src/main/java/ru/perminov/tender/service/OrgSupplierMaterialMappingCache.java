@@ -0,0 +1,159 @@
+package ru.perminov.tender.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.perminov.tender.cache.BoundedCache;
+import ru.perminov.tender.dto.CacheStatsDto;
+import ru.perminov.tender.dto.OrgSupplierMaterialMappingDto;
+import ru.perminov.tender.mapper.OrgSupplierMaterialMappingMapper;
+import ru.perminov.tender.repository.OrgSupplierMaterialMappingRepository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Кэш соответствий наименований поставщиков по организациям: все соответствия организации загружаются
+ * одним запросом при первом обращении, сохранения и удаления применяются к загруженному снимку после коммита.
+ * Если снимок организации не загружен, кэш сбрасывает ее запись, чтобы загрузка, начатая до коммита, не попала в кэш
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrgSupplierMaterialMappingCache {
+
+    private final OrgSupplierMaterialMappingRepository repository;
+    private final OrgSupplierMaterialMappingMapper mapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${org-supplier-mapping.cache.max-organizations:200}")
+    private int maxOrganizations;
+
+    @Value("${org-supplier-mapping.cache.ttl:600000}")
+    private long ttlMillis;
+
+    private BoundedCache<UUID, OrganizationMappings> organizations;
+    private TransactionTemplate readOnlyTransaction;
+
+    /**
+     * Ключ поиска: наименование поставщика и характеристика либо материал
+     */
+    private record Key(String supplierName, UUID id) {
+    }
+
+    /**
+     * Соответствия одной организации. find ищет по характеристике (null - соответствие без характеристики),
+     * save - по характеристике или, если она не задана, по материалу
+     */
+    public static final class OrganizationMappings {
+
+        private final Map<UUID, OrgSupplierMaterialMappingDto> byId = new ConcurrentHashMap<>();
+        private final Map<Key, OrgSupplierMaterialMappingDto> byCharacteristic = new ConcurrentHashMap<>();
+        private final Map<Key, OrgSupplierMaterialMappingDto> byMaterial = new ConcurrentHashMap<>();
+
+        private OrganizationMappings(Collection<OrgSupplierMaterialMappingDto> mappings) {
+            mappings.forEach(this::put);
+        }
+
+        public Optional<OrgSupplierMaterialMappingDto> findByCharacteristic(String supplierName, UUID characteristicId) {
+            return Optional.ofNullable(byCharacteristic.get(new Key(supplierName, characteristicId)));
+        }
+
+        public Optional<OrgSupplierMaterialMappingDto> findByMaterial(String supplierName, UUID materialId) {
+            return Optional.ofNullable(byMaterial.get(new Key(supplierName, materialId)));
+        }
+
+        public List<OrgSupplierMaterialMappingDto> all() {
+            return List.copyOf(byId.values());
+        }
+
+        private synchronized void put(OrgSupplierMaterialMappingDto mapping) {
+            remove(mapping.id());
+            byId.put(mapping.id(), mapping);
+            byCharacteristic.put(new Key(mapping.supplierName(), characteristicId(mapping)), mapping);
+            byMaterial.put(new Key(mapping.supplierName(), mapping.materialId()), mapping);
+        }
+
+        private synchronized void remove(UUID id) {
+            OrgSupplierMaterialMappingDto previous = byId.remove(id);
+            if (previous == null) return;
+            byCharacteristic.remove(new Key(previous.supplierName(), characteristicId(previous)), previous);
+            byMaterial.remove(new Key(previous.supplierName(), previous.materialId()), previous);
+        }
+
+        private static UUID characteristicId(OrgSupplierMaterialMappingDto mapping) {
+            return mapping.characteristic() != null ? mapping.characteristic().id() : null;
+        }
+    }
+
+    @PostConstruct
+    void initCache() {
+        organizations = new BoundedCache<>("org-supplier-mappings", maxOrganizations, Duration.ofMillis(ttlMillis));
+        // Снимок читается в отдельной транзакции: несохраненные изменения вызывающей транзакции в кэш не попадают
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    public OrganizationMappings get(UUID organizationId) {
+        return organizations.get(organizationId, this::load);
+    }
+
+    /**
+     * Применяет сохраненные соответствия организации к кэшу после коммита текущей транзакции
+     */
+    public void saved(UUID organizationId, Collection<OrgSupplierMaterialMappingDto> mappings) {
+        afterCommit(organizationId, cached -> mappings.forEach(cached::put));
+    }
+
+    public void deleted(UUID organizationId, UUID mappingId) {
+        afterCommit(organizationId, cached -> cached.remove(mappingId));
+    }
+
+    public CacheStatsDto getStats() {
+        return organizations.stats();
+    }
+
+    private OrganizationMappings load(UUID organizationId) {
+        List<OrgSupplierMaterialMappingDto> mappings = readOnlyTransaction.execute(status ->
+                repository.findWithDetailsByOrganizationId(organizationId).stream()
+                        .map(mapper::toDto)
+                        .toList());
+        log.debug("Загружено {} соответствий наименований организации {}", mappings.size(), organizationId);
+        return new OrganizationMappings(mappings);
+    }
+
+    private void afterCommit(UUID organizationId, Consumer<OrganizationMappings> change) {
+        Runnable apply = () -> {
+            OrganizationMappings cached = organizations.getIfPresent(organizationId);
+            if (cached != null) {
+                change.accept(cached);
+            } else {
+                organizations.invalidate(organizationId);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package ru.perminov.tender.service;
 
 import ru.perminov.tender.dto.OrgSupplierMaterialMappingDto;
+import ru.perminov.tender.dto.OrgSupplierMaterialMappingSaveDto;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,5 +17,7 @@ public interface OrgSupplierMaterialMappingService {
 
     OrgSupplierMaterialMappingDto save(UUID organizationId, String supplierName, UUID materialId, UUID characteristicId);
 
+    List<OrgSupplierMaterialMappingDto> saveAll(UUID organizationId, List<OrgSupplierMaterialMappingSaveDto> items);
+
     void delete(UUID id);
 } 
\ No newline at end of file
@@ -1,6 +1,7 @@
 package ru.perminov.tender.service;
 
-import java.io.ByteArrayInputStream;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 import java.util.List;
 
 public interface PaymentRegistryService {
@@ -11,7 +12,7 @@ public interface PaymentRegistryService {
     List<ru.perminov.tender.dto.payment.PaymentDto> getAllPayments();
     
     /**
-     * Экспортировать все платежи в Excel
+     * Экспортировать все платежи в Excel потоком в ответ
      */
-    ByteArrayInputStream exportPaymentsToExcel();
+    StreamingResponseBody exportPaymentsToExcel();
 } 
\ No newline at end of file
@@ -1,9 +1,12 @@
 package ru.perminov.tender.service;
 
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.payment.PaymentDto;
 import ru.perminov.tender.dto.payment.PaymentDtoNew;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import java.util.Map;
@@ -24,6 +27,12 @@ public interface PaymentService {
      * Получить все платежи
      */
     List<PaymentDto> getAllPayments();
+
+    /**
+     * Постраничный список платежей с фильтрами. Сортировка: dueDate, paymentDate, paymentNumber, totalAmount
+     */
+    PageResponseDto<PaymentDto> getPaymentPage(ListingRequest listing, String status, UUID contractId,
+                                               UUID supplierId, LocalDate dateFrom, LocalDate dateTo, String search);
     
     /**
      * Получить платежи по статусу
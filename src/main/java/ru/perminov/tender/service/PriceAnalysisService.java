@@ -1,10 +1,13 @@
 package ru.perminov.tender.service;
 
+import ru.perminov.tender.dto.CacheStatsDto;
 import ru.perminov.tender.dto.tender.PriceAnalysisDto;
 import ru.perminov.tender.dto.tender.PriceSummaryDto;
 import ru.perminov.tender.dto.tender.SupplierPriceDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface PriceAnalysisService {
@@ -33,6 +36,18 @@ public interface PriceAnalysisService {
      * Рассчитывает экономию по тендеру
      */
     double calculateSavings(UUID tenderId);
+
+    /**
+     * Рассчитывает экономию по набору тендеров несколькими групповыми запросами.
+     * Сохраненное в тендере значение переиспользуется до изменения предложений, сброшенное
+     * считается без записи в базу и сохраняется фоновой задачей
+     */
+    Map<UUID, Double> calculateSavings(Collection<UUID> tenderIds);
+
+    /**
+     * Рассчитывает суммарную экономию по всем тендерам
+     */
+    double calculateTotalSavings();
     
     /**
      * Получает статистику цен по тендеру
@@ -48,4 +63,14 @@ public interface PriceAnalysisService {
      * Получает рекомендации по выбору поставщиков
      */
     List<String> getSupplierRecommendations(UUID tenderId);
-} 
\ No newline at end of file
+
+    /**
+     * Сбрасывает закэшированный анализ цен тендера (сразу и после коммита транзакции)
+     */
+    void invalidateTender(UUID tenderId);
+
+    /**
+     * Статистика кэша анализа цен
+     */
+    CacheStatsDto getCacheStats();
+}
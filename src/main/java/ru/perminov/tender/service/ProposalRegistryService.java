@@ -1,6 +1,7 @@
 package ru.perminov.tender.service;
 
-import java.io.ByteArrayInputStream;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 import java.util.List;
 
 public interface ProposalRegistryService {
@@ -11,7 +12,7 @@ public interface ProposalRegistryService {
     List<ru.perminov.tender.dto.tender.SupplierProposalDto> getAllProposals();
     
     /**
-     * Экспортировать все предложения в Excel
+     * Экспортировать все предложения в Excel потоком в ответ
      */
-    ByteArrayInputStream exportProposalsToExcel();
+    StreamingResponseBody exportProposalsToExcel();
 } 
\ No newline at end of file
@@ -1,27 +1,52 @@
 package ru.perminov.tender.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.RequestProcessDto;
 import ru.perminov.tender.model.*;
 import ru.perminov.tender.model.company.Company;
+import ru.perminov.tender.model.company.ContactPerson;
 import ru.perminov.tender.repository.*;
-import ru.perminov.tender.model.ProposalItem;
+import ru.perminov.tender.repository.company.ContactPersonRepository;
+import ru.perminov.tender.repository.listing.Listings;
+import ru.perminov.tender.repository.listing.RequestListing;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Процесс заявки: тендеры, предложения, контракты, счета, поставки и поступления.
+ * Списки собираются пачкой: каждый уровень загружается для всех заявок пачки одним запросом с IN (...),
+ * дерево DTO собирается в памяти по словарям, число запросов не зависит от числа заявок
+ */
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 @Slf4j
 public class RequestProcessService {
 
+    // Заявок в одной пачке сборки полного списка
+    private static final int REQUEST_BATCH_SIZE = 500;
+    // Идентификаторов в одном условии IN (...)
+    private static final int IN_BATCH_SIZE = 1000;
+
     private final RequestRepository requestRepository;
     private final TenderRepository tenderRepository;
     private final SupplierProposalRepository supplierProposalRepository;
@@ -29,17 +54,153 @@ public class RequestProcessService {
     private final InvoiceRepository invoiceRepository;
     private final DeliveryRepository deliveryRepository;
     private final ReceiptRepository receiptRepository;
+    private final ContactPersonRepository contactPersonRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Загруженные для пачки заявок связанные сущности, сгруппированные по владельцу
+     */
+    private record ProcessBatch(
+            Map<UUID, List<Tender>> tendersByRequest,
+            Map<UUID, List<SupplierProposal>> proposalsByTender,
+            Map<UUID, List<Contract>> contractsByRequest,
+            Map<UUID, List<Invoice>> invoicesByRequest,
+            Map<UUID, List<Delivery>> deliveriesByRequest,
+            Map<UUID, List<Receipt>> receiptsByInvoice,
+            Map<UUID, List<Receipt>> receiptsByDelivery,
+            Map<UUID, ContactPerson> contactByCompany
+    ) {
+    }
 
     public RequestProcessDto getRequestProcess(UUID requestId) {
         log.info("Загрузка процесса заявки с ID: {}", requestId);
-        
-        Request request = requestRepository.findById(requestId)
-                .orElseThrow(() -> new RuntimeException("Заявка не найдена"));
+        List<RequestProcessDto> result = assemble(List.of(requestId), true);
+        if (result.isEmpty()) {
+            throw new RuntimeException("Заявка не найдена");
+        }
+        return result.get(0);
+    }
+
+    public List<RequestProcessDto> getRequestProcessList() {
+        return getRequestProcessList(true);
+    }
+
+    /**
+     * Процессы всех заявок пачками. Без деталей списки тендеров, контрактов, счетов и поставок не заполняются
+     */
+    public List<RequestProcessDto> getRequestProcessList(boolean details) {
+        List<UUID> ids = requestRepository.findAllIds();
+        List<RequestProcessDto> result = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += REQUEST_BATCH_SIZE) {
+            result.addAll(assemble(ids.subList(from, Math.min(from + REQUEST_BATCH_SIZE, ids.size())), details));
+            // Собранные DTO не ссылаются на сущности, контекст сохраняемости не накапливается между пачками
+            entityManager.clear();
+        }
+        log.info("Собраны процессы заявок: {}", result.size());
+        return result;
+    }
 
-        log.info("Заявка {} найдена: номер {}, организация: {}", 
-                requestId, request.getRequestNumber(), 
-                request.getOrganization() != null ? request.getOrganization().getName() : "не указана");
+    /**
+     * Полные процессы заявок пачки, отсутствующие заявки пропускаются
+     */
+    public List<RequestProcessDto> getRequestProcesses(Collection<UUID> requestIds) {
+        return assemble(new ArrayList<>(requestIds), true);
+    }
+
+    public PageResponseDto<RequestProcessDto> getRequestProcessPage(ListingRequest listing, String status,
+                                                                    UUID organizationId, UUID projectId,
+                                                                    LocalDate dateFrom, LocalDate dateTo,
+                                                                    String search, boolean details) {
+        return Listings.fetch(requestRepository,
+                RequestListing.filter(status, organizationId, projectId, dateFrom, dateTo, search),
+                listing, RequestListing.SORT_FIELDS, RequestListing.DEFAULT_SORT, Request::getId,
+                requests -> assemble(requests.stream().map(Request::getId).toList(), details));
+    }
 
+    /**
+     * Собирает процессы заявок в порядке переданных идентификаторов, отсутствующие заявки пропускаются
+     */
+    private List<RequestProcessDto> assemble(List<UUID> requestIds, boolean details) {
+        if (requestIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<UUID, Request> requests = inBatches(requestIds, requestRepository::findForProcessByIdIn).stream()
+                .collect(Collectors.toMap(Request::getId, Function.identity(), (a, b) -> a));
+        ProcessBatch batch = loadBatch(requests.keySet(), details);
+
+        List<RequestProcessDto> result = new ArrayList<>(requests.size());
+        for (UUID requestId : requestIds) {
+            Request request = requests.get(requestId);
+            if (request != null) {
+                result.add(mapRequestToDto(request, batch, details));
+            }
+        }
+        return result;
+    }
+
+    private ProcessBatch loadBatch(Collection<UUID> requestIds, boolean details) {
+        List<Tender> tenders = inBatches(requestIds, tenderRepository::findWithItemsByRequestIdIn);
+        Map<UUID, List<Tender>> tendersByRequest = groupBy(tenders, tender -> tender.getRequest().getId());
+
+        Map<UUID, List<SupplierProposal>> proposalsByTender = details
+                ? groupBy(inBatches(ids(tenders, Tender::getId), supplierProposalRepository::findWithItemsByTenderIdIn),
+                        proposal -> proposal.getTender().getId())
+                : Map.of();
+
+        List<Contract> contracts = inBatches(requestIds, contractRepository::findWithItemsByTenderRequestIdIn);
+        Map<UUID, UUID> requestByContract = new HashMap<>();
+        contracts.forEach(contract -> requestByContract.put(contract.getId(), contract.getTender().getRequest().getId()));
+        Map<UUID, List<Contract>> contractsByRequest = groupBy(contracts, contract -> requestByContract.get(contract.getId()));
+
+        // Счета через контракты заявки и напрямую привязанные к заявке, без повторов
+        Map<UUID, Map<UUID, Invoice>> invoiceSets = new HashMap<>();
+        for (Invoice invoice : inBatches(requestByContract.keySet(), invoiceRepository::findWithItemsByContractIdIn)) {
+            invoiceSets.computeIfAbsent(requestByContract.get(invoice.getContract().getId()), k -> new LinkedHashMap<>())
+                    .putIfAbsent(invoice.getId(), invoice);
+        }
+        for (Invoice invoice : inBatches(requestIds, invoiceRepository::findWithItemsByRequestIdIn)) {
+            invoiceSets.computeIfAbsent(invoice.getRequest().getId(), k -> new LinkedHashMap<>())
+                    .putIfAbsent(invoice.getId(), invoice);
+        }
+        Map<UUID, List<Invoice>> invoicesByRequest = new HashMap<>();
+        invoiceSets.forEach((requestId, invoices) -> invoicesByRequest.put(requestId, new ArrayList<>(invoices.values())));
+
+        List<Delivery> deliveries = inBatches(requestByContract.keySet(), deliveryRepository::findWithItemsByContractIdIn);
+        Map<UUID, List<Delivery>> deliveriesByRequest = groupBy(deliveries,
+                delivery -> requestByContract.get(delivery.getContract().getId()));
+
+        if (!details) {
+            return new ProcessBatch(tendersByRequest, proposalsByTender, contractsByRequest, invoicesByRequest,
+                    deliveriesByRequest, Map.of(), Map.of(), Map.of());
+        }
+
+        Set<UUID> invoiceIds = new LinkedHashSet<>();
+        invoicesByRequest.values().forEach(invoices -> invoices.forEach(invoice -> invoiceIds.add(invoice.getId())));
+        Map<UUID, List<Receipt>> receiptsByInvoice = groupBy(inBatches(invoiceIds, receiptRepository::findByInvoiceIdIn),
+                receipt -> receipt.getInvoice().getId());
+        Map<UUID, List<Receipt>> receiptsByDelivery = groupBy(
+                inBatches(ids(deliveries, Delivery::getId), receiptRepository::findByDeliveryIdIn),
+                receipt -> receipt.getDelivery().getId());
+
+        // Контактные лица поставщиков из предложений, контрактов и счетов
+        Set<UUID> supplierIds = new LinkedHashSet<>();
+        proposalsByTender.values().forEach(proposals -> proposals.forEach(proposal -> addId(supplierIds, proposal.getSupplier())));
+        contracts.forEach(contract -> {
+            if (contract.getSupplierProposal() != null) addId(supplierIds, contract.getSupplierProposal().getSupplier());
+        });
+        invoicesByRequest.values().forEach(invoices -> invoices.forEach(invoice -> addId(supplierIds, invoice.getSupplier())));
+        Map<UUID, ContactPerson> contactByCompany = new HashMap<>();
+        for (ContactPerson contact : inBatches(supplierIds, contactPersonRepository::findByCompanyIdIn)) {
+            contactByCompany.putIfAbsent(contact.getCompany().getId(), contact);
+        }
+
+        return new ProcessBatch(tendersByRequest, proposalsByTender, contractsByRequest, invoicesByRequest,
+                deliveriesByRequest, receiptsByInvoice, receiptsByDelivery, contactByCompany);
+    }
+
+    private RequestProcessDto mapRequestToDto(Request request, ProcessBatch batch, boolean details) {
         RequestProcessDto dto = new RequestProcessDto();
         dto.setRequestId(request.getId());
         dto.setRequestNumber(request.getRequestNumber());
@@ -53,17 +214,6 @@ public class RequestProcessService {
             location = request.getWarehouse() != null ? request.getWarehouse().getName() : "";
         }
         dto.setLocation(location);
-        
-        // Логируем информацию о проекте и складе
-        log.info("=== ДЕТАЛЬНАЯ ИНФОРМАЦИЯ О ЗАЯВКЕ {} ===", request.getRequestNumber());
-        log.info("Проект: '{}'", dto.getProject());
-        log.info("Склад (итоговый): '{}'", dto.getLocation());
-        log.info("Location (из БД): '{}'", request.getLocation());
-        log.info("Warehouse (из БД): {}", request.getWarehouse());
-        if (request.getWarehouse() != null) {
-            log.info("Warehouse.name: '{}'", request.getWarehouse().getName());
-        }
-        log.info("==========================================");
         dto.setApplicant(request.getApplicant());
         dto.setApprover(request.getApprover());
         dto.setPerformer(request.getPerformer());
@@ -86,76 +236,23 @@ public class RequestProcessService {
                 .collect(Collectors.toList());
         dto.setMaterials(materials);
 
-        // Загружаем тендеры
-        log.info("Поиск тендеров для заявки {}", requestId);
-        
-        // Проверяем количество тендеров через COUNT запрос
-        long tenderCount = tenderRepository.countByRequestId(requestId);
-        log.info("Количество тендеров для заявки {} (через COUNT): {}", requestId, tenderCount);
-        
-        List<Tender> tenders = tenderRepository.findAllByRequestId(requestId);
-        log.info("Найдено тендеров для заявки {}: {}", requestId, tenders.size());
-        
-        if (tenders.isEmpty()) {
-            log.warn("Тендеры для заявки {} не найдены", requestId);
-        } else {
-            tenders.forEach(tender -> log.info("Найден тендер: {} (ID: {}) для заявки {}", 
-                    tender.getTenderNumber(), tender.getId(), requestId));
-        }
-        
-        dto.setTendersCount(tenders.size());
-        dto.setTenders(tenders.stream().map(this::mapTenderToDto).collect(Collectors.toList()));
+        List<Tender> tenders = batch.tendersByRequest().getOrDefault(request.getId(), List.of());
+        List<Contract> contracts = batch.contractsByRequest().getOrDefault(request.getId(), List.of());
+        List<Invoice> invoices = batch.invoicesByRequest().getOrDefault(request.getId(), List.of());
+        List<Delivery> deliveries = batch.deliveriesByRequest().getOrDefault(request.getId(), List.of());
+        log.debug("Заявка {}: тендеров {}, контрактов {}, счетов {}, поставок {}", request.getRequestNumber(),
+                tenders.size(), contracts.size(), invoices.size(), deliveries.size());
 
-        // Загружаем контракты
-        List<Contract> contracts = contractRepository.findByTenderRequestId(requestId);
+        dto.setTendersCount(tenders.size());
         dto.setContractsCount(contracts.size());
-        dto.setContracts(contracts.stream().map(this::mapContractToDto).collect(Collectors.toList()));
-
-        // Загружаем счета через контракты
-        List<Invoice> invoices = new ArrayList<>();
-        log.info("Загружаем счета для {} контрактов", contracts.size());
-        for (Contract contract : contracts) {
-            log.info("Поиск счетов для контракта: {} ({})", contract.getContractNumber(), contract.getId());
-            List<Invoice> contractInvoices = invoiceRepository.findByContractIdWithItemsAndUnits(contract.getId());
-            log.info("Найдено {} счетов для контракта {}", contractInvoices.size(), contract.getContractNumber());
-            invoices.addAll(contractInvoices);
-        }
-        
-        // Также загружаем счета, напрямую связанные с заявкой
-        List<Invoice> requestInvoices = invoiceRepository.findByRequestIdWithItemsAndUnits(requestId);
-        log.info("Найдено {} счетов, напрямую связанных с заявкой {}", requestInvoices.size(), requestId);
-        invoices.addAll(requestInvoices);
-        
-        log.info("Всего найдено {} счетов для заявки {}", invoices.size(), requestId);
         dto.setInvoicesCount(invoices.size());
-        dto.setInvoices(invoices.stream().map(this::mapInvoiceToDto).collect(Collectors.toList()));
-
-        // Загружаем поставки
-        log.info("Поиск поставок для заявки {}", requestId);
-        List<Delivery> deliveries = deliveryRepository.findByContractTenderRequestId(requestId);
-        log.info("Найдено поставок для заявки {} (через тендер): {}", requestId, deliveries.size());
-        
-        // Если поставки не найдены через тендер, ищем через контракты напрямую
-        if (deliveries.isEmpty() && !contracts.isEmpty()) {
-            log.info("Поставки не найдены через тендер, ищем через контракты напрямую");
-            for (Contract contract : contracts) {
-                log.info("Поиск поставок для контракта: {} ({})", contract.getContractNumber(), contract.getId());
-                List<Delivery> contractDeliveries = deliveryRepository.findByContractId(contract.getId());
-                log.info("Найдено поставок для контракта {}: {}", contract.getContractNumber(), contractDeliveries.size());
-                deliveries.addAll(contractDeliveries);
-            }
-            log.info("Всего найдено поставок для заявки {} (через контракты): {}", requestId, deliveries.size());
-        }
-        
-        if (deliveries.isEmpty()) {
-            log.warn("Поставки для заявки {} не найдены ни через тендер, ни через контракты", requestId);
-        } else {
-            deliveries.forEach(delivery -> log.info("Найдена поставка: {} (ID: {}) для заявки {}", 
-                    delivery.getDeliveryNumber(), delivery.getId(), requestId));
-        }
-        
         dto.setDeliveriesCount(deliveries.size());
-        dto.setDeliveries(deliveries.stream().map(this::mapDeliveryToDto).collect(Collectors.toList()));
+        if (details) {
+            dto.setTenders(tenders.stream().map(tender -> mapTenderToDto(tender, batch)).collect(Collectors.toList()));
+            dto.setContracts(contracts.stream().map(contract -> mapContractToDto(contract, batch)).collect(Collectors.toList()));
+            dto.setInvoices(invoices.stream().map(invoice -> mapInvoiceToDto(invoice, batch)).collect(Collectors.toList()));
+            dto.setDeliveries(deliveries.stream().map(delivery -> mapDeliveryToDto(delivery, batch)).collect(Collectors.toList()));
+        }
 
         // Рассчитываем финансовые показатели
         calculateFinancialMetrics(dto, request, tenders, invoices);
@@ -163,55 +260,48 @@ public class RequestProcessService {
         return dto;
     }
 
-    public List<RequestProcessDto> getRequestProcessList() {
-        List<Request> requests = requestRepository.findAll();
-        return requests.stream()
-                .map(request -> getRequestProcess(request.getId()))
-                .collect(Collectors.toList());
-    }
-
-    private RequestProcessDto.TenderProcessDto mapTenderToDto(Tender tender) {
-        log.info("Маппинг тендера: {} (ID: {})", tender.getTenderNumber(), tender.getId());
+    private RequestProcessDto.TenderProcessDto mapTenderToDto(Tender tender, ProcessBatch batch) {
+        log.debug("Маппинг тендера: {} (ID: {})", tender.getTenderNumber(), tender.getId());
         
         RequestProcessDto.TenderProcessDto dto = new RequestProcessDto.TenderProcessDto();
         dto.setTenderId(tender.getId());
         dto.setTenderNumber(tender.getTenderNumber());
         dto.setTenderDate(tender.getStartDate() != null ? tender.getStartDate().toLocalDate() : null);
-        log.info("Тендер {}: дата тендера установлена: {}", tender.getTenderNumber(), dto.getTenderDate());
+        log.debug("Тендер {}: дата тендера установлена: {}", tender.getTenderNumber(), dto.getTenderDate());
         dto.setStatus(tender.getStatus().name());
         
-        log.info("Тендер {}: дата начала: {}, статус: {}", 
+        log.debug("Тендер {}: дата начала: {}, статус: {}", 
                 tender.getTenderNumber(), 
                 tender.getStartDate(), 
                 tender.getStatus());
         
         // Рассчитываем общую сумму тендера
-        log.info("Тендер {}: загружаем элементы тендера", tender.getTenderNumber());
+        log.debug("Тендер {}: загружаем элементы тендера", tender.getTenderNumber());
         BigDecimal totalAmount = tender.getTenderItems().stream()
                 .map(item -> {
                     BigDecimal quantity = BigDecimal.valueOf(item.getQuantity() != null ? item.getQuantity() : 0.0);
                     BigDecimal price = BigDecimal.valueOf(item.getEstimatedPrice() != null ? item.getEstimatedPrice() : 0.0);
                     BigDecimal itemTotal = quantity.multiply(price);
-                    log.info("Элемент тендера: количество={}, цена={}, сумма={}", quantity, price, itemTotal);
+                    log.debug("Элемент тендера: количество={}, цена={}, сумма={}", quantity, price, itemTotal);
                     return itemTotal;
                 })
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         dto.setTotalAmount(totalAmount);
         
-        log.info("Тендер {}: количество элементов: {}, общая сумма: {}", 
+        log.debug("Тендер {}: количество элементов: {}, общая сумма: {}", 
                 tender.getTenderNumber(), 
                 tender.getTenderItems().size(), 
                 totalAmount);
 
         // Загружаем предложения
-        List<SupplierProposal> proposals = supplierProposalRepository.findByTenderId(tender.getId());
+        List<SupplierProposal> proposals = batch.proposalsByTender().getOrDefault(tender.getId(), List.of());
         dto.setProposalsCount(proposals.size());
         dto.setSelectedProposalsCount((int) proposals.stream()
                 .filter(p -> p.getStatus() == SupplierProposal.ProposalStatus.ACCEPTED)
                 .count());
-        dto.setProposals(proposals.stream().map(this::mapProposalToDto).collect(Collectors.toList()));
+        dto.setProposals(proposals.stream().map(proposal -> mapProposalToDto(proposal, batch)).collect(Collectors.toList()));
         
-        log.info("Тендер {}: количество предложений: {}, выбранных: {}", 
+        log.debug("Тендер {}: количество предложений: {}, выбранных: {}", 
                 tender.getTenderNumber(), 
                 proposals.size(), 
                 dto.getSelectedProposalsCount());
@@ -219,14 +309,13 @@ public class RequestProcessService {
         return dto;
     }
 
-    private RequestProcessDto.SupplierProposalDto mapProposalToDto(SupplierProposal proposal) {
+    private RequestProcessDto.SupplierProposalDto mapProposalToDto(SupplierProposal proposal, ProcessBatch batch) {
         RequestProcessDto.SupplierProposalDto dto = new RequestProcessDto.SupplierProposalDto();
         dto.setProposalId(proposal.getId());
         dto.setProposalNumber(proposal.getProposalNumber());
         dto.setSupplierId(proposal.getSupplier() != null ? proposal.getSupplier().getId() : null);
         dto.setSupplierName(proposal.getSupplier() != null ? proposal.getSupplier().getName() : "");
-        dto.setSupplierContact(proposal.getSupplier() != null && !proposal.getSupplier().getContactPersons().isEmpty() 
-                ? proposal.getSupplier().getContactPersons().get(0).getFirstName() + " " + proposal.getSupplier().getContactPersons().get(0).getLastName() : "");
+        dto.setSupplierContact(supplierContact(proposal.getSupplier(), batch));
         dto.setSupplierPhone(proposal.getSupplier() != null ? proposal.getSupplier().getPhone() : "");
         dto.setSubmissionDate(proposal.getSubmissionDate().toLocalDate());
         dto.setStatus(proposal.getStatus().name());
@@ -254,7 +343,7 @@ public class RequestProcessService {
         return dto;
     }
 
-    private RequestProcessDto.InvoiceProcessDto mapInvoiceToDto(Invoice invoice) {
+    private RequestProcessDto.InvoiceProcessDto mapInvoiceToDto(Invoice invoice, ProcessBatch batch) {
         RequestProcessDto.InvoiceProcessDto dto = new RequestProcessDto.InvoiceProcessDto();
         dto.setInvoiceId(invoice.getId());
         dto.setInvoiceNumber(invoice.getInvoiceNumber());
@@ -266,7 +355,7 @@ public class RequestProcessService {
         if (invoice.getContract() != null) {
             dto.setContractId(invoice.getContract().getId());
             dto.setContractNumber(invoice.getContract().getContractNumber());
-            log.info("Счет {} привязан к контракту {} ({})", 
+            log.debug("Счет {} привязан к контракту {} ({})", 
                     invoice.getInvoiceNumber(), 
                     invoice.getContract().getContractNumber(), 
                     invoice.getContract().getId());
@@ -275,8 +364,7 @@ public class RequestProcessService {
         }
         
         dto.setSupplierName(invoice.getSupplier() != null ? invoice.getSupplier().getName() : "");
-        dto.setSupplierContact(invoice.getSupplier() != null && invoice.getSupplier().getContactPersons() != null && !invoice.getSupplier().getContactPersons().isEmpty() 
-                ? invoice.getSupplier().getContactPersons().get(0).getFirstName() + " " + invoice.getSupplier().getContactPersons().get(0).getLastName() : "");
+        dto.setSupplierContact(supplierContact(invoice.getSupplier(), batch));
         dto.setSupplierPhone(invoice.getSupplier() != null ? invoice.getSupplier().getPhone() : "");
         dto.setStatus(invoice.getStatus() != null ? invoice.getStatus().name() : "");
         dto.setTotalAmount(invoice.getTotalAmount() != null ? invoice.getTotalAmount() : BigDecimal.ZERO);
@@ -288,7 +376,7 @@ public class RequestProcessService {
         dto.setNotes(invoice.getNotes());
 
         // Загружаем материалы счета
-        log.info("Загружаем материалы счета {}: количество элементов: {}", 
+        log.debug("Загружаем материалы счета {}: количество элементов: {}", 
                 invoice.getInvoiceNumber(), invoice.getInvoiceItems().size());
         
         List<RequestProcessDto.InvoiceItemDto> invoiceItems = invoice.getInvoiceItems().stream()
@@ -296,13 +384,13 @@ public class RequestProcessService {
                 .collect(Collectors.toList());
         dto.setInvoiceItems(invoiceItems);
         
-        log.info("Материалы счета {} загружены: {}", 
+        log.debug("Материалы счета {} загружены: {}", 
                 invoice.getInvoiceNumber(), 
                 invoiceItems.stream().map(item -> item.getMaterialName() + " (ед.изм.: " + item.getUnitName() + ")").collect(Collectors.joining(", ")));
         
         // Детальное логирование каждого элемента
         for (RequestProcessDto.InvoiceItemDto item : invoiceItems) {
-            log.info("Элемент счета {}: materialName={}, unitName={}, quantity={}, unitPrice={}", 
+            log.debug("Элемент счета {}: materialName={}, unitName={}, quantity={}, unitPrice={}", 
                     invoice.getInvoiceNumber(), 
                     item.getMaterialName(), 
                     item.getUnitName(), 
@@ -311,7 +399,7 @@ public class RequestProcessService {
         }
 
         // Загружаем поступления для этого счета
-        List<Receipt> receipts = receiptRepository.findByInvoiceId(invoice.getId());
+        List<Receipt> receipts = batch.receiptsByInvoice().getOrDefault(invoice.getId(), List.of());
         dto.setReceipts(receipts.stream().map(this::mapReceiptToDto).collect(Collectors.toList()));
 
         return dto;
@@ -325,13 +413,13 @@ public class RequestProcessService {
         dto.setQuantity(invoiceItem.getQuantity() != null ? invoiceItem.getQuantity().doubleValue() : 0.0);
         
         // Логируем информацию о единицах измерения
-        log.info("Маппинг InvoiceItem {}: unit={}, unitName={}", 
+        log.debug("Маппинг InvoiceItem {}: unit={}, unitName={}", 
                 invoiceItem.getId(), 
                 invoiceItem.getUnit(), 
                 invoiceItem.getUnit() != null ? invoiceItem.getUnit().getName() : "null");
         
         // Детальное логирование всех полей
-        log.info("InvoiceItem {} детали: materialName={}, quantity={}, unitPrice={}, totalPrice={}", 
+        log.debug("InvoiceItem {} детали: materialName={}, quantity={}, unitPrice={}, totalPrice={}", 
                 invoiceItem.getId(),
                 invoiceItem.getMaterial() != null ? invoiceItem.getMaterial().getName() : "null",
                 invoiceItem.getQuantity(),
@@ -344,7 +432,7 @@ public class RequestProcessService {
                     invoiceItem.getId(), 
                     invoiceItem.getMaterial() != null ? invoiceItem.getMaterial().getName() : "null");
         } else {
-            log.info("InvoiceItem {} имеет единицу измерения: {} ({})", 
+            log.debug("InvoiceItem {} имеет единицу измерения: {} ({})", 
                     invoiceItem.getId(), 
                     invoiceItem.getUnit().getName(), 
                     invoiceItem.getUnit().getId());
@@ -356,8 +444,8 @@ public class RequestProcessService {
         return dto;
     }
 
-    private RequestProcessDto.DeliveryProcessDto mapDeliveryToDto(Delivery delivery) {
-        log.info("Маппинг поставки: {} (ID: {})", delivery.getDeliveryNumber(), delivery.getId());
+    private RequestProcessDto.DeliveryProcessDto mapDeliveryToDto(Delivery delivery, ProcessBatch batch) {
+        log.debug("Маппинг поставки: {} (ID: {})", delivery.getDeliveryNumber(), delivery.getId());
         
         RequestProcessDto.DeliveryProcessDto dto = new RequestProcessDto.DeliveryProcessDto();
         dto.setDeliveryId(delivery.getId());
@@ -372,7 +460,7 @@ public class RequestProcessService {
         dto.setTrackingNumber(delivery.getTrackingNumber());
         dto.setNotes(delivery.getNotes());
         
-        log.info("Поставка {}: запланированная дата: {}, фактическая дата: {}, поставщик: {}, склад: {}, статус: {}", 
+        log.debug("Поставка {}: запланированная дата: {}, фактическая дата: {}, поставщик: {}, склад: {}, статус: {}", 
                 delivery.getDeliveryNumber(), 
                 dto.getPlannedDate(),
                 dto.getActualDate(),
@@ -381,7 +469,7 @@ public class RequestProcessService {
                 dto.getStatus());
         
         // Рассчитываем общую сумму поставки
-        log.info("Поставка {}: загружаем {} элементов поставки", 
+        log.debug("Поставка {}: загружаем {} элементов поставки", 
                 delivery.getDeliveryNumber(), 
                 delivery.getDeliveryItems() != null ? delivery.getDeliveryItems().size() : 0);
         
@@ -392,7 +480,7 @@ public class RequestProcessService {
                         BigDecimal quantity = item.getOrderedQuantity() != null ? item.getOrderedQuantity() : BigDecimal.ZERO;
                         BigDecimal price = item.getUnitPrice() != null ? item.getUnitPrice() : BigDecimal.ZERO;
                         BigDecimal itemTotal = quantity.multiply(price);
-                        log.info("Элемент поставки {}: количество={}, цена={}, сумма={}", 
+                        log.debug("Элемент поставки {}: количество={}, цена={}, сумма={}", 
                                 item.getMaterial() != null ? item.getMaterial().getName() : "неизвестно",
                                 quantity, price, itemTotal);
                         return itemTotal;
@@ -401,7 +489,7 @@ public class RequestProcessService {
         }
         dto.setTotalAmount(totalAmount);
         
-        log.info("Поставка {}: количество элементов: {}, общая сумма: {}", 
+        log.debug("Поставка {}: количество элементов: {}, общая сумма: {}", 
                 delivery.getDeliveryNumber(), 
                 delivery.getDeliveryItems() != null ? delivery.getDeliveryItems().size() : 0, 
                 totalAmount);
@@ -413,7 +501,7 @@ public class RequestProcessService {
         dto.setDeliveryItems(deliveryItems);
 
         // Загружаем поступления для этой поставки
-        List<Receipt> receipts = receiptRepository.findByDeliveryId(delivery.getId());
+        List<Receipt> receipts = batch.receiptsByDelivery().getOrDefault(delivery.getId(), List.of());
         dto.setReceipts(receipts.stream().map(this::mapReceiptToDto).collect(Collectors.toList()));
 
         return dto;
@@ -433,7 +521,7 @@ public class RequestProcessService {
         dto.setTotalPrice(deliveryItem.getTotalPrice() != null ? deliveryItem.getTotalPrice() : BigDecimal.ZERO);
         dto.setAcceptanceStatus(deliveryItem.getAcceptanceStatus() != null ? deliveryItem.getAcceptanceStatus().name() : "PENDING");
         
-        log.info("Маппинг элемента поставки: ID={}, материал={}, количество={}, цена={}, сумма={}", 
+        log.debug("Маппинг элемента поставки: ID={}, материал={}, количество={}, цена={}, сумма={}", 
                 deliveryItem.getId(),
                 dto.getMaterialName(),
                 dto.getOrderedQuantity(),
@@ -454,7 +542,7 @@ public class RequestProcessService {
         return dto;
     }
 
-    private RequestProcessDto.ContractProcessDto mapContractToDto(Contract contract) {
+    private RequestProcessDto.ContractProcessDto mapContractToDto(Contract contract, ProcessBatch batch) {
         RequestProcessDto.ContractProcessDto dto = new RequestProcessDto.ContractProcessDto();
         dto.setContractId(contract.getId());
         dto.setContractNumber(contract.getContractNumber());
@@ -467,8 +555,7 @@ public class RequestProcessService {
         }
         
         dto.setSupplierName(supplier != null ? supplier.getName() : "");
-        dto.setSupplierContact(supplier != null && supplier.getContactPersons() != null && !supplier.getContactPersons().isEmpty() 
-                ? supplier.getContactPersons().get(0).getFirstName() + " " + supplier.getContactPersons().get(0).getLastName() : "");
+        dto.setSupplierContact(supplierContact(supplier, batch));
         dto.setSupplierPhone(supplier != null ? supplier.getPhone() : "");
         dto.setStatus(contract.getStatus() != null ? contract.getStatus().name() : "");
         dto.setTotalAmount(contract.getTotalAmount() != null ? contract.getTotalAmount() : BigDecimal.ZERO);
@@ -517,4 +604,41 @@ public class RequestProcessService {
         // Рассчитываем дельту
         dto.setDeltaAmount(requestTotal.subtract(tenderTotal));
     }
-} 
\ No newline at end of file
+
+    private String supplierContact(Company supplier, ProcessBatch batch) {
+        ContactPerson contact = supplier != null ? batch.contactByCompany().get(supplier.getId()) : null;
+        return contact != null ? contact.getFirstName() + " " + contact.getLastName() : "";
+    }
+
+    /**
+     * Выполняет запрос с IN (...) частями, чтобы не упираться в лимит параметров
+     */
+    private static <T> List<T> inBatches(Collection<UUID> ids, Function<Collection<UUID>, List<T>> query) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> list = new ArrayList<>(ids);
+        if (list.size() <= IN_BATCH_SIZE) {
+            return query.apply(list);
+        }
+        List<T> result = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += IN_BATCH_SIZE) {
+            result.addAll(query.apply(list.subList(from, Math.min(from + IN_BATCH_SIZE, list.size()))));
+        }
+        return result;
+    }
+
+    private static <T> Map<UUID, List<T>> groupBy(List<T> items, Function<T, UUID> key) {
+        return items.stream().collect(Collectors.groupingBy(key, LinkedHashMap::new, Collectors.toList()));
+    }
+
+    private static <T> List<UUID> ids(List<T> items, Function<T, UUID> id) {
+        return items.stream().map(id).distinct().toList();
+    }
+
+    private static void addId(Set<UUID> ids, Company company) {
+        if (company != null) {
+            ids.add(company.getId());
+        }
+    }
+}
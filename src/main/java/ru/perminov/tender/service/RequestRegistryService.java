@@ -1,8 +1,10 @@
 package ru.perminov.tender.service;
 
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.RequestRegistryRowDto;
 import org.springframework.web.multipart.MultipartFile;
-import java.io.ByteArrayInputStream;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -10,6 +12,10 @@ public interface RequestRegistryService {
 
     List<RequestRegistryRowDto> getRegistry(String organization, String project, LocalDate fromDate, LocalDate toDate, String materialName, String companyId);
 
-    ByteArrayInputStream exportRegistryToExcel(String organization, String project, LocalDate fromDate, LocalDate toDate, String materialName);
+    PageResponseDto<RequestRegistryRowDto> getRegistryPage(ListingRequest listing, String organization, String project,
+                                                          LocalDate fromDate, LocalDate toDate, String materialName,
+                                                          String companyId);
+
+    StreamingResponseBody exportRegistryToExcel(String organization, String project, LocalDate fromDate, LocalDate toDate, String materialName);
 
 } 
\ No newline at end of file
@@ -1,8 +1,11 @@
 package ru.perminov.tender.service;
 
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.RequestDto;
 import ru.perminov.tender.dto.RequestRelatedEntitiesDto;
 import ru.perminov.tender.dto.tender.TenderDto;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -10,6 +13,9 @@ public interface RequestService {
 
     List<RequestDto> findAll();
 
+    PageResponseDto<RequestDto> findPage(ListingRequest listing, String status, UUID organizationId, UUID projectId,
+                                         LocalDate dateFrom, LocalDate dateTo, String search);
+
     RequestDto findById(UUID id);
 
     RequestDto create(RequestDto dto);
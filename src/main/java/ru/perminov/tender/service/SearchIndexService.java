@@ -0,0 +1,502 @@
+package ru.perminov.tender.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.perminov.tender.dto.SearchHitDto;
+import ru.perminov.tender.dto.SearchIndexStatsDto;
+import ru.perminov.tender.search.SearchDocument;
+import ru.perminov.tender.search.SearchIndex;
+import ru.perminov.tender.search.SearchType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Встроенный полнотекстовый поиск для подсказок по материалам, компаниям, тендерам, заявкам,
+ * наименованиям поставщиков, брендам и производителям. Индекс в памяти обновляется после коммита
+ * транзакций, сохранивших или удаливших сущность, и периодически сохраняется на диск.
+ * Изменения других узлов и массовые UPDATE подтягиваются по updated_at, удаления в обход сущностей -
+ * периодической полной переиндексацией. При старте загружается снимок с диска, затем в фоне
+ * выполняется полная переиндексация
+ */
+@Slf4j
+@Service
+public class SearchIndexService {
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final int SNAPSHOT_MAGIC = 0x54534958;
+    private static final int SNAPSHOT_VERSION = 3;
+    private static final String SNAPSHOT_FILE = "search-index.bin.gz";
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${search.index.path:./data/search-index}")
+    private String indexPath;
+
+    @Value("${search.index.reindex-on-startup:true}")
+    private boolean reindexOnStartup;
+
+    @Value("${search.index.page-size:1000}")
+    private int pageSize;
+
+    @Value("${search.index.catch-up-overlap:10000}")
+    private long catchUpOverlapMillis;
+
+    // Запись в индекс и подмена индекса после переиндексации выполняются под этим монитором
+    private final Object writeMonitor = new Object();
+    private volatile SearchIndex index = new SearchIndex();
+    // Индекс, собираемый переиндексацией; изменения после коммита попадают и в него
+    private SearchIndex building;
+    // Документы, измененные во время переиндексации: прочитанная ранее из БД версия их не перезапишет
+    private final Set<String> changedDuringBuild = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean reindexing = new AtomicBoolean();
+    private volatile boolean ready;
+    private volatile LocalDateTime lastReindexAt;
+    private volatile long lastReindexMillis;
+    private volatile LocalDateTime lastSnapshotAt;
+    // Время БД, с которого индекс еще не сверен с таблицами; null - индекс не построен
+    private volatile LocalDateTime catchUpWatermark;
+    private ExecutorService reindexExecutor;
+
+    public SearchIndexService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void startExecutor() {
+        reindexExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-reindex");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        reindexExecutor.shutdownNow();
+        if (dirty.getAndSet(false)) {
+            saveSnapshot();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        ready = loadSnapshot();
+        if (reindexOnStartup || !ready) {
+            startReindex();
+        }
+    }
+
+    /**
+     * Подсказки для пользователя: только типы, видимые его ролям, а заказчику (customerCompanyId не null)
+     * документы типов с видимостью по компании - только своей компании
+     */
+    public List<SearchHitDto> search(String query, Collection<SearchType> types, int limit,
+                                     Collection<String> roles, UUID customerCompanyId) {
+        Set<SearchType> visible = EnumSet.noneOf(SearchType.class);
+        for (SearchType type : types == null || types.isEmpty() ? List.of(SearchType.values()) : types) {
+            if (type.visibleTo(roles)) {
+                visible.add(type);
+            }
+        }
+        if (visible.isEmpty()) {
+            return List.of();
+        }
+        boolean customer = roles.contains("CUSTOMER");
+        Predicate<SearchDocument> filter = customer
+                ? document -> !document.type().customerScoped()
+                        || (customerCompanyId != null && customerCompanyId.equals(document.ownerCompanyId()))
+                : null;
+        return index.search(query, visible, filter, Math.min(Math.max(limit, 1), MAX_LIMIT)).stream()
+                .map(hit -> new SearchHitDto(hit.document().type().name(), hit.document().id(),
+                        hit.document().title(), hit.document().subtitle(), hit.score()))
+                .toList();
+    }
+
+    /**
+     * Идентификаторы всех найденных сущностей одного типа в порядке релевантности
+     * (не больше числа просматриваемых индексом документов)
+     */
+    public List<UUID> searchIds(String query, SearchType type) {
+        return index.search(query, Set.of(type), Integer.MAX_VALUE).stream()
+                .map(hit -> hit.document().id())
+                .toList();
+    }
+
+    /**
+     * Индекс заполнен из снимка или переиндексацией; до этого поиск может вернуть неполный результат
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public SearchIndexStatsDto getStats() {
+        SearchIndex current = index;
+        return new SearchIndexStatsDto(current.size(), current.termCount(), ready, reindexing.get(),
+                lastReindexAt, lastReindexMillis, lastSnapshotAt);
+    }
+
+    /**
+     * Запускает полную переиндексацию в фоне. false, если она уже выполняется
+     */
+    public boolean startReindex() {
+        if (!reindexing.compareAndSet(false, true)) {
+            return false;
+        }
+        reindexExecutor.execute(() -> {
+            try {
+                reindex();
+            } finally {
+                reindexing.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Сохраненная сущность попадает в индекс после коммита транзакции
+     */
+    public void onSaved(Object entity) {
+        SearchType type = SearchType.of(entity);
+        if (type == null) return;
+        SearchDocument document = type.toDocument(entity);
+        afterCommit(() -> apply(document.key(), document));
+    }
+
+    public void onDeleted(Object entity) {
+        SearchType type = SearchType.of(entity);
+        if (type == null) return;
+        SearchDocument document = type.toDocument(entity);
+        afterCommit(() -> apply(document.key(), null));
+    }
+
+    /**
+     * Подтягивает строки, измененные с прошлой сверки: записи других узлов и массовые UPDATE,
+     * которые не проходят через колбэки JPA. Окно перекрывается с предыдущим, чтобы не пропустить
+     * транзакции, зафиксированные с задержкой
+     */
+    @Scheduled(fixedDelayString = "${search.index.catch-up-interval:30000}",
+            initialDelayString = "${search.index.catch-up-interval:30000}")
+    public void catchUp() {
+        LocalDateTime since = catchUpWatermark;
+        if (since == null || reindexing.get()) {
+            return;
+        }
+        LocalDateTime now = databaseTime();
+        LocalDateTime from = since.minus(Duration.ofMillis(catchUpOverlapMillis));
+        int count = 0;
+        boolean complete = true;
+        for (SearchType type : SearchType.values()) {
+            try {
+                count += catchUpType(type, from);
+            } catch (RuntimeException e) {
+                complete = false;
+                log.warn("Не удалось сверить поисковый индекс {} с таблицей: {}", type, e.getMessage());
+            }
+        }
+        // При ошибке окно повторяется целиком; переиндексация, начатая за это время, сама выставит водяной знак
+        if (complete && !reindexing.get()) {
+            catchUpWatermark = now;
+        }
+        if (count > 0) {
+            log.debug("Поисковый индекс: обновлено {} документов, измененных с {}", count, from);
+        }
+    }
+
+    /**
+     * Полная переиндексация по расписанию: убирает из индекса строки, удаленные на других узлах
+     * или массовым DELETE
+     */
+    @Scheduled(fixedDelayString = "${search.index.full-reindex-interval:3600000}",
+            initialDelayString = "${search.index.full-reindex-interval:3600000}")
+    public void scheduledReindex() {
+        startReindex();
+    }
+
+    @Scheduled(fixedDelayString = "${search.index.snapshot-interval:60000}",
+            initialDelayString = "${search.index.snapshot-interval:60000}")
+    public void saveSnapshotIfChanged() {
+        if (dirty.getAndSet(false)) {
+            saveSnapshot();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void apply(String key, SearchDocument document) {
+        synchronized (writeMonitor) {
+            if (document != null) {
+                index.put(document);
+            } else {
+                index.remove(key);
+            }
+            if (building != null) {
+                changedDuringBuild.add(key);
+                if (document != null) {
+                    building.put(document);
+                } else {
+                    building.remove(key);
+                }
+            }
+        }
+        dirty.set(true);
+    }
+
+    private void reindex() {
+        long start = System.currentTimeMillis();
+        LocalDateTime startedAt = databaseTime();
+        SearchIndex fresh = new SearchIndex();
+        synchronized (writeMonitor) {
+            building = fresh;
+            changedDuringBuild.clear();
+        }
+        try {
+            for (SearchType type : SearchType.values()) {
+                int count = reindexType(type, fresh);
+                log.debug("Переиндексация {}: {} документов", type, count);
+            }
+            synchronized (writeMonitor) {
+                index = fresh;
+                building = null;
+                changedDuringBuild.clear();
+            }
+            ready = true;
+            catchUpWatermark = startedAt;
+            lastReindexAt = LocalDateTime.now();
+            lastReindexMillis = System.currentTimeMillis() - start;
+            log.info("Поисковый индекс перестроен: {} документов, {} термов за {} мс",
+                    fresh.size(), fresh.termCount(), lastReindexMillis);
+            dirty.set(false);
+            saveSnapshot();
+        } catch (RuntimeException e) {
+            synchronized (writeMonitor) {
+                building = null;
+                changedDuringBuild.clear();
+            }
+            log.error("Ошибка переиндексации поиска: {}", e.getMessage(), e);
+        }
+    }
+
+    // Сущности читаются страницами по возрастанию id, каждая страница в своей транзакции
+    private int reindexType(SearchType type, SearchIndex fresh) {
+        String entityName = entityManager.getMetamodel().entity(type.entityClass()).getName();
+        int count = 0;
+        UUID lastId = null;
+        while (true) {
+            UUID after = lastId;
+            List<SearchDocument> documents = readOnlyTransaction.execute(status -> {
+                List<?> rows = after == null
+                        ? entityManager.createQuery("SELECT e FROM " + entityName + " e ORDER BY e.id", type.entityClass())
+                                .setMaxResults(pageSize).getResultList()
+                        : entityManager.createQuery("SELECT e FROM " + entityName + " e WHERE e.id > :after ORDER BY e.id",
+                                        type.entityClass())
+                                .setParameter("after", after).setMaxResults(pageSize).getResultList();
+                return rows.stream().map(type::toDocument).toList();
+            });
+            if (documents == null || documents.isEmpty()) {
+                return count;
+            }
+            synchronized (writeMonitor) {
+                for (SearchDocument document : documents) {
+                    if (!changedDuringBuild.contains(document.key())) {
+                        fresh.put(document);
+                    }
+                }
+            }
+            count += documents.size();
+            lastId = documents.get(documents.size() - 1).id();
+            if (documents.size() < pageSize) {
+                return count;
+            }
+        }
+    }
+
+    // Строки типа, измененные начиная с from; исчезнувшие между чтением id и загрузкой удаляются из индекса
+    private int catchUpType(SearchType type, LocalDateTime from) {
+        String entityName = entityManager.getMetamodel().entity(type.entityClass()).getName();
+        String table = type.entityClass().getAnnotation(Table.class).name();
+        List<UUID> ids = readOnlyTransaction.execute(status -> entityManager
+                .createNativeQuery("SELECT id FROM " + table + " WHERE updated_at >= :from", UUID.class)
+                .setParameter("from", from)
+                .getResultList());
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        for (int offset = 0; offset < ids.size(); offset += pageSize) {
+            List<UUID> page = ids.subList(offset, Math.min(offset + pageSize, ids.size()));
+            List<SearchDocument> documents = readOnlyTransaction.execute(status -> entityManager
+                    .createQuery("SELECT e FROM " + entityName + " e WHERE e.id IN :ids", type.entityClass())
+                    .setParameter("ids", page)
+                    .getResultList().stream()
+                    .map(type::toDocument)
+                    .toList());
+            Set<UUID> removed = new HashSet<>(page);
+            for (SearchDocument document : documents) {
+                removed.remove(document.id());
+                apply(document.key(), document);
+            }
+            for (UUID id : removed) {
+                apply(SearchDocument.key(type, id), null);
+            }
+        }
+        return ids.size();
+    }
+
+    private LocalDateTime databaseTime() {
+        return readOnlyTransaction.execute(status -> entityManager
+                .createQuery("SELECT LOCAL DATETIME", LocalDateTime.class)
+                .getSingleResult());
+    }
+
+    private boolean loadSnapshot() {
+        Path file = Path.of(indexPath, SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return false;
+        }
+        long start = System.currentTimeMillis();
+        SearchIndex loaded = new SearchIndex();
+        LocalDateTime watermark;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Снимок поискового индекса {} другого формата, будет перестроен", file);
+                return false;
+            }
+            watermark = in.readBoolean() ? LocalDateTime.parse(in.readUTF()) : null;
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                SearchType type = SearchType.valueOf(in.readUTF());
+                UUID id = new UUID(in.readLong(), in.readLong());
+                String title = readString(in);
+                String subtitle = readString(in);
+                String text = readString(in);
+                UUID ownerCompanyId = in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+                loaded.put(new SearchDocument(type, id, title, subtitle, text, ownerCompanyId));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Не удалось загрузить снимок поискового индекса {}: {}", file, e.getMessage());
+            return false;
+        }
+        synchronized (writeMonitor) {
+            index = loaded;
+        }
+        catchUpWatermark = watermark;
+        log.info("Поисковый индекс загружен с диска: {} документов за {} мс",
+                loaded.size(), System.currentTimeMillis() - start);
+        return true;
+    }
+
+    private synchronized void saveSnapshot() {
+        // Водяной знак читается до документов: изменения после него подтянет следующая сверка
+        LocalDateTime watermark = catchUpWatermark;
+        List<SearchDocument> documents = index.documents();
+        Path directory = Path.of(indexPath);
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "search-index", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(temp))))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeBoolean(watermark != null);
+                if (watermark != null) {
+                    out.writeUTF(watermark.toString());
+                }
+                out.writeInt(documents.size());
+                for (SearchDocument document : documents) {
+                    out.writeUTF(document.type().name());
+                    out.writeLong(document.id().getMostSignificantBits());
+                    out.writeLong(document.id().getLeastSignificantBits());
+                    writeString(out, document.title());
+                    writeString(out, document.subtitle());
+                    writeString(out, document.text());
+                    out.writeBoolean(document.ownerCompanyId() != null);
+                    if (document.ownerCompanyId() != null) {
+                        out.writeLong(document.ownerCompanyId().getMostSignificantBits());
+                        out.writeLong(document.ownerCompanyId().getLeastSignificantBits());
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lastSnapshotAt = LocalDateTime.now();
+            log.debug("Снимок поискового индекса сохранен: {} документов", documents.size());
+        } catch (IOException e) {
+            dirty.set(true);
+            log.warn("Не удалось сохранить снимок поискового индекса в {}: {}", file, e.getMessage());
+        }
+    }
+
+    // writeUTF ограничен 64 КБ, длинные примечания пишутся длиной и байтами
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = in.readNBytes(length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
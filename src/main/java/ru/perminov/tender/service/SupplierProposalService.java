@@ -1,5 +1,7 @@
 package ru.perminov.tender.service;
 
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.tender.SupplierProposalDto;
 import ru.perminov.tender.dto.tender.ProposalItemDto;
 import ru.perminov.tender.model.SupplierProposal;
@@ -40,6 +42,9 @@ public interface SupplierProposalService {
     
     List<SupplierProposalDto> getAllProposals();
     
+    PageResponseDto<SupplierProposalDto> getProposalPage(ListingRequest listing, String status, UUID tenderId,
+                                                         UUID supplierId, String search);
+    
     /**
      * Обновить статус всех предложений тендера (кроме отклоненных) на ACCEPTED
      */
@@ -1,10 +1,13 @@
 package ru.perminov.tender.service;
 
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.tender.TenderDto;
 import ru.perminov.tender.dto.tender.TenderItemDto;
 import ru.perminov.tender.dto.tender.SupplierProposalDto;
 import ru.perminov.tender.model.Tender;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,6 +24,12 @@ public interface TenderService {
     List<TenderDto> getTendersByStatus(Tender.TenderStatus status);
     
     List<TenderDto> getTendersByCustomer(UUID customerId);
+
+    /**
+     * Постраничный список тендеров с фильтрами. Сортировка: startDate, submissionDeadline, tenderNumber, title
+     */
+    PageResponseDto<TenderDto> getTenderPage(ListingRequest listing, String status, UUID customerId,
+                                             LocalDate dateFrom, LocalDate dateTo, String search);
     
     void deleteTender(UUID id);
     
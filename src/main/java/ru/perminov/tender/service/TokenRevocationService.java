@@ -0,0 +1,179 @@
+package ru.perminov.tender.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.perminov.tender.cache.BloomFilter;
+import ru.perminov.tender.model.RevokedToken;
+import ru.perminov.tender.repository.RevokedTokenRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Список отозванных JWT токенов. Отзывы хранятся в таблице revoked_tokens до истечения срока токена,
+ * каждый узел держит в памяти фильтр Блума и точное множество хэшей: проверка токена не обращается к БД,
+ * а отрицательный ответ фильтра не требует даже поиска в множестве. Отзывы с других узлов подтягиваются
+ * периодическим инкрементальным запросом
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JwtService jwtService;
+    private final TransactionTemplate transactionTemplate;
+
+    // Хэш токена -> момент истечения токена в миллисекундах
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+    private volatile int bloomCapacity;
+    private volatile LocalDateTime watermark;
+
+    @Value("${security.token-revocation.expected-tokens:100000}")
+    private int expectedTokens;
+
+    @Value("${security.token-revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${security.token-revocation.refresh-overlap:30000}")
+    private long refreshOverlapMillis;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  JwtService jwtService,
+                                  PlatformTransactionManager transactionManager) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jwtService = jwtService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void loadRevokedTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> active = revokedTokenRepository.findByExpiresAtAfter(now);
+        active.forEach(token -> revoked.put(token.getTokenHash(), toMillis(token.getExpiresAt())));
+        rebuildBloomFilter();
+        watermark = now;
+        log.info("Загружено отозванных токенов: {}", active.size());
+    }
+
+    public boolean isRevoked(String token) {
+        return isRevokedDigest(jwtService.tokenDigest(token));
+    }
+
+    /**
+     * Проверка по хэшу токена без обращения к БД
+     */
+    public boolean isRevokedDigest(String tokenDigest) {
+        if (!bloomFilter.mightContain(tokenDigest)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(tokenDigest);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Отзывает токен до истечения его срока. Невалидные и просроченные токены пропускаются.
+     * Возвращает true, только если токен отозван этим вызовом: при гонке запись создает один вызов
+     * (решает уникальный ключ token_hash), остальные получают false
+     */
+    public boolean revoke(String token, UUID userId, String reason) {
+        Claims claims;
+        try {
+            claims = jwtService.extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Токен не отозван, он уже недействителен: {}", e.getMessage());
+            return false;
+        }
+        String digest = jwtService.tokenDigest(token);
+        if (revoked.containsKey(digest)) {
+            return false;
+        }
+        LocalDateTime expiresAt = claims.getExpiration() != null
+                ? LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault())
+                : LocalDateTime.now().plusYears(1);
+
+        // Выполняется в транзакции вызывающего (ротация refresh токена) или в своей
+        int inserted = transactionTemplate.execute(status -> revokedTokenRepository.insertIfAbsent(
+                UUID.randomUUID(), digest, userId, reason, expiresAt, LocalDateTime.now()));
+        add(digest, toMillis(expiresAt));
+        if (inserted == 0) {
+            log.debug("Токен уже отозван другим запросом");
+            return false;
+        }
+        log.info("Отозван токен пользователя {}, причина: {}", userId, reason);
+        return true;
+    }
+
+    /**
+     * Подтягивает отзывы, сделанные на других узлах. Окно запроса перекрывается с предыдущим,
+     * чтобы не пропустить транзакции, зафиксированные с задержкой
+     */
+    @Scheduled(fixedDelayString = "${security.token-revocation.refresh-delay:2000}",
+            initialDelayString = "${security.token-revocation.refresh-delay:2000}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            List<RevokedToken> recent = revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(
+                    watermark.minus(Duration.ofMillis(refreshOverlapMillis)), now);
+            for (RevokedToken token : recent) {
+                if (!revoked.containsKey(token.getTokenHash())) {
+                    add(token.getTokenHash(), toMillis(token.getExpiresAt()));
+                }
+            }
+            watermark = now;
+        } catch (Exception e) {
+            log.warn("Не удалось обновить список отозванных токенов: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Удаляет истекшие отзывы из БД и памяти и пересобирает фильтр
+     */
+    @Scheduled(fixedDelayString = "${security.token-revocation.purge-interval:3600000}",
+            initialDelayString = "${security.token-revocation.purge-interval:3600000}")
+    public void purgeExpired() {
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    revokedTokenRepository.deleteExpired(LocalDateTime.now()));
+            long now = System.currentTimeMillis();
+            revoked.values().removeIf(expiresAt -> expiresAt <= now);
+            rebuildBloomFilter();
+            log.info("Удалено истекших отозванных токенов: {}, в памяти: {}", deleted, revoked.size());
+        } catch (Exception e) {
+            log.warn("Не удалось очистить отозванные токены: {}", e.getMessage());
+        }
+    }
+
+    // Добавление и пересборка синхронизированы: фильтр, видимый читателю, всегда содержит добавленный ключ
+    private synchronized void add(String digest, long expiresAtMillis) {
+        revoked.put(digest, expiresAtMillis);
+        bloomFilter.put(digest);
+        if (revoked.size() > bloomCapacity) {
+            rebuildBloomFilter();
+        }
+    }
+
+    private synchronized void rebuildBloomFilter() {
+        int capacity = Math.max(expectedTokens, revoked.size() * 2);
+        BloomFilter filter = new BloomFilter(capacity, falsePositiveRate);
+        revoked.keySet().forEach(filter::put);
+        bloomCapacity = capacity;
+        bloomFilter = filter;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.perminov.tender.dto.CacheStatsDto;
 import ru.perminov.tender.model.User;
 import ru.perminov.tender.model.company.Company;
 import ru.perminov.tender.repository.UserRepository;
@@ -29,6 +30,7 @@ public class UserService {
     private final CompanyRepository companyRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuditLogService auditLogService;
+    private final AuthenticatedPrincipalCache principalCache;
 
     private User getCurrentUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -138,6 +140,9 @@ public class UserService {
             throw new RuntimeException("Пользователь с таким email уже существует");
         }
 
+        // Роли, пароль и флаги учетной записи кэшируются фильтром аутентификации
+        principalCache.invalidateUser(user.getUsername());
+
         // Обновляем поля
         user.setUsername(userDetails.getUsername());
         user.setEmail(userDetails.getEmail());
@@ -161,6 +166,7 @@ public class UserService {
         user.setUpdatedAt(LocalDateTime.now());
         
         User updatedUser = userRepository.save(user);
+        principalCache.invalidateUser(updatedUser.getUsername());
         log.info("Пользователь успешно обновлен: {}", updatedUser.getUsername());
         auditLogService.logSimple(getCurrentUser(), "UPDATE_USER", "User", updatedUser.getId().toString(), "Обновлен пользователь");
         
@@ -175,6 +181,7 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
         
         userRepository.delete(user);
+        principalCache.invalidateUser(user.getUsername());
         log.info("Пользователь успешно удален: {}", user.getUsername());
         auditLogService.logSimple(getCurrentUser(), "DELETE_USER", "User", user.getId().toString(), "Удален пользователь");
     }
@@ -196,6 +203,7 @@ public class UserService {
         user.setUpdatedAt(LocalDateTime.now());
         
         User updatedUser = userRepository.save(user);
+        principalCache.invalidateUser(updatedUser.getUsername());
         log.info("Пароль успешно изменен для пользователя: {}", updatedUser.getUsername());
         
         return updatedUser;
@@ -212,6 +220,7 @@ public class UserService {
         user.setUpdatedAt(LocalDateTime.now());
         
         User updatedUser = userRepository.save(user);
+        principalCache.invalidateUser(updatedUser.getUsername());
         log.info("Статус пользователя успешно обновлен: {}", updatedUser.getUsername());
         
         return updatedUser;
@@ -236,6 +245,10 @@ public class UserService {
         return updatedUser;
     }
 
+    public List<CacheStatsDto> getAuthCacheStats() {
+        return principalCache.getStats();
+    }
+
     public long countUsersByCompany(UUID companyId) {
         log.info("Подсчет пользователей компании: {}", companyId);
         return userRepository.countByCompanyId(companyId);
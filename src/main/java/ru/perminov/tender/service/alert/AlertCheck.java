@@ -0,0 +1,64 @@
+package ru.perminov.tender.service.alert;
+
+import ru.perminov.tender.model.Alert;
+
+/**
+ * Автоматические проверки алертов: тип, важность и текст создаваемого алерта.
+ * В шаблоне сообщения %1$s - номер или название сущности, %2$s - значение условия
+ */
+public enum AlertCheck {
+
+    OVERDUE_DELIVERIES(Alert.AlertType.OVERDUE_DELIVERY, Alert.AlertSeverity.HIGH, "DELIVERY", "/deliveries/",
+            "Просроченная поставка", "Поставка %1$s просрочена: плановая дата %2$s"),
+    PAYMENT_DEADLINES(Alert.AlertType.PAYMENT_OVERDUE, Alert.AlertSeverity.HIGH, "PAYMENT", "/payments/",
+            "Просроченный платеж", "Платеж %1$s просрочен: срок оплаты %2$s"),
+    TENDER_DEADLINES(Alert.AlertType.TENDER_DEADLINE, Alert.AlertSeverity.MEDIUM, "TENDER", "/tenders/",
+            "Дедлайн тендера", "Тендер %1$s: прием предложений заканчивается %2$s"),
+    CONTRACT_EXPIRATION(Alert.AlertType.CONTRACT_EXPIRING, Alert.AlertSeverity.MEDIUM, "CONTRACT", "/contracts/",
+            "Истекающий контракт", "Контракт %1$s истекает %2$s"),
+    BUDGET_LIMITS(Alert.AlertType.BUDGET_EXCEEDED, Alert.AlertSeverity.CRITICAL, "BUDGET", "/budgets/",
+            "Превышение бюджета", "Бюджет %1$s: расходы превысили лимит %2$s"),
+    SUPPLIER_RATINGS(Alert.AlertType.SUPPLIER_RATING_LOW, Alert.AlertSeverity.MEDIUM, "SUPPLIER", "/companies/",
+            "Низкий рейтинг поставщика", "Поставщик %1$s имеет рейтинг %2$s");
+
+    private final Alert.AlertType type;
+    private final Alert.AlertSeverity severity;
+    private final String entityType;
+    private final String actionPath;
+    private final String title;
+    private final String messageFormat;
+
+    AlertCheck(Alert.AlertType type, Alert.AlertSeverity severity, String entityType, String actionPath,
+               String title, String messageFormat) {
+        this.type = type;
+        this.severity = severity;
+        this.entityType = entityType;
+        this.actionPath = actionPath;
+        this.title = title;
+        this.messageFormat = messageFormat;
+    }
+
+    public Alert.AlertType type() {
+        return type;
+    }
+
+    public Alert.AlertSeverity severity() {
+        return severity;
+    }
+
+    public String entityType() {
+        return entityType;
+    }
+
+    public String actionPath() {
+        return actionPath;
+    }
+
+    public String title() {
+        return title;
+    }
+
+    public String message(String reference, String detail) {
+        return String.format(messageFormat, reference, detail);
+    }
+}
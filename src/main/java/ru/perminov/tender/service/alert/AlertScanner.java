@@ -0,0 +1,281 @@
+package ru.perminov.tender.service.alert;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.perminov.tender.model.Alert;
+import ru.perminov.tender.model.AlertScanWatermark;
+import ru.perminov.tender.model.Budget;
+import ru.perminov.tender.model.Delivery;
+import ru.perminov.tender.model.Payment;
+import ru.perminov.tender.model.Tender;
+import ru.perminov.tender.repository.AlertRepository;
+import ru.perminov.tender.repository.AlertScanWatermarkRepository;
+import ru.perminov.tender.repository.BudgetRepository;
+import ru.perminov.tender.repository.ContractRepository;
+import ru.perminov.tender.repository.DeliveryRepository;
+import ru.perminov.tender.repository.PaymentRepository;
+import ru.perminov.tender.repository.SupplierRatingRepository;
+import ru.perminov.tender.repository.TenderRepository;
+import ru.perminov.tender.repository.projection.AlertCandidateProjection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Периодические проверки алертов. Каждая проверка читает только строки со сроком после своего водяного знака
+ * и строки, измененные после предыдущего запуска (диапазонные запросы по индексам сроков и updated_at).
+ * Алерт создается один раз на тип, сущность и условие (dedup_key); новые алерты вставляются пачками.
+ * Строка водяного знака блокируется на время проверки с пропуском занятых: на нескольких узлах
+ * одну проверку в каждый момент выполняет один узел
+ */
+@Service
+@Slf4j
+public class AlertScanner {
+
+    private static final int CHUNK_SIZE = 500;
+    // Перекрытие окна изменений: строки, закоммиченные во время предыдущей проверки, не теряются
+    private static final long UPDATED_OVERLAP_SECONDS = 60;
+
+    private static final List<Delivery.DeliveryStatus> OPEN_DELIVERY_STATUSES = List.of(
+            Delivery.DeliveryStatus.PLANNED, Delivery.DeliveryStatus.CONFIRMED, Delivery.DeliveryStatus.IN_TRANSIT);
+    private static final List<Payment.PaymentStatus> OPEN_PAYMENT_STATUSES = List.of(
+            Payment.PaymentStatus.PENDING, Payment.PaymentStatus.APPROVED, Payment.PaymentStatus.OVERDUE);
+    private static final List<Tender.TenderStatus> OPEN_TENDER_STATUSES = List.of(
+            Tender.TenderStatus.PUBLISHED, Tender.TenderStatus.BIDDING);
+    private static final List<Budget.BudgetStatus> OPEN_BUDGET_STATUSES = List.of(
+            Budget.BudgetStatus.APPROVED, Budget.BudgetStatus.ACTIVE);
+
+    private final AlertRepository alertRepository;
+    private final AlertScanWatermarkRepository watermarkRepository;
+    private final DeliveryRepository deliveryRepository;
+    private final PaymentRepository paymentRepository;
+    private final TenderRepository tenderRepository;
+    private final ContractRepository contractRepository;
+    private final BudgetRepository budgetRepository;
+    private final SupplierRatingRepository supplierRatingRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${alerts.engine.enabled:true}")
+    private boolean enabled;
+
+    @Value("${alerts.engine.initial-lookback-days:90}")
+    private int initialLookbackDays;
+
+    @Value("${alerts.engine.tender-deadline-hours:48}")
+    private int tenderDeadlineHours;
+
+    @Value("${alerts.engine.contract-expiration-days:30}")
+    private int contractExpirationDays;
+
+    @Value("${alerts.engine.min-supplier-rating:3.0}")
+    private BigDecimal minSupplierRating;
+
+    public AlertScanner(AlertRepository alertRepository,
+                        AlertScanWatermarkRepository watermarkRepository,
+                        DeliveryRepository deliveryRepository,
+                        PaymentRepository paymentRepository,
+                        TenderRepository tenderRepository,
+                        ContractRepository contractRepository,
+                        BudgetRepository budgetRepository,
+                        SupplierRatingRepository supplierRatingRepository,
+                        EntityManager entityManager,
+                        ObjectMapper objectMapper,
+                        PlatformTransactionManager transactionManager) {
+        this.alertRepository = alertRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.paymentRepository = paymentRepository;
+        this.tenderRepository = tenderRepository;
+        this.contractRepository = contractRepository;
+        this.budgetRepository = budgetRepository;
+        this.supplierRatingRepository = supplierRatingRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Создает недостающие строки водяных знаков (миграция создает их для всех проверок)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureWatermarks() {
+        for (AlertCheck check : AlertCheck.values()) {
+            if (watermarkRepository.existsById(check.name())) continue;
+            try {
+                watermarkRepository.save(new AlertScanWatermark(check.name()));
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Водяной знак проверки {} уже создан другим узлом", check);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${alerts.engine.interval:300000}",
+            initialDelayString = "${alerts.engine.initial-delay:60000}")
+    public void scanAll() {
+        if (!enabled) return;
+        for (AlertCheck check : AlertCheck.values()) {
+            try {
+                run(check);
+            } catch (RuntimeException e) {
+                log.error("Ошибка проверки алертов {}: {}", check, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Выполняет проверку и возвращает число созданных алертов; -1, если ее сейчас выполняет другой узел
+     */
+    public int run(AlertCheck check) {
+        long start = System.currentTimeMillis();
+        Integer created = transactionTemplate.execute(status -> {
+            Optional<AlertScanWatermark> locked = watermarkRepository.lockByCheckName(check.name());
+            if (locked.isEmpty()) {
+                return -1;
+            }
+            AlertScanWatermark watermark = locked.get();
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime initial = now.minusDays(initialLookbackDays);
+            LocalDateTime dueFrom = watermark.getDueWatermark() != null ? watermark.getDueWatermark() : initial;
+            LocalDateTime updatedFrom = watermark.getUpdatedWatermark() != null ? watermark.getUpdatedWatermark() : initial;
+            LocalDateTime dueTo = dueTo(check, now);
+
+            AlertBatch batch = new AlertBatch(check);
+            try (Stream<AlertCandidateProjection> candidates = candidates(check, dueFrom, dueTo, updatedFrom, now)) {
+                candidates.forEach(batch::add);
+            }
+            batch.flush();
+
+            watermark.setDueWatermark(dueTo);
+            watermark.setUpdatedWatermark(now.minusSeconds(UPDATED_OVERLAP_SECONDS));
+            watermark.setLastRunAt(now);
+            watermark.setLastCreated(batch.created);
+            watermarkRepository.save(watermark);
+            return batch.created;
+        });
+        if (created != null && created >= 0) {
+            log.info("Проверка алертов {}: создано {} за {} мс", check, created, System.currentTimeMillis() - start);
+        } else {
+            log.debug("Проверка алертов {} выполняется другим узлом, пропускаем", check);
+        }
+        return created != null ? created : 0;
+    }
+
+    // Верхняя граница сроков: просрочено сегодня или наступит в пределах горизонта проверки
+    private LocalDateTime dueTo(AlertCheck check, LocalDateTime now) {
+        return switch (check) {
+            case OVERDUE_DELIVERIES, PAYMENT_DEADLINES, BUDGET_LIMITS, SUPPLIER_RATINGS -> now.toLocalDate().atStartOfDay();
+            case TENDER_DEADLINES -> now.plusHours(tenderDeadlineHours);
+            case CONTRACT_EXPIRATION -> now.toLocalDate().plusDays(contractExpirationDays).atStartOfDay();
+        };
+    }
+
+    private Stream<AlertCandidateProjection> candidates(AlertCheck check, LocalDateTime dueFrom, LocalDateTime dueTo,
+                                                        LocalDateTime updatedFrom, LocalDateTime now) {
+        LocalDate dueFromDate = dueFrom.toLocalDate();
+        LocalDate dueToDate = dueTo.toLocalDate();
+        return switch (check) {
+            case OVERDUE_DELIVERIES ->
+                    deliveryRepository.streamOverdueCandidates(OPEN_DELIVERY_STATUSES, dueFromDate, dueToDate, updatedFrom);
+            case PAYMENT_DEADLINES ->
+                    paymentRepository.streamOverdueCandidates(OPEN_PAYMENT_STATUSES, dueFromDate, dueToDate, updatedFrom);
+            // У тендеров нет времени изменения: окно до срока перечитывается целиком, частичный индекс
+            // по открытым тендерам делает это дешевым, повторы отсекает dedup_key
+            case TENDER_DEADLINES -> tenderRepository.streamDeadlineCandidates(OPEN_TENDER_STATUSES, now, dueTo);
+            case CONTRACT_EXPIRATION -> contractRepository.streamExpiringCandidates(dueFromDate, dueToDate, updatedFrom);
+            case BUDGET_LIMITS -> budgetRepository.streamExceededCandidates(OPEN_BUDGET_STATUSES, updatedFrom);
+            case SUPPLIER_RATINGS -> supplierRatingRepository.streamLowRatingCandidates(minSupplierRating, updatedFrom);
+        };
+    }
+
+    /**
+     * Накопитель алертов проверки: пачка сверяется с существующими ключами одним запросом и вставляется JDBC-пакетом
+     */
+    private final class AlertBatch {
+
+        private final AlertCheck check;
+        private final Map<String, AlertCandidateProjection> pending = new LinkedHashMap<>();
+        private int created;
+
+        private AlertBatch(AlertCheck check) {
+            this.check = check;
+        }
+
+        void add(AlertCandidateProjection candidate) {
+            pending.putIfAbsent(dedupKey(candidate), candidate);
+            if (pending.size() >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) return;
+            Set<String> existing = new HashSet<>(alertRepository.findExistingDedupKeys(pending.keySet()));
+            List<Alert> alerts = new ArrayList<>();
+            pending.forEach((key, candidate) -> {
+                if (!existing.contains(key)) {
+                    alerts.add(toAlert(key, candidate));
+                }
+            });
+            pending.clear();
+            if (alerts.isEmpty()) return;
+            entityManager.unwrap(Session.class).setJdbcBatchSize(CHUNK_SIZE);
+            alerts.forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+            created += alerts.size();
+        }
+
+        private String dedupKey(AlertCandidateProjection candidate) {
+            return check.type() + ":" + candidate.getSourceId() + ":" + candidate.getDetail();
+        }
+
+        private Alert toAlert(String key, AlertCandidateProjection candidate) {
+            String reference = candidate.getReference() != null ? candidate.getReference() : candidate.getEntityId().toString();
+            Alert alert = new Alert();
+            alert.setTitle(check.title());
+            alert.setMessage(check.message(reference, candidate.getDetail()));
+            alert.setType(check.type());
+            alert.setSeverity(check.severity());
+            alert.setEntityId(candidate.getEntityId());
+            alert.setEntityType(check.entityType());
+            alert.setActionUrl(check.actionPath() + candidate.getEntityId());
+            alert.setDedupKey(key);
+            alert.setMetadata(metadata(candidate, reference));
+            return alert;
+        }
+
+        private String metadata(AlertCandidateProjection candidate, String reference) {
+            Map<String, Object> metadata = new LinkedHashMap<>();
+            metadata.put("sourceId", candidate.getSourceId());
+            metadata.put("reference", reference);
+            metadata.put("condition", candidate.getDetail());
+            try {
+                return objectMapper.writeValueAsString(metadata);
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Ошибка формирования метаданных алерта: " + e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package ru.perminov.tender.service.company;
 
+import ru.perminov.tender.dto.ImportResultDto;
 import ru.perminov.tender.dto.company.CompanyDto;
 import ru.perminov.tender.dto.company.CompanyDtoForUpdate;
 import ru.perminov.tender.dto.company.CompanyDtoNew;
 import ru.perminov.tender.dto.company.CompanyDtoUpdate;
 import ru.perminov.tender.dto.CompanyRelatedEntitiesDto;
-import ru.perminov.tender.service.company.impl.CompanyServiceImpl.ImportResult;
 
 import java.util.List;
 import java.util.UUID;
@@ -24,7 +24,7 @@ public interface CompanyService {
 
     CompanyDto getByShortName(String shortName);
 
-    ImportResult importFromExcel(org.springframework.web.multipart.MultipartFile file);
+    ImportResultDto importFromExcel(org.springframework.web.multipart.MultipartFile file);
     
     CompanyRelatedEntitiesDto getRelatedEntities(UUID companyId);
 }
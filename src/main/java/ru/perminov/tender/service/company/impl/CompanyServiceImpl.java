@@ -2,7 +2,9 @@ package ru.perminov.tender.service.company.impl;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.perminov.tender.dto.ImportResultDto;
 import ru.perminov.tender.dto.company.BankAccountDto;
 import ru.perminov.tender.dto.company.CompanyDto;
 import ru.perminov.tender.dto.company.CompanyDtoForUpdate;
@@ -13,6 +15,7 @@ import ru.perminov.tender.dto.company.contact.ContactDetailsDto;
 import ru.perminov.tender.dto.company.contact.ContactTypeDetailsDto;
 import ru.perminov.tender.mapper.company.CompanyMapper;
 import ru.perminov.tender.mapper.company.ContactPersonMapper;
+import ru.perminov.tender.model.ImportType;
 import ru.perminov.tender.model.company.Bank;
 import ru.perminov.tender.model.company.Company;
 import ru.perminov.tender.model.company.CompanyBankAccount;
@@ -42,14 +45,17 @@ import ru.perminov.tender.repository.DeliveryRepository;
 import ru.perminov.tender.repository.DocumentRepository;
 import ru.perminov.tender.service.company.CompanyService;
 import ru.perminov.tender.model.company.CompanyRole;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import ru.perminov.tender.service.importer.ExcelImportSource;
+import ru.perminov.tender.service.importer.ExcelImporter;
+import ru.perminov.tender.service.importer.ImportColumns;
+import ru.perminov.tender.service.importer.ImportDefinition;
+import ru.perminov.tender.service.importer.ImportRowException;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -58,7 +64,7 @@ import java.util.Map;
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class CompanyServiceImpl implements CompanyService {
+public class CompanyServiceImpl implements CompanyService, ExcelImportSource {
 
     private final CompanyRepository companyRepository;
     private final CompanyTypeRepository typeCompanyRepository;
@@ -75,6 +81,7 @@ public class CompanyServiceImpl implements CompanyService {
     private final ContractRepository contractRepository;
     private final DeliveryRepository deliveryRepository;
     private final DocumentRepository documentRepository;
+    private final ExcelImporter excelImporter;
 
     @Override
     @Transactional
@@ -249,91 +256,65 @@ public class CompanyServiceImpl implements CompanyService {
         return companyMapper.toCompanyDto(company);
     }
 
-    public static class ImportResult {
-        public int imported;
-        public java.util.List<Map<String, Object>> errors = new ArrayList<>();
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportResultDto importFromExcel(org.springframework.web.multipart.MultipartFile file) {
+        try {
+            return excelImporter.importFile(file, importDefinition(Map.of()));
+        } catch (RuntimeException e) {
+            ImportResultDto result = new ImportResultDto();
+            result.addError(0, "Ошибка файла: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+            return result;
+        }
     }
 
     @Override
-    @Transactional
-    public ImportResult importFromExcel(org.springframework.web.multipart.MultipartFile file) {
-        ImportResult result = new ImportResult();
-        try (java.io.InputStream is = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(is)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) { // пропускаем header
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-                try {
-                    String inn = getCellStringValue(row.getCell(1));
-                    if (inn == null || inn.isBlank()) throw new RuntimeException("Пустой ИНН");
-                    if (companyRepository.findByInn(inn).isPresent()) throw new RuntimeException("Компания с таким ИНН уже существует");
-                    String kpp = getCellStringValue(row.getCell(2));
-                    String ogrn = getCellStringValue(row.getCell(3));
-                    String name = getCellStringValue(row.getCell(4));
-                    String legalName = getCellStringValue(row.getCell(5));
-                    String shortName = getCellStringValue(row.getCell(6));
-                    String address = getCellStringValue(row.getCell(7));
-                    String typeName = getCellStringValue(row.getCell(8));
-                    String director = getCellStringValue(row.getCell(9));
-                    String phone = getCellStringValue(row.getCell(10));
-                    String email = getCellStringValue(row.getCell(11));
-
-                    if (typeName == null || typeName.isBlank()) throw new RuntimeException("Тип компании не указан");
-                    CompanyType companyType = typeCompanyRepository.findByName(typeName)
-                        .orElseGet(() -> typeCompanyRepository.save(new CompanyType(null, typeName)));
-
-                    Company company = new Company();
-                    company.setInn(inn);
-                    company.setKpp(kpp);
-                    company.setOgrn(ogrn);
-                    company.setName(name);
-                    company.setLegalName(legalName);
-                    company.setShortName(shortName);
-                    company.setAddress(address);
-                    company.setCompanyType(companyType);
-                    company.setDirector(director);
-                    company.setPhone(phone);
-                    company.setEmail(email);
-                    companyRepository.save(company);
-                    result.imported++;
-                } catch (Exception e) {
-                    Map<String, Object> err = new HashMap<>();
-                    err.put("row", i + 1); // Excel строки с 1, а не с 0
-                    err.put("message", e.getMessage());
-                    result.errors.add(err);
-                }
-            }
-        } catch (Exception e) {
-            Map<String, Object> err = new HashMap<>();
-            err.put("row", 0);
-            err.put("message", "Ошибка файла: " + e.getMessage());
-            result.errors.add(err);
-        }
-        return result;
+    public ImportType importType() {
+        return ImportType.COMPANIES;
     }
 
-    private String getCellStringValue(Cell cell) {
-        if (cell == null) return null;
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                double d = cell.getNumericCellValue();
-                if (d == (long) d) {
-                    return String.valueOf((long) d);
-                } else {
-                    return String.valueOf(d);
+    @Override
+    public ImportDefinition<Company> importDefinition(Map<String, Object> columnMapping) {
+        Set<String> existingInns = new HashSet<>(companyRepository.findAllInns());
+        Map<String, CompanyType> companyTypes = typeCompanyRepository.findAll().stream()
+                .collect(Collectors.toMap(CompanyType::getName, Function.identity(), (a, b) -> a));
+        ImportColumns columns = ImportColumns.of(Map.ofEntries(
+                Map.entry("inn", 1), Map.entry("kpp", 2), Map.entry("ogrn", 3), Map.entry("name", 4),
+                Map.entry("legalName", 5), Map.entry("shortName", 6), Map.entry("address", 7),
+                Map.entry("companyType", 8), Map.entry("director", 9), Map.entry("phone", 10), Map.entry("email", 11)
+        ), columnMapping);
+
+        return new ImportDefinition<>("companies", columns, row -> {
+            String inn = columns.get(row, "inn");
+            if (inn == null || inn.isBlank()) throw new ImportRowException("Пустой ИНН");
+            if (existingInns.contains(inn)) throw new ImportRowException("Компания с таким ИНН уже существует");
+            String typeName = columns.get(row, "companyType");
+            if (typeName == null || typeName.isBlank()) throw new ImportRowException("Тип компании не указан");
+            existingInns.add(inn);
+            // Новый тип сохраняется вместе с пачкой компаний
+            CompanyType companyType = companyTypes.computeIfAbsent(typeName, name -> new CompanyType(null, name));
+
+            Company company = new Company();
+            company.setInn(inn);
+            company.setKpp(columns.get(row, "kpp"));
+            company.setOgrn(columns.get(row, "ogrn"));
+            company.setName(columns.get(row, "name"));
+            company.setLegalName(columns.get(row, "legalName"));
+            company.setShortName(columns.get(row, "shortName"));
+            company.setAddress(columns.get(row, "address"));
+            company.setCompanyType(companyType);
+            company.setDirector(columns.get(row, "director"));
+            company.setPhone(columns.get(row, "phone"));
+            company.setEmail(columns.get(row, "email"));
+            return company;
+        }, companies -> {
+            for (Company company : companies) {
+                if (company.getCompanyType().getId() == null) {
+                    typeCompanyRepository.save(company.getCompanyType());
                 }
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                return cell.getCellFormula();
-            case BLANK:
-                return "";
-            default:
-                return cell.toString();
-        }
+            }
+            companyRepository.saveAll(companies);
+        });
     }
 
     private CompanyType createOrUpdateType(CompanyDtoNew dto) {
@@ -0,0 +1,18 @@
+package ru.perminov.tender.service.export;
+
+import java.util.function.Function;
+
+/**
+ * Колонка выгрузки в Excel: заголовок и способ получения значения ячейки из строки.
+ * Колонка с порядковым номером заполняется самим экспортером
+ */
+public record ExcelColumn<T>(String header, Function<? super T, ?> value, boolean rowNumber) {
+
+    public static <T> ExcelColumn<T> of(String header, Function<? super T, ?> value) {
+        return new ExcelColumn<>(header, value, false);
+    }
+
+    public static <T> ExcelColumn<T> rowNumber(String header) {
+        return new ExcelColumn<>(header, row -> null, true);
+    }
+}
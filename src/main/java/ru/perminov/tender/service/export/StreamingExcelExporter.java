@@ -0,0 +1,136 @@
+package ru.perminov.tender.service.export;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая выгрузка в Excel через SXSSF: в памяти держится только окно последних строк,
+ * остальные сбрасываются во временный файл, поэтому расход памяти не зависит от объема реестра
+ */
+@Component
+@Slf4j
+public class StreamingExcelExporter {
+
+    /**
+     * Количество строк, которые SXSSF держит в памяти
+     */
+    private static final int ROW_ACCESS_WINDOW = 100;
+
+    /**
+     * Через сколько строк очищать контекст персистентности при потоковом чтении из БД
+     */
+    private static final int CLEAR_INTERVAL = 500;
+
+    private static final int MAX_DATA_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows() - 1;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public StreamingExcelExporter(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Тело ответа, которое в read-only транзакции читает строки из потокового запроса
+     * и пишет книгу прямо в выходной поток ответа
+     */
+    public <T> StreamingResponseBody stream(String sheetName, List<ExcelColumn<T>> columns, Supplier<Stream<T>> rows) {
+        return out -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<T> stream = rows.get()) {
+                write(out, sheetName, columns, stream);
+            }
+        });
+    }
+
+    private <T> void write(OutputStream out, String sheetName, List<ExcelColumn<T>> columns, Stream<T> rows) {
+        long started = System.currentTimeMillis();
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            SXSSFSheet sheet = workbook.createSheet(sheetName);
+            sheet.trackAllColumnsForAutoSizing();
+
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < columns.size(); i++) {
+                header.createCell(i).setCellValue(columns.get(i).header());
+            }
+
+            int count = 0;
+            boolean sized = false;
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T item = iterator.next();
+                if (count == MAX_DATA_ROWS) {
+                    throw new RuntimeException("Превышено максимальное количество строк листа Excel: " + MAX_DATA_ROWS);
+                }
+                count++;
+                Row row = sheet.createRow(count);
+                for (int i = 0; i < columns.size(); i++) {
+                    ExcelColumn<T> column = columns.get(i);
+                    setCellValue(row.createCell(i), column.rowNumber() ? count : column.value().apply(item));
+                }
+
+                // Ширина колонок подбирается по первому окну строк, дальше строки уже сброшены на диск
+                if (!sized && count == ROW_ACCESS_WINDOW - 1) {
+                    autoSizeColumns(sheet, columns.size());
+                    sized = true;
+                }
+                if (count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+            if (!sized) {
+                autoSizeColumns(sheet, columns.size());
+            }
+
+            workbook.write(out);
+            out.flush();
+            log.info("Экспорт '{}' в Excel: {} строк за {} мс", sheetName, count, System.currentTimeMillis() - started);
+        } catch (IOException e) {
+            log.error("Ошибка при экспорте '{}' в Excel", sheetName, e);
+            throw new RuntimeException("Ошибка экспорта в Excel", e);
+        } finally {
+            workbook.dispose();
+            try {
+                workbook.close();
+            } catch (IOException e) {
+                log.warn("Не удалось закрыть книгу Excel: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void autoSizeColumns(SXSSFSheet sheet, int columnCount) {
+        for (int i = 0; i < columnCount; i++) {
+            sheet.autoSizeColumn(i);
+        }
+        sheet.untrackAllColumnsForAutoSizing();
+    }
+
+    private void setCellValue(Cell cell, Object value) {
+        if (value == null) {
+            cell.setCellValue("");
+        } else if (value instanceof Number number) {
+            cell.setCellValue(number.doubleValue());
+        } else {
+            cell.setCellValue(value.toString());
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package ru.perminov.tender.service.fns;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import ru.perminov.tender.service.SettingsService;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Клиент api-fns.ru. Сначала запрашивается выписка /egr, поиск /search нужен только если выписка пуста:
+ * в большинстве случаев карточка получается одним запросом вместо двух
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "fns.client", havingValue = "api", matchIfMissing = true)
+public class ApiFnsClient implements FnsClient {
+
+    private static final String API_URL = "https://api-fns.ru/api/";
+
+    private final SettingsService settingsService;
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${fns.api-key-refresh:60000}")
+    private long apiKeyRefreshMillis;
+
+    // Ключ API перечитывается из настроек не чаще fns.api-key-refresh
+    private volatile String apiKey;
+    private volatile long apiKeyLoadedAt;
+
+    @Override
+    public Optional<Map<String, Object>> findByInn(String inn) {
+        String key = apiKey();
+        Map<String, Object> result = new HashMap<>();
+
+        JsonNode egrData = get("egr?req=" + inn + "&key=" + key, "ЕГР", inn);
+        if (egrData.has("items") && egrData.get("items").isArray() && !egrData.get("items").isEmpty()) {
+            JsonNode egrItem = egrData.get("items").get(0);
+            if (egrItem.has("ЮЛ")) {
+                parseYurLico(result, egrItem.get("ЮЛ"));
+                return Optional.of(result);
+            }
+            if (egrItem.has("ИП")) {
+                parseIp(result, egrItem.get("ИП"));
+                return Optional.of(result);
+            }
+            log.warn("Не удалось определить ЮЛ/ИП в /egr ответе по ИНН {}, используем данные из /search", inn);
+        } else {
+            log.warn("Ответ от /egr по ИНН {} пуст, используем данные из /search", inn);
+        }
+
+        JsonNode searchData = get("search?q=" + inn + "&key=" + key, "поиск", inn);
+        if (!searchData.has("items") || !searchData.get("items").isArray() || searchData.get("items").isEmpty()) {
+            return Optional.empty();
+        }
+        parseFromSearchItem(result, searchData.get("items").get(0));
+        return Optional.of(result);
+    }
+
+    private JsonNode get(String path, String method, String inn) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
+        ResponseEntity<String> response = restTemplate.exchange(
+                API_URL + path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        String body = response.getBody();
+        log.debug("Ответ от API ФНС ({}) по ИНН {}: {} символов", method, inn, body != null ? body.length() : 0);
+        try {
+            return objectMapper.readTree(body != null ? body : "{}");
+        } catch (IOException e) {
+            throw new RuntimeException("Некорректный ответ API ФНС (" + method + "): " + e.getMessage(), e);
+        }
+    }
+
+    private String apiKey() {
+        String key = apiKey;
+        if (key == null || System.currentTimeMillis() - apiKeyLoadedAt > apiKeyRefreshMillis) {
+            key = settingsService.getFnsApiKey();
+            if (key == null || key.trim().isEmpty()) {
+                throw new RuntimeException("API ключ ФНС не настроен");
+            }
+            key = key.trim().replaceAll("^\"|\"$", "");
+            apiKey = key;
+            apiKeyLoadedAt = System.currentTimeMillis();
+        }
+        return key;
+    }
+
+    private void parseFromSearchItem(Map<String, Object> result, JsonNode searchItem) {
+        if (searchItem.has("ЮЛ")) {
+            JsonNode yul = searchItem.get("ЮЛ");
+            result.put("name", getJsonText(yul, "НаимПолнЮЛ"));
+            result.put("shortName", getJsonText(yul, "НаимСокрЮЛ"));
+            result.put("inn", getJsonText(yul, "ИНН"));
+            result.put("ogrn", getJsonText(yul, "ОГРН"));
+            result.put("head", getJsonText(yul, "Руководитель", "ФИОПолн"));
+            result.put("address", getJsonText(yul, "АдресПолн"));
+            result.put("kpp", getJsonText(yul, "КПП"));
+            result.put("legalForm", "Юридическое лицо"); // Fallback
+        } else if (searchItem.has("ИП")) {
+            JsonNode ip = searchItem.get("ИП");
+            String fullName = getJsonText(ip, "ФИОПолн");
+            result.put("name", fullName);
+            result.put("shortName", "ИП " + fullName);
+            result.put("inn", getJsonText(ip, "ИНН"));
+            result.put("ogrn", getJsonText(ip, "ОГРНИП"));
+            result.put("head", fullName);
+            result.put("address", ""); // Not in search result for ИП
+            result.put("kpp", "");
+            result.put("legalForm", "Индивидуальный предприниматель");
+        }
+    }
+
+    private void parseYurLico(Map<String, Object> result, JsonNode company) {
+        result.put("name", getJsonText(company, "НаимПолнЮЛ"));
+        result.put("shortName", getJsonText(company, "НаимСокрЮЛ"));
+        result.put("inn", getJsonText(company, "ИНН"));
+        result.put("kpp", getJsonText(company, "КПП"));
+        result.put("ogrn", getJsonText(company, "ОГРН"));
+        result.put("ogrnDate", getJsonText(company, "ДатаРег"));
+        result.put("legalForm", getJsonText(company, "ОКОПФ"));
+        result.put("address", getJsonText(company, "Адрес", "АдресПолн"));
+        result.put("head", getJsonText(company, "Руководитель", "ФИОПолн"));
+        
+        JsonNode contacts = company.get("Контакты");
+        if (contacts != null && contacts.isObject()) {
+            result.put("phone", getFirstInJsonArray(contacts, "Телефон"));
+            result.put("email", getFirstInJsonArray(contacts, "e-mail"));
+        } else {
+             result.put("phone", "");
+             result.put("email", "");
+        }
+    }
+
+    private void parseIp(Map<String, Object> result, JsonNode ip) {
+        String fullName = getJsonText(ip, "ФИОПолн");
+        result.put("name", fullName);
+        result.put("shortName", "ИП " + getJsonText(ip, "ФИОСокр"));
+        result.put("inn", getJsonText(ip, "ИННФЛ"));
+        result.put("kpp", ""); // ИП has no KPP
+        result.put("ogrn", getJsonText(ip, "ОГРНИП"));
+        result.put("ogrnDate", getJsonText(ip, "ДатаОГРН"));
+        result.put("legalForm", "Индивидуальный предприниматель");
+        result.put("address", getJsonText(ip, "Адрес", "АдресПолн"));
+        result.put("head", fullName); // Head is the person themselves
+
+        JsonNode contacts = ip.get("Контакты");
+        if (contacts != null && contacts.isObject()) {
+            result.put("phone", getFirstInJsonArray(contacts, "Телефон"));
+            result.put("email", getFirstInJsonArray(contacts, "e-mail"));
+        } else {
+             result.put("phone", "");
+             result.put("email", "");
+        }
+    }
+
+    private String getJsonText(JsonNode node, String fieldName) {
+        if (node != null && node.has(fieldName) && node.get(fieldName).isTextual()) {
+            return node.get(fieldName).asText("");
+        }
+        return "";
+    }
+
+    private String getJsonText(JsonNode node, String objectName, String fieldName) {
+        if (node != null && node.has(objectName) && node.get(objectName).isObject()) {
+            JsonNode childNode = node.get(objectName);
+            return getJsonText(childNode, fieldName);
+        }
+        return "";
+    }
+
+    private String getFirstInJsonArray(JsonNode node, String arrayName) {
+        if (node != null && node.has(arrayName) && node.get(arrayName).isArray() && !node.get(arrayName).isEmpty()) {
+            return node.get(arrayName).get(0).asText("");
+        }
+        return "";
+    }
+}
@@ -0,0 +1,17 @@
+package ru.perminov.tender.service.fns;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Источник карточек контрагентов из реестра ФНС. Реализация выбирается свойством fns.client:
+ * api - api-fns.ru, stub - локальные данные без обращения к сети (тесты, стенды)
+ */
+public interface FnsClient {
+
+    /**
+     * Карточка контрагента по ИНН, пустой результат - контрагент в реестре не найден.
+     * Ошибки обращения к реестру выбрасываются как RuntimeException
+     */
+    Optional<Map<String, Object>> findByInn(String inn);
+}
@@ -0,0 +1,40 @@
+package ru.perminov.tender.service.fns;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Заглушка реестра ФНС: карточка строится из ИНН, ИНН на 00 считаются ненайденными
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "fns.client", havingValue = "stub")
+public class StubFnsClient implements FnsClient {
+
+    @Override
+    public Optional<Map<String, Object>> findByInn(String inn) {
+        log.debug("Заглушка ФНС: поиск по ИНН {}", inn);
+        if (inn.startsWith("00")) {
+            return Optional.empty();
+        }
+        boolean individual = inn.length() == 12;
+        Map<String, Object> result = new HashMap<>();
+        result.put("name", individual ? "Тестовый Предприниматель " + inn : "Общество с ограниченной ответственностью \"Тест " + inn + "\"");
+        result.put("shortName", individual ? "ИП Тестовый " + inn : "ООО \"Тест " + inn + "\"");
+        result.put("inn", inn);
+        result.put("kpp", individual ? "" : inn.substring(0, 4) + "01001");
+        result.put("ogrn", individual ? "3" + inn + "00" : "1" + inn + "12");
+        result.put("ogrnDate", "2010-01-01");
+        result.put("legalForm", individual ? "Индивидуальный предприниматель" : "Общество с ограниченной ответственностью");
+        result.put("address", "г. Москва, ул. Тестовая, д. 1");
+        result.put("head", "Иванов Иван Иванович");
+        result.put("phone", "");
+        result.put("email", "");
+        return Optional.of(result);
+    }
+}
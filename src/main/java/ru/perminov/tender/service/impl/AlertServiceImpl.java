@@ -2,10 +2,15 @@ package ru.perminov.tender.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.perminov.tender.dto.AlertCountersDto;
 import ru.perminov.tender.dto.AlertDto;
 import ru.perminov.tender.model.Alert;
 import ru.perminov.tender.service.AlertService;
+import ru.perminov.tender.service.alert.AlertCheck;
+import ru.perminov.tender.service.alert.AlertScanner;
 import ru.perminov.tender.repository.AlertRepository;
+import ru.perminov.tender.repository.projection.AlertCountersProjection;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.time.LocalDateTime;
@@ -18,6 +23,7 @@ import java.util.UUID;
 public class AlertServiceImpl implements AlertService {
     @Autowired
     private final AlertRepository alertRepository;
+    private final AlertScanner alertScanner;
     
     @Override
     public AlertDto createAlert(AlertDto alertDto) {
@@ -210,42 +216,39 @@ public class AlertServiceImpl implements AlertService {
     }
     
     @Override
+    @Transactional
     public void markAllAsRead(String username) {
-        List<Alert> alerts = alertRepository.findByTargetUserAndIsReadFalse(username);
-        for (Alert alert : alerts) {
-            alert.setIsRead(true);
-        }
-        alertRepository.saveAll(alerts);
+        alertRepository.markAllAsReadByTargetUser(username);
     }
     
     @Override
     public void checkOverdueDeliveries() {
-        // Заглушка
+        alertScanner.run(AlertCheck.OVERDUE_DELIVERIES);
     }
     
     @Override
     public void checkBudgetLimits() {
-        // Заглушка
+        alertScanner.run(AlertCheck.BUDGET_LIMITS);
     }
     
     @Override
     public void checkTenderDeadlines() {
-        // Заглушка
+        alertScanner.run(AlertCheck.TENDER_DEADLINES);
     }
     
     @Override
     public void checkPaymentDeadlines() {
-        // Заглушка
+        alertScanner.run(AlertCheck.PAYMENT_DEADLINES);
     }
     
     @Override
     public void checkContractExpiration() {
-        // Заглушка
+        alertScanner.run(AlertCheck.CONTRACT_EXPIRATION);
     }
     
     @Override
     public void checkSupplierRatings() {
-        // Заглушка
+        alertScanner.run(AlertCheck.SUPPLIER_RATINGS);
     }
     
     @Override
@@ -265,17 +268,24 @@ public class AlertServiceImpl implements AlertService {
     
     @Override
     public Integer getUnreadCount(String username) {
-        return alertRepository.findByTargetUserAndIsReadFalse(username).size();
+        return (int) getCounters(username).unread();
     }
     
     @Override
     public Integer getUrgentCount(String username) {
-        return 2; // Тестовое значение
+        return (int) getCounters(username).urgent();
     }
     
     @Override
     public Integer getTotalCount(String username) {
-        return 5; // Тестовое значение
+        return (int) getCounters(username).total();
+    }
+
+    @Override
+    public AlertCountersDto getCounters(String username) {
+        // Один агрегирующий запрос по индексу (target_user, is_read, severity, status) без загрузки алертов
+        AlertCountersProjection counters = alertRepository.countersByTargetUser(username);
+        return new AlertCountersDto(counters.getUnread(), counters.getUrgent(), counters.getTotal());
     }
     
     @Override
@@ -1,32 +1,67 @@
 package ru.perminov.tender.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import ru.perminov.tender.cache.BankDirectory;
 import ru.perminov.tender.dto.HtmlWebBankResponseDto;
 import ru.perminov.tender.dto.company.BankAccountDto;
+import ru.perminov.tender.service.BankDirectoryService;
 import ru.perminov.tender.service.BankService;
 
+/**
+ * Данные банка по БИК из справочника в памяти; htmlweb.ru запрашивается только для БИК,
+ * которых нет в справочнике, и только если включен bank.directory.remote-fallback
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class BankServiceImpl implements BankService {
 
     private final RestTemplate restTemplate;
+    private final BankDirectoryService bankDirectoryService;
     private static final String BANK_API_URL = "https://htmlweb.ru/json/service/bic/";
 
+    @Value("${bank.directory.remote-fallback:true}")
+    private boolean remoteFallback;
+
     @Override
     public BankAccountDto getBankDetailsByBik(String bik) {
-        String url = BANK_API_URL + bik;
-        HtmlWebBankResponseDto response = restTemplate.getForObject(url, HtmlWebBankResponseDto.class);
+        if (!BankDirectory.isValidBik(bik)) {
+            return null;
+        }
+        BankDirectory.Entry entry = bankDirectoryService.find(bik);
+        if (entry == null && remoteFallback) {
+            entry = fetchRemote(bik);
+        }
+        if (entry == null) {
+            return null;
+        }
+        BankAccountDto dto = new BankAccountDto();
+        dto.setBankName(entry.name());
+        dto.setBik(bik);
+        dto.setCorrespondentAccount(entry.correspondentAccount());
+        return dto;
+    }
 
-        if (response != null) {
-            BankAccountDto dto = new BankAccountDto();
-            dto.setBankName(response.getName());
-            dto.setBik(bik);
-            dto.setCorrespondentAccount(response.getCorrespondentAccount());
-            return dto;
+    private BankDirectory.Entry fetchRemote(String bik) {
+        try {
+            HtmlWebBankResponseDto response = restTemplate.getForObject(BANK_API_URL + bik, HtmlWebBankResponseDto.class);
+            if (response == null || response.getName() == null) {
+                return null;
+            }
+            BankDirectory.Entry entry = new BankDirectory.Entry(bik, response.getName(), response.getCorrespondentAccount());
+            try {
+                bankDirectoryService.remember(entry);
+            } catch (RuntimeException e) {
+                log.warn("Не удалось сохранить банк с БИК {} в справочник: {}", bik, e.getMessage());
+            }
+            return entry;
+        } catch (RuntimeException e) {
+            log.warn("Не удалось получить данные банка по БИК {} из htmlweb.ru: {}", bik, e.getMessage());
+            return null;
         }
-        // Consider throwing a custom exception for better error handling
-        return null;
     }
-} 
\ No newline at end of file
+}
@@ -2,38 +2,44 @@ package ru.perminov.tender.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.perminov.tender.dto.CategoryDtoNew;
 import ru.perminov.tender.dto.CategoryDtoUpdate;
 import ru.perminov.tender.mapper.CategoryMapper;
 import ru.perminov.tender.model.Category;
+import ru.perminov.tender.model.ImportType;
 import ru.perminov.tender.repository.CategoryRepository;
 import ru.perminov.tender.service.CategoryService;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import ru.perminov.tender.dto.ImportResultDto;
 import ru.perminov.tender.service.AuditLogService;
 import ru.perminov.tender.repository.UserRepository;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
 import ru.perminov.tender.model.User;
+import ru.perminov.tender.service.importer.ExcelImportSource;
+import ru.perminov.tender.service.importer.ExcelImporter;
+import ru.perminov.tender.service.importer.ImportColumns;
+import ru.perminov.tender.service.importer.ImportDefinition;
+import ru.perminov.tender.service.importer.ImportRowException;
 
-import java.io.InputStream;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class CategoryServiceImpl implements CategoryService {
+public class CategoryServiceImpl implements CategoryService, ExcelImportSource {
 
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
     private final AuditLogService auditLogService;
     private final UserRepository userRepository;
+    private final ExcelImporter excelImporter;
 
     private User getCurrentUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -83,54 +89,37 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ImportResultDto importFromExcel(org.springframework.web.multipart.MultipartFile file) {
-        ImportResultDto result = new ImportResultDto();
-        try (InputStream is = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(is)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) { // skipping header
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-
-                try {
-                    String name = getCellValueAsString(row.getCell(1));
-
-                    if (name == null || name.isBlank()) {
-                        result.addError(i + 1, "Название не может быть пустым.");
-                        continue;
-                    }
+        return excelImporter.importFile(file, importDefinition(Map.of()));
+    }
 
-                    if (categoryRepository.existsByName(name)) {
-                        result.addError(i + 1, "Категория с названием '" + name + "' уже существует.");
-                        continue;
-                    }
-                    Category category = new Category();
-                    category.setName(name);
-                    Category saved = categoryRepository.save(category);
-                    auditLogService.logSimple(null, "IMPORT_CATEGORY", "Category", saved.getId().toString(), "Импортирована категория");
-                    result.incrementImported();
-                } catch (Exception e) {
-                    result.addError(i + 1, "Ошибка в строке: " + e.getMessage());
-                }
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка импорта файла: " + e.getMessage(), e);
-        }
-        return result;
+    @Override
+    public ImportType importType() {
+        return ImportType.CATEGORIES;
     }
 
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) {
-            return null;
-        }
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                return String.valueOf((long) cell.getNumericCellValue());
-            default:
-                return null;
-        }
+    @Override
+    public ImportDefinition<Category> importDefinition(Map<String, Object> columnMapping) {
+        Set<String> existingNames = categoryRepository.findAll().stream()
+                .map(Category::getName)
+                .collect(Collectors.toCollection(HashSet::new));
+        ImportColumns columns = ImportColumns.of(Map.of("name", 1), columnMapping);
+        return new ImportDefinition<>("categories", columns, row -> {
+            String name = columns.get(row, "name");
+            if (name == null || name.isBlank()) {
+                throw new ImportRowException("Название не может быть пустым.");
+            }
+            if (!existingNames.add(name)) {
+                throw new ImportRowException("Категория с названием '" + name + "' уже существует.");
+            }
+            Category category = new Category();
+            category.setName(name);
+            return category;
+        }, chunk -> {
+            for (Category saved : categoryRepository.saveAll(chunk)) {
+                auditLogService.logSimple(null, "IMPORT_CATEGORY", "Category", saved.getId().toString(), "Импортирована категория");
+            }
+        });
     }
 } 
\ No newline at end of file
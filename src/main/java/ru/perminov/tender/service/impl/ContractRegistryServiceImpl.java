@@ -2,16 +2,17 @@ package ru.perminov.tender.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.perminov.tender.dto.contract.ContractDto;
+import ru.perminov.tender.model.Contract;
+import ru.perminov.tender.repository.ContractRepository;
 import ru.perminov.tender.service.ContractRegistryService;
 import ru.perminov.tender.service.ContractService;
+import ru.perminov.tender.service.export.ExcelColumn;
+import ru.perminov.tender.service.export.StreamingExcelExporter;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.List;
 
 @Service
@@ -20,6 +21,8 @@ import java.util.List;
 public class ContractRegistryServiceImpl implements ContractRegistryService {
 
     private final ContractService contractService;
+    private final ContractRepository contractRepository;
+    private final StreamingExcelExporter excelExporter;
 
     @Override
     public List<ContractDto> getAllContracts() {
@@ -28,58 +31,24 @@ public class ContractRegistryServiceImpl implements ContractRegistryService {
     }
 
     @Override
-    public ByteArrayInputStream exportContractsToExcel() {
+    public StreamingResponseBody exportContractsToExcel() {
         log.info("Экспорт контрактов в Excel");
-        List<ContractDto> contracts = getAllContracts();
-        
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Реестр контрактов");
-            int rowIdx = 0;
-            
-            // Заголовки
-            Row header = sheet.createRow(rowIdx++);
-            String[] headers = {
-                "№", "Номер контракта", "Название", "Статус", "Сумма", "Валюта",
-                "Дата начала", "Дата окончания", "Условия оплаты", "Условия поставки",
-                "Склад", "Дата создания"
-            };
-            
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = header.createCell(i);
-                cell.setCellValue(headers[i]);
-            }
-            
-            // Данные
-            for (ContractDto contract : contracts) {
-                Row row = sheet.createRow(rowIdx++);
-                
-                row.createCell(0).setCellValue(rowIdx - 1); // №
-                row.createCell(1).setCellValue(contract.getContractNumber() != null ? contract.getContractNumber() : "");
-                row.createCell(2).setCellValue(contract.getTitle() != null ? contract.getTitle() : "");
-                row.createCell(3).setCellValue(getStatusRu(contract.getStatus()));
-                row.createCell(4).setCellValue(contract.getTotalAmount() != null ? contract.getTotalAmount().doubleValue() : 0.0);
-                row.createCell(5).setCellValue(contract.getCurrency() != null ? contract.getCurrency() : "RUB");
-                row.createCell(6).setCellValue(contract.getStartDate() != null ? contract.getStartDate().toString() : "");
-                row.createCell(7).setCellValue(contract.getEndDate() != null ? contract.getEndDate().toString() : "");
-                row.createCell(8).setCellValue(contract.getPaymentTerms() != null ? contract.getPaymentTerms() : "");
-                row.createCell(9).setCellValue(contract.getDeliveryTerms() != null ? contract.getDeliveryTerms() : "");
-                row.createCell(10).setCellValue(contract.getWarehouseName() != null ? contract.getWarehouseName() : "");
-                row.createCell(11).setCellValue(contract.getCreatedAt() != null ? contract.getCreatedAt().toString() : "");
-            }
-            
-            // Автоподбор ширины столбцов
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-            
-            try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-                workbook.write(out);
-                return new ByteArrayInputStream(out.toByteArray());
-            }
-        } catch (IOException e) {
-            log.error("Ошибка при экспорте контрактов в Excel", e);
-            throw new RuntimeException("Ошибка экспорта в Excel", e);
-        }
+        List<ExcelColumn<Contract>> columns = List.of(
+                ExcelColumn.rowNumber("№"),
+                ExcelColumn.of("Номер контракта", Contract::getContractNumber),
+                ExcelColumn.of("Название", Contract::getTitle),
+                ExcelColumn.of("Статус", contract -> getStatusRu(contract.getStatus() != null ? contract.getStatus().name() : null)),
+                ExcelColumn.of("Сумма", contract -> contract.getTotalAmount() != null ? contract.getTotalAmount() : BigDecimal.ZERO),
+                ExcelColumn.of("Валюта", contract -> contract.getCurrency() != null ? contract.getCurrency() : "RUB"),
+                ExcelColumn.of("Дата начала", Contract::getStartDate),
+                ExcelColumn.of("Дата окончания", Contract::getEndDate),
+                ExcelColumn.of("Условия оплаты", Contract::getPaymentTerms),
+                ExcelColumn.of("Условия поставки", Contract::getDeliveryTerms),
+                ExcelColumn.of("Склад", contract -> contract.getTender() != null && contract.getTender().getWarehouse() != null
+                        ? contract.getTender().getWarehouse().getName() : null),
+                ExcelColumn.of("Дата создания", Contract::getCreatedAt)
+        );
+        return excelExporter.stream("Реестр контрактов", columns, contractRepository::streamAllForExport);
     }
 
     private String getStatusRu(String status) {
@@ -4,6 +4,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.contract.ContractDto;
 import ru.perminov.tender.dto.contract.ContractDtoNew;
 import ru.perminov.tender.dto.contract.ContractDtoUpdate;
@@ -24,11 +28,14 @@ import ru.perminov.tender.repository.SupplierProposalRepository;
 import ru.perminov.tender.repository.TenderItemRepository;
 import ru.perminov.tender.repository.ProposalItemRepository;
 import ru.perminov.tender.repository.company.CompanyRepository;
+import ru.perminov.tender.repository.listing.Listings;
+import ru.perminov.tender.repository.listing.SortField;
 import ru.perminov.tender.service.ContractService;
 import ru.perminov.tender.model.Material;
 import ru.perminov.tender.dto.tender.TenderDto;
 import ru.perminov.tender.mapper.TenderMapper;
 import ru.perminov.tender.service.AuditLogService;
+import ru.perminov.tender.service.DashboardMetricsService;
 import ru.perminov.tender.repository.UserRepository;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
@@ -37,9 +44,14 @@ import ru.perminov.tender.model.User;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.Map;
 
@@ -48,6 +60,16 @@ import java.util.Map;
 @Transactional
 @Slf4j
 public class ContractServiceImpl implements ContractService {
+
+    private static final Map<String, SortField<Contract>> CONTRACT_SORT_FIELDS = Map.of(
+            "contractDate", SortField.of("contractDate", LocalDate.class, Contract::getContractDate),
+            "endDate", SortField.of("endDate", LocalDate.class, Contract::getEndDate),
+            "contractNumber", SortField.of("contractNumber", String.class, Contract::getContractNumber),
+            "totalAmount", SortField.of("totalAmount", BigDecimal.class, Contract::getTotalAmount)
+    );
+
+    private static final int IN_BATCH_SIZE = 1000;
+
     private final ContractRepository contractRepository;
     private final ContractItemRepository contractItemRepository;
     private final TenderRepository tenderRepository;
@@ -59,6 +81,7 @@ public class ContractServiceImpl implements ContractService {
     private final CompanyMapper companyMapper;
     private final TenderMapper tenderMapper;
     private final AuditLogService auditLogService;
+    private final DashboardMetricsService dashboardMetricsService;
     private final UserRepository userRepository;
 
     private User getCurrentUser() {
@@ -108,76 +131,14 @@ public class ContractServiceImpl implements ContractService {
 
     @Override
     public List<ContractDto> getAllContracts() {
-        List<Contract> contracts = contractRepository.findAll();
-        return contracts.stream()
-                .map(contract -> {
-                    ContractDto dto = contractMapper.toDto(contract);
-                    
-                    // Заполняем тендер с заказчиком и поставщиком
-                    if (contract.getTender() != null) {
-                        TenderDto tenderDto = tenderMapper.toDto(contract.getTender());
-                        
-                        // Заполняем awardedSupplier если есть awardedSupplierId
-                        if (contract.getTender().getAwardedSupplierId() != null) {
-                            Company awardedSupplier = companyRepository.findById(contract.getTender().getAwardedSupplierId()).orElse(null);
-                            if (awardedSupplier != null) {
-                                tenderDto.setAwardedSupplier(companyMapper.toCompanyDto(awardedSupplier));
-                            }
-                        }
-                        
-                        dto.setTender(tenderDto);
-                        
-                        // Заполняем warehouse из тендера
-                        if (contract.getTender().getWarehouse() != null) {
-                            dto.setWarehouseId(contract.getTender().getWarehouse().getId());
-                            dto.setWarehouseName(contract.getTender().getWarehouse().getName());
-                        }
-                    }
-                    
-                    // Вручную заполняем позиции контракта
-                    List<ContractItemDto> items = getContractItems(contract.getId());
-                    dto.setContractItems(items);
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return toDtosWithDetails(contractRepository.findAll());
     }
 
     @Override
     public List<ContractDto> getContractsByStatus(String status) {
         try {
             Contract.ContractStatus contractStatus = Contract.ContractStatus.valueOf(status.toUpperCase());
-            List<Contract> contracts = contractRepository.findByStatus(contractStatus);
-            return contracts.stream()
-                    .map(contract -> {
-                        ContractDto dto = contractMapper.toDto(contract);
-                        
-                        // Заполняем тендер с заказчиком и поставщиком
-                        if (contract.getTender() != null) {
-                            TenderDto tenderDto = tenderMapper.toDto(contract.getTender());
-                            
-                            // Заполняем awardedSupplier если есть awardedSupplierId
-                            if (contract.getTender().getAwardedSupplierId() != null) {
-                                Company awardedSupplier = companyRepository.findById(contract.getTender().getAwardedSupplierId()).orElse(null);
-                                if (awardedSupplier != null) {
-                                    tenderDto.setAwardedSupplier(companyMapper.toCompanyDto(awardedSupplier));
-                                }
-                            }
-                            
-                            dto.setTender(tenderDto);
-                            
-                            // Заполняем warehouse из тендера
-                            if (contract.getTender().getWarehouse() != null) {
-                                dto.setWarehouseId(contract.getTender().getWarehouse().getId());
-                                dto.setWarehouseName(contract.getTender().getWarehouse().getName());
-                            }
-                        }
-                        
-                        // Вручную заполняем позиции контракта
-                        List<ContractItemDto> items = getContractItems(contract.getId());
-                        dto.setContractItems(items);
-                        return dto;
-                    })
-                    .collect(Collectors.toList());
+            return toDtosWithDetails(contractRepository.findByStatus(contractStatus));
         } catch (IllegalArgumentException e) {
             return List.of();
         }
@@ -186,41 +147,117 @@ public class ContractServiceImpl implements ContractService {
     @Override
     public List<ContractDto> getContractsBySupplier(UUID supplierId) {
         // Этот метод теперь должен фильтровать по contract.getTender().getAwardedSupplierId()
-        List<Contract> contracts = contractRepository.findAll();
-        return contracts.stream()
+        return toDtosWithDetails(contractRepository.findAll().stream()
                 .filter(contract -> supplierId.equals(contract.getTender().getAwardedSupplierId()))
-                .map(contract -> {
-                    ContractDto dto = contractMapper.toDto(contract);
-                    
-                    // Заполняем тендер с заказчиком и поставщиком
-                    if (contract.getTender() != null) {
-                        TenderDto tenderDto = tenderMapper.toDto(contract.getTender());
-                        
-                        // Заполняем awardedSupplier если есть awardedSupplierId
-                        if (contract.getTender().getAwardedSupplierId() != null) {
-                            Company awardedSupplier = companyRepository.findById(contract.getTender().getAwardedSupplierId()).orElse(null);
-                            if (awardedSupplier != null) {
-                                tenderDto.setAwardedSupplier(companyMapper.toCompanyDto(awardedSupplier));
-                            }
-                        }
-                        
-                        dto.setTender(tenderDto);
-                        
-                        // Заполняем warehouse из тендера
-                        if (contract.getTender().getWarehouse() != null) {
-                            dto.setWarehouseId(contract.getTender().getWarehouse().getId());
-                            dto.setWarehouseName(contract.getTender().getWarehouse().getName());
-                        }
-                    }
-                    
-                    // Вручную заполняем позиции контракта
-                    List<ContractItemDto> items = getContractItems(contract.getId());
-                    dto.setContractItems(items);
-                    return dto;
-                })
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponseDto<ContractDto> getContractPage(ListingRequest listing, String status, UUID supplierId,
+                                                        UUID tenderId, LocalDate dateFrom, LocalDate dateTo, String search) {
+        Contract.ContractStatus contractStatus = Listings.parseEnum(Contract.ContractStatus.class, status);
+        Specification<Contract> spec = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (contractStatus != null) {
+                predicates.add(cb.equal(root.get("status"), contractStatus));
+            }
+            if (supplierId != null) {
+                predicates.add(cb.equal(root.get("tender").get("awardedSupplierId"), supplierId));
+            }
+            if (tenderId != null) {
+                predicates.add(cb.equal(root.get("tender").get("id"), tenderId));
+            }
+            if (dateFrom != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("contractDate"), dateFrom));
+            }
+            if (dateTo != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("contractDate"), dateTo));
+            }
+            if (search != null && !search.isBlank()) {
+                String pattern = Listings.likePattern(search);
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("contractNumber")), pattern, '\\'),
+                        cb.like(cb.lower(root.get("title")), pattern, '\\')
+                ));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+        return Listings.fetch(contractRepository, spec, listing, CONTRACT_SORT_FIELDS, "contractDate",
+                Contract::getId, this::toDtosWithDetails);
+    }
+
+    /**
+     * Собирает DTO списка контрактов: поставщики и позиции загружаются для всех контрактов
+     * одним запросом IN каждые, а не отдельными запросами на каждую строку
+     */
+    private List<ContractDto> toDtosWithDetails(List<Contract> contracts) {
+        if (contracts.isEmpty()) {
+            return List.of();
+        }
+        Set<UUID> supplierIds = contracts.stream()
+                .map(Contract::getTender)
+                .filter(Objects::nonNull)
+                .map(Tender::getAwardedSupplierId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, Company> suppliers = inBatches(supplierIds, companyRepository::findAllById).stream()
+                .collect(Collectors.toMap(Company::getId, Function.identity()));
+        List<UUID> contractIds = contracts.stream().map(Contract::getId).collect(Collectors.toList());
+        Map<UUID, List<ContractItemDto>> items = inBatches(contractIds,
+                        contractItemRepository::findByContractIdInWithUnitsAndMaterials).stream()
+                .collect(Collectors.groupingBy(item -> item.getContract().getId(),
+                        Collectors.mapping(item -> toItemDto(item, item.getContract().getId()), Collectors.toList())));
+        return contracts.stream()
+                .map(contract -> toDtoWithDetails(contract, suppliers, items.getOrDefault(contract.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
+    private ContractDto toDtoWithDetails(Contract contract, Map<UUID, Company> suppliers, List<ContractItemDto> items) {
+        ContractDto dto = contractMapper.toDto(contract);
+        
+        // Заполняем тендер с заказчиком и поставщиком
+        if (contract.getTender() != null) {
+            TenderDto tenderDto = tenderMapper.toDto(contract.getTender());
+            
+            // Заполняем awardedSupplier если есть awardedSupplierId
+            Company awardedSupplier = contract.getTender().getAwardedSupplierId() != null
+                    ? suppliers.get(contract.getTender().getAwardedSupplierId()) : null;
+            if (awardedSupplier != null) {
+                tenderDto.setAwardedSupplier(companyMapper.toCompanyDto(awardedSupplier));
+            }
+            
+            dto.setTender(tenderDto);
+            
+            // Заполняем warehouse из тендера
+            if (contract.getTender().getWarehouse() != null) {
+                dto.setWarehouseId(contract.getTender().getWarehouse().getId());
+                dto.setWarehouseName(contract.getTender().getWarehouse().getName());
+            }
+        }
+        
+        dto.setContractItems(items);
+        return dto;
+    }
+
+    /**
+     * Выполняет запрос с IN (...) частями, чтобы не упираться в лимит параметров
+     */
+    private static <T> List<T> inBatches(Collection<UUID> ids, Function<Collection<UUID>, List<T>> query) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> list = new ArrayList<>(ids);
+        if (list.size() <= IN_BATCH_SIZE) {
+            return query.apply(list);
+        }
+        List<T> result = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += IN_BATCH_SIZE) {
+            result.addAll(query.apply(list.subList(from, Math.min(from + IN_BATCH_SIZE, list.size()))));
+        }
+        return result;
+    }
+
     @Override
     public ContractDto updateContract(UUID id, ContractDtoUpdate contractDtoUpdate) {
         Optional<Contract> contractOpt = contractRepository.findById(id);
@@ -245,8 +282,11 @@ public class ContractServiceImpl implements ContractService {
         Contract contract = contractOpt.get();
         try {
             Contract.ContractStatus status = Contract.ContractStatus.valueOf(newStatus.toUpperCase());
+            Contract.ContractStatus oldStatus = contract.getStatus();
             contract.setStatus(status);
-            return contractMapper.toDto(contractRepository.save(contract));
+            Contract saved = contractRepository.save(contract);
+            dashboardMetricsService.onContractStatusChanged(oldStatus, status);
+            return contractMapper.toDto(saved);
         } catch (IllegalArgumentException e) {
             return null;
         }
@@ -256,17 +296,7 @@ public class ContractServiceImpl implements ContractService {
     public List<ContractItemDto> getContractItems(UUID contractId) {
         List<ContractItem> items = contractItemRepository.findByContractIdWithUnitsAndMaterials(contractId);
         return items.stream().map(item -> {
-            ContractItemDto dto = new ContractItemDto();
-            dto.setId(item.getId());
-            dto.setContractId(contractId);
-            dto.setMaterialId(item.getMaterial() != null ? item.getMaterial().getId() : null);
-            dto.setMaterialName(item.getMaterial() != null ? item.getMaterial().getName() : "");
-            dto.setQuantity(item.getQuantity());
-            dto.setUnitId(item.getUnit() != null ? item.getUnit().getId() : null);
-            dto.setUnitName(item.getUnit() != null ? item.getUnit().getName() : "");
-            dto.setUnitPrice(item.getUnitPrice());
-            dto.setTotalPrice(item.getTotalPrice());
-            dto.setDescription(item.getDescription());
+            ContractItemDto dto = toItemDto(item, contractId);
             
             // Логируем информацию о единицах измерения
             log.info("ContractItem {}: unitId={}, unitName={}", 
@@ -278,6 +308,21 @@ public class ContractServiceImpl implements ContractService {
         }).collect(Collectors.toList());
     }
 
+    private static ContractItemDto toItemDto(ContractItem item, UUID contractId) {
+        ContractItemDto dto = new ContractItemDto();
+        dto.setId(item.getId());
+        dto.setContractId(contractId);
+        dto.setMaterialId(item.getMaterial() != null ? item.getMaterial().getId() : null);
+        dto.setMaterialName(item.getMaterial() != null ? item.getMaterial().getName() : "");
+        dto.setQuantity(item.getQuantity());
+        dto.setUnitId(item.getUnit() != null ? item.getUnit().getId() : null);
+        dto.setUnitName(item.getUnit() != null ? item.getUnit().getName() : "");
+        dto.setUnitPrice(item.getUnitPrice());
+        dto.setTotalPrice(item.getTotalPrice());
+        dto.setDescription(item.getDescription());
+        return dto;
+    }
+
     @Override
     public ContractDto createContractFromTender(ContractDtoNew contractDtoNew ) {
         log.info("Создание контракта на основе тендера {} и поставщика {}", contractDtoNew.tenderId(), contractDtoNew.supplierId());
@@ -0,0 +1,298 @@
+package ru.perminov.tender.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.perminov.tender.dto.dashboard.DashboardDto.DashboardMetricsDto;
+import ru.perminov.tender.model.Contract;
+import ru.perminov.tender.model.Delivery;
+import ru.perminov.tender.model.Payment;
+import ru.perminov.tender.model.Tender;
+import ru.perminov.tender.model.company.CompanyRole;
+import ru.perminov.tender.repository.ContractRepository;
+import ru.perminov.tender.repository.DeliveryRepository;
+import ru.perminov.tender.repository.PaymentRepository;
+import ru.perminov.tender.repository.TenderRepository;
+import ru.perminov.tender.repository.company.CompanyRepository;
+import ru.perminov.tender.repository.projection.ContractStatsProjection;
+import ru.perminov.tender.repository.projection.DeliveryStatsProjection;
+import ru.perminov.tender.repository.projection.PaymentStatsProjection;
+import ru.perminov.tender.repository.projection.TenderStatsProjection;
+import ru.perminov.tender.service.DashboardMetricsService;
+import ru.perminov.tender.service.PriceAnalysisService;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardMetricsServiceImpl implements DashboardMetricsService {
+
+    // Средний рейтинг поставщиков (у Company нет поля rating)
+    private static final BigDecimal DEFAULT_SUPPLIER_RATING = BigDecimal.valueOf(4.2);
+
+    private final TenderRepository tenderRepository;
+    private final ContractRepository contractRepository;
+    private final DeliveryRepository deliveryRepository;
+    private final PaymentRepository paymentRepository;
+    private final CompanyRepository companyRepository;
+    private final PriceAnalysisService priceAnalysisService;
+
+    // Текущий снимок метрик; чтение и изменение выполняются под монитором сервиса
+    private MetricsCounters snapshot;
+
+    @Override
+    @Transactional(readOnly = true)
+    public DashboardMetricsDto calculateMetrics(LocalDate date) {
+        return loadCounters(date).toDto();
+    }
+
+    @Override
+    public DashboardMetricsDto getSnapshot() {
+        synchronized (this) {
+            // Просрочка зависит от текущей даты, поэтому вчерашний снимок пересчитываем
+            if (snapshot != null && LocalDate.now().equals(snapshot.date)) {
+                return snapshot.toDto();
+            }
+        }
+        return refreshSnapshot();
+    }
+
+    @Override
+    public DashboardMetricsDto refreshSnapshot() {
+        MetricsCounters fresh = loadCounters(LocalDate.now());
+        synchronized (this) {
+            snapshot = fresh;
+            return snapshot.toDto();
+        }
+    }
+
+    /**
+     * Периодическая сверка снимка с базой данных. Исправляет расхождения, накопленные из-за
+     * изменений в обход инкрементальных обработчиков (создание, удаление, правка дат)
+     */
+    @Scheduled(fixedDelayString = "${dashboard.metrics.reconcile-delay:300000}",
+            initialDelayString = "${dashboard.metrics.reconcile-delay:300000}")
+    public void reconcileSnapshot() {
+        try {
+            refreshSnapshot();
+            log.debug("Снимок метрик дашборда сверен с базой данных");
+        } catch (Exception e) {
+            log.error("Ошибка сверки снимка метрик дашборда: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onTenderStatusChanged(Tender.TenderStatus oldStatus, Tender.TenderStatus newStatus) {
+        if (oldStatus == newStatus) return;
+        applyAfterCommit(counters -> {
+            counters.addTender(oldStatus, -1);
+            counters.addTender(newStatus, 1);
+        });
+    }
+
+    @Override
+    public void onDeliveryStatusChanged(Delivery delivery, Delivery.DeliveryStatus oldStatus, LocalDate oldActualDate) {
+        LocalDate plannedDate = delivery.getPlannedDeliveryDate();
+        Delivery.DeliveryStatus newStatus = delivery.getStatus();
+        LocalDate newActualDate = delivery.getActualDate();
+        applyAfterCommit(counters -> {
+            counters.addDelivery(oldStatus, plannedDate, oldActualDate, -1);
+            counters.addDelivery(newStatus, plannedDate, newActualDate, 1);
+        });
+    }
+
+    @Override
+    public void onPaymentStatusChanged(Payment payment, Payment.PaymentStatus oldStatus) {
+        Payment.PaymentStatus newStatus = payment.getStatus();
+        if (oldStatus == newStatus) return;
+        LocalDate dueDate = payment.getDueDate();
+        BigDecimal amount = payment.getAmount();
+        applyAfterCommit(counters -> {
+            counters.addPayment(oldStatus, dueDate, amount, -1);
+            counters.addPayment(newStatus, dueDate, amount, 1);
+        });
+    }
+
+    @Override
+    public void onContractStatusChanged(Contract.ContractStatus oldStatus, Contract.ContractStatus newStatus) {
+        if (oldStatus == newStatus) return;
+        applyAfterCommit(counters -> {
+            counters.addContract(oldStatus, -1);
+            counters.addContract(newStatus, 1);
+        });
+    }
+
+    /**
+     * Применяет изменение к снимку только после успешного коммита, чтобы откаченные
+     * транзакции не искажали метрики
+     */
+    private void applyAfterCommit(Consumer<MetricsCounters> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private synchronized void apply(Consumer<MetricsCounters> change) {
+        // Пока снимок не построен, изменения учтет первый полный расчет
+        if (snapshot != null) {
+            change.accept(snapshot);
+        }
+    }
+
+    private MetricsCounters loadCounters(LocalDate date) {
+        MetricsCounters counters = new MetricsCounters(date);
+
+        TenderStatsProjection tenderStats = tenderRepository.getDashboardStats();
+        counters.totalTenders = tenderStats.getTotal();
+        counters.activeTenders = tenderStats.getActive();
+        counters.completedTenders = tenderStats.getCompleted();
+
+        DeliveryStatsProjection deliveryStats = deliveryRepository.getDashboardStats(date);
+        counters.totalDeliveries = deliveryStats.getTotal();
+        counters.pendingDeliveries = deliveryStats.getPending();
+        counters.overdueDeliveries = deliveryStats.getOverdue();
+        counters.onTimeDeliveries = deliveryStats.getOnTime();
+
+        PaymentStatsProjection paymentStats = paymentRepository.getDashboardStats(date);
+        counters.totalPayments = paymentStats.getTotal();
+        counters.overduePayments = paymentStats.getOverdue();
+        counters.paidAmount = nonNull(paymentStats.getPaidAmount());
+
+        ContractStatsProjection contractStats = contractRepository.getDashboardStats();
+        counters.totalContracts = contractStats.getTotal();
+        counters.activeContracts = contractStats.getActive();
+        counters.totalContractAmount = nonNull(contractStats.getTotalAmount());
+
+        counters.activeSuppliers = companyRepository.countByRole(CompanyRole.SUPPLIER);
+        counters.totalSavings = calculateTotalSavings();
+        return counters;
+    }
+
+    private BigDecimal calculateTotalSavings() {
+        try {
+            return BigDecimal.valueOf(priceAnalysisService.calculateTotalSavings());
+        } catch (Exception e) {
+            log.warn("Не удалось рассчитать экономию по тендерам: {}", e.getMessage());
+            return BigDecimal.ZERO;
+        }
+    }
+
+    private static BigDecimal nonNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    /**
+     * Сырые счетчики, из которых строится DashboardMetricsDto. Правила отнесения сущности
+     * к счетчикам совпадают с агрегирующими запросами репозиториев
+     */
+    private static class MetricsCounters {
+        private final LocalDate date;
+        private long totalTenders;
+        private long activeTenders;
+        private long completedTenders;
+        private long totalDeliveries;
+        private long pendingDeliveries;
+        private long overdueDeliveries;
+        private long onTimeDeliveries;
+        private long totalPayments;
+        private long overduePayments;
+        private BigDecimal paidAmount = BigDecimal.ZERO;
+        private long totalContracts;
+        private long activeContracts;
+        private BigDecimal totalContractAmount = BigDecimal.ZERO;
+        private long activeSuppliers;
+        private BigDecimal totalSavings = BigDecimal.ZERO;
+
+        private MetricsCounters(LocalDate date) {
+            this.date = date;
+        }
+
+        private void addTender(Tender.TenderStatus status, int sign) {
+            if (status == Tender.TenderStatus.BIDDING || status == Tender.TenderStatus.DRAFT) activeTenders += sign;
+            if (status == Tender.TenderStatus.AWARDED) completedTenders += sign;
+        }
+
+        private void addDelivery(Delivery.DeliveryStatus status, LocalDate plannedDate, LocalDate actualDate, int sign) {
+            if (status == Delivery.DeliveryStatus.PLANNED || status == Delivery.DeliveryStatus.IN_TRANSIT) {
+                pendingDeliveries += sign;
+            }
+            if (plannedDate != null && plannedDate.isBefore(date) && status != Delivery.DeliveryStatus.ACCEPTED) {
+                overdueDeliveries += sign;
+            }
+            if (status == Delivery.DeliveryStatus.ACCEPTED && plannedDate != null && actualDate != null
+                    && !plannedDate.isBefore(actualDate)) {
+                onTimeDeliveries += sign;
+            }
+        }
+
+        private void addPayment(Payment.PaymentStatus status, LocalDate dueDate, BigDecimal amount, int sign) {
+            if (dueDate != null && dueDate.isBefore(date) && status != Payment.PaymentStatus.PAID) {
+                overduePayments += sign;
+            }
+            if (status == Payment.PaymentStatus.PAID && amount != null) {
+                paidAmount = sign > 0 ? paidAmount.add(amount) : paidAmount.subtract(amount);
+            }
+        }
+
+        private void addContract(Contract.ContractStatus status, int sign) {
+            if (status == Contract.ContractStatus.ACTIVE) activeContracts += sign;
+        }
+
+        private DashboardMetricsDto toDto() {
+            DashboardMetricsDto metrics = new DashboardMetricsDto();
+            metrics.setTotalTenders((int) totalTenders);
+            metrics.setActiveTenders((int) activeTenders);
+            metrics.setCompletedTenders((int) completedTenders);
+
+            metrics.setTotalDeliveries((int) totalDeliveries);
+            metrics.setPendingDeliveries((int) pendingDeliveries);
+            metrics.setOverdueDeliveries((int) overdueDeliveries);
+
+            metrics.setTotalPayments((int) totalPayments);
+            metrics.setOverduePayments((int) overduePayments);
+
+            metrics.setTotalContracts((int) totalContracts);
+            metrics.setActiveContracts((int) activeContracts);
+
+            metrics.setActiveSuppliers((int) activeSuppliers);
+
+            // Экономия и ее доля от стоимости контрактов
+            metrics.setTotalSavings(totalSavings);
+            metrics.setSavingsPercentage(totalContractAmount.compareTo(BigDecimal.ZERO) > 0
+                    ? totalSavings.divide(totalContractAmount, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100))
+                    : BigDecimal.ZERO);
+
+            // Качество приемки (процент своевременных поставок)
+            metrics.setQualityAcceptanceRate(totalDeliveries > 0
+                    ? BigDecimal.valueOf((double) onTimeDeliveries / totalDeliveries * 100)
+                    : BigDecimal.ZERO);
+
+            metrics.setAverageSupplierRating(DEFAULT_SUPPLIER_RATING);
+
+            // Бюджет (у тендеров нет поля budget, поэтому общий бюджет равен 0)
+            BigDecimal totalBudget = BigDecimal.ZERO;
+            metrics.setTotalBudget(totalBudget);
+            metrics.setSpentBudget(paidAmount);
+            metrics.setRemainingBudget(totalBudget.subtract(paidAmount));
+            metrics.setBudgetUtilization(totalBudget.compareTo(BigDecimal.ZERO) > 0
+                    ? paidAmount.divide(totalBudget, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100))
+                    : BigDecimal.ZERO);
+            return metrics;
+        }
+    }
+}
@@ -29,6 +29,7 @@ import ru.perminov.tender.repository.company.CompanyRepository;
 import ru.perminov.tender.repository.WarehouseRepository;
 import ru.perminov.tender.service.PaymentService;
 import ru.perminov.tender.service.AuditLogService;
+import ru.perminov.tender.service.DashboardMetricsService;
 import ru.perminov.tender.repository.UserRepository;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
@@ -65,6 +66,7 @@ public class DeliveryServiceImpl implements DeliveryService {
     private final CompanyRepository companyRepository;
     private final WarehouseRepository warehouseRepository;
     private final PaymentService paymentService;
+    private final DashboardMetricsService dashboardMetricsService;
     private final AuditLogService auditLogService;
     private final UserRepository userRepository;
     private final InvoiceRepository invoiceRepository;
@@ -338,6 +340,7 @@ public class DeliveryServiceImpl implements DeliveryService {
         Delivery delivery = deliveryOpt.get();
         try {
             Delivery.DeliveryStatus status = Delivery.DeliveryStatus.valueOf(newStatus.toUpperCase());
+            Delivery.DeliveryStatus oldStatus = delivery.getStatus();
             delivery.setStatus(status);
             
             // Добавляем комментарий к изменению статуса
@@ -349,6 +352,7 @@ public class DeliveryServiceImpl implements DeliveryService {
                 delivery.setNotes(currentNotes + (currentNotes.isEmpty() ? "" : "\n") + statusChangeNote);
             }
             Delivery saved = deliveryRepository.save(delivery);
+            dashboardMetricsService.onDeliveryStatusChanged(saved, oldStatus, saved.getActualDate());
             // Если статус приемки — создать платеж
             if (status == Delivery.DeliveryStatus.ACCEPTED || status == Delivery.DeliveryStatus.PARTIALLY_ACCEPTED) {
                 paymentService.createPaymentFromDelivery(saved);
@@ -391,9 +395,13 @@ public class DeliveryServiceImpl implements DeliveryService {
         Optional<Delivery> deliveryOpt = deliveryRepository.findById(id);
         if (deliveryOpt.isEmpty()) return null;
         Delivery delivery = deliveryOpt.get();
+        Delivery.DeliveryStatus oldStatus = delivery.getStatus();
+        LocalDate oldActualDate = delivery.getActualDate();
         delivery.setStatus(Delivery.DeliveryStatus.ACCEPTED);
         delivery.setActualDate(LocalDate.now());
-        return deliveryMapper.toDto(deliveryRepository.save(delivery));
+        Delivery saved = deliveryRepository.save(delivery);
+        dashboardMetricsService.onDeliveryStatusChanged(saved, oldStatus, oldActualDate);
+        return deliveryMapper.toDto(saved);
     }
 
     @Override
@@ -401,9 +409,12 @@ public class DeliveryServiceImpl implements DeliveryService {
         Optional<Delivery> deliveryOpt = deliveryRepository.findById(id);
         if (deliveryOpt.isEmpty()) return null;
         Delivery delivery = deliveryOpt.get();
+        Delivery.DeliveryStatus oldStatus = delivery.getStatus();
         delivery.setStatus(Delivery.DeliveryStatus.REJECTED);
         delivery.setNotes(reason);
-        return deliveryMapper.toDto(deliveryRepository.save(delivery));
+        Delivery saved = deliveryRepository.save(delivery);
+        dashboardMetricsService.onDeliveryStatusChanged(saved, oldStatus, saved.getActualDate());
+        return deliveryMapper.toDto(saved);
     }
 
     @Override
@@ -2,16 +2,16 @@ package ru.perminov.tender.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.perminov.tender.dto.document.DocumentDto;
+import ru.perminov.tender.model.Document;
+import ru.perminov.tender.repository.DocumentRepository;
 import ru.perminov.tender.service.DocumentRegistryService;
 import ru.perminov.tender.service.DocumentService;
+import ru.perminov.tender.service.export.ExcelColumn;
+import ru.perminov.tender.service.export.StreamingExcelExporter;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.List;
 
 @Service
@@ -20,6 +20,8 @@ import java.util.List;
 public class DocumentRegistryServiceImpl implements DocumentRegistryService {
 
     private final DocumentService documentService;
+    private final DocumentRepository documentRepository;
+    private final StreamingExcelExporter excelExporter;
 
     @Override
     public List<DocumentDto> getAllDocuments() {
@@ -28,56 +30,21 @@ public class DocumentRegistryServiceImpl implements DocumentRegistryService {
     }
 
     @Override
-    public ByteArrayInputStream exportDocumentsToExcel() {
+    public StreamingResponseBody exportDocumentsToExcel() {
         log.info("Экспорт документов в Excel");
-        List<DocumentDto> documents = getAllDocuments();
-        
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Реестр документов");
-            int rowIdx = 0;
-            
-            // Заголовки
-            Row header = sheet.createRow(rowIdx++);
-            String[] headers = {
-                "№", "Номер документа", "Название", "Тип документа", "Статус",
-                "Размер файла", "MIME-тип", "Дата загрузки", "Дата подписания",
-                "Примечания"
-            };
-            
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = header.createCell(i);
-                cell.setCellValue(headers[i]);
-            }
-            
-            // Данные
-            for (DocumentDto document : documents) {
-                Row row = sheet.createRow(rowIdx++);
-                
-                row.createCell(0).setCellValue(rowIdx - 1); // №
-                row.createCell(1).setCellValue(document.getDocumentNumber() != null ? document.getDocumentNumber() : "");
-                row.createCell(2).setCellValue(document.getTitle() != null ? document.getTitle() : "");
-                row.createCell(3).setCellValue(getDocumentTypeRu(document.getDocumentType()));
-                row.createCell(4).setCellValue(getStatusRu(document.getStatus()));
-                row.createCell(5).setCellValue(document.getFileSize() != null ? formatFileSize(document.getFileSize()) : "");
-                row.createCell(6).setCellValue(document.getMimeType() != null ? document.getMimeType() : "");
-                row.createCell(7).setCellValue(document.getUploadedAt() != null ? document.getUploadedAt().toString() : "");
-                row.createCell(8).setCellValue(document.getCreatedAt() != null ? document.getCreatedAt().toString() : "");
-                row.createCell(9).setCellValue(document.getVersion() != null ? document.getVersion() : "");
-            }
-            
-            // Автоподбор ширины столбцов
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-            
-            try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-                workbook.write(out);
-                return new ByteArrayInputStream(out.toByteArray());
-            }
-        } catch (IOException e) {
-            log.error("Ошибка при экспорте документов в Excel", e);
-            throw new RuntimeException("Ошибка экспорта в Excel", e);
-        }
+        List<ExcelColumn<Document>> columns = List.of(
+                ExcelColumn.rowNumber("№"),
+                ExcelColumn.of("Номер документа", Document::getDocumentNumber),
+                ExcelColumn.of("Название", Document::getTitle),
+                ExcelColumn.of("Тип документа", document -> getDocumentTypeRu(document.getType() != null ? document.getType().name() : null)),
+                ExcelColumn.of("Статус", document -> getStatusRu(document.getStatus() != null ? document.getStatus().name() : null)),
+                ExcelColumn.of("Размер файла", document -> document.getFileSize() != null ? formatFileSize(document.getFileSize()) : null),
+                ExcelColumn.of("MIME-тип", Document::getMimeType),
+                ExcelColumn.of("Дата загрузки", Document::getUploadedAt),
+                ExcelColumn.of("Дата подписания", Document::getCreatedAt),
+                ExcelColumn.of("Примечания", Document::getVersion)
+        );
+        return excelExporter.stream("Реестр документов", columns, documentRepository::streamAllForExport);
     }
 
     private String getStatusRu(String status) {
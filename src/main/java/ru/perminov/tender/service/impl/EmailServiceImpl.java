@@ -3,6 +3,8 @@ package ru.perminov.tender.service.impl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
@@ -14,6 +16,11 @@ import ru.perminov.tender.service.SettingsService;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -59,6 +66,50 @@ public class EmailServiceImpl implements EmailService {
         }
     }
 
+    @Override
+    public Map<UUID, String> sendNotifications(List<Notification> notifications) {
+        Map<UUID, String> failures = new HashMap<>();
+        if (!isEmailEnabled()) {
+            notifications.forEach(notification -> failures.put(notification.getId(), "Email notifications disabled"));
+            return failures;
+        }
+
+        String from = getFromEmail();
+        SimpleMailMessage[] messages = new SimpleMailMessage[notifications.size()];
+        Map<SimpleMailMessage, UUID> ids = new IdentityHashMap<>();
+        for (int i = 0; i < messages.length; i++) {
+            Notification notification = notifications.get(i);
+            SimpleMailMessage mailMessage = new SimpleMailMessage();
+            mailMessage.setFrom(from);
+            mailMessage.setTo(notification.getRecipientEmail());
+            mailMessage.setSubject(notification.getTitle());
+            mailMessage.setText(notification.getMessage());
+            messages[i] = mailMessage;
+            ids.put(mailMessage, notification.getId());
+        }
+
+        try {
+            // JavaMailSender отправляет весь массив через одно подключение к SMTP-серверу
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            e.getFailedMessages().forEach((message, error) -> {
+                UUID id = ids.get(message);
+                if (id != null) {
+                    failures.put(id, error.getMessage());
+                }
+            });
+            if (failures.isEmpty()) {
+                // Письма ушли, ошибка возникла при закрытии соединения
+                log.warn("Batch of {} emails sent with error: {}", messages.length, e.getMessage());
+            }
+        } catch (MailException e) {
+            log.error("Error sending batch of {} emails", messages.length, e);
+            ids.values().forEach(id -> failures.put(id, e.getMessage()));
+        }
+        log.debug("Batch of {} emails sent, {} failed", messages.length, failures.size());
+        return failures;
+    }
+
     @Override
     public boolean sendEmail(String to, String subject, String message) {
         if (!isEmailEnabled()) {
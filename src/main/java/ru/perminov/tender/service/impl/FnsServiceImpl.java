@@ -1,188 +1,222 @@
 package ru.perminov.tender.service.impl;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import ru.perminov.tender.dto.FnsCompanyLookupDto;
+import ru.perminov.tender.model.FnsCompanyCache;
+import ru.perminov.tender.repository.FnsCompanyCacheRepository;
 import ru.perminov.tender.service.FnsService;
-import ru.perminov.tender.service.SettingsService;
+import ru.perminov.tender.service.fns.FnsClient;
 
-import java.util.HashMap;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск контрагентов в реестре ФНС с постоянным кэшем по ИНН (fns_company_cache).
+ * Карточка из кэша отдается без обращения к реестру, пока не истек fns.cache.ttl; одновременные запросы
+ * одного ИНН сводятся к одному обращению. Если реестр недоступен, отдается устаревшая карточка из кэша
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FnsServiceImpl implements FnsService {
 
-    private final SettingsService settingsService;
-    private final RestTemplate restTemplate;
+    public static final int MAX_BATCH = 500;
+
+    private static final Pattern INN_PATTERN = Pattern.compile("\\d{10}|\\d{12}");
+    private static final TypeReference<Map<String, Object>> COMPANY_TYPE = new TypeReference<>() {};
+
+    private final FnsClient fnsClient;
+    private final FnsCompanyCacheRepository cacheRepository;
     private final ObjectMapper objectMapper;
 
+    @Value("${fns.cache.ttl:2592000000}")
+    private long ttlMillis;
+
+    @Value("${fns.cache.not-found-ttl:86400000}")
+    private long notFoundTtlMillis;
+
+    @Value("${fns.bulk.parallelism:4}")
+    private int bulkParallelism;
+
+    private final Map<String, CompletableFuture<Optional<Map<String, Object>>>> inFlight = new ConcurrentHashMap<>();
+    private ExecutorService bulkExecutor;
+
+    @PostConstruct
+    void startExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        // Общий пул для всех пакетных запросов: параллельность обращений к реестру ограничена независимо от их числа
+        bulkExecutor = Executors.newFixedThreadPool(Math.max(1, bulkParallelism), runnable -> {
+            Thread thread = new Thread(runnable, "fns-lookup-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        bulkExecutor.shutdownNow();
+    }
+
     @Override
     public Map<String, Object> searchCompany(String inn) {
+        String normalized = normalizeInn(inn);
         try {
-            // Получаем API ключ из настроек
-            String apiKey = settingsService.getFnsApiKey();
-            if (apiKey == null || apiKey.trim().isEmpty()) {
-                throw new RuntimeException("API ключ ФНС не настроен");
-            }
-            apiKey = cleanApiKey(apiKey);
-
-            // 1. Сначала делаем поиск по ИНН
-            String searchUrl = "https://api-fns.ru/api/search?q=" + inn + "&key=" + apiKey;
-            log.info("Выполняем поиск контрагента по ИНН: {}", inn);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-            
-            ResponseEntity<String> searchResponse = restTemplate.exchange(
-                searchUrl, HttpMethod.GET, new HttpEntity<>(headers), String.class);
-
-            JsonNode searchData = objectMapper.readTree(searchResponse.getBody());
-            log.info("Ответ от API ФНС (поиск): {}", searchResponse.getBody());
-
-            if (!searchData.has("items") || !searchData.get("items").isArray() || searchData.get("items").isEmpty()) {
-                throw new RuntimeException("Контрагент с ИНН " + inn + " не найден");
-            }
-            JsonNode searchItem = searchData.get("items").get(0);
-
-            // 2. Теперь получаем подробную информацию через /egr
-            String egrUrl = "https://api-fns.ru/api/egr?req=" + inn + "&key=" + apiKey;
-            log.info("Получаем подробную информацию о контрагенте");
-            
-            ResponseEntity<String> egrResponse = restTemplate.exchange(
-                egrUrl, HttpMethod.GET, new HttpEntity<>(headers), String.class);
-
-            JsonNode egrData = objectMapper.readTree(egrResponse.getBody());
-            log.info("Ответ от API ФНС (ЕГР): {}", egrResponse.getBody());
-
-            Map<String, Object> result = new HashMap<>();
-            boolean egrHasData = egrData.has("items") && egrData.get("items").isArray() && !egrData.get("items").isEmpty();
-
-            if (egrHasData) {
-                JsonNode egrItem = egrData.get("items").get(0);
-                if (egrItem.has("ЮЛ")) {
-                    parseYurLico(result, egrItem.get("ЮЛ"));
-                } else if (egrItem.has("ИП")) {
-                    parseIp(result, egrItem.get("ИП"));
-                } else {
-                    log.warn("Не удалось определить ЮЛ/ИП в /egr ответе, используем данные из /search");
-                    parseFromSearchItem(result, searchItem);
-                }
+            return lookup(normalized, cacheRepository.findById(normalized).orElse(null))
+                    .orElseThrow(() -> new RuntimeException("Контрагент с ИНН " + normalized + " не найден"));
+        } catch (RuntimeException e) {
+            log.error("Ошибка при поиске компании по ИНН {}: {}", normalized, e.getMessage());
+            throw new RuntimeException("Ошибка при получении данных о компании: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Поиск пачки ИНН: кэш читается одним запросом, недостающие карточки запрашиваются параллельно
+     * (не больше fns.bulk.parallelism обращений одновременно). Повторы ИНН возвращаются один раз,
+     * порядок результатов - порядок первого появления ИНН
+     */
+    @Override
+    public List<FnsCompanyLookupDto> searchCompanies(List<String> inns) {
+        if (inns.size() > MAX_BATCH) {
+            throw new RuntimeException("Слишком много ИНН в запросе: " + inns.size() + ", максимум " + MAX_BATCH);
+        }
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String inn : inns) {
+            distinct.add(inn != null ? inn.replaceAll("\\s", "") : "");
+        }
+        Map<String, FnsCompanyCache> cached = cacheRepository.findAllById(distinct.stream()
+                        .filter(inn -> INN_PATTERN.matcher(inn).matches()).toList()).stream()
+                .collect(Collectors.toMap(FnsCompanyCache::getInn, Function.identity()));
+
+        List<CompletableFuture<FnsCompanyLookupDto>> results = new ArrayList<>(distinct.size());
+        int remote = 0;
+        for (String inn : distinct) {
+            FnsCompanyCache row = cached.get(inn);
+            if (!INN_PATTERN.matcher(inn).matches() || (row != null && isFresh(row))) {
+                results.add(CompletableFuture.completedFuture(toLookup(inn, row)));
             } else {
-                log.warn("Ответ от /egr пуст, используем данные из /search");
-                parseFromSearchItem(result, searchItem);
+                remote++;
+                results.add(CompletableFuture.supplyAsync(() -> toLookup(inn, row), bulkExecutor));
             }
-            
-            return result;
-
-        } catch (Exception e) {
-            log.error("Ошибка при поиске компании по ИНН: {}", inn, e);
-            throw new RuntimeException("Ошибка при получении данных о компании: " + e.getMessage());
         }
+        log.info("Пакетный поиск контрагентов: {} ИНН, из кэша {}, запросов в реестр {}",
+                distinct.size(), distinct.size() - remote, remote);
+        return results.stream().map(CompletableFuture::join).toList();
     }
 
-    private void parseFromSearchItem(Map<String, Object> result, JsonNode searchItem) {
-        if (searchItem.has("ЮЛ")) {
-            JsonNode yul = searchItem.get("ЮЛ");
-            result.put("name", getJsonText(yul, "НаимПолнЮЛ"));
-            result.put("shortName", getJsonText(yul, "НаимСокрЮЛ"));
-            result.put("inn", getJsonText(yul, "ИНН"));
-            result.put("ogrn", getJsonText(yul, "ОГРН"));
-            result.put("head", getJsonText(yul, "Руководитель", "ФИОПолн"));
-            result.put("address", getJsonText(yul, "АдресПолн"));
-            result.put("kpp", getJsonText(yul, "КПП"));
-            result.put("legalForm", "Юридическое лицо"); // Fallback
-        } else if (searchItem.has("ИП")) {
-            JsonNode ip = searchItem.get("ИП");
-            String fullName = getJsonText(ip, "ФИОПолн");
-            result.put("name", fullName);
-            result.put("shortName", "ИП " + fullName);
-            result.put("inn", getJsonText(ip, "ИНН"));
-            result.put("ogrn", getJsonText(ip, "ОГРНИП"));
-            result.put("head", fullName);
-            result.put("address", ""); // Not in search result for ИП
-            result.put("kpp", "");
-            result.put("legalForm", "Индивидуальный предприниматель");
+    private FnsCompanyLookupDto toLookup(String inn, FnsCompanyCache row) {
+        if (!INN_PATTERN.matcher(inn).matches()) {
+            return new FnsCompanyLookupDto(inn, null, "Некорректный ИНН");
+        }
+        try {
+            return lookup(inn, row)
+                    .map(company -> new FnsCompanyLookupDto(inn, company, null))
+                    .orElseGet(() -> new FnsCompanyLookupDto(inn, null, "Контрагент с ИНН " + inn + " не найден"));
+        } catch (RuntimeException e) {
+            log.warn("Ошибка при поиске компании по ИНН {}: {}", inn, e.getMessage());
+            return new FnsCompanyLookupDto(inn, null, e.getMessage());
         }
     }
 
-    private void parseYurLico(Map<String, Object> result, JsonNode company) {
-        result.put("name", getJsonText(company, "НаимПолнЮЛ"));
-        result.put("shortName", getJsonText(company, "НаимСокрЮЛ"));
-        result.put("inn", getJsonText(company, "ИНН"));
-        result.put("kpp", getJsonText(company, "КПП"));
-        result.put("ogrn", getJsonText(company, "ОГРН"));
-        result.put("ogrnDate", getJsonText(company, "ДатаРег"));
-        result.put("legalForm", getJsonText(company, "ОКОПФ"));
-        result.put("address", getJsonText(company, "Адрес", "АдресПолн"));
-        result.put("head", getJsonText(company, "Руководитель", "ФИОПолн"));
-        
-        JsonNode contacts = company.get("Контакты");
-        if (contacts != null && contacts.isObject()) {
-            result.put("phone", getFirstInJsonArray(contacts, "Телефон"));
-            result.put("email", getFirstInJsonArray(contacts, "e-mail"));
-        } else {
-             result.put("phone", "");
-             result.put("email", "");
+    private Optional<Map<String, Object>> lookup(String inn, FnsCompanyCache cached) {
+        if (cached != null && isFresh(cached)) {
+            return read(cached);
+        }
+        try {
+            return fetchCoalesced(inn);
+        } catch (RuntimeException e) {
+            if (cached != null && cached.getData() != null) {
+                log.warn("Реестр ФНС недоступен ({}), используем карточку ИНН {} от {}", e.getMessage(), inn, cached.getFetchedAt());
+                return read(cached);
+            }
+            throw e;
         }
     }
 
-    private void parseIp(Map<String, Object> result, JsonNode ip) {
-        String fullName = getJsonText(ip, "ФИОПолн");
-        result.put("name", fullName);
-        result.put("shortName", "ИП " + getJsonText(ip, "ФИОСокр"));
-        result.put("inn", getJsonText(ip, "ИННФЛ"));
-        result.put("kpp", ""); // ИП has no KPP
-        result.put("ogrn", getJsonText(ip, "ОГРНИП"));
-        result.put("ogrnDate", getJsonText(ip, "ДатаОГРН"));
-        result.put("legalForm", "Индивидуальный предприниматель");
-        result.put("address", getJsonText(ip, "Адрес", "АдресПолн"));
-        result.put("head", fullName); // Head is the person themselves
-
-        JsonNode contacts = ip.get("Контакты");
-        if (contacts != null && contacts.isObject()) {
-            result.put("phone", getFirstInJsonArray(contacts, "Телефон"));
-            result.put("email", getFirstInJsonArray(contacts, "e-mail"));
-        } else {
-             result.put("phone", "");
-             result.put("email", "");
+    /**
+     * Одно обращение к реестру на ИНН: остальные запросы того же ИНН ждут результата уже выполняющегося
+     */
+    private Optional<Map<String, Object>> fetchCoalesced(String inn) {
+        CompletableFuture<Optional<Map<String, Object>>> own = new CompletableFuture<>();
+        CompletableFuture<Optional<Map<String, Object>>> running = inFlight.putIfAbsent(inn, own);
+        if (running != null) {
+            log.debug("Поиск по ИНН {} уже выполняется, ожидаем его результат", inn);
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            log.info("Выполняем поиск контрагента в реестре ФНС по ИНН: {}", inn);
+            Optional<Map<String, Object>> company = fnsClient.findByInn(inn).map(Collections::unmodifiableMap);
+            store(inn, company);
+            own.complete(company);
+            return company;
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(inn, own);
         }
     }
 
-    private String cleanApiKey(String apiKey) {
-        if (apiKey != null) {
-            return apiKey.trim().replaceAll("^\"|\"$", "");
+    private void store(String inn, Optional<Map<String, Object>> company) {
+        try {
+            FnsCompanyCache row = new FnsCompanyCache();
+            row.setInn(inn);
+            row.setData(company.isPresent() ? objectMapper.writeValueAsString(company.get()) : null);
+            row.setFetchedAt(LocalDateTime.now());
+            cacheRepository.save(row);
+        } catch (JsonProcessingException | RuntimeException e) {
+            // Карточка уже получена, ошибка записи кэша не должна ломать поиск
+            log.warn("Не удалось сохранить карточку ИНН {} в кэш: {}", inn, e.getMessage());
         }
-        return apiKey;
     }
 
-    private String getJsonText(JsonNode node, String fieldName) {
-        if (node != null && node.has(fieldName) && node.get(fieldName).isTextual()) {
-            return node.get(fieldName).asText("");
-        }
-        return "";
+    private boolean isFresh(FnsCompanyCache row) {
+        long ttl = row.getData() != null ? ttlMillis : notFoundTtlMillis;
+        return row.getFetchedAt().isAfter(LocalDateTime.now().minusNanos(ttl * 1_000_000));
     }
 
-    private String getJsonText(JsonNode node, String objectName, String fieldName) {
-        if (node != null && node.has(objectName) && node.get(objectName).isObject()) {
-            JsonNode childNode = node.get(objectName);
-            return getJsonText(childNode, fieldName);
+    private Optional<Map<String, Object>> read(FnsCompanyCache row) {
+        if (row.getData() == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(row.getData(), COMPANY_TYPE));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Поврежденная запись кэша ФНС для ИНН " + row.getInn() + ": " + e.getMessage(), e);
         }
-        return "";
     }
 
-    private String getFirstInJsonArray(JsonNode node, String arrayName) {
-        if (node != null && node.has(arrayName) && node.get(arrayName).isArray() && !node.get(arrayName).isEmpty()) {
-            return node.get(arrayName).get(0).asText("");
+    private static String normalizeInn(String inn) {
+        String normalized = inn != null ? inn.replaceAll("\\s", "") : "";
+        if (!INN_PATTERN.matcher(normalized).matches()) {
+            throw new RuntimeException("Некорректный ИНН: " + inn);
         }
-        return "";
+        return normalized;
     }
-} 
\ No newline at end of file
+}
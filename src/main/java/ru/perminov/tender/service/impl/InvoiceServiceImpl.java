@@ -1,7 +1,9 @@
 package ru.perminov.tender.service.impl;
 
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.perminov.tender.dto.InvoiceDto;
@@ -9,17 +11,23 @@ import ru.perminov.tender.dto.InvoiceDtoNew;
 import ru.perminov.tender.dto.InvoiceDtoUpdate;
 import ru.perminov.tender.dto.InvoiceItemDto;
 import ru.perminov.tender.dto.InvoiceItemDtoNew;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.exception.ResourceNotFoundException;
 import ru.perminov.tender.model.*;
 import ru.perminov.tender.model.company.Company;
 import ru.perminov.tender.repository.*;
 import ru.perminov.tender.repository.company.CompanyRepository;
+import ru.perminov.tender.repository.listing.Listings;
+import ru.perminov.tender.repository.listing.SortField;
 import ru.perminov.tender.service.InvoiceService;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -29,6 +37,13 @@ import java.util.stream.Collectors;
 @Transactional
 public class InvoiceServiceImpl implements InvoiceService {
 
+    private static final Map<String, SortField<Invoice>> INVOICE_SORT_FIELDS = Map.of(
+            "invoiceDate", SortField.of("invoiceDate", LocalDate.class, Invoice::getInvoiceDate),
+            "dueDate", SortField.of("dueDate", LocalDate.class, Invoice::getDueDate),
+            "invoiceNumber", SortField.of("invoiceNumber", String.class, Invoice::getInvoiceNumber),
+            "totalAmount", SortField.of("totalAmount", BigDecimal.class, Invoice::getTotalAmount)
+    );
+
     private final InvoiceRepository invoiceRepository;
     private final ContractRepository contractRepository;
     private final CompanyRepository companyRepository;
@@ -172,6 +187,40 @@ public class InvoiceServiceImpl implements InvoiceService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponseDto<InvoiceDto> getInvoicePage(ListingRequest listing, String status, UUID contractId, UUID supplierId,
+                                                      UUID requestId, LocalDate dateFrom, LocalDate dateTo, String search) {
+        Invoice.InvoiceStatus invoiceStatus = Listings.parseEnum(Invoice.InvoiceStatus.class, status);
+        Specification<Invoice> spec = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (invoiceStatus != null) {
+                predicates.add(cb.equal(root.get("status"), invoiceStatus));
+            }
+            if (contractId != null) {
+                predicates.add(cb.equal(root.get("contract").get("id"), contractId));
+            }
+            if (supplierId != null) {
+                predicates.add(cb.equal(root.get("supplier").get("id"), supplierId));
+            }
+            if (requestId != null) {
+                predicates.add(cb.equal(root.get("request").get("id"), requestId));
+            }
+            if (dateFrom != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("invoiceDate"), dateFrom));
+            }
+            if (dateTo != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("invoiceDate"), dateTo));
+            }
+            if (search != null && !search.isBlank()) {
+                predicates.add(cb.like(cb.lower(root.get("invoiceNumber")), Listings.likePattern(search), '\\'));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+        return Listings.fetch(invoiceRepository, spec, listing, INVOICE_SORT_FIELDS, "invoiceDate", Invoice::getId,
+                invoices -> invoices.stream().map(InvoiceDto::fromEntity).collect(Collectors.toList()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<InvoiceDto> getInvoicesByRequest(UUID requestId) {
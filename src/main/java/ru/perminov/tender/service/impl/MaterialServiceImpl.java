@@ -2,12 +2,8 @@ package ru.perminov.tender.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import ru.perminov.tender.dto.ImportResultDto;
@@ -17,6 +13,7 @@ import ru.perminov.tender.dto.material.MaterialDtoUpdate;
 import ru.perminov.tender.mapper.MaterialMapper;
 import ru.perminov.tender.model.Category;
 import ru.perminov.tender.model.Characteristic;
+import ru.perminov.tender.model.ImportType;
 import ru.perminov.tender.model.Material;
 import ru.perminov.tender.model.MaterialType;
 import ru.perminov.tender.model.Unit;
@@ -30,13 +27,19 @@ import org.springframework.security.core.Authentication;
 import ru.perminov.tender.model.User;
 import ru.perminov.tender.service.AuditLogService;
 import ru.perminov.tender.service.MaterialService;
+import ru.perminov.tender.service.importer.ExcelImportSource;
+import ru.perminov.tender.service.importer.ExcelImporter;
+import ru.perminov.tender.service.importer.ImportColumns;
+import ru.perminov.tender.service.importer.ImportDefinition;
+import ru.perminov.tender.service.importer.ImportRowException;
 
-import java.io.InputStream;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -44,7 +47,7 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional
-public class MaterialServiceImpl implements MaterialService {
+public class MaterialServiceImpl implements MaterialService, ExcelImportSource {
 
     private final MaterialRepository materialRepository;
     private final CategoryRepository categoryRepository;
@@ -53,6 +56,7 @@ public class MaterialServiceImpl implements MaterialService {
     private final MaterialMapper materialMapper;
     private final AuditLogService auditLogService;
     private final UserRepository userRepository;
+    private final ExcelImporter excelImporter;
 
     private User getCurrentUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -151,112 +155,105 @@ public class MaterialServiceImpl implements MaterialService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ImportResultDto importFromExcel(MultipartFile file) {
-        ImportResultDto result = new ImportResultDto();
-        try (InputStream is = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(is)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) { // skipping header
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-                try {
-                    String name = getCellValueAsString(row.getCell(1));
-                    String description = getCellValueAsString(row.getCell(2));
-                    String materialTypeName = getCellValueAsString(row.getCell(3));
-                    String link = getCellValueAsString(row.getCell(4));
-                    String code = getCellValueAsString(row.getCell(5));
-                    String categoryName = getCellValueAsString(row.getCell(6));
-                    String unitsStr = getCellValueAsString(row.getCell(7));
+        return excelImporter.importFile(file, importDefinition(Map.of()));
+    }
 
-                    if (name == null || name.isBlank()) {
-                        result.addError(i + 1, "Название не может быть пустым.");
-                        continue;
-                    }
-                    if (materialRepository.existsByName(name)) {
-                        result.addError(i + 1, "Материал с названием '" + name + "' уже существует.");
-                        continue;
-                    }
+    @Override
+    public ImportType importType() {
+        return ImportType.MATERIALS;
+    }
 
-                    Material material = new Material();
-                    material.setName(name);
-                    material.setDescription(description);
-                    material.setLink(link);
-                    material.setCode(code);
+    @Override
+    @Transactional(readOnly = true)
+    public ImportDefinition<Material> importDefinition(Map<String, Object> columnMapping) {
+        // Справочники загружаются один раз, новые значения добавляются в них по ходу импорта
+        Set<String> existingNames = new HashSet<>(materialRepository.findAllNames());
+        Map<String, MaterialType> materialTypes = materialTypeRepository.findAll().stream()
+                .collect(Collectors.toMap(MaterialType::getName, Function.identity(), (a, b) -> a));
+        Map<String, Category> categories = categoryRepository.findAll().stream()
+                .collect(Collectors.toMap(Category::getName, Function.identity(), (a, b) -> a));
+        Map<String, Unit> units = unitRepository.findAll().stream()
+                .collect(Collectors.toMap(Unit::getName, Function.identity(), (a, b) -> a));
 
-                    // Тип материала по имени
-                    if (materialTypeName != null && !materialTypeName.isBlank()) {
-                        MaterialType type = materialTypeRepository.findByName(materialTypeName)
-                                .orElse(null);
-                        if (type == null) {
-                            // создать новый тип
-                            type = new MaterialType();
-                            type.setName(materialTypeName);
-                            type = materialTypeRepository.save(type);
-                        }
-                        material.setMaterialType(type);
-                    } else {
-                        material.setMaterialType(null);
-                    }
+        ImportColumns columns = ImportColumns.of(Map.of(
+                "name", 1, "description", 2, "materialType", 3, "link", 4, "code", 5, "category", 6, "units", 7
+        ), columnMapping);
 
-                    // Категория по имени
-                    if (categoryName != null && !categoryName.isBlank()) {
-                        Category category = categoryRepository.findByName(categoryName)
-                                .orElse(null);
-                        if (category == null) {
-                            // создать новую категорию
-                            category = new Category();
-                            category.setName(categoryName);
-                            category = categoryRepository.save(category);
-                        }
-                        material.setCategory(category);
-                    } else {
-                        material.setCategory(null);
-                    }
+        return new ImportDefinition<>("materials", columns, row -> {
+            String name = columns.get(row, "name");
+            String materialTypeName = columns.get(row, "materialType");
+            String categoryName = columns.get(row, "category");
+            String unitsStr = columns.get(row, "units");
 
-                    // Единицы измерения по имени (через запятую)
-                    Set<Unit> units = new HashSet<>();
-                    if (unitsStr != null && !unitsStr.isBlank()) {
-                        String[] unitNames = unitsStr.split(",");
-                        for (String unitName : unitNames) {
-                            String trimmed = unitName.trim();
-                            if (!trimmed.isEmpty()) {
-                                Unit unit = unitRepository.findByName(trimmed).orElse(null);
-                                if (unit == null) {
-                                    // создать новую единицу измерения
-                                    unit = new Unit();
-                                    unit.setName(trimmed);
-                                    unit.setShortName(trimmed);
-                                    unit = unitRepository.save(unit);
-                                }
-                                units.add(unit);
-                            }
-                        }
-                    }
-                    material.setUnits(units);
+            if (name == null || name.isBlank()) {
+                throw new ImportRowException("Название не может быть пустым.");
+            }
+            if (!existingNames.add(name)) {
+                throw new ImportRowException("Материал с названием '" + name + "' уже существует.");
+            }
 
-                    materialRepository.save(material);
-                    result.incrementImported();
-                } catch (Exception e) {
-                    result.addError(i + 1, "Ошибка в строке: " + e.getMessage());
+            Material material = new Material();
+            material.setName(name);
+            material.setDescription(columns.get(row, "description"));
+            material.setLink(columns.get(row, "link"));
+            material.setCode(columns.get(row, "code"));
+
+            // Тип материала и категория по имени, отсутствующие создаются и сохраняются вместе с пачкой
+            if (materialTypeName != null && !materialTypeName.isBlank()) {
+                material.setMaterialType(materialTypes.computeIfAbsent(materialTypeName, typeName -> {
+                    MaterialType type = new MaterialType();
+                    type.setName(typeName);
+                    return type;
+                }));
+            }
+            if (categoryName != null && !categoryName.isBlank()) {
+                material.setCategory(categories.computeIfAbsent(categoryName, newName -> {
+                    Category category = new Category();
+                    category.setName(newName);
+                    return category;
+                }));
+            }
+
+            // Единицы измерения по имени (через запятую)
+            Set<Unit> materialUnits = new HashSet<>();
+            if (unitsStr != null && !unitsStr.isBlank()) {
+                for (String unitName : unitsStr.split(",")) {
+                    String trimmed = unitName.trim();
+                    if (!trimmed.isEmpty()) {
+                        materialUnits.add(units.computeIfAbsent(trimmed, newName -> {
+                            Unit unit = new Unit();
+                            unit.setName(newName);
+                            unit.setShortName(newName);
+                            return unit;
+                        }));
+                    }
                 }
             }
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка импорта файла: " + e.getMessage(), e);
-        }
-        return result;
+            material.setUnits(materialUnits);
+            return material;
+        }, this::saveImportedMaterials);
     }
 
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) {
-            return null;
-        }
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                return String.valueOf((long) cell.getNumericCellValue());
-            default:
-                return null;
+    /**
+     * Сохраняет пачку импортированных материалов вместе с созданными при разборе типами, категориями
+     * и единицами (у них еще нет id) в транзакции пачки
+     */
+    private void saveImportedMaterials(List<Material> materials) {
+        for (Material material : materials) {
+            if (material.getMaterialType() != null && material.getMaterialType().getId() == null) {
+                materialTypeRepository.save(material.getMaterialType());
+            }
+            if (material.getCategory() != null && material.getCategory().getId() == null) {
+                categoryRepository.save(material.getCategory());
+            }
+            for (Unit unit : material.getUnits()) {
+                if (unit.getId() == null) {
+                    unitRepository.save(unit);
+                }
+            }
         }
+        materialRepository.saveAll(materials);
     }
 } 
\ No newline at end of file
@@ -2,31 +2,37 @@ package ru.perminov.tender.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.perminov.tender.dto.MaterialTypeDtoNew;
 import ru.perminov.tender.dto.MaterialTypeDtoUpdate;
 import ru.perminov.tender.mapper.MaterialTypeMapper;
+import ru.perminov.tender.model.ImportType;
 import ru.perminov.tender.model.MaterialType;
 import ru.perminov.tender.repository.MaterialTypeRepository;
 import ru.perminov.tender.service.MaterialTypeService;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import ru.perminov.tender.dto.ImportResultDto;
+import ru.perminov.tender.service.importer.ExcelImportSource;
+import ru.perminov.tender.service.importer.ExcelImporter;
+import ru.perminov.tender.service.importer.ImportColumns;
+import ru.perminov.tender.service.importer.ImportDefinition;
+import ru.perminov.tender.service.importer.ImportRowException;
 
-import java.io.InputStream;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class MaterialTypeServiceImpl implements MaterialTypeService {
+public class MaterialTypeServiceImpl implements MaterialTypeService, ExcelImportSource {
 
     private final MaterialTypeRepository materialTypeRepository;
     private final MaterialTypeMapper materialTypeMapper;
+    private final ExcelImporter excelImporter;
 
     @Override
     @Transactional
@@ -64,53 +70,33 @@ public class MaterialTypeServiceImpl implements MaterialTypeService {
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ImportResultDto importFromExcel(org.springframework.web.multipart.MultipartFile file) {
-        ImportResultDto result = new ImportResultDto();
-        try (InputStream is = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(is)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) { // skipping header
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-
-                try {
-                    String name = getCellValueAsString(row.getCell(1));
-
-                    if (name == null || name.isBlank()) {
-                        result.addError(i + 1, "Название не может быть пустым.");
-                        continue;
-                    }
+        return excelImporter.importFile(file, importDefinition(Map.of()));
+    }
 
-                    if (materialTypeRepository.existsByName(name)) {
-                        result.addError(i + 1, "Тип материала с названием '" + name + "' уже существует.");
-                        continue;
-                    }
-                    MaterialType materialType = new MaterialType();
-                    materialType.setName(name);
-                    materialTypeRepository.save(materialType);
-                    result.incrementImported();
-                } catch (Exception e) {
-                    result.addError(i + 1, "Ошибка в строке: " + e.getMessage());
-                }
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка импорта файла: " + e.getMessage(), e);
-        }
-        return result;
+    @Override
+    public ImportType importType() {
+        return ImportType.MATERIAL_TYPES;
     }
 
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) {
-            return null;
-        }
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                return String.valueOf((long) cell.getNumericCellValue());
-            default:
-                return null;
-        }
+    @Override
+    public ImportDefinition<MaterialType> importDefinition(Map<String, Object> columnMapping) {
+        Set<String> existingNames = materialTypeRepository.findAll().stream()
+                .map(MaterialType::getName)
+                .collect(Collectors.toCollection(HashSet::new));
+        ImportColumns columns = ImportColumns.of(Map.of("name", 1), columnMapping);
+        return new ImportDefinition<>("material-types", columns, row -> {
+            String name = columns.get(row, "name");
+            if (name == null || name.isBlank()) {
+                throw new ImportRowException("Название не может быть пустым.");
+            }
+            if (!existingNames.add(name)) {
+                throw new ImportRowException("Тип материала с названием '" + name + "' уже существует.");
+            }
+            MaterialType materialType = new MaterialType();
+            materialType.setName(name);
+            return materialType;
+        }, materialTypeRepository::saveAll);
     }
 } 
\ No newline at end of file
@@ -4,15 +4,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.perminov.tender.dto.NotificationDispatchStatsDto;
 import ru.perminov.tender.dto.NotificationDto;
 import ru.perminov.tender.mapper.NotificationMapper;
 import ru.perminov.tender.model.Notification;
 import ru.perminov.tender.model.Tender;
 import ru.perminov.tender.model.SupplierProposal;
-import ru.perminov.tender.model.company.Company;
 import ru.perminov.tender.repository.NotificationRepository;
 import ru.perminov.tender.repository.company.CompanyRepository;
-import ru.perminov.tender.service.EmailService;
 import ru.perminov.tender.service.NotificationService;
 import ru.perminov.tender.service.SettingsService;
 import ru.perminov.tender.service.AuditLogService;
@@ -20,10 +19,15 @@ import ru.perminov.tender.repository.UserRepository;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
 import ru.perminov.tender.model.User;
+import ru.perminov.tender.service.notification.NotificationDispatcher;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -34,7 +38,7 @@ public class NotificationServiceImpl implements NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final NotificationMapper notificationMapper;
-    private final EmailService emailService;
+    private final NotificationDispatcher notificationDispatcher;
     private final SettingsService settingsService;
     private final CompanyRepository companyRepository;
     private final AuditLogService auditLogService;
@@ -61,21 +65,7 @@ public class NotificationServiceImpl implements NotificationService {
         String title = "Опубликован новый тендер: " + tender.getTitle();
         String message = createTenderPublishedMessage(tender);
         
-        for (String email : supplierEmails) {
-            Company company = companyRepository.findByEmail(email).orElse(null);
-            if (company != null && Boolean.FALSE.equals(company.getSendNotifications())) {
-                log.info("Уведомления для компании {} отключены", company.getId());
-                continue;
-            }
-            createAndSendNotification(
-                Notification.NotificationType.TENDER_PUBLISHED,
-                title,
-                message,
-                email,
-                tender,
-                null
-            );
-        }
+        enqueueNotifications(Notification.NotificationType.TENDER_PUBLISHED, title, message, supplierEmails, tender, null);
     }
 
     @Override
@@ -90,21 +80,7 @@ public class NotificationServiceImpl implements NotificationService {
         String title = "Напоминание о дедлайне тендера: " + tender.getTitle();
         String message = createDeadlineReminderMessage(tender);
         
-        for (String email : supplierEmails) {
-            Company company = companyRepository.findByEmail(email).orElse(null);
-            if (company != null && Boolean.FALSE.equals(company.getSendNotifications())) {
-                log.info("Уведомления для компании {} отключены", company.getId());
-                continue;
-            }
-            createAndSendNotification(
-                Notification.NotificationType.TENDER_REMINDER,
-                title,
-                message,
-                email,
-                tender,
-                null
-            );
-        }
+        enqueueNotifications(Notification.NotificationType.TENDER_REMINDER, title, message, supplierEmails, tender, null);
     }
 
     @Override
@@ -122,19 +98,8 @@ public class NotificationServiceImpl implements NotificationService {
         // Уведомляем заказчика (владельца тендера)
         if (proposal.getTender().getCustomer() != null && 
             proposal.getTender().getCustomer().getEmail() != null) {
-            Company company = companyRepository.findByEmail(proposal.getTender().getCustomer().getEmail()).orElse(null);
-            if (company != null && Boolean.FALSE.equals(company.getSendNotifications())) {
-                log.info("Уведомления для компании {} отключены", company.getId());
-                return;
-            }
-            createAndSendNotification(
-                Notification.NotificationType.PROPOSAL_SUBMITTED,
-                title,
-                message,
-                proposal.getTender().getCustomer().getEmail(),
-                proposal.getTender(),
-                proposal
-            );
+            enqueueNotifications(Notification.NotificationType.PROPOSAL_SUBMITTED, title, message,
+                    List.of(proposal.getTender().getCustomer().getEmail()), proposal.getTender(), proposal);
         }
     }
 
@@ -150,19 +115,8 @@ public class NotificationServiceImpl implements NotificationService {
         String title = "Тендер присужден: " + tender.getTitle();
         String message = createTenderAwardedMessage(tender);
         
-        Company company = companyRepository.findByEmail(winnerSupplierEmail).orElse(null);
-        if (company != null && Boolean.FALSE.equals(company.getSendNotifications())) {
-            log.info("Уведомления для компании {} отключены", company.getId());
-            return;
-        }
-        createAndSendNotification(
-            Notification.NotificationType.TENDER_AWARDED,
-            title,
-            message,
-            winnerSupplierEmail,
-            tender,
-            null
-        );
+        enqueueNotifications(Notification.NotificationType.TENDER_AWARDED, title, message,
+                Collections.singletonList(winnerSupplierEmail), tender, null);
     }
 
     @Override
@@ -177,21 +131,7 @@ public class NotificationServiceImpl implements NotificationService {
         String title = "Тендер отменен: " + tender.getTitle();
         String message = createTenderCancelledMessage(tender);
         
-        for (String email : supplierEmails) {
-            Company company = companyRepository.findByEmail(email).orElse(null);
-            if (company != null && Boolean.FALSE.equals(company.getSendNotifications())) {
-                log.info("Уведомления для компании {} отключены", company.getId());
-                continue;
-            }
-            createAndSendNotification(
-                Notification.NotificationType.TENDER_CANCELLED,
-                title,
-                message,
-                email,
-                tender,
-                null
-            );
-        }
+        enqueueNotifications(Notification.NotificationType.TENDER_CANCELLED, title, message, supplierEmails, tender, null);
     }
 
     @Override
@@ -206,38 +146,19 @@ public class NotificationServiceImpl implements NotificationService {
         String title = "Приглашение к участию в тендере: " + tender.getTitle();
         String message = createSupplierInvitationMessage(tender, supplierName);
         
-        Company company = companyRepository.findByEmail(supplierEmail).orElse(null);
-        if (company != null && Boolean.FALSE.equals(company.getSendNotifications())) {
-            log.info("Уведомления для компании {} отключены", company.getId());
-            return;
-        }
-        createAndSendNotification(
-            Notification.NotificationType.SUPPLIER_INVITATION,
-            title,
-            message,
-            supplierEmail,
-            tender,
-            null
-        );
+        enqueueNotifications(Notification.NotificationType.SUPPLIER_INVITATION, title, message,
+                Collections.singletonList(supplierEmail), tender, null);
     }
 
     @Override
-    @Transactional
     public void sendPendingNotifications() {
-        log.info("Отправка ожидающих уведомлений");
-        
-        List<Notification> pendingNotifications = notificationRepository.findByStatus(Notification.NotificationStatus.PENDING);
-        
-        for (Notification notification : pendingNotifications) {
-            boolean success = emailService.sendNotification(notification);
-            if (success) {
-                notificationRepository.save(notification);
-                log.info("Уведомление отправлено: {}", notification.getId());
-                auditLogService.logSimple(getCurrentUser(), "SEND_NOTIFICATION", "Notification", notification.getId().toString(), "Отправлено уведомление");
-            } else {
-                log.error("Ошибка отправки уведомления: {}", notification.getId());
-            }
-        }
+        log.info("Запуск отправки ожидающих уведомлений");
+        notificationDispatcher.requestDispatch();
+    }
+
+    @Override
+    public NotificationDispatchStatsDto getDispatchStats() {
+        return notificationDispatcher.getStats();
     }
 
     @Override
@@ -276,14 +197,12 @@ public class NotificationServiceImpl implements NotificationService {
         if (notification.getStatus() == Notification.NotificationStatus.FAILED) {
             notification.setStatus(Notification.NotificationStatus.PENDING);
             notification.setErrorMessage(null);
+            notification.setAttempts(0);
+            notification.setNextAttemptAt(LocalDateTime.now());
             notificationRepository.save(notification);
-            
-            boolean success = emailService.sendNotification(notification);
-            if (success) {
-                notificationRepository.save(notification);
-                auditLogService.logSimple(getCurrentUser(), "RETRY_NOTIFICATION", "Notification", notificationId.toString(), "Повторная отправка уведомления");
-            }
-            return success;
+            auditLogService.logSimple(getCurrentUser(), "RETRY_NOTIFICATION", "Notification", notificationId.toString(), "Повторная отправка уведомления");
+            notificationDispatcher.dispatchAfterCommit();
+            return true;
         }
         return false;
     }
@@ -298,27 +217,44 @@ public class NotificationServiceImpl implements NotificationService {
         notificationRepository.save(notification);
     }
 
-    private void createAndSendNotification(Notification.NotificationType type, String title, String message,
-                                        String recipientEmail, Tender tender, SupplierProposal proposal) {
-        Notification notification = new Notification();
-        notification.setType(type);
-        notification.setTitle(title);
-        notification.setMessage(message);
-        notification.setRecipientEmail(recipientEmail);
-        notification.setTender(tender);
-        notification.setSupplierProposal(proposal);
-        notification.setStatus(Notification.NotificationStatus.PENDING);
-        
-        notification = notificationRepository.save(notification);
-        
-        boolean success = emailService.sendNotification(notification);
-        if (success) {
-            notificationRepository.save(notification);
-            log.info("Уведомление создано и отправлено: {}", notification.getId());
-            auditLogService.logSimple(getCurrentUser(), "CREATE_AND_SEND_NOTIFICATION", "Notification", notification.getId().toString(), "Создано и отправлено уведомление");
-        } else {
-            log.error("Ошибка отправки уведомления: {}", notification.getId());
+    /**
+     * Ставит уведомления в очередь отправки в транзакции вызывающего метода. Письма отправляет
+     * NotificationDispatcher после фиксации транзакции
+     */
+    private void enqueueNotifications(Notification.NotificationType type, String title, String message,
+                                      List<String> recipientEmails, Tender tender, SupplierProposal proposal) {
+        Set<String> disabled = new HashSet<>(companyRepository.findEmailsWithNotificationsDisabled(recipientEmails));
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = new ArrayList<>();
+        for (String email : recipientEmails) {
+            if (email == null || email.isBlank()) {
+                continue;
+            }
+            if (disabled.contains(email)) {
+                log.info("Уведомления для адреса {} отключены", email);
+                continue;
+            }
+            Notification notification = new Notification();
+            notification.setType(type);
+            notification.setTitle(title);
+            notification.setMessage(message);
+            notification.setRecipientEmail(email);
+            notification.setTender(tender);
+            notification.setSupplierProposal(proposal);
+            notification.setStatus(Notification.NotificationStatus.PENDING);
+            notification.setNextAttemptAt(now);
+            notifications.add(notification);
         }
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        User user = getCurrentUser();
+        for (Notification notification : notificationRepository.saveAll(notifications)) {
+            auditLogService.logSimple(user, "CREATE_NOTIFICATION", "Notification", notification.getId().toString(), "Уведомление поставлено в очередь отправки");
+        }
+        log.info("В очередь отправки поставлено {} уведомлений типа {}", notifications.size(), type);
+        notificationDispatcher.dispatchAfterCommit();
     }
 
     private String createTenderPublishedMessage(Tender tender) {
@@ -495,21 +431,7 @@ public class NotificationServiceImpl implements NotificationService {
             String title = "Опубликован новый тендер: " + tender.getTitle();
             String message = createTenderPublishedMessage(tender);
             
-            for (String email : customerEmails) {
-                Company company = companyRepository.findByEmail(email).orElse(null);
-                if (company != null && Boolean.FALSE.equals(company.getSendNotifications())) {
-                    log.info("Уведомления для компании {} отключены", company.getId());
-                    continue;
-                }
-                createAndSendNotification(
-                    Notification.NotificationType.TENDER_PUBLISHED,
-                    title,
-                    message,
-                    email,
-                    tender,
-                    null
-                );
-            }
+            enqueueNotifications(Notification.NotificationType.TENDER_PUBLISHED, title, message, customerEmails, tender, null);
         } else {
             log.warn("Не найдены email адреса заказчиков для уведомлений");
         }
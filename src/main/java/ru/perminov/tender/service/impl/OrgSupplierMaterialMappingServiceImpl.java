@@ -2,7 +2,9 @@ package ru.perminov.tender.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.perminov.tender.dto.OrgSupplierMaterialMappingDto;
+import ru.perminov.tender.dto.OrgSupplierMaterialMappingSaveDto;
 import ru.perminov.tender.mapper.OrgSupplierMaterialMappingMapper;
 import ru.perminov.tender.model.Characteristic;
 import ru.perminov.tender.model.Material;
@@ -12,11 +14,20 @@ import ru.perminov.tender.repository.CharacteristicRepository;
 import ru.perminov.tender.repository.MaterialRepository;
 import ru.perminov.tender.repository.OrgSupplierMaterialMappingRepository;
 import ru.perminov.tender.repository.company.CompanyRepository;
+import ru.perminov.tender.service.MaterialMatchingService;
+import ru.perminov.tender.service.OrgSupplierMaterialMappingCache;
 import ru.perminov.tender.service.OrgSupplierMaterialMappingService;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,12 +38,13 @@ public class OrgSupplierMaterialMappingServiceImpl implements OrgSupplierMateria
     private final MaterialRepository materialRepository;
     private final CharacteristicRepository characteristicRepository;
     private final OrgSupplierMaterialMappingMapper mapper;
+    private final MaterialMatchingService materialMatchingService;
+    private final OrgSupplierMaterialMappingCache mappingCache;
 
 
     @Override
     public Optional<OrgSupplierMaterialMappingDto> find(UUID organizationId, String supplierName, UUID characteristicId) {
-        Optional<OrgSupplierMaterialMapping> orgSupplierMaterialMapping = orgSupplierMaterialMappingRepository.findByOrganizationIdAndSupplierNameAndCharacteristicId(organizationId, supplierName, characteristicId);
-        return orgSupplierMaterialMapping.map(mapper::toDto);
+        return mappingCache.get(organizationId).findByCharacteristic(supplierName, characteristicId);
     }
 
     @Override
@@ -44,42 +56,107 @@ public class OrgSupplierMaterialMappingServiceImpl implements OrgSupplierMateria
 
     @Override
     public List<OrgSupplierMaterialMappingDto> findByOrganization(UUID organizationId) {
-        return orgSupplierMaterialMappingRepository.findByOrganizationId(organizationId).stream()
-                .map(mapper::toDto)
-                .collect(Collectors.toList());
+        return mappingCache.get(organizationId).all();
     }
 
     @Override
+    @Transactional
     public OrgSupplierMaterialMappingDto save(
             UUID organizationId,
             String supplierName,
             UUID materialId,
             UUID characteristicId
     ) {
+        return saveAll(organizationId, List.of(new OrgSupplierMaterialMappingSaveDto(supplierName, materialId, characteristicId)))
+                .get(0);
+    }
+
+    /**
+     * Сохраняет пачку соответствий организации: материалы, характеристики и изменяемые строки читаются
+     * по одному запросу на пачку, существующие соответствия ищутся в кэше организации, вставки идут JDBC-пакетами.
+     * Повтор одного ключа в пачке обновляет одну строку, результат возвращается для каждого элемента по порядку
+     */
+    @Override
+    @Transactional
+    public List<OrgSupplierMaterialMappingDto> saveAll(UUID organizationId, List<OrgSupplierMaterialMappingSaveDto> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        for (OrgSupplierMaterialMappingSaveDto item : items) {
+            if (item.supplierName() == null || item.materialId() == null) {
+                throw new IllegalArgumentException("Для соответствия обязательны наименование поставщика и материал");
+            }
+        }
         Company org = companyRepository.findById(organizationId).orElseThrow();
-        Material mat = materialRepository.findById(materialId).orElseThrow();
-        
-        OrgSupplierMaterialMapping mapping;
-        if (characteristicId != null) {
-            Characteristic cha = characteristicRepository.findById(characteristicId).orElseThrow();
-            mapping = orgSupplierMaterialMappingRepository.findByOrganizationIdAndSupplierNameAndCharacteristicId(organizationId, supplierName, characteristicId)
-                    .orElse(new OrgSupplierMaterialMapping());
+        Map<UUID, Material> materials = loadAll(materialRepository::findAllById, items.stream()
+                .map(OrgSupplierMaterialMappingSaveDto::materialId).collect(Collectors.toSet()), Material::getId, "материалы");
+        Map<UUID, Characteristic> characteristics = loadAll(characteristicRepository::findAllById, items.stream()
+                .map(OrgSupplierMaterialMappingSaveDto::characteristicId).filter(Objects::nonNull)
+                .collect(Collectors.toSet()), Characteristic::getId, "характеристики");
+
+        OrgSupplierMaterialMappingCache.OrganizationMappings cached = mappingCache.get(organizationId);
+        List<UUID> existingIds = new ArrayList<>();
+        List<UUID> itemMappingIds = new ArrayList<>(items.size());
+        for (OrgSupplierMaterialMappingSaveDto item : items) {
+            Optional<OrgSupplierMaterialMappingDto> existing = item.characteristicId() != null
+                    ? cached.findByCharacteristic(item.supplierName(), item.characteristicId())
+                    : cached.findByMaterial(item.supplierName(), item.materialId());
+            UUID id = existing.map(OrgSupplierMaterialMappingDto::id).orElse(null);
+            itemMappingIds.add(id);
+            if (id != null) existingIds.add(id);
+        }
+        Map<UUID, OrgSupplierMaterialMapping> existing = orgSupplierMaterialMappingRepository.findAllById(existingIds).stream()
+                .collect(Collectors.toMap(OrgSupplierMaterialMapping::getId, Function.identity()));
+
+        // Новые строки с одинаковым ключом внутри пачки сводятся к одной сущности
+        Map<List<Object>, OrgSupplierMaterialMapping> created = new LinkedHashMap<>();
+        List<OrgSupplierMaterialMapping> mappings = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            OrgSupplierMaterialMappingSaveDto item = items.get(i);
+            OrgSupplierMaterialMapping mapping = itemMappingIds.get(i) != null ? existing.get(itemMappingIds.get(i)) : null;
+            if (mapping == null) {
+                List<Object> key = item.characteristicId() != null
+                        ? List.of(item.supplierName(), "characteristic", item.characteristicId())
+                        : List.of(item.supplierName(), "material", item.materialId());
+                mapping = created.computeIfAbsent(key, k -> new OrgSupplierMaterialMapping());
+            }
+            Characteristic cha = item.characteristicId() != null ? characteristics.get(item.characteristicId()) : null;
+            Material mat = materials.get(item.materialId());
+            mapping.setOrganization(org);
+            mapping.setSupplierName(item.supplierName());
+            mapping.setMaterial(mat);
             mapping.setCharacteristic(cha);
-        } else {
-            mapping = orgSupplierMaterialMappingRepository.findByOrganizationIdAndSupplierNameAndMaterialId(organizationId, supplierName, materialId)
-                    .orElse(new OrgSupplierMaterialMapping());
-            mapping.setCharacteristic(null);
+            mappings.add(mapping);
         }
-        
-        mapping.setOrganization(org);
-        mapping.setSupplierName(supplierName);
-        mapping.setMaterial(mat);
-        orgSupplierMaterialMappingRepository.save(mapping);
-        return mapper.toDto(mapping);
+        orgSupplierMaterialMappingRepository.saveAll(created.values());
+
+        List<OrgSupplierMaterialMappingDto> result = mappings.stream().map(mapper::toDto).toList();
+        mappingCache.saved(organizationId, result);
+        materialMatchingService.learn(organizationId, result);
+        return result;
     }
 
     @Override
+    @Transactional
     public void delete(UUID id) {
-        orgSupplierMaterialMappingRepository.deleteById(id);
+        orgSupplierMaterialMappingRepository.findById(id).ifPresent(mapping -> {
+            orgSupplierMaterialMappingRepository.delete(mapping);
+            if (mapping.getOrganization() != null) {
+                mappingCache.deleted(mapping.getOrganization().getId(), id);
+            }
+        });
+    }
+
+    private static <T> Map<UUID, T> loadAll(Function<Set<UUID>, List<T>> loader, Set<UUID> ids,
+                                            Function<T, UUID> idExtractor, String entityName) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, T> loaded = loader.apply(ids).stream().collect(Collectors.toMap(idExtractor, Function.identity()));
+        if (loaded.size() < ids.size()) {
+            List<UUID> missing = ids.stream().filter(id -> !loaded.containsKey(id)).toList();
+            throw new NoSuchElementException("Не найдены " + entityName + ": " + missing);
+        }
+        return loaded;
     }
-} 
\ No newline at end of file
+}
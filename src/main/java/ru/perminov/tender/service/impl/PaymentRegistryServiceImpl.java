@@ -2,16 +2,18 @@ package ru.perminov.tender.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.perminov.tender.dto.payment.PaymentDto;
+import ru.perminov.tender.model.Payment;
+import ru.perminov.tender.model.company.Company;
+import ru.perminov.tender.repository.PaymentRepository;
 import ru.perminov.tender.service.PaymentRegistryService;
 import ru.perminov.tender.service.PaymentService;
+import ru.perminov.tender.service.export.ExcelColumn;
+import ru.perminov.tender.service.export.StreamingExcelExporter;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.List;
 
 @Service
@@ -20,6 +22,8 @@ import java.util.List;
 public class PaymentRegistryServiceImpl implements PaymentRegistryService {
 
     private final PaymentService paymentService;
+    private final PaymentRepository paymentRepository;
+    private final StreamingExcelExporter excelExporter;
 
     @Override
     public List<PaymentDto> getAllPayments() {
@@ -28,58 +32,28 @@ public class PaymentRegistryServiceImpl implements PaymentRegistryService {
     }
 
     @Override
-    public ByteArrayInputStream exportPaymentsToExcel() {
+    public StreamingResponseBody exportPaymentsToExcel() {
         log.info("Экспорт платежей в Excel");
-        List<PaymentDto> payments = getAllPayments();
-        
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Реестр платежей");
-            int rowIdx = 0;
-            
-            // Заголовки
-            Row header = sheet.createRow(rowIdx++);
-            String[] headers = {
-                "№", "Номер платежа", "Контракт", "Поставщик", "Тип платежа", "Статус",
-                "Сумма", "Дата платежа", "Дата оплаты", "Номер счета", "Примечания",
-                "Дата создания"
-            };
-            
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = header.createCell(i);
-                cell.setCellValue(headers[i]);
-            }
-            
-            // Данные
-            for (PaymentDto payment : payments) {
-                Row row = sheet.createRow(rowIdx++);
-                
-                row.createCell(0).setCellValue(rowIdx - 1); // №
-                row.createCell(1).setCellValue(payment.getPaymentNumber() != null ? payment.getPaymentNumber() : "");
-                row.createCell(2).setCellValue(payment.getContractNumber() != null ? payment.getContractNumber() : "");
-                row.createCell(3).setCellValue(payment.getSupplierName() != null ? payment.getSupplierName() : "");
-                row.createCell(4).setCellValue(getPaymentTypeRu(payment.getPaymentType()));
-                row.createCell(5).setCellValue(getStatusRu(payment.getStatus()));
-                row.createCell(6).setCellValue(payment.getAmount() != null ? payment.getAmount().doubleValue() : 0.0);
-                row.createCell(7).setCellValue(payment.getDueDate() != null ? payment.getDueDate().toString() : "");
-                row.createCell(8).setCellValue(payment.getPaidDate() != null ? payment.getPaidDate().toString() : "");
-                row.createCell(9).setCellValue(payment.getInvoiceNumber() != null ? payment.getInvoiceNumber() : "");
-                row.createCell(10).setCellValue(payment.getNotes() != null ? payment.getNotes() : "");
-                row.createCell(11).setCellValue(payment.getCreatedAt() != null ? payment.getCreatedAt().toString() : "");
-            }
-            
-            // Автоподбор ширины столбцов
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-            
-            try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-                workbook.write(out);
-                return new ByteArrayInputStream(out.toByteArray());
-            }
-        } catch (IOException e) {
-            log.error("Ошибка при экспорте платежей в Excel", e);
-            throw new RuntimeException("Ошибка экспорта в Excel", e);
-        }
+        List<ExcelColumn<Payment>> columns = List.of(
+                ExcelColumn.rowNumber("№"),
+                ExcelColumn.of("Номер платежа", Payment::getPaymentNumber),
+                ExcelColumn.of("Контракт", payment -> payment.getContract() != null ? payment.getContract().getContractNumber() : null),
+                ExcelColumn.of("Поставщик", payment -> getSupplierName(payment.getSupplier())),
+                ExcelColumn.of("Тип платежа", payment -> getPaymentTypeRu(payment.getType() != null ? payment.getType().name() : null)),
+                ExcelColumn.of("Статус", payment -> getStatusRu(payment.getStatus() != null ? payment.getStatus().name() : null)),
+                ExcelColumn.of("Сумма", payment -> payment.getAmount() != null ? payment.getAmount() : BigDecimal.ZERO),
+                ExcelColumn.of("Дата платежа", Payment::getDueDate),
+                ExcelColumn.of("Дата оплаты", Payment::getPaidDate),
+                ExcelColumn.of("Номер счета", Payment::getInvoiceNumber),
+                ExcelColumn.of("Примечания", Payment::getNotes),
+                ExcelColumn.of("Дата создания", Payment::getCreatedAt)
+        );
+        return excelExporter.stream("Реестр платежей", columns, paymentRepository::streamAllForExport);
+    }
+
+    private String getSupplierName(Company supplier) {
+        if (supplier == null) return null;
+        return supplier.getShortName() != null ? supplier.getShortName() : supplier.getName();
     }
 
     private String getStatusRu(String status) {
@@ -1,8 +1,12 @@
 package ru.perminov.tender.service.impl;
 
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.payment.PaymentDto;
 import ru.perminov.tender.dto.payment.PaymentDtoNew;
 import ru.perminov.tender.mapper.PaymentMapper;
@@ -12,13 +16,17 @@ import ru.perminov.tender.model.DeliveryItem;
 import ru.perminov.tender.repository.PaymentRepository;
 import ru.perminov.tender.repository.ContractRepository;
 import ru.perminov.tender.repository.DeliveryRepository;
+import ru.perminov.tender.repository.listing.Listings;
+import ru.perminov.tender.repository.listing.SortField;
 import ru.perminov.tender.service.PaymentService;
 import ru.perminov.tender.service.AuditLogService;
+import ru.perminov.tender.service.DashboardMetricsService;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.DayOfWeek;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -29,11 +37,20 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional
 public class PaymentServiceImpl implements PaymentService {
+
+    private static final Map<String, SortField<Payment>> PAYMENT_SORT_FIELDS = Map.of(
+            "dueDate", SortField.of("dueDate", LocalDate.class, Payment::getDueDate),
+            "paymentDate", SortField.of("paymentDate", LocalDate.class, Payment::getPaymentDate),
+            "paymentNumber", SortField.of("paymentNumber", String.class, Payment::getPaymentNumber),
+            "totalAmount", SortField.of("totalAmount", BigDecimal.class, Payment::getTotalAmount)
+    );
+
     private final PaymentRepository paymentRepository;
     private final PaymentMapper paymentMapper;
     private final ContractRepository contractRepository;
     private final DeliveryRepository deliveryRepository;
     private final AuditLogService auditLogService;
+    private final DashboardMetricsService dashboardMetricsService;
 
     /**
      * Рассчитать дату через указанное количество рабочих дней
@@ -94,6 +111,41 @@ public class PaymentServiceImpl implements PaymentService {
         return paymentMapper.toDtoList(paymentRepository.findAll());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponseDto<PaymentDto> getPaymentPage(ListingRequest listing, String status, UUID contractId,
+                                                      UUID supplierId, LocalDate dateFrom, LocalDate dateTo, String search) {
+        Payment.PaymentStatus paymentStatus = Listings.parseEnum(Payment.PaymentStatus.class, status);
+        Specification<Payment> spec = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (paymentStatus != null) {
+                predicates.add(cb.equal(root.get("status"), paymentStatus));
+            }
+            if (contractId != null) {
+                predicates.add(cb.equal(root.get("contract").get("id"), contractId));
+            }
+            if (supplierId != null) {
+                predicates.add(cb.equal(root.get("supplier").get("id"), supplierId));
+            }
+            if (dateFrom != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("dueDate"), dateFrom));
+            }
+            if (dateTo != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("dueDate"), dateTo));
+            }
+            if (search != null && !search.isBlank()) {
+                String pattern = Listings.likePattern(search);
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("paymentNumber")), pattern, '\\'),
+                        cb.like(cb.lower(root.get("invoiceNumber")), pattern, '\\')
+                ));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+        return Listings.fetch(paymentRepository, spec, listing, PAYMENT_SORT_FIELDS, "dueDate",
+                Payment::getId, paymentMapper::toDtoList);
+    }
+
     @Override
     public List<PaymentDto> getPaymentsByStatus(String status) {
         try {
@@ -149,9 +201,12 @@ public class PaymentServiceImpl implements PaymentService {
         Payment payment = paymentOpt.get();
         try {
             Payment.PaymentStatus status = Payment.PaymentStatus.valueOf(newStatus.toUpperCase());
+            Payment.PaymentStatus oldStatus = payment.getStatus();
             payment.setStatus(status);
             payment.setUpdatedAt(LocalDateTime.now());
-            return paymentMapper.toDto(paymentRepository.save(payment));
+            Payment saved = paymentRepository.save(payment);
+            dashboardMetricsService.onPaymentStatusChanged(saved, oldStatus);
+            return paymentMapper.toDto(saved);
         } catch (IllegalArgumentException e) {
             // Логируем ошибку и возвращаем null если статус неверный
             return null;
@@ -163,10 +218,13 @@ public class PaymentServiceImpl implements PaymentService {
         Optional<Payment> paymentOpt = paymentRepository.findById(id);
         if (paymentOpt.isEmpty()) return null;
         Payment payment = paymentOpt.get();
+        Payment.PaymentStatus oldStatus = payment.getStatus();
         payment.setStatus(Payment.PaymentStatus.PAID);
         payment.setPaidDate(LocalDate.now());
         payment.setUpdatedAt(LocalDateTime.now());
-        return paymentMapper.toDto(paymentRepository.save(payment));
+        Payment saved = paymentRepository.save(payment);
+        dashboardMetricsService.onPaymentStatusChanged(saved, oldStatus);
+        return paymentMapper.toDto(saved);
     }
 
     @Override
@@ -1,17 +1,28 @@
 package ru.perminov.tender.service.impl;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.perminov.tender.cache.BoundedCache;
+import ru.perminov.tender.dto.CacheStatsDto;
 import ru.perminov.tender.dto.tender.*;
 import ru.perminov.tender.model.*;
 import ru.perminov.tender.repository.TenderRepository;
 import ru.perminov.tender.repository.TenderItemRepository;
 import ru.perminov.tender.repository.SupplierProposalRepository;
 import ru.perminov.tender.repository.ProposalItemRepository;
+import ru.perminov.tender.repository.projection.IdCountProjection;
+import ru.perminov.tender.repository.projection.IdValueProjection;
+import ru.perminov.tender.repository.projection.ProposalItemPriceProjection;
 import ru.perminov.tender.service.PriceAnalysisService;
-import ru.perminov.tender.service.SupplierProposalService;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -22,40 +33,277 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PriceAnalysisServiceImpl implements PriceAnalysisService {
 
+    // Размер пачки тендеров для запросов с IN (...)
+    private static final int SAVINGS_BATCH_SIZE = 500;
+
     private final TenderRepository tenderRepository;
     private final TenderItemRepository tenderItemRepository;
     private final SupplierProposalRepository supplierProposalRepository;
     private final ProposalItemRepository proposalItemRepository;
-    private final SupplierProposalService supplierProposalService;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private BoundedCache<UUID, PriceAnalysisModel> analysisCache;
+    private TransactionTemplate writeTransaction;
+
+    @Value("${price-analysis.cache.max-size:500}")
+    private int cacheMaxSize;
+
+    /**
+     * Результаты анализа цен тендера, из которых строятся ответы всех эндпоинтов
+     */
+    private record PriceAnalysisModel(
+            PriceAnalysisDto analysis,
+            List<SupplierPriceDto> bestPrices,
+            List<SupplierPriceDto> comparison,
+            List<SupplierPriceDto> anomalousPrices,
+            List<String> recommendations
+    ) {
+    }
+
+    @PostConstruct
+    void initCache() {
+        analysisCache = new BoundedCache<>("price-analysis", cacheMaxSize);
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
 
     @Override
     public PriceAnalysisDto getPriceAnalysis(UUID tenderId) {
         log.info("Получен запрос на анализ цен для тендера: {}", tenderId);
+        return getModel(tenderId).analysis();
+    }
+
+    @Override
+    public List<SupplierPriceDto> getBestPricesByItems(UUID tenderId) {
+        log.info("Получен запрос на лучшие цены по позициям для тендера: {}", tenderId);
+        return getModel(tenderId).bestPrices();
+    }
+
+    @Override
+    public List<SupplierPriceDto> getPriceComparison(UUID tenderId) {
+        log.info("Получен запрос на сравнительную таблицу цен для тендера: {}", tenderId);
+        return getModel(tenderId).comparison();
+    }
+
+    @Override
+    public List<SupplierPriceDto> getSuppliersWithBestPrices(UUID tenderId) {
+        log.info("Получен запрос на поставщиков с лучшими ценами для тендера: {}", tenderId);
+        return getModel(tenderId).bestPrices();
+    }
+
+    @Override
+    public void invalidateTender(UUID tenderId) {
+        if (tenderId == null) return;
+        analysisCache.invalidate(tenderId);
+        // Повторно после коммита: чтение, начатое до коммита, могло закэшировать старые данные
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    analysisCache.invalidate(tenderId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public CacheStatsDto getCacheStats() {
+        return analysisCache.stats();
+    }
+
+    @Override
+    public double calculateSavings(UUID tenderId) {
+        log.info("Получен запрос на расчет экономии для тендера: {}", tenderId);
         
+        Double savings = calculateSavings(List.of(tenderId)).get(tenderId);
+        if (savings == null) {
+            throw new RuntimeException("Тендер не найден");
+        }
+        return savings;
+    }
+
+    @Override
+    public Map<UUID, Double> calculateSavings(Collection<UUID> tenderIds) {
+        Map<UUID, Double> result = new HashMap<>();
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(tenderIds));
+        for (int from = 0; from < ids.size(); from += SAVINGS_BATCH_SIZE) {
+            List<UUID> batch = ids.subList(from, Math.min(from + SAVINGS_BATCH_SIZE, ids.size()));
+            
+            // Берем сохраненные значения, сброшенные считаем в памяти: чтение ничего не пишет,
+            // сохраняет их фоновый refreshStaleSavings
+            List<UUID> toCalculate = new ArrayList<>();
+            for (IdValueProjection saved : tenderRepository.findSavingsByIds(batch)) {
+                if (saved.getValue() != null) {
+                    result.put(saved.getId(), saved.getValue());
+                } else {
+                    toCalculate.add(saved.getId());
+                }
+            }
+            if (toCalculate.isEmpty()) continue;
+            
+            result.putAll(calculateSavingsBatch(toCalculate));
+        }
+        log.debug("Экономия рассчитана для {} тендеров", result.size());
+        return result;
+    }
+
+    @Override
+    public double calculateTotalSavings() {
+        double pending = 0;
+        for (double savings : calculateSavings(tenderRepository.findIdsWithoutSavings()).values()) {
+            pending += savings;
+        }
+        return tenderRepository.sumSavings() + pending;
+    }
+
+    /**
+     * Сохраняет экономию тендеров, сброшенную изменением предложений. Отдельная пишущая транзакция
+     * на пачку: методы чтения выполняются в readOnly-транзакциях дашборда и в базу не пишут.
+     * Строки тендеров блокируются до расчета, поэтому сброс экономии параллельной транзакцией
+     * либо дожидается записи и снова обнуляет значение, либо строка пропускается до следующего запуска
+     */
+    @Scheduled(fixedDelayString = "${price-analysis.savings-refresh-interval:60000}",
+            initialDelayString = "${price-analysis.savings-refresh-interval:60000}")
+    public void refreshStaleSavings() {
+        List<UUID> ids = tenderRepository.findIdsWithoutSavings();
+        int saved = 0;
+        for (int from = 0; from < ids.size(); from += SAVINGS_BATCH_SIZE) {
+            List<UUID> batch = ids.subList(from, Math.min(from + SAVINGS_BATCH_SIZE, ids.size()));
+            saved += writeTransaction.execute(status -> {
+                List<UUID> locked = tenderRepository.lockWithoutSavings(batch).stream()
+                        .map(Tender::getId)
+                        .toList();
+                if (locked.isEmpty()) {
+                    return 0;
+                }
+                int updated = 0;
+                for (Map.Entry<UUID, Double> savings : calculateSavingsBatch(locked).entrySet()) {
+                    updated += tenderRepository.updateSavings(savings.getKey(), savings.getValue());
+                }
+                return updated;
+            });
+        }
+        if (saved > 0) {
+            log.info("Сохранена экономия {} тендеров", saved);
+        }
+    }
+
+    /**
+     * Расчет экономии для пачки тендеров тремя запросами: сметная стоимость позиций,
+     * количество предложений и цены позиций предложений. Логика совпадает с getPriceAnalysis:
+     * по каждой позиции берется предложение с минимальной ценой за единицу
+     */
+    private Map<UUID, Double> calculateSavingsBatch(List<UUID> tenderIds) {
+        Map<UUID, Double> estimatedTotals = tenderItemRepository.sumEstimatedTotalByTenderIds(tenderIds).stream()
+                .filter(row -> row.getValue() != null)
+                .collect(Collectors.toMap(IdValueProjection::getId, IdValueProjection::getValue));
+        Map<UUID, Long> proposalCounts = supplierProposalRepository.countByTenderIds(tenderIds).stream()
+                .collect(Collectors.toMap(IdCountProjection::getId, IdCountProjection::getTotal));
+        
+        // Лучшая цена по каждой позиции тендера
+        Map<UUID, ProposalItemPriceProjection> bestPrices = new HashMap<>();
+        for (ProposalItemPriceProjection price : proposalItemRepository.findPricesByTenderIds(tenderIds)) {
+            ProposalItemPriceProjection best = bestPrices.get(price.getTenderItemId());
+            if (best == null || price.getUnitPrice() < best.getUnitPrice()) {
+                bestPrices.put(price.getTenderItemId(), price);
+            }
+        }
+        Map<UUID, Double> bestTotals = new HashMap<>();
+        for (ProposalItemPriceProjection best : bestPrices.values()) {
+            if (best.getTotalPrice() != null) {
+                bestTotals.merge(best.getTenderId(), best.getTotalPrice(), Double::sum);
+            }
+        }
+        
+        Map<UUID, Double> savings = new HashMap<>();
+        for (UUID tenderId : tenderIds) {
+            if (proposalCounts.getOrDefault(tenderId, 0L) == 0) {
+                savings.put(tenderId, 0.0);
+            } else {
+                savings.put(tenderId, estimatedTotals.getOrDefault(tenderId, 0.0) - bestTotals.getOrDefault(tenderId, 0.0));
+            }
+        }
+        return savings;
+    }
+
+    @Override
+    public PriceSummaryDto getPriceStatistics(UUID tenderId) {
+        log.info("Получен запрос на статистику цен для тендера: {}", tenderId);
+        return getModel(tenderId).analysis().summary();
+    }
+
+    @Override
+    public List<SupplierPriceDto> getAnomalousPrices(UUID tenderId) {
+        log.info("Получен запрос на поиск аномальных цен для тендера: {}", tenderId);
+        return getModel(tenderId).anomalousPrices();
+    }
+
+    @Override
+    public List<String> getSupplierRecommendations(UUID tenderId) {
+        log.info("Получен запрос на рекомендации по поставщикам для тендера: {}", tenderId);
+        return getModel(tenderId).recommendations();
+    }
+
+    private PriceAnalysisModel getModel(UUID tenderId) {
+        return analysisCache.get(tenderId, this::buildModel);
+    }
+
+    /**
+     * Строит модель анализа цен тендера: тендер, позиции, предложения и их позиции
+     * загружаются одним проходом, все результаты считаются из них
+     */
+    private PriceAnalysisModel buildModel(UUID tenderId) {
         Tender tender = tenderRepository.findById(tenderId)
                 .orElseThrow(() -> new RuntimeException("Тендер не найден"));
         
         List<TenderItem> tenderItems = tenderItemRepository.findByTenderId(tenderId);
         List<SupplierProposal> proposals = supplierProposalRepository.findByTenderId(tenderId);
+        Map<UUID, List<ProposalItem>> itemsByProposal = proposalItemRepository.findByTenderIdWithTenderItem(tenderId).stream()
+                .collect(Collectors.groupingBy(item -> item.getSupplierProposal().getId()));
+        
+        // Сравнительная таблица: все цены всех предложений
+        List<SupplierPriceDto> comparison = new ArrayList<>();
+        Map<UUID, List<SupplierPriceDto>> pricesByItem = new HashMap<>();
+        Map<UUID, SupplierPriceDto> bestByItem = new HashMap<>();
+        for (SupplierProposal proposal : proposals) {
+            for (ProposalItem item : itemsByProposal.getOrDefault(proposal.getId(), List.of())) {
+                // Проверяем, что tenderItem не null и unitPrice не null
+                if (item.getTenderItem() == null || item.getUnitPrice() == null) continue;
+                
+                SupplierPriceDto priceDto = createSupplierPriceDto(proposal, item, false);
+                comparison.add(priceDto);
+                pricesByItem.computeIfAbsent(priceDto.tenderItemId(), id -> new ArrayList<>()).add(priceDto);
+                
+                SupplierPriceDto best = bestByItem.get(priceDto.tenderItemId());
+                if (best == null || priceDto.unitPrice() < best.unitPrice()) {
+                    bestByItem.put(priceDto.tenderItemId(), createSupplierPriceDto(proposal, item, true));
+                }
+            }
+        }
         
         List<PriceAnalysisItemDto> analysisItems = new ArrayList<>();
+        List<SupplierPriceDto> bestPrices = new ArrayList<>();
         double totalEstimatedPrice = 0.0;
         double totalBestPrice = 0.0;
         Set<UUID> activeSuppliers = new HashSet<>();
         List<String> suppliersWithBestPrices = new ArrayList<>();
         
         for (TenderItem tenderItem : tenderItems) {
-            PriceAnalysisItemDto itemAnalysis = analyzeTenderItem(tenderItem, proposals);
-            analysisItems.add(itemAnalysis);
+            List<SupplierPriceDto> supplierPrices = pricesByItem.getOrDefault(tenderItem.getId(), List.of());
+            SupplierPriceDto bestPrice = bestByItem.get(tenderItem.getId());
+            analysisItems.add(analyzeTenderItem(tenderItem, supplierPrices, bestPrice));
             
             double estimated = (tenderItem.getEstimatedPrice() != null && tenderItem.getQuantity() != null)
                 ? tenderItem.getEstimatedPrice() * tenderItem.getQuantity()
                 : 0.0;
             totalEstimatedPrice += estimated;
-            if (itemAnalysis.bestPrice() != null && itemAnalysis.bestPrice().totalPrice() != null) {
-                totalBestPrice += itemAnalysis.bestPrice().totalPrice();
-                activeSuppliers.add(itemAnalysis.bestPrice().supplierId());
-                suppliersWithBestPrices.add(itemAnalysis.bestPrice().supplierName());
+            if (bestPrice != null) {
+                bestPrices.add(bestPrice);
+                if (bestPrice.totalPrice() != null) {
+                    totalBestPrice += bestPrice.totalPrice();
+                    activeSuppliers.add(bestPrice.supplierId());
+                    suppliersWithBestPrices.add(bestPrice.supplierName());
+                }
             }
         }
         
@@ -81,84 +329,25 @@ public class PriceAnalysisServiceImpl implements PriceAnalysisService {
                 suppliersWithBestPrices.stream().distinct().collect(Collectors.toList())
         );
         
-        return new PriceAnalysisDto(
+        PriceAnalysisDto analysis = new PriceAnalysisDto(
                 tenderId,
                 tender.getTenderNumber(),
                 tender.getTitle(),
-                analysisItems,
+                List.copyOf(analysisItems),
                 summary
         );
-    }
-
-    @Override
-    public List<SupplierPriceDto> getBestPricesByItems(UUID tenderId) {
-        log.info("Получен запрос на лучшие цены по позициям для тендера: {}", tenderId);
-        
-        List<TenderItem> tenderItems = tenderItemRepository.findByTenderId(tenderId);
-        List<SupplierProposal> proposals = supplierProposalRepository.findByTenderId(tenderId);
-        
-        return tenderItems.stream()
-                .map(item -> findBestPriceForItem(item, proposals))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-    }
-
-    @Override
-    public List<SupplierPriceDto> getPriceComparison(UUID tenderId) {
-        log.info("Получен запрос на сравнительную таблицу цен для тендера: {}", tenderId);
-        
-        List<SupplierProposal> proposals = supplierProposalRepository.findByTenderId(tenderId);
-        List<SupplierPriceDto> allPrices = new ArrayList<>();
-        
-        for (SupplierProposal proposal : proposals) {
-            List<ProposalItem> items = proposalItemRepository.findBySupplierProposalId(proposal.getId());
-            
-            for (ProposalItem item : items) {
-                // Проверяем, что tenderItem не null и unitPrice не null
-                if (item.getTenderItem() != null && item.getUnitPrice() != null) {
-                    SupplierPriceDto priceDto = createSupplierPriceDto(proposal, item, false);
-                    allPrices.add(priceDto);
-                }
-            }
-        }
-        
-        return allPrices;
-    }
-
-    @Override
-    public List<SupplierPriceDto> getSuppliersWithBestPrices(UUID tenderId) {
-        log.info("Получен запрос на поставщиков с лучшими ценами для тендера: {}", tenderId);
-        
-        List<TenderItem> tenderItems = tenderItemRepository.findByTenderId(tenderId);
-        List<SupplierProposal> proposals = supplierProposalRepository.findByTenderId(tenderId);
-        
-        return tenderItems.stream()
-                .map(item -> findBestPriceForItem(item, proposals))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-    }
-
-    @Override
-    public double calculateSavings(UUID tenderId) {
-        log.info("Получен запрос на расчет экономии для тендера: {}", tenderId);
-        
-        PriceAnalysisDto analysis = getPriceAnalysis(tenderId);
-        return analysis.summary().totalSavings();
-    }
-
-    @Override
-    public PriceSummaryDto getPriceStatistics(UUID tenderId) {
-        log.info("Получен запрос на статистику цен для тендера: {}", tenderId);
+        List<SupplierPriceDto> anomalousPrices = findAnomalousPrices(comparison);
         
-        PriceAnalysisDto analysis = getPriceAnalysis(tenderId);
-        return analysis.summary();
+        return new PriceAnalysisModel(
+                analysis,
+                List.copyOf(bestPrices),
+                List.copyOf(comparison),
+                anomalousPrices,
+                buildRecommendations(summary, anomalousPrices)
+        );
     }
 
-    @Override
-    public List<SupplierPriceDto> getAnomalousPrices(UUID tenderId) {
-        log.info("Получен запрос на поиск аномальных цен для тендера: {}", tenderId);
-        
-        List<SupplierPriceDto> allPrices = getPriceComparison(tenderId);
+    private List<SupplierPriceDto> findAnomalousPrices(List<SupplierPriceDto> allPrices) {
         List<SupplierPriceDto> anomalousPrices = new ArrayList<>();
         
         // Группируем цены по позициям тендера (tenderItemId)
@@ -167,8 +356,6 @@ public class PriceAnalysisServiceImpl implements PriceAnalysisService {
                 .collect(Collectors.groupingBy(SupplierPriceDto::tenderItemId));
         
         for (Map.Entry<UUID, List<SupplierPriceDto>> entry : pricesByItem.entrySet()) {
-            if (entry.getKey() == null) continue; // Пропускаем null ключи
-            
             List<SupplierPriceDto> itemPrices = entry.getValue();
             if (itemPrices.size() < 2) continue;
             
@@ -193,68 +380,41 @@ public class PriceAnalysisServiceImpl implements PriceAnalysisService {
             }
         }
         
-        return anomalousPrices;
+        return List.copyOf(anomalousPrices);
     }
 
-    @Override
-    public List<String> getSupplierRecommendations(UUID tenderId) {
-        log.info("Получен запрос на рекомендации по поставщикам для тендера: {}", tenderId);
-        
+    private List<String> buildRecommendations(PriceSummaryDto summary, List<SupplierPriceDto> anomalousPrices) {
         List<String> recommendations = new ArrayList<>();
-        PriceAnalysisDto analysis = getPriceAnalysis(tenderId);
         
         // Анализируем экономию
-        if (analysis.summary().totalSavings() > 0) {
+        if (summary.totalSavings() > 0) {
             recommendations.add(String.format("Общая экономия составляет %.2f руб. (%.1f%%)", 
-                    analysis.summary().totalSavings(), 
-                    analysis.summary().savingsPercentage()));
+                    summary.totalSavings(), 
+                    summary.savingsPercentage()));
         }
         
         // Анализируем количество предложений
-        if (analysis.summary().totalProposals() < 3) {
+        if (summary.totalProposals() < 3) {
             recommendations.add("Рекомендуется привлечь больше поставщиков для повышения конкуренции");
         }
         
         // Анализируем распределение лучших цен
-        Set<String> bestSuppliers = new HashSet<>(analysis.summary().suppliersWithBestPrices());
+        Set<String> bestSuppliers = new HashSet<>(summary.suppliersWithBestPrices());
         if (bestSuppliers.size() == 1) {
             recommendations.add("Внимание: один поставщик предлагает лучшие цены по всем позициям");
         }
         
         // Анализируем аномальные цены
-        List<SupplierPriceDto> anomalousPrices = getAnomalousPrices(tenderId);
         if (!anomalousPrices.isEmpty()) {
             recommendations.add(String.format("Обнаружено %d аномальных цен - рекомендуется проверить", 
                     anomalousPrices.size()));
         }
         
-        return recommendations;
+        return List.copyOf(recommendations);
     }
 
-    private PriceAnalysisItemDto analyzeTenderItem(TenderItem tenderItem, List<SupplierProposal> proposals) {
-        List<SupplierPriceDto> supplierPrices = new ArrayList<>();
-        SupplierPriceDto bestPrice = null;
-        double minPrice = Double.MAX_VALUE;
-        
-        for (SupplierProposal proposal : proposals) {
-            List<ProposalItem> proposalItems = proposalItemRepository.findBySupplierProposalId(proposal.getId());
-            
-            for (ProposalItem proposalItem : proposalItems) {
-                // Проверяем, что tenderItem не null, соответствует текущей позиции и unitPrice не null
-                if (proposalItem.getTenderItem() != null && 
-                    proposalItem.getTenderItem().getId().equals(tenderItem.getId()) &&
-                    proposalItem.getUnitPrice() != null) {
-                    SupplierPriceDto priceDto = createSupplierPriceDto(proposal, proposalItem, false);
-                    supplierPrices.add(priceDto);
-                    
-                    if (priceDto.unitPrice() < minPrice) {
-                        minPrice = priceDto.unitPrice();
-                        bestPrice = createSupplierPriceDto(proposal, proposalItem, true);
-                    }
-                }
-            }
-        }
-        
+    private PriceAnalysisItemDto analyzeTenderItem(TenderItem tenderItem, List<SupplierPriceDto> supplierPrices,
+                                                   SupplierPriceDto bestPrice) {
         // Рассчитываем отклонение цены от сметной
         double priceDeviation = 0.0;
         if (tenderItem.getEstimatedPrice() != null && bestPrice != null && bestPrice.unitPrice() != null) {
@@ -268,36 +428,13 @@ public class PriceAnalysisServiceImpl implements PriceAnalysisService {
                 tenderItem.getQuantity(),
                 tenderItem.getUnit() != null ? tenderItem.getUnit().getName() : null,
                 tenderItem.getEstimatedPrice(),
-                supplierPrices,
+                List.copyOf(supplierPrices),
                 bestPrice,
                 priceDeviation,
                 supplierPrices.size()
         );
     }
 
-    private SupplierPriceDto findBestPriceForItem(TenderItem tenderItem, List<SupplierProposal> proposals) {
-        SupplierPriceDto bestPrice = null;
-        double minPrice = Double.MAX_VALUE;
-        
-        for (SupplierProposal proposal : proposals) {
-            List<ProposalItem> proposalItems = proposalItemRepository.findBySupplierProposalId(proposal.getId());
-            
-            for (ProposalItem proposalItem : proposalItems) {
-                // Проверяем, что tenderItem не null, соответствует текущей позиции и unitPrice не null
-                if (proposalItem.getTenderItem() != null && 
-                    proposalItem.getTenderItem().getId().equals(tenderItem.getId()) &&
-                    proposalItem.getUnitPrice() != null) {
-                    if (proposalItem.getUnitPrice() < minPrice) {
-                        minPrice = proposalItem.getUnitPrice();
-                        bestPrice = createSupplierPriceDto(proposal, proposalItem, true);
-                    }
-                }
-            }
-        }
-        
-        return bestPrice;
-    }
-
     private SupplierPriceDto createSupplierPriceDto(SupplierProposal proposal, ProposalItem item, boolean isBestPrice) {
         return new SupplierPriceDto(
                 proposal.getSupplier().getId(),
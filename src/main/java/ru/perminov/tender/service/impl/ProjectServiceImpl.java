@@ -3,14 +3,16 @@ package ru.perminov.tender.service.impl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import ru.perminov.tender.dto.ImportResultDto;
 import ru.perminov.tender.dto.project.ProjectDto;
 import ru.perminov.tender.dto.project.ProjectDtoNew;
 import ru.perminov.tender.dto.project.ProjectDtoUpdate;
 import ru.perminov.tender.mapper.ProjectMapper;
+import ru.perminov.tender.model.ImportType;
 import ru.perminov.tender.model.Project;
 import ru.perminov.tender.repository.ProjectRepository;
 import ru.perminov.tender.service.AuditLogService;
@@ -19,20 +21,25 @@ import ru.perminov.tender.repository.UserRepository;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
 import ru.perminov.tender.model.User;
+import ru.perminov.tender.service.importer.ExcelImportSource;
+import ru.perminov.tender.service.importer.ExcelImporter;
+import ru.perminov.tender.service.importer.ImportColumns;
+import ru.perminov.tender.service.importer.ImportDefinition;
 
-import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
-public class ProjectServiceImpl implements ProjectService {
+public class ProjectServiceImpl implements ProjectService, ExcelImportSource {
     private final ProjectRepository projectRepository;
     private final ProjectMapper projectMapper;
     private final AuditLogService auditLogService;
     private final UserRepository userRepository;
+    private final ExcelImporter excelImporter;
 
     private User getCurrentUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -79,27 +86,29 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public int importFromExcel(MultipartFile file) {
-        try (InputStream is = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(is)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            int count = 0;
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) { // пропускаем header
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-                String name = row.getCell(1) != null ? row.getCell(1).getStringCellValue() : null;
-                String description = row.getCell(2) != null ? row.getCell(2).getStringCellValue() : "";
-                if (name == null || name.isBlank()) continue;
-                Project project = new Project();
-                project.setName(name);
-                project.setDescription(description);
-                projectRepository.save(project);
-                count++;
+        return excelImporter.importFile(file, importDefinition(Map.of())).getImported();
+    }
+
+    @Override
+    public ImportType importType() {
+        return ImportType.PROJECTS;
+    }
+
+    @Override
+    public ImportDefinition<Project> importDefinition(Map<String, Object> columnMapping) {
+        ImportColumns columns = ImportColumns.of(Map.of("name", 1, "description", 2), columnMapping);
+        return new ImportDefinition<>("projects", columns, row -> {
+            String name = columns.get(row, "name");
+            if (name == null || name.isBlank()) {
+                return null;
             }
-            return count;
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка импорта: " + e.getMessage(), e);
-        }
+            Project project = new Project();
+            project.setName(name);
+            String description = columns.get(row, "description");
+            project.setDescription(description != null ? description : "");
+            return project;
+        }, projectRepository::saveAll);
     }
 } 
\ No newline at end of file
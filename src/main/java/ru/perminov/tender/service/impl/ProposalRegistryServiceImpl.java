@@ -2,17 +2,22 @@ package ru.perminov.tender.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.perminov.tender.dto.tender.SupplierProposalDto;
+import ru.perminov.tender.model.SupplierProposal;
+import ru.perminov.tender.model.company.Company;
+import ru.perminov.tender.repository.SupplierProposalRepository;
+import ru.perminov.tender.repository.projection.IdValueProjection;
 import ru.perminov.tender.service.ProposalRegistryService;
 import ru.perminov.tender.service.SupplierProposalService;
+import ru.perminov.tender.service.export.ExcelColumn;
+import ru.perminov.tender.service.export.StreamingExcelExporter;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +25,8 @@ import java.util.List;
 public class ProposalRegistryServiceImpl implements ProposalRegistryService {
 
     private final SupplierProposalService proposalService;
+    private final SupplierProposalRepository proposalRepository;
+    private final StreamingExcelExporter excelExporter;
 
     @Override
     public List<SupplierProposalDto> getAllProposals() {
@@ -28,57 +35,47 @@ public class ProposalRegistryServiceImpl implements ProposalRegistryService {
     }
 
     @Override
-    public ByteArrayInputStream exportProposalsToExcel() {
+    public StreamingResponseBody exportProposalsToExcel() {
         log.info("Экспорт предложений в Excel");
-        List<SupplierProposalDto> proposals = getAllProposals();
-        
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Реестр предложений");
-            int rowIdx = 0;
-            
-            // Заголовки
-            Row header = sheet.createRow(rowIdx++);
-            String[] headers = {
-                "№", "Тендер", "Поставщик", "Номер предложения", 
-                "Дата подачи", "Статус", "Сумма", "Валюта", 
-                "Срок действия", "Лучшее предложение", "Разница в цене"
-            };
-            
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = header.createCell(i);
-                cell.setCellValue(headers[i]);
-            }
-            
-            // Данные
-            for (SupplierProposalDto proposal : proposals) {
-                Row row = sheet.createRow(rowIdx++);
-                
-                row.createCell(0).setCellValue(rowIdx - 1); // №
-                row.createCell(1).setCellValue(proposal.getTenderTitle() != null ? proposal.getTenderTitle() : proposal.getTenderNumber());
-                row.createCell(2).setCellValue(proposal.getSupplierName() != null ? proposal.getSupplierName() : "");
-                row.createCell(3).setCellValue(proposal.getProposalNumber() != null ? proposal.getProposalNumber() : "");
-                row.createCell(4).setCellValue(proposal.getSubmissionDate() != null ? proposal.getSubmissionDate().toString() : "");
-                row.createCell(5).setCellValue(getStatusRu(proposal.getStatus()));
-                row.createCell(6).setCellValue(proposal.getTotalPrice() != null ? proposal.getTotalPrice() : 0.0);
-                row.createCell(7).setCellValue(proposal.getCurrency() != null ? proposal.getCurrency() : "RUB");
-                row.createCell(8).setCellValue(proposal.getValidUntil() != null ? proposal.getValidUntil().toString() : "");
-                row.createCell(9).setCellValue(proposal.getIsBestOffer() != null && proposal.getIsBestOffer() ? "Да" : "Нет");
-                row.createCell(10).setCellValue(proposal.getPriceDifference() != null ? proposal.getPriceDifference() : 0.0);
-            }
-            
-            // Автоподбор ширины столбцов
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-            
-            try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-                workbook.write(out);
-                return new ByteArrayInputStream(out.toByteArray());
-            }
-        } catch (IOException e) {
-            log.error("Ошибка при экспорте предложений в Excel", e);
-            throw new RuntimeException("Ошибка экспорта в Excel", e);
-        }
+        Map<UUID, Double> bestPrices = proposalRepository.findBestPricesByTender().stream()
+                .collect(Collectors.toMap(IdValueProjection::getId, IdValueProjection::getValue));
+        List<ExcelColumn<SupplierProposal>> columns = List.of(
+                ExcelColumn.rowNumber("№"),
+                ExcelColumn.of("Тендер", proposal -> proposal.getTender() == null ? null
+                        : (proposal.getTender().getTitle() != null ? proposal.getTender().getTitle() : proposal.getTender().getTenderNumber())),
+                ExcelColumn.of("Поставщик", proposal -> getSupplierName(proposal.getSupplier())),
+                ExcelColumn.of("Номер предложения", SupplierProposal::getProposalNumber),
+                ExcelColumn.of("Дата подачи", SupplierProposal::getSubmissionDate),
+                ExcelColumn.of("Статус", proposal -> getStatusRu(proposal.getStatus())),
+                ExcelColumn.of("Сумма", proposal -> proposal.getTotalPrice() != null ? proposal.getTotalPrice() : 0.0),
+                ExcelColumn.of("Валюта", proposal -> proposal.getCurrency() != null ? proposal.getCurrency() : "RUB"),
+                ExcelColumn.of("Срок действия", SupplierProposal::getValidUntil),
+                ExcelColumn.of("Лучшее предложение", proposal -> {
+                    Double difference = priceDifference(proposal, bestPrices);
+                    return difference != null && difference == 0.0 ? "Да" : "Нет";
+                }),
+                ExcelColumn.of("Разница в цене", proposal -> {
+                    Double difference = priceDifference(proposal, bestPrices);
+                    return difference != null ? difference : 0.0;
+                })
+        );
+        return excelExporter.stream("Реестр предложений", columns, proposalRepository::streamAllForExport);
+    }
+
+    /**
+     * Разница между ценой предложения и лучшей (минимальной) ценой по тендеру
+     */
+    private Double priceDifference(SupplierProposal proposal, Map<UUID, Double> bestPrices) {
+        if (proposal.getTotalPrice() == null || proposal.getTender() == null) return null;
+        Double bestPrice = bestPrices.get(proposal.getTender().getId());
+        return bestPrice != null ? proposal.getTotalPrice() - bestPrice : null;
+    }
+
+    private String getSupplierName(Company supplier) {
+        if (supplier == null) return null;
+        if (supplier.getShortName() != null && !supplier.getShortName().isEmpty()) return supplier.getShortName();
+        if (supplier.getLegalName() != null && !supplier.getLegalName().isEmpty()) return supplier.getLegalName();
+        return supplier.getName();
     }
 
     private String getStatusRu(ru.perminov.tender.model.SupplierProposal.ProposalStatus status) {
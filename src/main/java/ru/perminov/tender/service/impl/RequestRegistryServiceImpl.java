@@ -1,78 +1,76 @@
 package ru.perminov.tender.service.impl;
 
 import lombok.RequiredArgsConstructor;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.data.domain.Sort;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.RequestRegistryRowDto;
 import ru.perminov.tender.model.Request;
-import ru.perminov.tender.model.RequestMaterial;
 import ru.perminov.tender.repository.RequestRepository;
+import ru.perminov.tender.repository.listing.Listings;
+import ru.perminov.tender.repository.listing.RequestListing;
+import ru.perminov.tender.repository.listing.RequestRegistryListing;
+import ru.perminov.tender.repository.projection.RequestMaterialsSummaryProjection;
+import ru.perminov.tender.repository.projection.RequestRegistryRowProjection;
 import ru.perminov.tender.service.RequestRegistryService;
+import ru.perminov.tender.service.export.ExcelColumn;
+import ru.perminov.tender.service.export.StreamingExcelExporter;
 
-import java.io.ByteArrayInputStream;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
 public class RequestRegistryServiceImpl implements RequestRegistryService {
+    // Идентификаторов в одном условии IN (...)
+    private static final int IN_BATCH_SIZE = 1000;
+
     private final RequestRepository requestRepository;
+    private final StreamingExcelExporter excelExporter;
 
     @Override
     public List<RequestRegistryRowDto> getRegistry(String organization, String project, LocalDate fromDate, LocalDate toDate, String materialName, String companyId) {
-        List<Request> requests = requestRepository.findAll();
-        if (companyId != null) {
-            requests = requests.stream()
-                    .filter(r -> r.getOrganization().getId().toString().equals(companyId))
-                    .toList();
-        }
-        List<RequestRegistryRowDto> result = new ArrayList<>();
-
-        for (Request request : requests) {
-            // Фильтрация по организации
-            if (organization != null && !request.getOrganization().getName().toLowerCase().contains(organization.toLowerCase())) {
-                continue;
-            }
-
-            // Фильтрация по проекту
-            if (project != null && !request.getProject().getName().toLowerCase().contains(project.toLowerCase())) {
-                continue;
-            }
-
-            // Фильтрация по датам
-            if (fromDate != null && request.getDate().isBefore(fromDate)) {
-                continue;
-            }
-            if (toDate != null && request.getDate().isAfter(toDate)) {
-                continue;
-            }
-
-            // Фильтрация по материалу (если указан)
-            if (materialName != null) {
-                boolean hasMatchingMaterial = request.getRequestMaterials().stream()
-                        .anyMatch(material -> material.getMaterial().getName().toLowerCase().contains(materialName.toLowerCase()));
-                if (!hasMatchingMaterial) {
-                    continue;
-                }
-            }
+        List<Request> requests = requestRepository.findAll(
+                RequestRegistryListing.filter(organization, project, fromDate, toDate, materialName, companyId),
+                Sort.by("date", "id"));
+        log.debug("Реестр заявок: найдено {}", requests.size());
+        return toRows(requests);
+    }
 
-            // Подсчет количества материалов
-            int materialsCount = request.getRequestMaterials().size();
+    @Override
+    public PageResponseDto<RequestRegistryRowDto> getRegistryPage(ListingRequest listing, String organization, String project,
+                                                                 LocalDate fromDate, LocalDate toDate, String materialName,
+                                                                 String companyId) {
+        return Listings.fetch(requestRepository,
+                RequestRegistryListing.filter(organization, project, fromDate, toDate, materialName, companyId),
+                listing, RequestListing.SORT_FIELDS, RequestListing.DEFAULT_SORT, Request::getId, this::toRows);
+    }
 
-            // Получение примечания (берем первое непустое примечание из материалов)
-            String note = request.getRequestMaterials().stream()
-                    .map(RequestMaterial::getNote)
-                    .filter(n -> n != null && !n.trim().isEmpty())
-                    .findFirst()
-                    .orElse("");
+    /**
+     * Строки реестра для уже отобранных заявок: количество материалов и примечание одним сгруппированным запросом
+     */
+    private List<RequestRegistryRowDto> toRows(List<Request> requests) {
+        Map<UUID, RequestMaterialsSummaryProjection> materials = new HashMap<>();
+        List<UUID> ids = requests.stream().map(Request::getId).toList();
+        for (int from = 0; from < ids.size(); from += IN_BATCH_SIZE) {
+            requestRepository.summarizeMaterialsByRequestIdIn(ids.subList(from, Math.min(from + IN_BATCH_SIZE, ids.size())))
+                    .forEach(row -> materials.put(row.getRequestId(), row));
+        }
 
+        List<RequestRegistryRowDto> result = new ArrayList<>(requests.size());
+        for (Request request : requests) {
+            RequestMaterialsSummaryProjection summary = materials.get(request.getId());
             result.add(new RequestRegistryRowDto(
                     request.getId(),
                     request.getRequestNumber() != null ? request.getRequestNumber() : request.getId().toString(),
@@ -83,15 +81,11 @@ public class RequestRegistryServiceImpl implements RequestRegistryService {
                             ? request.getOrganization().getShortName()
                             : request.getOrganization().getName()),
                     request.getProject().getName(),
-                    materialsCount,
-                    note,
+                    summary != null ? (int) summary.getMaterialsCount() : 0,
+                    summary != null && summary.getNote() != null ? summary.getNote() : "",
                     request.getStatus() != null ? request.getStatus().name() : "DRAFT"
             ));
-
-            // Логируем статус для отладки
-            log.info("Заявка {}: статус = {}", request.getId(), request.getStatus());
         }
-
         return result;
     }
 
@@ -110,36 +104,26 @@ public class RequestRegistryServiceImpl implements RequestRegistryService {
     }
 
     @Override
-    public ByteArrayInputStream exportRegistryToExcel(String organization, String project, LocalDate fromDate, LocalDate toDate, String materialName) {
-        List<RequestRegistryRowDto> rows = getRegistry(organization, project, fromDate, toDate, materialName, null);
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Реестр заявок");
-            int rowIdx = 0;
-            Row header = sheet.createRow(rowIdx++);
-            String[] headers = {"ID заявки", "Номер заявки", "Дата заявки", "Организация", "Проект", "Статус", "Кол-во материалов", "Примечание"};
-            for (int i = 0; i < headers.length; i++) {
-                header.createCell(i).setCellValue(headers[i]);
-            }
-            for (RequestRegistryRowDto dto : rows) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(dto.requestId() != null ? dto.requestId().toString() : "");
-                row.createCell(1).setCellValue(dto.requestNumber() != null ? dto.requestNumber() : "");
-                row.createCell(2).setCellValue(dto.requestDate() != null ? dto.requestDate().toString() : "");
-                row.createCell(3).setCellValue(dto.organization() != null ? dto.organization() : "");
-                row.createCell(4).setCellValue(dto.project() != null ? dto.project() : "");
-                row.createCell(5).setCellValue(getStatusRu(dto.status() != null ? dto.status() : "DRAFT"));
-                row.createCell(6).setCellValue(dto.materialsCount() != null ? dto.materialsCount() : 0);
-                row.createCell(7).setCellValue(dto.note() != null ? dto.note() : "");
-            }
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-            try (java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream()) {
-                workbook.write(out);
-                return new ByteArrayInputStream(out.toByteArray());
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка экспорта в Excel", e);
-        }
+    public StreamingResponseBody exportRegistryToExcel(String organization, String project, LocalDate fromDate, LocalDate toDate, String materialName) {
+        List<ExcelColumn<RequestRegistryRowProjection>> columns = List.of(
+                ExcelColumn.of("ID заявки", RequestRegistryRowProjection::getRequestId),
+                ExcelColumn.of("Номер заявки", row -> row.getRequestNumber() != null ? row.getRequestNumber() : row.getRequestId().toString()),
+                ExcelColumn.of("Дата заявки", RequestRegistryRowProjection::getDate),
+                ExcelColumn.of("Организация", row -> row.getOrganizationLegalName() != null && !row.getOrganizationLegalName().isBlank()
+                        ? row.getOrganizationLegalName()
+                        : (row.getOrganizationShortName() != null && !row.getOrganizationShortName().isBlank()
+                        ? row.getOrganizationShortName()
+                        : row.getOrganizationName())),
+                ExcelColumn.of("Проект", RequestRegistryRowProjection::getProjectName),
+                ExcelColumn.of("Статус", row -> getStatusRu(row.getStatus() != null ? row.getStatus().name() : "DRAFT")),
+                ExcelColumn.of("Кол-во материалов", RequestRegistryRowProjection::getMaterialsCount),
+                ExcelColumn.of("Примечание", RequestRegistryRowProjection::getNote)
+        );
+        return excelExporter.stream("Реестр заявок", columns, () -> requestRepository.streamRegistryRows(
+                organization != null ? Listings.likePattern(organization) : null,
+                project != null ? Listings.likePattern(project) : null,
+                fromDate,
+                toDate,
+                materialName != null ? Listings.likePattern(materialName) : null));
     }
 } 
\ No newline at end of file
@@ -2,8 +2,12 @@ package ru.perminov.tender.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.OrgSupplierMaterialMappingSaveDto;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.RequestDto;
 import ru.perminov.tender.dto.RequestMaterialDto;
 import ru.perminov.tender.dto.RequestRelatedEntitiesDto;
@@ -18,6 +22,8 @@ import ru.perminov.tender.repository.RequestRepository;
 import ru.perminov.tender.repository.TenderRepository;
 import ru.perminov.tender.repository.InvoiceRepository;
 import ru.perminov.tender.repository.WorkTypeRepository;
+import ru.perminov.tender.repository.listing.Listings;
+import ru.perminov.tender.repository.listing.RequestListing;
 import ru.perminov.tender.service.OrgSupplierMaterialMappingService;
 import ru.perminov.tender.service.RequestService;
 import ru.perminov.tender.service.TenderService;
@@ -27,6 +33,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
 import ru.perminov.tender.model.User;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -36,6 +44,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional
 public class RequestServiceImpl implements RequestService {
+
     private final RequestRepository requestRepository;
     private final RequestMapper requestMapper;
     private final RequestMaterialMapper requestMaterialMapper;
@@ -67,6 +76,15 @@ public class RequestServiceImpl implements RequestService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponseDto<RequestDto> findPage(ListingRequest listing, String status, UUID organizationId, UUID projectId,
+                                                LocalDate dateFrom, LocalDate dateTo, String search) {
+        Specification<Request> spec = RequestListing.filter(status, organizationId, projectId, dateFrom, dateTo, search);
+        return Listings.fetch(requestRepository, spec, listing, RequestListing.SORT_FIELDS, RequestListing.DEFAULT_SORT, Request::getId,
+                requests -> requests.stream().map(requestMapper::toDto).collect(Collectors.toList()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public RequestDto findById(UUID id) {
@@ -287,19 +305,21 @@ public class RequestServiceImpl implements RequestService {
             return;
         }
         
+        List<OrgSupplierMaterialMappingSaveDto> items = new ArrayList<>();
         for (RequestMaterial material : request.getRequestMaterials()) {
             if (material.getMaterial() != null && 
                 material.getSupplierMaterialName() != null && 
                 !material.getSupplierMaterialName().trim().isEmpty()) {
                 
-                // Сохраняем соответствие: организация + наименование в заявке -> материал
-                orgSupplierMaterialMappingService.save(
-                    request.getOrganization().getId(),
+                // Соответствие: организация + наименование в заявке -> материал
+                items.add(new OrgSupplierMaterialMappingSaveDto(
                     material.getSupplierMaterialName().trim(),
                     material.getMaterial().getId(),
                     material.getCharacteristic() != null ? material.getCharacteristic().getId() : null
-                );
+                ));
             }
         }
+        // Все строки заявки сохраняются одной пачкой
+        orgSupplierMaterialMappingService.saveAll(request.getOrganization().getId(), items);
     }
 } 
\ No newline at end of file
@@ -12,11 +12,11 @@ import ru.perminov.tender.model.Settings;
 import ru.perminov.tender.repository.SettingsRepository;
 import ru.perminov.tender.service.SettingsService;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +30,9 @@ public class SettingsServiceImpl implements SettingsService {
     
     @Autowired
     private SettingsRepository settingsRepository;
+
+    @Autowired
+    private RestTemplate restTemplate;
     
     @Override
     public SettingsDto getSettings() {
@@ -75,25 +78,17 @@ public class SettingsServiceImpl implements SettingsService {
         
         try {
             // Запрос к API ФНС для получения статистики использования
-            HttpClient client = HttpClient.newHttpClient();
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api-fns.ru/api/stat?key=" + apiKey))
-                    .GET()
-                    .build();
+            ResponseEntity<String> response = restTemplate.getForEntity(
+                    "https://api-fns.ru/api/stat?key=" + apiKey, String.class);
+            String responseBody = response.getBody();
+            logger.debug("FNS API usage response: {}", responseBody);
             
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            String responseBody = response.body();
-            logger.info("FNS API usage response: {}", responseBody);
-            
-            if (response.statusCode() == 200) {
-                // Парсим ответ и извлекаем информацию об остатке запросов
-                return parseUsageFromResponse(responseBody);
-            } else {
-                return "Ошибка получения данных: HTTP " + response.statusCode();
-            }
+            // Парсим ответ и извлекаем информацию об остатке запросов
+            return parseUsageFromResponse(responseBody);
             
-        } catch (IOException | InterruptedException e) {
-            Thread.currentThread().interrupt();
+        } catch (HttpStatusCodeException e) {
+            return "Ошибка получения данных: HTTP " + e.getStatusCode().value();
+        } catch (RestClientException e) {
             return "Ошибка при запросе к API ФНС: " + e.getMessage();
         }
     }
@@ -1,10 +1,14 @@
 package ru.perminov.tender.service.impl;
 
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
 import ru.perminov.tender.dto.tender.SupplierProposalDto;
 import ru.perminov.tender.dto.tender.ProposalItemDto;
 import ru.perminov.tender.mapper.SupplierProposalMapper;
@@ -21,10 +25,14 @@ import ru.perminov.tender.repository.TenderRepository;
 import ru.perminov.tender.repository.TenderItemRepository;
 import ru.perminov.tender.repository.UnitRepository;
 import ru.perminov.tender.repository.company.CompanyRepository;
+import ru.perminov.tender.repository.listing.Listings;
+import ru.perminov.tender.repository.listing.SortField;
 import ru.perminov.tender.service.SupplierProposalService;
 import ru.perminov.tender.service.NotificationService;
+import ru.perminov.tender.service.PriceAnalysisService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -38,6 +46,12 @@ import java.util.Set;
 @Transactional
 public class SupplierProposalServiceImpl implements SupplierProposalService {
 
+    private static final Map<String, SortField<SupplierProposal>> PROPOSAL_SORT_FIELDS = Map.of(
+            "submissionDate", SortField.of("submissionDate", LocalDateTime.class, SupplierProposal::getSubmissionDate),
+            "totalPrice", SortField.of("totalPrice", Double.class, SupplierProposal::getTotalPrice),
+            "proposalNumber", SortField.of("proposalNumber", String.class, SupplierProposal::getProposalNumber)
+    );
+
     private static final Logger log = LoggerFactory.getLogger(SupplierProposalServiceImpl.class);
     private final SupplierProposalRepository supplierProposalRepository;
     private final ProposalItemRepository proposalItemRepository;
@@ -46,6 +60,7 @@ public class SupplierProposalServiceImpl implements SupplierProposalService {
     private final CompanyRepository companyRepository;
     private final UnitRepository unitRepository;
     private final NotificationService notificationService;
+    private final PriceAnalysisService priceAnalysisService;
     private final SupplierProposalMapper supplierProposalMapper;
     private final ProposalItemMapper proposalItemMapper;
 
@@ -175,6 +190,7 @@ public class SupplierProposalServiceImpl implements SupplierProposalService {
         double total = items.stream().filter(i -> i.getTotalPrice() != null).mapToDouble(ProposalItem::getTotalPrice).sum();
         savedProposal.setTotalPrice(total);
         supplierProposalRepository.save(savedProposal);
+        invalidateTenderCalculations(savedProposal);
         
         return supplierProposalMapper.toDto(savedProposal);
     }
@@ -199,6 +215,7 @@ public class SupplierProposalServiceImpl implements SupplierProposalService {
         existingProposal.setValidUntil(proposalDto.getValidUntil());
         
         SupplierProposal updatedProposal = supplierProposalRepository.save(existingProposal);
+        invalidateTenderCalculations(updatedProposal);
         return supplierProposalMapper.toDto(updatedProposal);
     }
 
@@ -272,6 +289,7 @@ public class SupplierProposalServiceImpl implements SupplierProposalService {
             throw new RuntimeException("Можно удалить только черновик предложения");
         }
         
+        invalidateTenderCalculations(proposal);
         supplierProposalRepository.delete(proposal);
     }
 
@@ -303,6 +321,7 @@ public class SupplierProposalServiceImpl implements SupplierProposalService {
         double total = items.stream().filter(i -> i.getTotalPrice() != null).mapToDouble(ProposalItem::getTotalPrice).sum();
         savedProposal.setTotalPrice(total);
         supplierProposalRepository.save(savedProposal);
+        invalidateTenderCalculations(savedProposal);
         
         // Отправляем уведомление о получении предложения
         try {
@@ -476,6 +495,32 @@ public class SupplierProposalServiceImpl implements SupplierProposalService {
         return proposals.stream().map(supplierProposalMapper::toDto).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponseDto<SupplierProposalDto> getProposalPage(ListingRequest listing, String status, UUID tenderId,
+                                                                UUID supplierId, String search) {
+        SupplierProposal.ProposalStatus proposalStatus = Listings.parseEnum(SupplierProposal.ProposalStatus.class, status);
+        Specification<SupplierProposal> spec = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (proposalStatus != null) {
+                predicates.add(cb.equal(root.get("status"), proposalStatus));
+            }
+            if (tenderId != null) {
+                predicates.add(cb.equal(root.get("tender").get("id"), tenderId));
+            }
+            if (supplierId != null) {
+                predicates.add(cb.equal(root.get("supplier").get("id"), supplierId));
+            }
+            if (search != null && !search.isBlank()) {
+                predicates.add(cb.like(cb.lower(root.get("proposalNumber")), Listings.likePattern(search), '\\'));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+        return Listings.fetch(supplierProposalRepository, spec, listing, PROPOSAL_SORT_FIELDS, "submissionDate",
+                SupplierProposal::getId,
+                proposals -> proposals.stream().map(supplierProposalMapper::toDto).collect(Collectors.toList()));
+    }
+
     @Override
     public void acceptAllProposalsForTender(UUID tenderId) {
         log.info("Обновление статуса всех предложений тендера {} на ACCEPTED (кроме отклоненных)", tenderId);
@@ -493,4 +538,15 @@ public class SupplierProposalServiceImpl implements SupplierProposalService {
         
         log.info("Завершено обновление статуса предложений для тендера {}", tenderId);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Сбрасывает сохраненную экономию и кэш анализа цен тендера, они будут пересчитаны при следующем запросе
+     */
+    private void invalidateTenderCalculations(SupplierProposal proposal) {
+        if (proposal.getTender() != null) {
+            proposal.getTender().setSavings(null);
+            tenderRepository.resetSavings(proposal.getTender().getId());
+            priceAnalysisService.invalidateTender(proposal.getTender().getId());
+        }
+    }
+}
@@ -3,6 +3,9 @@ package ru.perminov.tender.service.impl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
+import ru.perminov.tender.dto.company.CompanyDto;
 import ru.perminov.tender.dto.tender.TenderDto;
 import ru.perminov.tender.dto.tender.TenderItemDto;
 import ru.perminov.tender.dto.tender.SupplierProposalDto;
@@ -15,6 +18,9 @@ import ru.perminov.tender.model.Request;
 import ru.perminov.tender.model.RequestMaterial;
 import ru.perminov.tender.model.company.Company;
 import ru.perminov.tender.repository.TenderRepository;
+import ru.perminov.tender.repository.listing.Listings;
+import ru.perminov.tender.repository.listing.SortField;
+import ru.perminov.tender.repository.projection.TenderListProjection;
 import ru.perminov.tender.repository.TenderItemRepository;
 import ru.perminov.tender.repository.RequestRepository;
 import ru.perminov.tender.repository.company.CompanyRepository;
@@ -24,11 +30,16 @@ import ru.perminov.tender.service.SupplierProposalService;
 import ru.perminov.tender.service.NotificationService;
 import ru.perminov.tender.service.PriceAnalysisService;
 import ru.perminov.tender.service.AuditLogService;
+import ru.perminov.tender.service.DashboardMetricsService;
 import ru.perminov.tender.repository.UserRepository;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
 import ru.perminov.tender.model.User;
 
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -46,6 +57,13 @@ import ru.perminov.tender.mapper.company.CompanyMapper;
 @Slf4j
 public class TenderServiceImpl implements TenderService {
 
+    private static final Map<String, SortField<Tender>> TENDER_SORT_FIELDS = Map.of(
+            "startDate", SortField.of("startDate", LocalDateTime.class, Tender::getStartDate),
+            "submissionDeadline", SortField.of("submissionDeadline", LocalDateTime.class, Tender::getSubmissionDeadline),
+            "tenderNumber", SortField.of("tenderNumber", String.class, Tender::getTenderNumber),
+            "title", SortField.of("title", String.class, Tender::getTitle)
+    );
+
     private final TenderRepository tenderRepository;
     private final TenderItemRepository tenderItemRepository;
     private final RequestRepository requestRepository;
@@ -54,6 +72,7 @@ public class TenderServiceImpl implements TenderService {
     private final SupplierProposalService supplierProposalService;
     private final NotificationService notificationService;
     private final PriceAnalysisService priceAnalysisService;
+    private final DashboardMetricsService dashboardMetricsService;
     private final TenderMapper tenderMapper;
     private final TenderItemMapper tenderItemMapper;
     private final ProposalItemRepository proposalItemRepository;
@@ -154,6 +173,7 @@ public class TenderServiceImpl implements TenderService {
         existingTender.setTermsAndConditions(tenderDto.getTermsAndConditions());
         
         Tender updatedTender = tenderRepository.save(existingTender);
+        priceAnalysisService.invalidateTender(updatedTender.getId());
         auditLogService.logSimple(getCurrentUser(), "UPDATE_TENDER", "Tender", updatedTender.getId().toString(), "Обновлен тендер");
         return tenderMapper.toDto(updatedTender);
     }
@@ -185,90 +205,59 @@ public class TenderServiceImpl implements TenderService {
     @Override
     @Transactional(readOnly = true)
     public List<TenderDto> getAllTenders() {
-        List<Tender> tenders = tenderRepository.findAll();
-        return tenders.stream()
-                .map(tender -> {
-                    TenderDto dto = tenderMapper.toDto(tender);
-                    
-                    // Заполняем awardedSupplier если есть awardedSupplierId
-                    if (tender.getAwardedSupplierId() != null) {
-                        Company awardedSupplier = companyRepository.findById(tender.getAwardedSupplierId()).orElse(null);
-                        if (awardedSupplier != null) {
-                            dto.setAwardedSupplier(companyMapper.toCompanyDto(awardedSupplier));
-                        }
-                    }
-                    
-                    int count = supplierProposalService.getProposalsByTender(tender.getId()).size();
-                    dto.setProposalsCount(count);
-                    // Добавляем пометки в title
-                    if (tender.getParentTender() != null) {
-                        dto.setTitle(dto.getTitle() + " (отделённая часть)");
-                    } else if (tenderRepository.existsByParentTenderId(tender.getId())) {
-                        dto.setTitle(dto.getTitle() + " (разделён)");
-                    }
-                    return dto;
-                })
+        return tenderRepository.findTenderList().stream()
+                .map(this::toListDto)
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TenderDto> getTendersByStatus(Tender.TenderStatus status) {
-        List<Tender> tenders = tenderRepository.findByStatus(status);
-        return tenders.stream()
-                .map(tender -> {
-                    TenderDto dto = tenderMapper.toDto(tender);
-                    
-                    // Заполняем awardedSupplier если есть awardedSupplierId
-                    if (tender.getAwardedSupplierId() != null) {
-                        Company awardedSupplier = companyRepository.findById(tender.getAwardedSupplierId()).orElse(null);
-                        if (awardedSupplier != null) {
-                            dto.setAwardedSupplier(companyMapper.toCompanyDto(awardedSupplier));
-                        }
-                    }
-                    
-                    int count = supplierProposalService.getProposalsByTender(tender.getId()).size();
-                    dto.setProposalsCount(count);
-                    // Добавляем пометки в title
-                    if (tender.getParentTender() != null) {
-                        dto.setTitle(dto.getTitle() + " (отделённая часть)");
-                    } else if (tenderRepository.existsByParentTenderId(tender.getId())) {
-                        dto.setTitle(dto.getTitle() + " (разделён)");
-                    }
-                    return dto;
-                })
+        return tenderRepository.findTenderListByStatusIn(List.of(status)).stream()
+                .map(this::toListDto)
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TenderDto> getTendersByCustomer(UUID customerId) {
-        List<Tender> tenders = tenderRepository.findByCustomerId(customerId);
-        return tenders.stream()
-                .map(tender -> {
-                    TenderDto dto = tenderMapper.toDto(tender);
-                    
-                    // Заполняем awardedSupplier если есть awardedSupplierId
-                    if (tender.getAwardedSupplierId() != null) {
-                        Company awardedSupplier = companyRepository.findById(tender.getAwardedSupplierId()).orElse(null);
-                        if (awardedSupplier != null) {
-                            dto.setAwardedSupplier(companyMapper.toCompanyDto(awardedSupplier));
-                        }
-                    }
-                    
-                    int count = supplierProposalService.getProposalsByTender(tender.getId()).size();
-                    dto.setProposalsCount(count);
-                    // Добавляем пометки в title
-                    if (tender.getParentTender() != null) {
-                        dto.setTitle(dto.getTitle() + " (отделённая часть)");
-                    } else if (tenderRepository.existsByParentTenderId(tender.getId())) {
-                        dto.setTitle(dto.getTitle() + " (разделён)");
-                    }
-                    return dto;
-                })
+        return tenderRepository.findTenderListByCustomerId(customerId).stream()
+                .map(this::toListDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponseDto<TenderDto> getTenderPage(ListingRequest listing, String status, UUID customerId,
+                                                    LocalDate dateFrom, LocalDate dateTo, String search) {
+        Tender.TenderStatus tenderStatus = Listings.parseEnum(Tender.TenderStatus.class, status);
+        Specification<Tender> spec = (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (tenderStatus != null) {
+                predicates.add(cb.equal(root.get("status"), tenderStatus));
+            }
+            if (customerId != null) {
+                predicates.add(cb.equal(root.get("customer").get("id"), customerId));
+            }
+            if (dateFrom != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("startDate"), dateFrom.atStartOfDay()));
+            }
+            if (dateTo != null) {
+                predicates.add(cb.lessThan(root.get("startDate"), dateTo.plusDays(1).atStartOfDay()));
+            }
+            if (search != null && !search.isBlank()) {
+                String pattern = Listings.likePattern(search);
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("title")), pattern, '\\'),
+                        cb.like(cb.lower(root.get("tenderNumber")), pattern, '\\')
+                ));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+        return Listings.fetch(tenderRepository, spec, listing, TENDER_SORT_FIELDS, "startDate",
+                Tender::getId, this::toListDtos);
+    }
+
     @Override
     public void deleteTender(UUID id) {
         Tender tender = tenderRepository.findById(id)
@@ -280,6 +269,7 @@ public class TenderServiceImpl implements TenderService {
         }
         
         tenderRepository.delete(tender);
+        priceAnalysisService.invalidateTender(id);
     }
 
     @Override
@@ -292,6 +282,7 @@ public class TenderServiceImpl implements TenderService {
         }
         
         tender.setStatus(Tender.TenderStatus.PUBLISHED);
+        dashboardMetricsService.onTenderStatusChanged(Tender.TenderStatus.DRAFT, Tender.TenderStatus.PUBLISHED);
         tender.setStartDate(LocalDateTime.now());
         
         Tender savedTender = tenderRepository.save(tender);
@@ -329,6 +320,7 @@ public class TenderServiceImpl implements TenderService {
         
         tender.setStatus(Tender.TenderStatus.EVALUATION);
         tender.setEndDate(LocalDateTime.now());
+        dashboardMetricsService.onTenderStatusChanged(Tender.TenderStatus.BIDDING, Tender.TenderStatus.EVALUATION);
         
         Tender savedTender = tenderRepository.save(tender);
         auditLogService.logSimple(getCurrentUser(), "CLOSE_TENDER", "Tender", savedTender.getId().toString(), "Тендер закрыт");
@@ -476,35 +468,18 @@ public class TenderServiceImpl implements TenderService {
     @Transactional(readOnly = true)
     public List<TenderDto> getAllTendersForSupplier() {
         // Получаем все тендеры в подходящих статусах
-        List<Tender> allTenders = tenderRepository.findAll();
-        
-        return allTenders.stream()
-                .filter(tender -> 
-                    tender.getStatus() == Tender.TenderStatus.PUBLISHED ||
-                    tender.getStatus() == Tender.TenderStatus.BIDDING ||
-                    tender.getStatus() == Tender.TenderStatus.EVALUATION ||
-                    tender.getStatus() == Tender.TenderStatus.AWARDED
-                )
-                .map(tender -> {
-                    TenderDto dto = tenderMapper.toDto(tender);
-                    
-                    // Заполняем awardedSupplier если есть awardedSupplierId
-                    if (tender.getAwardedSupplierId() != null) {
-                        Company awardedSupplier = companyRepository.findById(tender.getAwardedSupplierId()).orElse(null);
-                        if (awardedSupplier != null) {
-                            dto.setAwardedSupplier(companyMapper.toCompanyDto(awardedSupplier));
-                        }
-                    }
-                    
+        List<Tender.TenderStatus> statuses = List.of(
+                Tender.TenderStatus.PUBLISHED,
+                Tender.TenderStatus.BIDDING,
+                Tender.TenderStatus.EVALUATION,
+                Tender.TenderStatus.AWARDED
+        );
+        return tenderRepository.findTenderListByStatusIn(statuses).stream()
+                .map(row -> {
+                    TenderDto dto = toListDto(row);
                     // Не показываем предложения поставщику
+                    dto.setProposalsCount(null);
                     dto.setSupplierProposals(new ArrayList<>());
-                    
-                    // Добавляем пометки в title
-                    if (tender.getParentTender() != null) {
-                        dto.setTitle(dto.getTitle() + " (отделённая часть)");
-                    } else if (tenderRepository.existsByParentTenderId(tender.getId())) {
-                        dto.setTitle(dto.getTitle() + " (разделён)");
-                    }
                     return dto;
                 })
                 .collect(Collectors.toList());
@@ -518,6 +493,7 @@ public class TenderServiceImpl implements TenderService {
             throw new RuntimeException("Можно начать прием предложений только для опубликованного тендера");
         }
         tender.setStatus(Tender.TenderStatus.BIDDING);
+        dashboardMetricsService.onTenderStatusChanged(Tender.TenderStatus.PUBLISHED, Tender.TenderStatus.BIDDING);
         Tender savedTender = tenderRepository.save(tender);
         auditLogService.logSimple(getCurrentUser(), "START_BIDDING", "Tender", savedTender.getId().toString(), "Начат прием предложений");
         
@@ -542,6 +518,7 @@ public class TenderServiceImpl implements TenderService {
             throw new RuntimeException("Можно завершить только тендер в статусе оценки");
         }
         tender.setStatus(Tender.TenderStatus.AWARDED);
+        dashboardMetricsService.onTenderStatusChanged(Tender.TenderStatus.EVALUATION, Tender.TenderStatus.AWARDED);
         Tender savedTender = tenderRepository.save(tender);
         auditLogService.logSimple(getCurrentUser(), "COMPLETE_TENDER", "Tender", savedTender.getId().toString(), "Тендер завершен");
         
@@ -568,7 +545,9 @@ public class TenderServiceImpl implements TenderService {
         if (tender.getStatus() == Tender.TenderStatus.AWARDED) {
             throw new RuntimeException("Нельзя отменить завершенный тендер");
         }
+        Tender.TenderStatus oldStatus = tender.getStatus();
         tender.setStatus(Tender.TenderStatus.CANCELLED);
+        dashboardMetricsService.onTenderStatusChanged(oldStatus, Tender.TenderStatus.CANCELLED);
         Tender saved = tenderRepository.save(tender);
         auditLogService.logSimple(getCurrentUser(), "CANCEL_TENDER", "Tender", saved.getId().toString(), "Тендер отменен");
         
@@ -603,7 +582,9 @@ public class TenderServiceImpl implements TenderService {
             .orElseThrow(() -> new RuntimeException("Тендер не найден"));
         if (supplierId == null) {
             tender.setAwardedSupplierId(null);
+            Tender.TenderStatus oldStatus = tender.getStatus();
             tender.setStatus(Tender.TenderStatus.EVALUATION);
+            dashboardMetricsService.onTenderStatusChanged(oldStatus, Tender.TenderStatus.EVALUATION);
         } else {
             tender.setAwardedSupplierId(supplierId);
             // tender.setStatus(Tender.TenderStatus.AWARDED); // Не менять статус!
@@ -629,8 +610,10 @@ public class TenderServiceImpl implements TenderService {
     public TenderDto setTenderStatus(UUID id, String status) {
         Tender tender = tenderRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Тендер не найден"));
+        Tender.TenderStatus oldStatus = tender.getStatus();
         tender.setStatus(Tender.TenderStatus.valueOf(status));
         tenderRepository.save(tender);
+        dashboardMetricsService.onTenderStatusChanged(oldStatus, tender.getStatus());
         return tenderMapper.toDto(tender);
     }
 
@@ -766,6 +749,10 @@ public class TenderServiceImpl implements TenderService {
             originalItems.add(tenderItemMapper.toDto(savedOriginalItem));
             newItems.add(tenderItemMapper.toDto(savedNewItem));
         }
+        // Количества позиций изменились, экономию и анализ цен исходного тендера нужно пересчитать
+        originalTender.setSavings(null);
+        tenderRepository.resetSavings(originalTender.getId());
+        priceAnalysisService.invalidateTender(originalTender.getId());
         
         // Создаем ответ
         ru.perminov.tender.dto.tender.TenderSplitResponseDto response = new ru.perminov.tender.dto.tender.TenderSplitResponseDto();
@@ -780,5 +767,61 @@ public class TenderServiceImpl implements TenderService {
         
         return response;
     }
-    
-} 
\ No newline at end of file
+
+    private List<TenderDto> toListDtos(List<Tender> tenders) {
+        if (tenders.isEmpty()) return new ArrayList<>();
+        Map<UUID, TenderListProjection> rows = tenderRepository.findTenderListByIds(
+                        tenders.stream().map(Tender::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(TenderListProjection::getId, row -> row));
+        return tenders.stream()
+                .map(tender -> toListDto(rows.get(tender.getId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Строка списка тендеров без позиций и предложений. Заказчик и победитель заполняются
+     * основными реквизитами из того же запроса
+     */
+    private TenderDto toListDto(TenderListProjection row) {
+        TenderDto dto = new TenderDto();
+        dto.setId(row.getId());
+        dto.setRequestId(row.getRequestId());
+        dto.setTenderNumber(row.getTenderNumber());
+        dto.setTitle(row.getTitle());
+        dto.setDescription(row.getDescription());
+        dto.setStartDate(row.getStartDate());
+        dto.setEndDate(row.getEndDate());
+        dto.setSubmissionDeadline(row.getSubmissionDeadline());
+        dto.setStatus(row.getStatus());
+        dto.setRequirements(row.getRequirements());
+        dto.setTermsAndConditions(row.getTermsAndConditions());
+        dto.setCustomerId(row.getCustomerId());
+        dto.setCustomerName(row.getCustomerName());
+        if (row.getCustomerId() != null) {
+            dto.setCustomer(listCompanyDto(row.getCustomerId(), row.getCustomerInn(),
+                    row.getCustomerName(), row.getCustomerShortName(), null));
+        }
+        dto.setAwardedSupplierId(row.getAwardedSupplierId());
+        if (row.getAwardedSupplierId() != null && row.getAwardedSupplierName() != null) {
+            dto.setAwardedSupplier(listCompanyDto(row.getAwardedSupplierId(), row.getAwardedSupplierInn(),
+                    row.getAwardedSupplierName(), row.getAwardedSupplierShortName(), row.getAwardedSupplierEmail()));
+        }
+        dto.setParentTenderId(row.getParentTenderId());
+        dto.setWarehouseId(row.getWarehouseId());
+        dto.setWarehouseName(row.getWarehouseName());
+        dto.setProposalsCount((int) row.getProposalsCount());
+        
+        // Добавляем пометки в title
+        if (row.getParentTenderId() != null) {
+            dto.setTitle(dto.getTitle() + " (отделённая часть)");
+        } else if (row.isSplit()) {
+            dto.setTitle(dto.getTitle() + " (разделён)");
+        }
+        return dto;
+    }
+
+    private CompanyDto listCompanyDto(UUID id, String inn, String name, String shortName, String email) {
+        return new CompanyDto(id, inn, null, null, name, null, shortName, null, null, null,
+                null, null, null, email, null, null);
+    }
+}
@@ -5,14 +5,10 @@ import org.springframework.stereotype.Service;
 import ru.perminov.tender.dto.UnitDtoNew;
 import ru.perminov.tender.dto.UnitDtoUpdate;
 import ru.perminov.tender.mapper.UnitMapper;
+import ru.perminov.tender.model.ImportType;
 import ru.perminov.tender.model.Unit;
 import ru.perminov.tender.repository.UnitRepository;
 import ru.perminov.tender.service.UnitService;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.web.multipart.MultipartFile;
 import ru.perminov.tender.dto.ImportResultDto;
 import ru.perminov.tender.service.AuditLogService;
@@ -20,19 +16,28 @@ import ru.perminov.tender.repository.UserRepository;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.Authentication;
 import ru.perminov.tender.model.User;
+import ru.perminov.tender.service.importer.ExcelImportSource;
+import ru.perminov.tender.service.importer.ExcelImporter;
+import ru.perminov.tender.service.importer.ImportColumns;
+import ru.perminov.tender.service.importer.ImportDefinition;
+import ru.perminov.tender.service.importer.ImportRowException;
 
-import java.io.InputStream;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
-public class UnitServiceImpl implements UnitService {
+public class UnitServiceImpl implements UnitService, ExcelImportSource {
 
     private final UnitRepository unitRepository;
     private final UnitMapper unitMapper;
     private final AuditLogService auditLogService;
     private final UserRepository userRepository;
+    private final ExcelImporter excelImporter;
 
     private User getCurrentUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -83,53 +88,32 @@ public class UnitServiceImpl implements UnitService {
 
     @Override
     public ImportResultDto importFromExcel(MultipartFile file) {
-        ImportResultDto result = new ImportResultDto();
-        try (InputStream is = file.getInputStream();
-             Workbook workbook = new XSSFWorkbook(is)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) { // skipping header
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-
-                try {
-                    String name = getCellValueAsString(row.getCell(1));
-                    String shortName = getCellValueAsString(row.getCell(2));
-
-                    if (name == null || name.isBlank()) {
-                        result.addError(i + 1, "Название не может быть пустым.");
-                        continue;
-                    }
+        return excelImporter.importFile(file, importDefinition(Map.of()));
+    }
 
-                    if (unitRepository.existsByName(name)) {
-                        result.addError(i + 1, "Единица измерения с названием '" + name + "' уже существует.");
-                        continue;
-                    }
-                    Unit unit = new Unit();
-                    unit.setName(name);
-                    unit.setShortName(shortName);
-                    unitRepository.save(unit);
-                    result.incrementImported();
-                } catch (Exception e) {
-                    result.addError(i + 1, "Ошибка в строке: " + e.getMessage());
-                }
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка импорта файла: " + e.getMessage(), e);
-        }
-        return result;
+    @Override
+    public ImportType importType() {
+        return ImportType.UNITS;
     }
 
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) {
-            return null;
-        }
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                return String.valueOf((long) cell.getNumericCellValue());
-            default:
-                return null;
-        }
+    @Override
+    public ImportDefinition<Unit> importDefinition(Map<String, Object> columnMapping) {
+        Set<String> existingNames = unitRepository.findAll().stream()
+                .map(Unit::getName)
+                .collect(Collectors.toCollection(HashSet::new));
+        ImportColumns columns = ImportColumns.of(Map.of("name", 1, "shortName", 2), columnMapping);
+        return new ImportDefinition<>("units", columns, row -> {
+            String name = columns.get(row, "name");
+            if (name == null || name.isBlank()) {
+                throw new ImportRowException("Название не может быть пустым.");
+            }
+            if (!existingNames.add(name)) {
+                throw new ImportRowException("Единица измерения с названием '" + name + "' уже существует.");
+            }
+            Unit unit = new Unit();
+            unit.setName(name);
+            unit.setShortName(columns.get(row, "shortName"));
+            return unit;
+        }, unitRepository::saveAll);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,111 @@
+package ru.perminov.tender.service.importer;
+
+import ru.perminov.tender.cache.BankDirectory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Потоковый разбор справочника БИК ЦБ РФ (электронное сообщение ED807). Принимается XML или ZIP-архив,
+ * в котором берется первый XML-файл; кодировка определяется по заголовку XML (обычно windows-1251).
+ * Исключенные участники (PSDL) пропускаются, корреспондентский счет - первый действующий счет CRSA,
+ * при его отсутствии - счет UTRA/TRSA (органы Федерального казначейства), иначе пустая строка
+ */
+public final class Ed807Parser {
+
+    private static final byte[] ZIP_SIGNATURE = {'P', 'K', 3, 4};
+
+    private Ed807Parser() {
+    }
+
+    /**
+     * Разбирает справочник; errors получает описание пропущенной записи и ее номер в файле
+     */
+    public static List<BankDirectory.Entry> parse(InputStream source, ObjIntConsumer<String> errors) throws IOException {
+        BufferedInputStream input = new BufferedInputStream(source);
+        input.mark(ZIP_SIGNATURE.length);
+        byte[] head = input.readNBytes(ZIP_SIGNATURE.length);
+        input.reset();
+        if (Arrays.equals(head, ZIP_SIGNATURE)) {
+            ZipInputStream zip = new ZipInputStream(input);
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                if (!entry.isDirectory() && entry.getName().toLowerCase().endsWith(".xml")) {
+                    return parseXml(zip, errors);
+                }
+            }
+            throw new IOException("В архиве нет XML-файла справочника БИК");
+        }
+        return parseXml(input, errors);
+    }
+
+    private static List<BankDirectory.Entry> parseXml(InputStream input, ObjIntConsumer<String> errors) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        List<BankDirectory.Entry> result = new ArrayList<>();
+        try {
+            XMLStreamReader reader = factory.createXMLStreamReader(input);
+            int number = 0;
+            String bik = null;
+            String name = null;
+            String status = null;
+            String account = null;
+            String treasuryAccount = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "BICDirectoryEntry" -> {
+                            number++;
+                            bik = reader.getAttributeValue(null, "BIC");
+                            name = null;
+                            status = null;
+                            account = null;
+                            treasuryAccount = null;
+                        }
+                        case "ParticipantInfo" -> {
+                            name = reader.getAttributeValue(null, "NameP");
+                            status = reader.getAttributeValue(null, "ParticipantStatus");
+                        }
+                        case "Accounts" -> {
+                            if ("ACDL".equals(reader.getAttributeValue(null, "AccountStatus"))) {
+                                break;
+                            }
+                            String type = reader.getAttributeValue(null, "RegulationAccountType");
+                            if (account == null && "CRSA".equals(type)) {
+                                account = reader.getAttributeValue(null, "Account");
+                            } else if (treasuryAccount == null && ("UTRA".equals(type) || "TRSA".equals(type))) {
+                                treasuryAccount = reader.getAttributeValue(null, "Account");
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "BICDirectoryEntry".equals(reader.getLocalName())) {
+                    if (!BankDirectory.isValidBik(bik)) {
+                        errors.accept("Некорректный БИК: " + bik, number);
+                    } else if (name == null || name.isBlank()) {
+                        errors.accept("Нет наименования участника для БИК " + bik, number);
+                    } else if (!"PSDL".equals(status)) {
+                        result.add(new BankDirectory.Entry(bik, name.trim(), account != null ? account : treasuryAccount));
+                    }
+                }
+            }
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Некорректный XML справочника БИК: " + e.getMessage(), e);
+        }
+        return result;
+    }
+}
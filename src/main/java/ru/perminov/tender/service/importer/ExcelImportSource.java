@@ -0,0 +1,18 @@
+package ru.perminov.tender.service.importer;
+
+import ru.perminov.tender.model.ImportType;
+
+import java.util.Map;
+
+/**
+ * Справочник, который можно загрузить из Excel фоновым заданием
+ */
+public interface ExcelImportSource {
+
+    ImportType importType();
+
+    /**
+     * Готовит импорт: загружает существующие значения для проверки дублей и применяет сопоставление колонок
+     */
+    ImportDefinition<?> importDefinition(Map<String, Object> columnMapping);
+}
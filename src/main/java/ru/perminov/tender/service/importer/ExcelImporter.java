@@ -0,0 +1,233 @@
+package ru.perminov.tender.service.importer;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import ru.perminov.tender.dto.ImportResultDto;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Импорт строк из XLSX: лист читается потоково, строки разбираются в сущности
+ * и сохраняются пачками, каждая пачка в своей транзакции с пакетной вставкой JDBC
+ */
+@Component
+@Slf4j
+public class ExcelImporter {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${import.chunk-size:1000}")
+    private int chunkSize;
+
+    public ExcelImporter(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Импорт загруженного файла. Первая строка листа считается заголовком
+     */
+    public <T> ImportResultDto importFile(MultipartFile file, ImportDefinition<T> definition) {
+        ImportResultDto result = new ImportResultDto();
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile("import-", ".xlsx");
+            file.transferTo(tempFile);
+            importFile(tempFile, definition, result, ImportProgress.NONE);
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка импорта файла: " + e.getMessage(), e);
+        } finally {
+            deleteQuietly(tempFile);
+        }
+        return result;
+    }
+
+    /**
+     * Импорт файла с диска с накоплением счетчиков и ошибок в переданном результате.
+     * Строки до {@link ImportProgress#resumeAfterRow()} включительно считаются уже сохраненными
+     */
+    public <T> void importFile(Path file, ImportDefinition<T> definition, ImportResultDto result,
+                               ImportProgress progress) throws IOException {
+        long started = System.currentTimeMillis();
+        int resumeAfterRow = progress.resumeAfterRow();
+        List<T> entities = new ArrayList<>(chunkSize);
+        List<Integer> rowNumbers = new ArrayList<>(chunkSize);
+
+        XlsxSheetReader.read(file, row -> {
+            if (row.rowNumber() == 1) {
+                definition.columns().resolveHeader(row);
+                return;
+            }
+            if (row.rowNumber() <= resumeAfterRow) {
+                return;
+            }
+            result.incrementProcessed();
+            T entity = parseRow(definition, row, result);
+            progress.rowProcessed(result);
+            if (entity == null) {
+                return;
+            }
+            entities.add(entity);
+            rowNumbers.add(row.rowNumber());
+            if (entities.size() >= chunkSize) {
+                writeChunk(definition, entities, rowNumbers, result, progress);
+            }
+        });
+        if (!entities.isEmpty()) {
+            writeChunk(definition, entities, rowNumbers, result, progress);
+        }
+
+        log.info("Импорт '{}': обработано {} строк, сохранено {}, ошибок {} за {} мс",
+                definition.name(), result.getProcessed(), result.getImported(), result.getErrors().size(),
+                System.currentTimeMillis() - started);
+    }
+
+    private <T> T parseRow(ImportDefinition<T> definition, ImportRow row, ImportResultDto result) {
+        try {
+            return definition.parser().parse(row);
+        } catch (ImportRowException e) {
+            result.addError(row.rowNumber(), e.getMessage());
+        } catch (Exception e) {
+            result.addError(row.rowNumber(), "Ошибка в строке: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Сохраняет пачку одной транзакцией. Если пачка не сохранилась, ее строки сохраняются по одной,
+     * каждая в своей транзакции: ошибка сохранения относится только к строкам, которые не удалось записать
+     */
+    private <T> void writeChunk(ImportDefinition<T> definition, List<T> entities, List<Integer> rowNumbers,
+                                ImportResultDto result, ImportProgress progress) {
+        int lastRowNumber = rowNumbers.get(rowNumbers.size() - 1);
+        try {
+            write(definition, entities, lastRowNumber, result, progress);
+            log.debug("Импорт '{}': сохранена пачка из {} строк, обработано {}",
+                    definition.name(), entities.size(), result.getProcessed());
+        } catch (ImportInterruptedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.warn("Импорт '{}': не удалось сохранить строки {}-{} пачкой, сохраняем по одной: {}",
+                    definition.name(), rowNumbers.get(0), lastRowNumber, e.getMessage());
+            for (int i = 0; i < entities.size(); i++) {
+                try {
+                    write(definition, List.of(entities.get(i)), rowNumbers.get(i), result, progress);
+                } catch (ImportInterruptedException rowError) {
+                    throw rowError;
+                } catch (RuntimeException rowError) {
+                    result.addError(rowNumbers.get(i), "Ошибка сохранения: " + rootMessage(rowError));
+                }
+            }
+            // Отметка о последней строке пачки, если сама она не сохранилась
+            transactionTemplate.executeWithoutResult(status -> progress.chunkWritten(lastRowNumber, result));
+        }
+        entities.clear();
+        rowNumbers.clear();
+    }
+
+    private <T> void write(ImportDefinition<T> definition, List<T> entities, int lastRowNumber,
+                           ImportResultDto result, ImportProgress progress) {
+        List<Object> created = newEntities(entities);
+        int importedBefore = result.getImported();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(chunkSize);
+                definition.writer().accept(entities);
+                entityManager.flush();
+                entityManager.clear();
+                // Отметка фиксируется вместе с пачкой и только после успешной записи
+                result.setImported(importedBefore + entities.size());
+                progress.chunkWritten(lastRowNumber, result);
+            });
+        } catch (RuntimeException e) {
+            result.setImported(importedBefore);
+            // После отката сгенерированные id не существуют в базе: сущности снова становятся новыми
+            created.forEach(this::resetIdentifier);
+            throw e;
+        }
+    }
+
+    /**
+     * Новые (без id) сущности пачки и новые сущности, на которые они ссылаются, например созданные импортом справочники
+     */
+    private List<Object> newEntities(List<?> entities) {
+        Set<Object> created = Collections.newSetFromMap(new IdentityHashMap<>());
+        PersistenceUnitUtil util = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        for (Object entity : entities) {
+            if (util.getIdentifier(entity) == null) {
+                created.add(entity);
+            }
+            for (Attribute<?, ?> attribute : entityManager.getMetamodel().entity(entity.getClass()).getAttributes()) {
+                if (!attribute.isAssociation() || !(attribute.getJavaMember() instanceof Field field)) continue;
+                Object value = readField(field, entity);
+                Collection<?> references = value instanceof Collection<?> collection ? collection
+                        : value != null ? List.of(value) : List.of();
+                for (Object reference : references) {
+                    if (util.getIdentifier(reference) == null) {
+                        created.add(reference);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(created);
+    }
+
+    private void resetIdentifier(Object entity) {
+        EntityType<?> type = entityManager.getMetamodel().entity(entity.getClass());
+        if (type.getId(type.getIdType().getJavaType()).getJavaMember() instanceof Field field) {
+            try {
+                field.setAccessible(true);
+                field.set(entity, null);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException("Не удалось сбросить id сущности " + type.getName(), e);
+            }
+        }
+    }
+
+    private static Object readField(Field field, Object entity) {
+        try {
+            field.setAccessible(true);
+            return field.get(entity);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException("Не удалось прочитать поле " + field.getName(), e);
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Не удалось удалить временный файл импорта {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ru.perminov.tender.service.importer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Расположение полей импорта в колонках листа. По умолчанию используются индексы стандартного шаблона,
+ * сохраненное сопоставление (ImportColumnMapping) переопределяет их индексом колонки или текстом заголовка
+ */
+public final class ImportColumns {
+
+    private final Map<String, Integer> indexes;
+    private final Map<String, String> headers = new HashMap<>();
+
+    private ImportColumns(Map<String, Integer> defaults) {
+        this.indexes = new HashMap<>(defaults);
+    }
+
+    /**
+     * Колонки с индексами по умолчанию и переопределениями из сопоставления (поле -> индекс или заголовок)
+     */
+    public static ImportColumns of(Map<String, Integer> defaults, Map<String, Object> mapping) {
+        ImportColumns columns = new ImportColumns(defaults);
+        if (mapping == null) {
+            return columns;
+        }
+        mapping.forEach((field, value) -> {
+            if (!defaults.containsKey(field) || value == null) {
+                return;
+            }
+            if (value instanceof Number number) {
+                columns.indexes.put(field, number.intValue());
+            } else if (!value.toString().isBlank()) {
+                String text = value.toString().trim();
+                if (text.chars().allMatch(Character::isDigit)) {
+                    columns.indexes.put(field, Integer.parseInt(text));
+                } else {
+                    columns.headers.put(field, text);
+                }
+            }
+        });
+        return columns;
+    }
+
+    /**
+     * Сопоставляет поля, заданные текстом заголовка, с колонками строки заголовка
+     */
+    void resolveHeader(ImportRow header) {
+        headers.forEach((field, title) -> {
+            int found = -1;
+            for (int i = 0; i < header.cells().size(); i++) {
+                String cell = header.get(i);
+                if (cell != null && cell.trim().equalsIgnoreCase(title)) {
+                    found = i;
+                    break;
+                }
+            }
+            if (found < 0) {
+                throw new ImportRowException("В заголовке файла не найдена колонка '" + title + "'");
+            }
+            indexes.put(field, found);
+        });
+    }
+
+    /**
+     * Значение поля в строке или null, если колонка отсутствует
+     */
+    public String get(ImportRow row, String field) {
+        Integer index = indexes.get(field);
+        return index != null ? row.get(index) : null;
+    }
+}
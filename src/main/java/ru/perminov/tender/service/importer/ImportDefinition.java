@@ -0,0 +1,12 @@
+package ru.perminov.tender.service.importer;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Описание импорта справочника: расположение колонок, разбор строки и сохранение пачки сущностей.
+ * Разбор ничего не пишет в базу: новые связанные сущности (без id) сохраняет writer в транзакции пачки
+ */
+public record ImportDefinition<T>(String name, ImportColumns columns, ImportRowParser<T> parser,
+                                  Consumer<List<T>> writer) {
+}
@@ -0,0 +1,12 @@
+package ru.perminov.tender.service.importer;
+
+/**
+ * Импорт нужно прекратить целиком: строки пачки не сохраняются повторно по одной.
+ * Например, задание импорта перешло к другому узлу
+ */
+public class ImportInterruptedException extends RuntimeException {
+
+    public ImportInterruptedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,480 @@
+package ru.perminov.tender.service.importer;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import ru.perminov.tender.dto.ImportJobDto;
+import ru.perminov.tender.dto.ImportResultDto;
+import ru.perminov.tender.model.ImportColumnMapping;
+import ru.perminov.tender.model.ImportJob;
+import ru.perminov.tender.model.ImportJobError;
+import ru.perminov.tender.model.ImportJobFile;
+import ru.perminov.tender.model.ImportType;
+import ru.perminov.tender.repository.ImportJobErrorRepository;
+import ru.perminov.tender.repository.ImportJobFileRepository;
+import ru.perminov.tender.repository.ImportJobRepository;
+import ru.perminov.tender.service.ImportColumnMappingService;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Фоновые задания импорта: файл сохраняется в базе, задание выполняется в ограниченном пуле потоков,
+ * прогресс фиксируется вместе с каждой пачкой, поэтому прерванное задание продолжается с последней сохраненной строки.
+ * Задание выполняет один узел: он захватывает его условным UPDATE и продлевает аренду, задание узла,
+ * переставшего ее продлевать, подхватывает другой узел
+ */
+@Service
+@Slf4j
+public class ImportJobService {
+
+    private final ImportJobRepository jobRepository;
+    private final ImportJobErrorRepository errorRepository;
+    private final ImportJobFileRepository fileRepository;
+    private final ImportColumnMappingService columnMappingService;
+    private final ExcelImporter excelImporter;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<ImportType, ExcelImportSource> sources = new EnumMap<>(ImportType.class);
+    private final Map<UUID, JobProgress> running = new ConcurrentHashMap<>();
+    // Задания, поставленные в очередь этого узла, чтобы не ставить одно задание дважды
+    private final Set<UUID> scheduled = ConcurrentHashMap.newKeySet();
+
+    @Value("${import.jobs.dir:${java.io.tmpdir}/tender-import-jobs}")
+    private String jobsDir;
+
+    @Value("${import.jobs.node-id:}")
+    private String nodeId;
+
+    @Value("${import.jobs.lease:120000}")
+    private long leaseMillis;
+
+    @Value("${import.jobs.threads:2}")
+    private int threads;
+
+    @Value("${import.jobs.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${import.jobs.max-stored-errors:1000}")
+    private int maxStoredErrors;
+
+    private ThreadPoolExecutor executor;
+
+    public ImportJobService(ImportJobRepository jobRepository,
+                            ImportJobErrorRepository errorRepository,
+                            ImportJobFileRepository fileRepository,
+                            ImportColumnMappingService columnMappingService,
+                            ExcelImporter excelImporter,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            List<ExcelImportSource> importSources) {
+        this.jobRepository = jobRepository;
+        this.errorRepository = errorRepository;
+        this.fileRepository = fileRepository;
+        this.columnMappingService = columnMappingService;
+        this.excelImporter = excelImporter;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        importSources.forEach(source -> sources.put(source.importType(), source));
+    }
+
+    @PostConstruct
+    void startExecutor() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "import-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        // Незавершенные задания остаются в статусе RUNNING/QUEUED, их продолжит этот или другой узел после истечения аренды
+        executor.shutdownNow();
+    }
+
+    /**
+     * Сохраняет файл и ставит задание в очередь. Если заданы пользователь и компания,
+     * применяется их сохраненное сопоставление колонок
+     */
+    public ImportJobDto submit(ImportType type, MultipartFile file, String userId, String companyId) {
+        if (!sources.containsKey(type)) {
+            throw new RuntimeException("Импорт не поддерживается для " + type);
+        }
+        byte[] content;
+        try {
+            content = file.getBytes();
+        } catch (IOException e) {
+            throw new RuntimeException("Не удалось сохранить файл импорта: " + e.getMessage(), e);
+        }
+        ImportJob newJob = new ImportJob();
+        newJob.setImportType(type);
+        newJob.setFileName(file.getOriginalFilename());
+        newJob.setCreatedBy(currentUsername());
+        if (userId != null && companyId != null) {
+            newJob.setColumnMapping(columnMappingService.getMapping(userId, companyId)
+                    .map(ImportColumnMapping::getMappingJson)
+                    .orElse(null));
+        }
+        ImportJob job = transactionTemplate.execute(status -> {
+            ImportJob saved = jobRepository.save(newJob);
+            fileRepository.save(new ImportJobFile(saved.getId(), content));
+            return saved;
+        });
+
+        log.info("Создано задание импорта {} ({}), файл '{}'", job.getId(), type, job.getFileName());
+        enqueue(job);
+        return toDto(job, List.of());
+    }
+
+    /**
+     * Повторный запуск прерванного задания с последней сохраненной пачки
+     */
+    public Optional<ImportJobDto> resume(UUID id) {
+        return jobRepository.findById(id).map(job -> {
+            if (job.getStatus() != ImportJob.Status.FAILED) {
+                throw new RuntimeException("Возобновить можно только прерванное задание, текущий статус: " + job.getStatus());
+            }
+            if (!fileRepository.existsById(id)) {
+                throw new RuntimeException("Файл задания импорта больше не доступен");
+            }
+            job.setStatus(ImportJob.Status.QUEUED);
+            job.setFailureMessage(null);
+            job.setFinishedAt(null);
+            job.setUpdatedAt(LocalDateTime.now());
+            job = jobRepository.save(job);
+            log.info("Задание импорта {} возобновляется со строки {}", id, job.getLastCommittedRow() + 1);
+            enqueue(job);
+            return toDto(job, List.of());
+        });
+    }
+
+    public Optional<ImportJobDto> getJob(UUID id, int errorsLimit) {
+        return jobRepository.findById(id).map(job -> toDto(job,
+                errorsLimit > 0 ? errorRepository.findByJobIdOrderByRowNumber(id, PageRequest.of(0, errorsLimit)) : List.of()));
+    }
+
+    public List<ImportJobDto> getRecentJobs(int limit) {
+        return jobRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(0, limit)).stream()
+                .map(job -> toDto(job, List.of()))
+                .toList();
+    }
+
+    /**
+     * Задания, прерванные остановкой приложения, продолжаются после старта
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        pollJobs();
+    }
+
+    /**
+     * Ставит в очередь ожидающие задания и задания узлов, переставших продлевать аренду.
+     * Задание, которое уже захватил другой узел, при запуске пропускается
+     */
+    @Scheduled(fixedDelayString = "${import.jobs.poll-interval:30000}",
+            initialDelayString = "${import.jobs.poll-interval:30000}")
+    public void pollJobs() {
+        for (UUID id : jobRepository.findClaimableIds(LocalDateTime.now().minus(Duration.ofMillis(leaseMillis)))) {
+            if (!scheduled.contains(id) && !tryEnqueue(id)) {
+                // Очередь узла заполнена, оставшиеся задания возьмет другой узел или следующий проход
+                break;
+            }
+        }
+    }
+
+    /**
+     * Продлевает аренду заданий, выполняемых этим узлом
+     */
+    @Scheduled(fixedDelayString = "${import.jobs.heartbeat-interval:30000}",
+            initialDelayString = "${import.jobs.heartbeat-interval:30000}")
+    public void heartbeat() {
+        if (running.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                jobRepository.heartbeat(List.copyOf(running.keySet()), nodeId, LocalDateTime.now()));
+    }
+
+    private void enqueue(ImportJob job) {
+        if (!tryEnqueue(job.getId())) {
+            markFailed(job.getId(), "Очередь импорта заполнена");
+            throw new RuntimeException("Очередь импорта заполнена, повторите попытку позже");
+        }
+    }
+
+    private boolean tryEnqueue(UUID id) {
+        if (!scheduled.add(id)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> run(id));
+            return true;
+        } catch (RejectedExecutionException e) {
+            scheduled.remove(id);
+            return false;
+        }
+    }
+
+    private void run(UUID id) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int claimed = transactionTemplate.execute(status ->
+                    jobRepository.claim(id, nodeId, now, now.minus(Duration.ofMillis(leaseMillis))));
+            if (claimed == 0) {
+                log.debug("Задание импорта {} уже выполняется другим узлом", id);
+                return;
+            }
+            runClaimed(jobRepository.findById(id).orElseThrow());
+        } finally {
+            scheduled.remove(id);
+        }
+    }
+
+    private void runClaimed(ImportJob job) {
+        UUID id = job.getId();
+        if (job.getLastCommittedRow() > 0) {
+            log.info("Задание импорта {} продолжается со строки {}, попытка {}", id, job.getLastCommittedRow() + 1, job.getAttempts());
+        }
+        ImportResultDto result = new ImportResultDto();
+        result.setProcessed(job.getProcessedRows());
+        result.setImported(job.getImportedRows());
+        JobProgress progress = new JobProgress(job, (int) errorRepository.countByJobId(id));
+        running.put(id, progress);
+        Path file = null;
+        try {
+            file = copyFile(id);
+            ImportDefinition<?> definition = sources.get(job.getImportType())
+                    .importDefinition(parseColumnMapping(job.getColumnMapping()));
+            excelImporter.importFile(file, definition, result, progress);
+            progress.complete(result);
+            log.info("Задание импорта {} завершено: обработано {}, сохранено {}, ошибок {}",
+                    id, result.getProcessed(), result.getImported(), progress.errorCount);
+        } catch (ImportInterruptedException e) {
+            log.warn("Задание импорта {} остановлено на строке {}: {}", id, progress.lastCommittedRow, e.getMessage());
+        } catch (Exception e) {
+            log.error("Задание импорта {} прервано на строке {}", id, progress.lastCommittedRow, e);
+            markFailed(id, e.getMessage());
+        } finally {
+            running.remove(id);
+            if (file != null) {
+                deleteFile(file);
+            }
+        }
+    }
+
+    /**
+     * Локальная копия файла задания для потокового чтения
+     */
+    private Path copyFile(UUID id) throws IOException {
+        ImportJobFile jobFile = fileRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Файл задания импорта больше не доступен"));
+        Path dir = Files.createDirectories(Path.of(jobsDir));
+        return Files.write(dir.resolve(id + "-" + nodeId + ".xlsx"), jobFile.getContent());
+    }
+
+    /**
+     * Отмечает задание прерванным, если его не захватил другой узел
+     */
+    private void markFailed(UUID id, String message) {
+        transactionTemplate.executeWithoutResult(status -> jobRepository.findById(id).ifPresent(job -> {
+            if (job.getStatus() == ImportJob.Status.RUNNING && !nodeId.equals(job.getOwner())) {
+                return;
+            }
+            job.setStatus(ImportJob.Status.FAILED);
+            job.setFailureMessage(message);
+            job.setFinishedAt(LocalDateTime.now());
+            job.setUpdatedAt(LocalDateTime.now());
+        }));
+    }
+
+    private Map<String, Object> parseColumnMapping(String json) throws IOException {
+        if (json == null || json.isBlank()) {
+            return Map.of();
+        }
+        return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {
+        });
+    }
+
+    private ImportJobDto toDto(ImportJob job, List<ImportJobError> errors) {
+        JobProgress progress = running.get(job.getId());
+        int processed = progress != null ? progress.processed : job.getProcessedRows();
+        int imported = progress != null ? progress.imported : job.getImportedRows();
+        int errorCount = progress != null ? progress.errorCount : job.getErrorCount();
+
+        double rowsPerSecond = 0;
+        if (progress != null) {
+            rowsPerSecond = perSecond(processed - progress.startProcessed, System.nanoTime() - progress.startedNanos);
+        } else if (job.getStartedAt() != null && job.getFinishedAt() != null) {
+            rowsPerSecond = perSecond(processed, Duration.between(job.getStartedAt(), job.getFinishedAt()).toNanos());
+        }
+
+        return new ImportJobDto(job.getId(), job.getImportType(), job.getStatus(), job.getFileName(),
+                processed, imported, errorCount, job.getLastCommittedRow(), job.getAttempts(), rowsPerSecond,
+                job.getFailureMessage(), job.getCreatedAt(), job.getStartedAt(), job.getFinishedAt(),
+                errors.stream().map(error -> new ImportResultDto.ImportError(error.getRowNumber(), error.getMessage())).toList());
+    }
+
+    private static double perSecond(int rows, long nanos) {
+        return nanos > 0 ? Math.round(rows * 1_000_000_000.0 / nanos * 10) / 10.0 : 0;
+    }
+
+    private String currentUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() ? auth.getName() : null;
+    }
+
+    private void deleteFile(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Не удалось удалить файл задания импорта {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "node";
+        }
+    }
+
+    /**
+     * Прогресс выполняемого задания. Счетчики и ошибки записываются в транзакции пачки,
+     * локальное состояние сдвигается только после ее фиксации
+     */
+    private final class JobProgress implements ImportProgress {
+
+        private final UUID jobId;
+        private final int resumeAfterRow;
+        private final int errorOffset;
+        private final int startProcessed;
+        private final long startedNanos = System.nanoTime();
+        private int storedErrors;
+        private int persistedErrorIndex;
+        private volatile int lastCommittedRow;
+        private volatile int processed;
+        private volatile int imported;
+        private volatile int errorCount;
+
+        private JobProgress(ImportJob job, int storedErrors) {
+            this.jobId = job.getId();
+            this.resumeAfterRow = job.getLastCommittedRow();
+            this.lastCommittedRow = job.getLastCommittedRow();
+            this.errorOffset = job.getErrorCount();
+            this.errorCount = job.getErrorCount();
+            this.startProcessed = job.getProcessedRows();
+            this.processed = job.getProcessedRows();
+            this.imported = job.getImportedRows();
+            this.storedErrors = storedErrors;
+        }
+
+        @Override
+        public int resumeAfterRow() {
+            return resumeAfterRow;
+        }
+
+        @Override
+        public void rowProcessed(ImportResultDto result) {
+            processed = result.getProcessed();
+            errorCount = errorOffset + result.getErrors().size();
+        }
+
+        @Override
+        public void chunkWritten(int lastRowNumber, ImportResultDto result) {
+            int errorIndex = result.getErrors().size();
+            int stored = saveErrors(result.getErrors().subList(persistedErrorIndex, errorIndex));
+            int importedRows = result.getImported();
+            if (jobRepository.updateProgress(jobId, nodeId, lastRowNumber, result.getProcessed(), importedRows,
+                    errorOffset + errorIndex, LocalDateTime.now()) == 0) {
+                // Пачка откатывается: строки запишет узел, который теперь владеет заданием
+                throw new ImportInterruptedException("Задание импорта захвачено другим узлом");
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    persistedErrorIndex = errorIndex;
+                    storedErrors += stored;
+                    lastCommittedRow = lastRowNumber;
+                    imported = importedRows;
+                }
+            });
+        }
+
+        /**
+         * Фиксирует оставшиеся ошибки и итоговые счетчики после чтения всего файла
+         */
+        private void complete(ImportResultDto result) {
+            transactionTemplate.executeWithoutResult(status -> {
+                ImportJob job = jobRepository.findById(jobId).orElseThrow();
+                if (job.getStatus() != ImportJob.Status.RUNNING || !nodeId.equals(job.getOwner())) {
+                    throw new ImportInterruptedException("Задание импорта захвачено другим узлом");
+                }
+                saveErrors(result.getErrors().subList(persistedErrorIndex, result.getErrors().size()));
+                fileRepository.deleteById(jobId);
+                job.setProcessedRows(result.getProcessed());
+                job.setImportedRows(result.getImported());
+                job.setErrorCount(errorOffset + result.getErrors().size());
+                job.setStatus(ImportJob.Status.COMPLETED);
+                job.setFinishedAt(LocalDateTime.now());
+                job.setUpdatedAt(LocalDateTime.now());
+            });
+            errorCount = errorOffset + result.getErrors().size();
+        }
+
+        /**
+         * Сохраняет не более import.jobs.max-stored-errors ошибок на задание, остальные только подсчитываются
+         */
+        private int saveErrors(List<ImportResultDto.ImportError> errors) {
+            int limit = Math.min(errors.size(), Math.max(0, maxStoredErrors - storedErrors));
+            if (limit == 0) {
+                return 0;
+            }
+            List<ImportJobError> entities = new ArrayList<>(limit);
+            for (ImportResultDto.ImportError error : errors.subList(0, limit)) {
+                entities.add(new ImportJobError(jobId, error.getRow(), error.getMessage()));
+            }
+            errorRepository.saveAll(entities);
+            return limit;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.perminov.tender.service.importer;
+
+import ru.perminov.tender.dto.ImportResultDto;
+
+/**
+ * Отслеживание хода импорта, используется фоновыми заданиями для отчета о прогрессе и возобновления
+ */
+public interface ImportProgress {
+
+    ImportProgress NONE = new ImportProgress() {
+    };
+
+    /**
+     * Номер последней уже сохраненной строки, строки до нее включительно пропускаются
+     */
+    default int resumeAfterRow() {
+        return 0;
+    }
+
+    /**
+     * Вызывается после разбора каждой строки
+     */
+    default void rowProcessed(ImportResultDto result) {
+    }
+
+    /**
+     * Вызывается внутри транзакции пачки после успешной записи сущностей, изменения фиксируются вместе с пачкой.
+     * {@link ImportInterruptedException} откатывает пачку и прекращает импорт
+     */
+    default void chunkWritten(int lastRowNumber, ImportResultDto result) {
+    }
+}
@@ -0,0 +1,16 @@
+package ru.perminov.tender.service.importer;
+
+import java.util.List;
+
+/**
+ * Строка импортируемого листа: номер строки в Excel (с 1) и значения ячеек по индексу колонки
+ */
+public record ImportRow(int rowNumber, List<String> cells) {
+
+    /**
+     * Значение ячейки или null, если ячейка отсутствует
+     */
+    public String get(int column) {
+        return column >= 0 && column < cells.size() ? cells.get(column) : null;
+    }
+}
@@ -0,0 +1,11 @@
+package ru.perminov.tender.service.importer;
+
+/**
+ * Ошибка разбора строки импорта, сообщение попадает в результат импорта без изменений
+ */
+public class ImportRowException extends RuntimeException {
+
+    public ImportRowException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.perminov.tender.service.importer;
+
+/**
+ * Разбор строки файла в сущность. null означает, что строку нужно пропустить
+ */
+@FunctionalInterface
+public interface ImportRowParser<T> {
+
+    T parse(ImportRow row);
+}
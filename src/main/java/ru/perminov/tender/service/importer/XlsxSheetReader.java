@@ -0,0 +1,121 @@
+package ru.perminov.tender.service.importer;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Потоковое чтение первого листа XLSX через SAX: в памяти находится только текущая строка,
+ * без построения DOM всей книги
+ */
+final class XlsxSheetReader {
+
+    private XlsxSheetReader() {
+    }
+
+    /**
+     * Передает строки первого листа в обработчик по мере разбора файла, пустые строки пропускаются
+     */
+    static void read(Path file, Consumer<ImportRow> consumer) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            XSSFReader reader = new XSSFReader(pkg);
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        reader.getStylesTable(), null, strings, new RowCollector(consumer), new PlainNumberFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Не удалось прочитать файл Excel: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Целые числа выводит без экспоненты и разделителей (ИНН, ОГРН, коды материалов),
+     * даты и дробные значения форматирует стандартно
+     */
+    private static final class PlainNumberFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (value == Math.rint(value) && !Double.isInfinite(value) && !DateUtil.isADateFormat(formatIndex, formatString)) {
+                return BigDecimal.valueOf(value).toBigInteger().toString();
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+        }
+    }
+
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Consumer<ImportRow> consumer;
+        private List<String> cells;
+        private int nextColumn;
+
+        private RowCollector(Consumer<ImportRow> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new ArrayList<>();
+            nextColumn = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (!cells.isEmpty()) {
+                consumer.accept(new ImportRow(rowNum + 1, cells));
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? columnIndex(cellReference) : nextColumn;
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            cells.add(formattedValue);
+            nextColumn = column + 1;
+        }
+
+        /**
+         * Индекс колонки по ссылке на ячейку вида "AB12", без разбора регулярным выражением
+         */
+        private static int columnIndex(String cellReference) {
+            int column = 0;
+            for (int i = 0; i < cellReference.length(); i++) {
+                char c = cellReference.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                column = column * 26 + (c - 'A' + 1);
+            }
+            return column - 1;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.perminov.tender.service.notification;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничение скорости отправки писем на один почтовый домен. Каждая пачка резервирует
+ * интервал времени, следующая пачка того же домена ждет его окончания
+ */
+final class DomainRateLimiter {
+
+    private final long intervalNanos;
+    private final Map<String, Reservation> domains = new ConcurrentHashMap<>();
+
+    DomainRateLimiter(double permitsPerSecond) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    /**
+     * Блокирует поток, пока домен не сможет принять указанное количество писем
+     */
+    void acquire(String domain, int permits) throws InterruptedException {
+        long waitNanos = domains.computeIfAbsent(domain, key -> new Reservation()).reserve(permits);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private final class Reservation {
+
+        private long nextFreeNanos = System.nanoTime();
+
+        private synchronized long reserve(int permits) {
+            long now = System.nanoTime();
+            long start = Math.max(now, nextFreeNanos);
+            nextFreeNanos = start + permits * intervalNanos;
+            return start - now;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package ru.perminov.tender.service.notification;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.perminov.tender.dto.NotificationDispatchStatsDto;
+import ru.perminov.tender.model.Notification;
+import ru.perminov.tender.repository.NotificationRepository;
+import ru.perminov.tender.service.EmailService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Отправка уведомлений из очереди (таблица notifications, статус PENDING). Уведомления забираются пачками,
+ * группируются по почтовому домену и отправляются пулом потоков: одна пачка домена - одно SMTP-соединение,
+ * с ограничением скорости на домен и повтором с экспоненциальной задержкой при ошибке
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private final NotificationRepository notificationRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${notification.dispatcher.batch-size:200}")
+    private int batchSize;
+
+    @Value("${notification.dispatcher.messages-per-connection:50}")
+    private int messagesPerConnection;
+
+    @Value("${notification.dispatcher.threads:4}")
+    private int threads;
+
+    @Value("${notification.dispatcher.per-domain-rate:10}")
+    private double perDomainRate;
+
+    @Value("${notification.dispatcher.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${notification.dispatcher.retry-base-delay:30000}")
+    private long retryBaseDelay;
+
+    @Value("${notification.dispatcher.retry-max-delay:3600000}")
+    private long retryMaxDelay;
+
+    @Value("${notification.dispatcher.claim-timeout:600000}")
+    private long claimTimeout;
+
+    private ThreadPoolExecutor coordinator;
+    private ThreadPoolExecutor workers;
+    private DomainRateLimiter rateLimiter;
+
+    // Метрики
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchSendMillis = new LongAdder();
+    private final LongAdder deliveryLatencyMillis = new LongAdder();
+    private final AtomicLong maxDeliveryLatencyMillis = new AtomicLong();
+    private final SlidingCounter sentLastMinute = new SlidingCounter(60);
+
+    public NotificationDispatcher(NotificationRepository notificationRepository,
+                                  EmailService emailService,
+                                  PlatformTransactionManager transactionManager) {
+        this.notificationRepository = notificationRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void start() {
+        rateLimiter = new DomainRateLimiter(perDomainRate);
+        // Один координатор с очередью на один запуск: повторные запросы во время отправки схлопываются
+        coordinator = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                namedThreads("notification-dispatch-"), new ThreadPoolExecutor.DiscardPolicy());
+        workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(batchSize),
+                namedThreads("notification-sender-"), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        // Захваченные, но не отправленные уведомления вернутся в очередь по истечении claim-timeout
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Запускает отправку после фиксации текущей транзакции, чтобы обработчик увидел новые уведомления
+     */
+    public void dispatchAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestDispatch();
+                }
+            });
+        } else {
+            requestDispatch();
+        }
+    }
+
+    /**
+     * Запрашивает отправку ожидающих уведомлений, не дожидаясь ее окончания
+     */
+    public void requestDispatch() {
+        coordinator.execute(this::dispatch);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.dispatcher.poll-delay:5000}",
+            initialDelayString = "${notification.dispatcher.poll-delay:5000}")
+    public void poll() {
+        requestDispatch();
+    }
+
+    public NotificationDispatchStatsDto getStats() {
+        long sentCount = sent.sum();
+        long batchCount = batches.sum();
+        return new NotificationDispatchStatsDto(
+                notificationRepository.countByStatus(Notification.NotificationStatus.PENDING),
+                notificationRepository.countByStatus(Notification.NotificationStatus.SENDING),
+                sentCount,
+                retried.sum(),
+                failed.sum(),
+                sentLastMinute.sum(),
+                sentCount > 0 ? (double) deliveryLatencyMillis.sum() / sentCount : 0,
+                maxDeliveryLatencyMillis.get(),
+                batchCount,
+                batchCount > 0 ? (double) batchSendMillis.sum() / batchCount : 0
+        );
+    }
+
+    private void dispatch() {
+        try {
+            if (!emailService.isEmailServiceAvailable()) {
+                return;
+            }
+            List<Notification> claimed;
+            do {
+                claimed = claimBatch();
+                if (claimed.isEmpty()) {
+                    return;
+                }
+                long started = System.currentTimeMillis();
+                List<CompletableFuture<Void>> tasks = new ArrayList<>();
+                groupByDomain(claimed).forEach((domain, notifications) -> {
+                    for (int from = 0; from < notifications.size(); from += messagesPerConnection) {
+                        List<Notification> batch = notifications.subList(from, Math.min(from + messagesPerConnection, notifications.size()));
+                        tasks.add(CompletableFuture.runAsync(() -> sendBatch(domain, batch), workers));
+                    }
+                });
+                CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+                log.info("Обработано уведомлений из очереди: {} за {} мс, в очереди осталось {}", claimed.size(),
+                        System.currentTimeMillis() - started, notificationRepository.countByStatus(Notification.NotificationStatus.PENDING));
+            } while (claimed.size() == batchSize);
+        } catch (Exception e) {
+            log.error("Ошибка отправки уведомлений из очереди: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Захватывает пачку готовых к отправке уведомлений. Время следующей попытки у захваченных служит сроком
+     * аренды: если отправка не завершится к этому времени, уведомление вернется в очередь
+     */
+    private List<Notification> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            int released = notificationRepository.releaseExpiredClaims(now);
+            if (released > 0) {
+                log.warn("Возвращено в очередь {} уведомлений с истекшим захватом", released);
+            }
+            List<Notification> due = notificationRepository.findDueForDispatch(now, PageRequest.of(0, batchSize));
+            LocalDateTime claimExpiresAt = now.plus(Duration.ofMillis(claimTimeout));
+            for (Notification notification : due) {
+                notification.setStatus(Notification.NotificationStatus.SENDING);
+                notification.setNextAttemptAt(claimExpiresAt);
+            }
+            return due;
+        });
+    }
+
+    private Map<String, List<Notification>> groupByDomain(List<Notification> notifications) {
+        Map<String, List<Notification>> byDomain = new LinkedHashMap<>();
+        for (Notification notification : notifications) {
+            byDomain.computeIfAbsent(domainOf(notification.getRecipientEmail()), key -> new ArrayList<>()).add(notification);
+        }
+        return byDomain;
+    }
+
+    private void sendBatch(String domain, List<Notification> batch) {
+        Map<UUID, String> failures;
+        long started = System.currentTimeMillis();
+        try {
+            rateLimiter.acquire(domain, batch.size());
+            started = System.currentTimeMillis();
+            failures = emailService.sendNotifications(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            log.error("Ошибка отправки пачки уведомлений на домен {}: {}", domain, e.getMessage());
+            failures = new LinkedHashMap<>();
+            for (Notification notification : batch) {
+                failures.put(notification.getId(), e.getMessage());
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        batches.increment();
+        batchSendMillis.add(System.currentTimeMillis() - started);
+
+        List<UUID> sentIds = new ArrayList<>();
+        for (Notification notification : batch) {
+            if (!failures.containsKey(notification.getId())) {
+                sentIds.add(notification.getId());
+                recordDelivery(notification, now);
+            }
+        }
+        Map<UUID, String> failedNotifications = failures;
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                notificationRepository.markSent(sentIds, now);
+            }
+            for (Notification notification : batch) {
+                String error = failedNotifications.get(notification.getId());
+                if (error != null) {
+                    scheduleRetry(notification, error, now);
+                }
+            }
+        });
+    }
+
+    private void scheduleRetry(Notification notification, String error, LocalDateTime now) {
+        int attempts = notification.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            failed.increment();
+            log.error("Уведомление {} не отправлено после {} попыток: {}", notification.getId(), attempts, error);
+            notificationRepository.markAttemptFailed(notification.getId(), Notification.NotificationStatus.FAILED,
+                    attempts, null, error);
+            return;
+        }
+        retried.increment();
+        long delay = Math.min(retryMaxDelay, retryBaseDelay << Math.min(attempts - 1, 20));
+        delay += ThreadLocalRandom.current().nextLong(delay / 10 + 1); // разброс, чтобы повторы не совпадали
+        log.warn("Уведомление {} не отправлено (попытка {}), повтор через {} с: {}",
+                notification.getId(), attempts, delay / 1000, error);
+        notificationRepository.markAttemptFailed(notification.getId(), Notification.NotificationStatus.PENDING,
+                attempts, now.plus(Duration.ofMillis(delay)), error);
+    }
+
+    private void recordDelivery(Notification notification, LocalDateTime sentAt) {
+        sent.increment();
+        sentLastMinute.increment();
+        if (notification.getCreatedAt() != null) {
+            long latency = Duration.between(notification.getCreatedAt(), sentAt).toMillis();
+            deliveryLatencyMillis.add(latency);
+            maxDeliveryLatencyMillis.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    private static String domainOf(String email) {
+        if (email == null) {
+            return "";
+        }
+        int at = email.lastIndexOf('@');
+        return at >= 0 ? email.substring(at + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger number = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Счетчик событий за последние N секунд по секундным корзинам
+     */
+    private static final class SlidingCounter {
+
+        private final long[] seconds;
+        private final long[] counts;
+
+        private SlidingCounter(int windowSeconds) {
+            this.seconds = new long[windowSeconds];
+            this.counts = new long[windowSeconds];
+        }
+
+        private synchronized void increment() {
+            long now = System.currentTimeMillis() / 1000;
+            int index = (int) (now % seconds.length);
+            if (seconds[index] != now) {
+                seconds[index] = now;
+                counts[index] = 0;
+            }
+            counts[index]++;
+        }
+
+        private synchronized long sum() {
+            long now = System.currentTimeMillis() / 1000;
+            long total = 0;
+            for (int i = 0; i < seconds.length; i++) {
+                if (now - seconds[i] < seconds.length) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+    }
+}
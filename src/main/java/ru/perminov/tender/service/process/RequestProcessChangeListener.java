@@ -0,0 +1,42 @@
+package ru.perminov.tender.service.process;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Слушатель сущностей цепочки процесса заявки. Сообщает RequestProcessSummaryService об измененных документах,
+ * чтобы сводка пересчиталась в той же транзакции. Сервис берется лениво: слушатель создается вместе с фабрикой EntityManager
+ */
+@Component
+public class RequestProcessChangeListener {
+
+    private final ObjectProvider<RequestProcessSummaryService> summaryService;
+
+    public RequestProcessChangeListener(ObjectProvider<RequestProcessSummaryService> summaryService) {
+        this.summaryService = summaryService;
+    }
+
+    /**
+     * Загруженная, сохраняемая или удаляемая в пишущей транзакции сущность может быть сброшена в БД
+     * только при коммите, поэтому отслеживание транзакции начинается заранее
+     */
+    @PostLoad
+    @PrePersist
+    @PreRemove
+    void onAccess(Object entity) {
+        summaryService.getObject().track();
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onChange(Object entity) {
+        summaryService.getObject().changed(entity);
+    }
+}
@@ -0,0 +1,396 @@
+package ru.perminov.tender.service.process;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.perminov.tender.dto.ListingRequest;
+import ru.perminov.tender.dto.PageResponseDto;
+import ru.perminov.tender.dto.RequestProcessDto;
+import ru.perminov.tender.dto.RequestProcessSummaryDto;
+import ru.perminov.tender.model.*;
+import ru.perminov.tender.repository.RequestProcessSummaryRepository;
+import ru.perminov.tender.repository.RequestRepository;
+import ru.perminov.tender.repository.listing.Listings;
+import ru.perminov.tender.repository.listing.RequestProcessSummaryListing;
+import ru.perminov.tender.service.RequestProcessService;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Сводка процессов заявок (таблица request_process_summary). Слушатель сущностей цепочки отмечает измененные
+ * документы, перед коммитом транзакции они сводятся к заявкам и их строки пересчитываются в той же транзакции.
+ * Список процессов с фильтрами и сортировкой читается из одной таблицы
+ */
+@Slf4j
+@Service
+public class RequestProcessSummaryService {
+
+    // Заявок в одной транзакции полной пересборки
+    private static final int REBUILD_BATCH_SIZE = 500;
+    // Ограничение повторных проходов перед коммитом, пересчет сводки сам по себе новых изменений не порождает
+    private static final int MAX_REFRESH_ROUNDS = 5;
+
+    private final RequestProcessSummaryRepository summaryRepository;
+    private final RequestRepository requestRepository;
+    private final RequestProcessService requestProcessService;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${request-process-summary.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    public RequestProcessSummaryService(RequestProcessSummaryRepository summaryRepository,
+                                        RequestRepository requestRepository,
+                                        RequestProcessService requestProcessService,
+                                        PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.requestRepository = requestRepository;
+        this.requestProcessService = requestProcessService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponseDto<RequestProcessSummaryDto> getPage(ListingRequest listing, String status, String stage,
+                                                             UUID organizationId, UUID projectId,
+                                                             LocalDate dateFrom, LocalDate dateTo, String search) {
+        return Listings.fetch(summaryRepository,
+                RequestProcessSummaryListing.filter(status, stage, organizationId, projectId, dateFrom, dateTo, search),
+                listing, RequestProcessSummaryListing.SORT_FIELDS, RequestProcessSummaryListing.DEFAULT_SORT,
+                RequestProcessSummary::getId, rows -> rows.stream().map(this::toDto).toList());
+    }
+
+    /**
+     * Пересобирает сводку всех заявок пачками, каждая пачка в своей транзакции
+     */
+    public int rebuild() {
+        List<UUID> ids = requestRepository.findAllIds();
+        for (int from = 0; from < ids.size(); from += REBUILD_BATCH_SIZE) {
+            List<UUID> batch = ids.subList(from, Math.min(from + REBUILD_BATCH_SIZE, ids.size()));
+            transactionTemplate.executeWithoutResult(status -> refresh(batch, false));
+        }
+        log.info("Сводка процессов заявок пересобрана: {}", ids.size());
+        return ids.size();
+    }
+
+    /**
+     * Первичное заполнение после миграции и досборка, если строк сводки меньше, чем заявок
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfIncomplete() {
+        if (!rebuildOnStartup) return;
+        try {
+            long summaries = summaryRepository.count();
+            long requests = requestRepository.count();
+            if (summaries != requests) {
+                log.info("Сводка процессов заявок неполна ({} из {}), пересборка", summaries, requests);
+                rebuild();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Не удалось пересобрать сводку процессов заявок: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Начинает отслеживание текущей пишущей транзакции
+     */
+    void track() {
+        synchronization();
+    }
+
+    /**
+     * Отмечает изменение сущности цепочки в текущей транзакции
+     */
+    void changed(Object entity) {
+        SummarySynchronization synchronization = synchronization();
+        if (synchronization != null) {
+            synchronization.changes.add(entity);
+        } else {
+            log.debug("Изменение {} вне транзакции, сводка процесса не обновлена", entity.getClass().getSimpleName());
+        }
+    }
+
+    private SummarySynchronization synchronization() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof SummarySynchronization summarySynchronization) {
+                return summarySynchronization;
+            }
+        }
+        SummarySynchronization synchronization = new SummarySynchronization();
+        TransactionSynchronizationManager.registerSynchronization(synchronization);
+        return synchronization;
+    }
+
+    private final class SummarySynchronization implements TransactionSynchronization {
+
+        private final ChangedDocuments changes = new ChangedDocuments();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (readOnly) return;
+            // Изменения, которые иначе ушли бы в БД только при коммите, вызывают колбэки слушателя сейчас
+            entityManager.flush();
+            for (int round = 0; round < MAX_REFRESH_ROUNDS && !changes.isEmpty(); round++) {
+                ChangedDocuments batch = changes.drain();
+                refresh(resolveRequestIds(batch), true);
+                entityManager.flush();
+            }
+        }
+    }
+
+    /**
+     * Идентификаторы измененных документов по уровням цепочки. Берутся из самой сущности,
+     * в том числе удаленной, поэтому для документа запоминается его родитель, а не он сам
+     */
+    private static final class ChangedDocuments {
+
+        private final Set<UUID> requests = new HashSet<>();
+        private final Set<UUID> tenders = new HashSet<>();
+        private final Set<UUID> contracts = new HashSet<>();
+        private final Set<UUID> invoices = new HashSet<>();
+        private final Set<UUID> deliveries = new HashSet<>();
+
+        void add(Object entity) {
+            if (entity instanceof Request request) {
+                addId(requests, request.getId());
+            } else if (entity instanceof RequestMaterial material) {
+                addId(requests, material.getRequest() != null ? material.getRequest().getId() : null);
+            } else if (entity instanceof Tender tender) {
+                addId(requests, tender.getRequest() != null ? tender.getRequest().getId() : null);
+            } else if (entity instanceof TenderItem item) {
+                addId(tenders, item.getTender() != null ? item.getTender().getId() : null);
+            } else if (entity instanceof SupplierProposal proposal) {
+                addId(tenders, proposal.getTender() != null ? proposal.getTender().getId() : null);
+            } else if (entity instanceof Contract contract) {
+                addId(tenders, contract.getTender() != null ? contract.getTender().getId() : null);
+            } else if (entity instanceof Invoice invoice) {
+                addId(requests, invoice.getRequest() != null ? invoice.getRequest().getId() : null);
+                addId(contracts, invoice.getContract() != null ? invoice.getContract().getId() : null);
+            } else if (entity instanceof Delivery delivery) {
+                addId(contracts, delivery.getContract() != null ? delivery.getContract().getId() : null);
+            } else if (entity instanceof Receipt receipt) {
+                addId(invoices, receipt.getInvoice() != null ? receipt.getInvoice().getId() : null);
+                addId(deliveries, receipt.getDelivery() != null ? receipt.getDelivery().getId() : null);
+            }
+        }
+
+        boolean isEmpty() {
+            return requests.isEmpty() && tenders.isEmpty() && contracts.isEmpty()
+                    && invoices.isEmpty() && deliveries.isEmpty();
+        }
+
+        ChangedDocuments drain() {
+            ChangedDocuments copy = new ChangedDocuments();
+            copy.requests.addAll(requests);
+            copy.tenders.addAll(tenders);
+            copy.contracts.addAll(contracts);
+            copy.invoices.addAll(invoices);
+            copy.deliveries.addAll(deliveries);
+            requests.clear();
+            tenders.clear();
+            contracts.clear();
+            invoices.clear();
+            deliveries.clear();
+            return copy;
+        }
+
+        private static void addId(Set<UUID> ids, UUID id) {
+            if (id != null) ids.add(id);
+        }
+    }
+
+    private Set<UUID> resolveRequestIds(ChangedDocuments changes) {
+        Set<UUID> requestIds = new HashSet<>(changes.requests);
+        Set<UUID> contractIds = new HashSet<>(changes.contracts);
+        if (!changes.invoices.isEmpty()) {
+            requestIds.addAll(summaryRepository.findRequestIdsByInvoiceIds(changes.invoices));
+            contractIds.addAll(summaryRepository.findContractIdsByInvoiceIds(changes.invoices));
+        }
+        if (!changes.deliveries.isEmpty()) {
+            contractIds.addAll(summaryRepository.findContractIdsByDeliveryIds(changes.deliveries));
+        }
+        if (!contractIds.isEmpty()) {
+            requestIds.addAll(summaryRepository.findRequestIdsByContractIds(contractIds));
+        }
+        if (!changes.tenders.isEmpty()) {
+            requestIds.addAll(summaryRepository.findRequestIdsByTenderIds(changes.tenders));
+        }
+        return requestIds;
+    }
+
+    /**
+     * Пересчитывает строки сводки заявок. activity = true, если пересчет вызван изменением документов:
+     * тогда время последней активности - текущее, иначе оно оценивается по датам документов
+     */
+    private void refresh(Collection<UUID> requestIds, boolean activity) {
+        if (requestIds.isEmpty()) return;
+        // Строки блокируются до пересчета: параллельная транзакция по той же заявке ждет нашего коммита
+        // и пересчитывает сводку уже с нашими изменениями, а не перезаписывает ее своим снимком
+        Map<UUID, RequestProcessSummary> existing = summaryRepository.lockAllByIdIn(requestIds).stream()
+                .collect(Collectors.toMap(RequestProcessSummary::getId, Function.identity()));
+        List<RequestProcessDto> processes = requestProcessService.getRequestProcesses(requestIds);
+        LocalDateTime now = LocalDateTime.now();
+
+        Set<UUID> removed = new HashSet<>(existing.keySet());
+        for (RequestProcessDto process : processes) {
+            removed.remove(process.getRequestId());
+            // Заявка уже загружена сборкой процесса, повторного запроса нет
+            Request request = entityManager.find(Request.class, process.getRequestId());
+            RequestProcessSummary summary = existing.get(process.getRequestId());
+            if (summary == null) {
+                summary = new RequestProcessSummary();
+                summary.setId(process.getRequestId());
+                apply(summary, request, process, now, activity);
+                entityManager.persist(summary);
+            } else {
+                apply(summary, request, process, now, activity);
+            }
+        }
+        if (!removed.isEmpty()) {
+            summaryRepository.deleteByIdIn(removed);
+        }
+        log.debug("Пересчитана сводка процессов заявок: {}", processes.size());
+    }
+
+    private void apply(RequestProcessSummary summary, Request request, RequestProcessDto process,
+                       LocalDateTime now, boolean activity) {
+        summary.setRequestNumber(request.getRequestNumber());
+        summary.setRequestDate(request.getDate());
+        summary.setRequestStatus(request.getStatus());
+        summary.setOrganizationId(request.getOrganization() != null ? request.getOrganization().getId() : null);
+        summary.setProjectId(request.getProject() != null ? request.getProject().getId() : null);
+        summary.setApplicant(request.getApplicant());
+
+        List<RequestProcessDto.TenderProcessDto> tenders = nullSafe(process.getTenders());
+        List<RequestProcessDto.ContractProcessDto> contracts = nullSafe(process.getContracts());
+        List<RequestProcessDto.InvoiceProcessDto> invoices = nullSafe(process.getInvoices());
+        List<RequestProcessDto.DeliveryProcessDto> deliveries = nullSafe(process.getDeliveries());
+        // Поступление может быть привязано и к счету, и к поставке
+        Set<UUID> receiptIds = Stream.concat(
+                        invoices.stream().flatMap(invoice -> nullSafe(invoice.getReceipts()).stream()),
+                        deliveries.stream().flatMap(delivery -> nullSafe(delivery.getReceipts()).stream()))
+                .map(RequestProcessDto.ReceiptProcessDto::getReceiptId)
+                .collect(Collectors.toSet());
+
+        summary.setTendersCount(process.getTendersCount());
+        summary.setProposalsCount(tenders.stream().mapToInt(RequestProcessDto.TenderProcessDto::getProposalsCount).sum());
+        summary.setContractsCount(process.getContractsCount());
+        summary.setInvoicesCount(process.getInvoicesCount());
+        summary.setDeliveriesCount(process.getDeliveriesCount());
+        summary.setReceiptsCount(receiptIds.size());
+
+        summary.setRequestTotalAmount(money(process.getRequestTotalAmount()));
+        summary.setTenderTotalAmount(money(process.getTenderTotalAmount()));
+        summary.setContractTotalAmount(money(sum(contracts.stream().map(RequestProcessDto.ContractProcessDto::getTotalAmount))));
+        summary.setInvoiceTotalAmount(money(sum(invoices.stream().map(RequestProcessDto.InvoiceProcessDto::getTotalAmount))));
+        summary.setPaidAmount(money(sum(invoices.stream().map(RequestProcessDto.InvoiceProcessDto::getPaidAmount))));
+
+        LocalDateTime activityAt;
+        if (activity) {
+            activityAt = now;
+        } else if (summary.getLastActivityAt() != null) {
+            activityAt = summary.getLastActivityAt();
+        } else {
+            activityAt = lastDocumentDate(process, tenders, contracts, invoices, deliveries);
+        }
+        RequestProcessSummary.Stage stage = stage(summary, receiptIds.size());
+        if (stage != summary.getStage() || summary.getStageChangedAt() == null) {
+            summary.setStageChangedAt(activityAt);
+        }
+        summary.setStage(stage);
+        summary.setLastActivityAt(activityAt);
+        summary.setUpdatedAt(now);
+    }
+
+    private static RequestProcessSummary.Stage stage(RequestProcessSummary summary, int receiptsCount) {
+        if (receiptsCount > 0) return RequestProcessSummary.Stage.RECEIPT;
+        if (summary.getDeliveriesCount() > 0) return RequestProcessSummary.Stage.DELIVERY;
+        if (summary.getInvoicesCount() > 0) return RequestProcessSummary.Stage.INVOICE;
+        if (summary.getContractsCount() > 0) return RequestProcessSummary.Stage.CONTRACT;
+        if (summary.getProposalsCount() > 0) return RequestProcessSummary.Stage.PROPOSALS;
+        if (summary.getTendersCount() > 0) return RequestProcessSummary.Stage.TENDER;
+        return RequestProcessSummary.Stage.REQUEST;
+    }
+
+    private static LocalDateTime lastDocumentDate(RequestProcessDto process,
+                                                  List<RequestProcessDto.TenderProcessDto> tenders,
+                                                  List<RequestProcessDto.ContractProcessDto> contracts,
+                                                  List<RequestProcessDto.InvoiceProcessDto> invoices,
+                                                  List<RequestProcessDto.DeliveryProcessDto> deliveries) {
+        Stream<LocalDate> dates = Stream.of(
+                Stream.of(process.getRequestDate()),
+                tenders.stream().map(RequestProcessDto.TenderProcessDto::getTenderDate),
+                tenders.stream().flatMap(tender -> nullSafe(tender.getProposals()).stream())
+                        .map(RequestProcessDto.SupplierProposalDto::getSubmissionDate),
+                contracts.stream().map(RequestProcessDto.ContractProcessDto::getContractDate),
+                invoices.stream().flatMap(invoice -> Stream.of(invoice.getInvoiceDate(), invoice.getPaymentDate())),
+                deliveries.stream().map(RequestProcessDto.DeliveryProcessDto::getActualDate),
+                invoices.stream().flatMap(invoice -> nullSafe(invoice.getReceipts()).stream())
+                        .map(RequestProcessDto.ReceiptProcessDto::getReceiptDate),
+                deliveries.stream().flatMap(delivery -> nullSafe(delivery.getReceipts()).stream())
+                        .map(RequestProcessDto.ReceiptProcessDto::getReceiptDate)
+        ).flatMap(Function.identity());
+        return dates.filter(Objects::nonNull).max(Comparator.naturalOrder())
+                .map(LocalDate::atStartOfDay)
+                .orElse(null);
+    }
+
+    private RequestProcessSummaryDto toDto(RequestProcessSummary summary) {
+        return new RequestProcessSummaryDto(
+                summary.getId(),
+                summary.getRequestNumber(),
+                summary.getRequestDate(),
+                summary.getRequestStatus() != null ? summary.getRequestStatus().name() : null,
+                summary.getOrganizationId(),
+                summary.getProjectId(),
+                summary.getApplicant(),
+                summary.getStage().name(),
+                summary.getTendersCount(),
+                summary.getProposalsCount(),
+                summary.getContractsCount(),
+                summary.getInvoicesCount(),
+                summary.getDeliveriesCount(),
+                summary.getReceiptsCount(),
+                summary.getRequestTotalAmount(),
+                summary.getTenderTotalAmount(),
+                summary.getContractTotalAmount(),
+                summary.getInvoiceTotalAmount(),
+                summary.getPaidAmount(),
+                summary.getStageChangedAt(),
+                summary.getLastActivityAt()
+        );
+    }
+
+    private static <T> List<T> nullSafe(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static BigDecimal sum(Stream<BigDecimal> amounts) {
+        return amounts.filter(Objects::nonNull).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static BigDecimal money(BigDecimal amount) {
+        return (amount != null ? amount : BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,4 @@
+-- Сохраненная экономия по тендеру (NULL - требуется пересчет после изменения предложений)
+ALTER TABLE tenders ADD COLUMN savings DOUBLE PRECISION;
+
+CREATE INDEX idx_tenders_savings_null ON tenders(id) WHERE savings IS NULL;
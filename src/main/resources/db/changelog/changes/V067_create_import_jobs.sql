@@ -0,0 +1,34 @@
+-- Фоновые задания импорта справочников из Excel
+
+CREATE TABLE import_jobs (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    import_type VARCHAR(50) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    file_name VARCHAR(255),
+    file_path VARCHAR(1000),
+    column_mapping TEXT,
+    created_by VARCHAR(255),
+    processed_rows INTEGER NOT NULL DEFAULT 0,
+    imported_rows INTEGER NOT NULL DEFAULT 0,
+    error_count INTEGER NOT NULL DEFAULT 0,
+    -- Последняя строка файла, сохраненная вместе со своей пачкой; с нее продолжается возобновленное задание
+    last_committed_row INTEGER NOT NULL DEFAULT 0,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    failure_message TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_import_jobs_status ON import_jobs(status);
+CREATE INDEX idx_import_jobs_created_at ON import_jobs(created_at DESC);
+
+CREATE TABLE import_job_errors (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    job_id UUID NOT NULL REFERENCES import_jobs(id) ON DELETE CASCADE,
+    row_number INTEGER NOT NULL,
+    message TEXT
+);
+
+CREATE INDEX idx_import_job_errors_job ON import_job_errors(job_id, row_number);
@@ -0,0 +1,7 @@
+-- Очередь отправки уведомлений: число попыток и время следующей попытки с экспоненциальной задержкой
+ALTER TABLE notifications ADD COLUMN attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE notifications ADD COLUMN next_attempt_at TIMESTAMP;
+
+UPDATE notifications SET next_attempt_at = created_at WHERE status = 'PENDING';
+
+CREATE INDEX idx_notifications_dispatch ON notifications(next_attempt_at) WHERE status = 'PENDING';
@@ -0,0 +1,15 @@
+-- Отозванные JWT токены (выход из системы, ротация refresh токенов)
+
+CREATE TABLE revoked_tokens (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    -- SHA-256 токена в Base64, сам токен не хранится
+    token_hash VARCHAR(64) NOT NULL UNIQUE,
+    user_id UUID,
+    reason VARCHAR(50),
+    -- Срок действия токена, после него запись можно удалить
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens(revoked_at);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
@@ -0,0 +1,35 @@
+-- Денормализованная сводка процесса заявки (тендеры -> предложения -> контракты -> счета -> поставки -> поступления).
+-- Обновляется в транзакции, изменившей любую сущность цепочки, список процессов читается из одной таблицы
+
+CREATE TABLE request_process_summary (
+    request_id UUID PRIMARY KEY REFERENCES requests(id) ON DELETE CASCADE,
+    request_number VARCHAR(255),
+    request_date DATE,
+    request_status VARCHAR(50),
+    organization_id UUID,
+    project_id UUID,
+    applicant VARCHAR(255),
+    -- Самый дальний достигнутый этап: REQUEST, TENDER, PROPOSALS, CONTRACT, INVOICE, DELIVERY, RECEIPT
+    stage VARCHAR(20) NOT NULL,
+    tenders_count INTEGER NOT NULL DEFAULT 0,
+    proposals_count INTEGER NOT NULL DEFAULT 0,
+    contracts_count INTEGER NOT NULL DEFAULT 0,
+    invoices_count INTEGER NOT NULL DEFAULT 0,
+    deliveries_count INTEGER NOT NULL DEFAULT 0,
+    receipts_count INTEGER NOT NULL DEFAULT 0,
+    request_total_amount NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    tender_total_amount NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    contract_total_amount NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    invoice_total_amount NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    paid_amount NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    stage_changed_at TIMESTAMP,
+    last_activity_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_request_process_summary_date ON request_process_summary(request_date DESC, request_id DESC);
+CREATE INDEX idx_request_process_summary_stage ON request_process_summary(stage, request_date DESC);
+CREATE INDEX idx_request_process_summary_status ON request_process_summary(request_status, request_date DESC);
+CREATE INDEX idx_request_process_summary_organization ON request_process_summary(organization_id, request_date DESC);
+CREATE INDEX idx_request_process_summary_project ON request_process_summary(project_id, request_date DESC);
+CREATE INDEX idx_request_process_summary_activity ON request_process_summary(last_activity_at DESC);
@@ -0,0 +1,20 @@
+--liquibase formatted sql
+
+--changeset system:V071_request_registry_indexes
+-- Фильтры реестра заявок по организации и датам, сортировка по дате
+CREATE INDEX IF NOT EXISTS idx_requests_date ON requests(date, id);
+CREATE INDEX IF NOT EXISTS idx_requests_company_date ON requests(company_id, date);
+CREATE INDEX IF NOT EXISTS idx_requests_project_id ON requests(project_id);
+
+--changeset system:V071_request_registry_trigram_indexes dbms:postgresql
+-- Поиск подстроки LOWER(name) LIKE '%...%' по организации, проекту и материалу через триграммные GIN индексы
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_companies_name_trgm ON companies USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_projects_name_trgm ON projects USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_materials_name_trgm ON materials USING gin (lower(name) gin_trgm_ops);
+
+--changeset system:V071_request_registry_name_indexes_h2 dbms:h2
+-- В H2 нет триграммных индексов, поиск подстроки выполняется сканированием, индексы по имени для точных совпадений
+CREATE INDEX IF NOT EXISTS idx_companies_name ON companies(name);
+CREATE INDEX IF NOT EXISTS idx_projects_name ON projects(name);
+CREATE INDEX IF NOT EXISTS idx_materials_name ON materials(name);
@@ -0,0 +1,10 @@
+-- Кэш карточек контрагентов из реестра ФНС (api-fns.ru) по ИНН
+
+CREATE TABLE fns_company_cache (
+    inn VARCHAR(12) PRIMARY KEY,
+    -- Карточка контрагента в JSON, NULL - контрагент в реестре не найден
+    data TEXT,
+    fetched_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_fns_company_cache_fetched_at ON fns_company_cache(fetched_at);
@@ -0,0 +1,32 @@
+-- Инкрементальные проверки алертов: водяные знаки проверок, ключ дедупликации алертов и индексы по срокам
+
+CREATE TABLE alert_scan_watermarks (
+    check_name VARCHAR(50) PRIMARY KEY,
+    -- Граница сроков, до которой строки уже проверены
+    due_watermark TIMESTAMP,
+    -- Время начала последней проверки: строки, измененные позже, проверяются повторно
+    updated_watermark TIMESTAMP,
+    last_run_at TIMESTAMP,
+    last_created INTEGER NOT NULL DEFAULT 0
+);
+
+INSERT INTO alert_scan_watermarks (check_name) VALUES
+    ('OVERDUE_DELIVERIES'),
+    ('PAYMENT_DEADLINES'),
+    ('TENDER_DEADLINES'),
+    ('CONTRACT_EXPIRATION'),
+    ('BUDGET_LIMITS'),
+    ('SUPPLIER_RATINGS');
+
+-- Тип алерта, сущность и условие: повторная проверка не создает второй алерт
+ALTER TABLE alerts ADD COLUMN dedup_key VARCHAR(200);
+CREATE UNIQUE INDEX idx_alerts_dedup_key ON alerts(dedup_key);
+
+CREATE INDEX idx_deliveries_updated_at ON deliveries(updated_at);
+CREATE INDEX idx_payments_due_date_open ON payments(due_date) WHERE status IN ('PENDING', 'APPROVED', 'OVERDUE');
+CREATE INDEX idx_payments_updated_at ON payments(updated_at);
+CREATE INDEX idx_tenders_submission_deadline_open ON tenders(submission_deadline) WHERE status IN ('PUBLISHED', 'BIDDING');
+CREATE INDEX idx_contracts_end_date_active ON contracts(end_date) WHERE status = 'ACTIVE';
+CREATE INDEX idx_contracts_updated_at ON contracts(updated_at);
+CREATE INDEX idx_budgets_updated_at ON budgets(updated_at);
+CREATE INDEX idx_supplier_ratings_updated_at ON supplier_ratings(updated_at);
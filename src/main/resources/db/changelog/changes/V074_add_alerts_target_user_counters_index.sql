@@ -0,0 +1,5 @@
+-- Счетчики алертов пользователя (непрочитанные, срочные, всего) считаются одним проходом по этому индексу,
+-- без обращения к таблице. Индекс по одному target_user покрывается им как префиксом
+CREATE INDEX idx_alerts_target_user_counters ON alerts(target_user, is_read, severity, status);
+
+DROP INDEX IF EXISTS idx_alerts_target_user;
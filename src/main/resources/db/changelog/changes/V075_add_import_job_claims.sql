@@ -0,0 +1,13 @@
+-- Задание импорта выполняет один узел: он захватывает задание условным UPDATE и продлевает аренду heartbeat_at.
+-- Задание с истекшей арендой может продолжить другой узел
+
+ALTER TABLE import_jobs ADD COLUMN owner VARCHAR(255);
+ALTER TABLE import_jobs ADD COLUMN heartbeat_at TIMESTAMP;
+
+-- Файл задания хранится в базе, а не на диске узла, который его принял
+CREATE TABLE import_job_files (
+    job_id UUID PRIMARY KEY REFERENCES import_jobs(id) ON DELETE CASCADE,
+    content BYTEA NOT NULL
+);
+
+ALTER TABLE import_jobs DROP COLUMN file_path;
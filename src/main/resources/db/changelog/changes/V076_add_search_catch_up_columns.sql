@@ -0,0 +1,29 @@
+-- Поисковый индекс каждого узла догоняет изменения других узлов по updated_at индексируемых таблиц.
+-- Триггеры обновляют updated_at и при массовых UPDATE в обход сущностей
+
+ALTER TABLE tenders ALTER COLUMN updated_at SET DEFAULT CURRENT_TIMESTAMP;
+
+ALTER TABLE supplier_material_names ADD COLUMN updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP;
+
+CREATE TRIGGER update_supplier_material_names_updated_at
+    BEFORE UPDATE ON supplier_material_names
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER update_brands_updated_at
+    BEFORE UPDATE ON brands
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER update_manufacturers_updated_at
+    BEFORE UPDATE ON manufacturers
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+CREATE INDEX IF NOT EXISTS idx_materials_updated_at ON materials(updated_at);
+CREATE INDEX IF NOT EXISTS idx_companies_updated_at ON companies(updated_at);
+CREATE INDEX IF NOT EXISTS idx_tenders_updated_at ON tenders(updated_at);
+CREATE INDEX IF NOT EXISTS idx_requests_updated_at ON requests(updated_at);
+CREATE INDEX IF NOT EXISTS idx_supplier_material_names_updated_at ON supplier_material_names(updated_at);
+CREATE INDEX IF NOT EXISTS idx_brands_updated_at ON brands(updated_at);
+CREATE INDEX IF NOT EXISTS idx_manufacturers_updated_at ON manufacturers(updated_at);